@@ -21,6 +21,7 @@ import static com.hedera.hapi.node.base.ResponseCodeEnum.INVALID_PAYER_SIGNATURE
 import static com.hedera.hapi.node.base.ResponseCodeEnum.UNKNOWN;
 import static com.hedera.node.app.spi.HapiUtils.TIMESTAMP_COMPARATOR;
 import static java.util.Collections.emptyList;
+import static java.util.Objects.requireNonNull;
 
 import com.hedera.hapi.node.base.AccountID;
 import com.hedera.hapi.node.base.ResponseCodeEnum;
@@ -36,6 +37,7 @@ import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -81,17 +83,10 @@ public interface RecordCache {
      * <p>The {@code childRecords} list contains a list of all child transactions of the original user transaction.
      * Duplicate transactions never have child transactions.
      *
-     * @param nodeIds The IDs of every node that submitted a transaction with the txId that came to consensus and was
-     * handled. This is an unordered set, since deterministic ordering is not required for this in-memory
-     * data structure
-     * @param records Every {@link TransactionRecord} handled for every user transaction that came to consensus
-     * @param childRecords The list of child records
+     * <p>A history also remembers the payers its transaction ID was indexed for when looking up records by payer, so
+     * each payer only indexes it once. These are only tracked on the "handle" thread, or during startup and reconnect.
      */
-    record History(
-            @NonNull Set<Long> nodeIds,
-            @NonNull List<TransactionRecord> records,
-            @NonNull List<TransactionRecord> childRecords) {
-
+    final class History {
         /**
          * This receipt is returned whenever we know there is a transaction pending (i.e. we have a history for a
          * transaction ID), but we do not yet have a record for it.
@@ -99,6 +94,14 @@ public interface RecordCache {
         private static final TransactionReceipt PENDING_RECEIPT =
                 TransactionReceipt.newBuilder().status(UNKNOWN).build();
 
+        private final Set<Long> nodeIds;
+        private final List<TransactionRecord> records;
+        private final List<TransactionRecord> childRecords;
+        /** The first payer this history was indexed for, which is the payer of every record in the common case. */
+        private AccountID indexedPayer;
+        /** Any other payers this history was indexed for, created only when a duplicate has a different payer. */
+        private Set<AccountID> otherIndexedPayers;
+
         /**
          * Create a new {@link History} instance with empty lists.
          */
@@ -106,6 +109,76 @@ public interface RecordCache {
             this(new HashSet<>(), new ArrayList<>(), new ArrayList<>());
         }
 
+        /**
+         * Create a new {@link History} instance with the given contents.
+         *
+         * @param nodeIds The IDs of every node that submitted a transaction with the txId that came to consensus and
+         * was handled. This is an unordered set, since deterministic ordering is not required for this in-memory
+         * data structure
+         * @param records Every {@link TransactionRecord} handled for every user transaction that came to consensus
+         * @param childRecords The list of child records
+         */
+        public History(
+                @NonNull final Set<Long> nodeIds,
+                @NonNull final List<TransactionRecord> records,
+                @NonNull final List<TransactionRecord> childRecords) {
+            this.nodeIds = requireNonNull(nodeIds);
+            this.records = requireNonNull(records);
+            this.childRecords = requireNonNull(childRecords);
+        }
+
+        /**
+         * Gets the IDs of every node that submitted a transaction with the txId that came to consensus and was
+         * handled.
+         *
+         * @return The node IDs.
+         */
+        @NonNull
+        public Set<Long> nodeIds() {
+            return nodeIds;
+        }
+
+        /**
+         * Gets every {@link TransactionRecord} handled for every user transaction that came to consensus.
+         *
+         * @return The user transaction and duplicate records.
+         */
+        @NonNull
+        public List<TransactionRecord> records() {
+            return records;
+        }
+
+        /**
+         * Gets the child records of the original user transaction.
+         *
+         * @return The child records.
+         */
+        @NonNull
+        public List<TransactionRecord> childRecords() {
+            return childRecords;
+        }
+
+        /**
+         * Records that this history was indexed for the given payer.
+         *
+         * @param payerId The payer
+         * @return true if this history was not already indexed for the payer
+         */
+        public boolean addIndexedPayer(@NonNull final AccountID payerId) {
+            requireNonNull(payerId);
+            if (indexedPayer == null) {
+                indexedPayer = payerId;
+                return true;
+            }
+            if (indexedPayer.equals(payerId)) {
+                return false;
+            }
+            if (otherIndexedPayers == null) {
+                otherIndexedPayers = new HashSet<>();
+            }
+            return otherIndexedPayers.add(payerId);
+        }
+
         /**
          * Gets the primary record, that is, the record associated with the user transaction itself. This record
          * will be associated with a transaction ID with a nonce of 0 and no parent consensus timestamp.
@@ -166,6 +239,27 @@ public interface RecordCache {
         private List<TransactionRecord> sortedRecords() {
             return records.stream().sorted(RECORD_COMPARATOR).toList();
         }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            return o instanceof History that
+                    && nodeIds.equals(that.nodeIds)
+                    && records.equals(that.records)
+                    && childRecords.equals(that.childRecords);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(nodeIds, records, childRecords);
+        }
+
+        @Override
+        public String toString() {
+            return "History[nodeIds=" + nodeIds + ", records=" + records + ", childRecords=" + childRecords + "]";
+        }
     }
 
     /**
@@ -0,0 +1,255 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.node.app.grpc.impl;
+
+import com.hedera.hapi.node.base.AccountID;
+import com.hedera.hapi.node.base.Duration;
+import com.hedera.hapi.node.base.SignatureMap;
+import com.hedera.hapi.node.base.SignaturePair;
+import com.hedera.hapi.node.base.Timestamp;
+import com.hedera.hapi.node.base.TopicID;
+import com.hedera.hapi.node.base.Transaction;
+import com.hedera.hapi.node.base.TransactionID;
+import com.hedera.hapi.node.consensus.ConsensusSubmitMessageTransactionBody;
+import com.hedera.hapi.node.transaction.SignedTransaction;
+import com.hedera.hapi.node.transaction.TransactionBody;
+import com.hedera.node.app.fixtures.AppTestBase;
+import com.hedera.node.app.spi.workflows.PreCheckException;
+import com.hedera.node.app.state.DeduplicationCache;
+import com.hedera.node.app.workflows.TransactionChecker;
+import com.hedera.node.app.workflows.ingest.IngestWorkflow;
+import com.hedera.node.app.workflows.ingest.SubmissionManager;
+import com.hedera.pbj.runtime.io.buffer.BufferedData;
+import com.hedera.pbj.runtime.io.buffer.Bytes;
+import com.swirlds.common.context.PlatformContext;
+import com.swirlds.common.crypto.Signature;
+import com.swirlds.common.notification.NotificationEngine;
+import com.swirlds.common.platform.NodeId;
+import com.swirlds.common.utility.AutoCloseableWrapper;
+import com.swirlds.platform.system.Platform;
+import com.swirlds.platform.system.SwirldState;
+import com.swirlds.platform.system.address.AddressBook;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import io.grpc.stub.StreamObserver;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the ingest path of a transaction from the request buffer of the gRPC marshaller to the submission to the
+ * platform, comparing the transaction method, which hands the request array over to the platform, with a method that
+ * passes the request on as {@link Bytes}, which have to be copied once more for the platform. The transaction is
+ * parsed and checked by a real {@link TransactionChecker} and submitted by a real {@link SubmissionManager}.
+ *
+ * <p>The interesting number is the allocation per transaction. Run with the gc profiler ({@code -prof gc}) and
+ * compare {@code gc.alloc.rate.norm} of both benchmarks.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, warmups = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IngestAllocationBenchmark extends AppTestBase {
+    private static final AccountID NODE = AccountID.newBuilder().accountNum(3L).build();
+    private static final AccountID PAYER = AccountID.newBuilder().accountNum(1234L).build();
+    private static final String SERVICE_NAME = "proto.ConsensusService";
+
+    /** Size of the message of the submitted transaction */
+    @Param({"100", "1024", "4096"})
+    public int messageSize;
+
+    private BufferedData requestBuffer;
+    private TransactionMethod ownedArrayMethod;
+    private MethodBase copiedBytesMethod;
+    private final StreamObserver<BufferedData> responseObserver = new NoOpStreamObserver();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final var app = appBuilder().build();
+        final var configProvider = app.configProvider();
+        final var checker = new TransactionChecker(6144, NODE, configProvider, metrics);
+        final var submissionManager =
+                new SubmissionManager(new SinkPlatform(), new NoOpDeduplicationCache(), configProvider, metrics);
+        final var workflow = new BenchmarkIngestWorkflow(checker, submissionManager);
+
+        ownedArrayMethod = new TransactionMethod(SERVICE_NAME, "submitMessage", workflow, metrics);
+        copiedBytesMethod = new MethodBase(SERVICE_NAME, "submitMessageCopied", metrics) {
+            @Override
+            protected void handle(@NonNull final Bytes requestBuffer, @NonNull final BufferedData responseBuffer) {
+                workflow.submitTransaction(requestBuffer, responseBuffer);
+            }
+        };
+
+        final var body = TransactionBody.newBuilder()
+                .transactionID(TransactionID.newBuilder()
+                        .accountID(PAYER)
+                        .transactionValidStart(Timestamp.newBuilder()
+                                .seconds(Instant.now().getEpochSecond())
+                                .build())
+                        .build())
+                .nodeAccountID(NODE)
+                .transactionFee(100_000_000L)
+                .transactionValidDuration(Duration.newBuilder().seconds(120L).build())
+                .memo("benchmark")
+                .consensusSubmitMessage(ConsensusSubmitMessageTransactionBody.newBuilder()
+                        .topicID(TopicID.newBuilder().topicNum(1001L).build())
+                        .message(Bytes.wrap(new byte[messageSize]))
+                        .build())
+                .build();
+        final var signatureMap = SignatureMap.newBuilder()
+                .sigPair(List.of(SignaturePair.newBuilder()
+                        .pubKeyPrefix(Bytes.wrap(new byte[] {1, 2, 3}))
+                        .ed25519(Bytes.wrap(new byte[64]))
+                        .build()))
+                .build();
+        final var signedTransaction = SignedTransaction.newBuilder()
+                .bodyBytes(TransactionBody.PROTOBUF.toBytes(body))
+                .sigMap(signatureMap)
+                .build();
+        final var transaction = Transaction.newBuilder()
+                .signedTransactionBytes(SignedTransaction.PROTOBUF.toBytes(signedTransaction))
+                .build();
+        requestBuffer = BufferedData.wrap(Transaction.PROTOBUF.toBytes(transaction).toByteArray());
+    }
+
+    /** The transaction method, the request array is handed over to the platform. */
+    @Benchmark
+    public void ownedArray() {
+        ownedArrayMethod.invoke(requestBuffer, responseObserver);
+    }
+
+    /** A method that passes the request on as {@link Bytes}, copied once more before submission to the platform. */
+    @Benchmark
+    public void copiedBytes() {
+        copiedBytesMethod.invoke(requestBuffer, responseObserver);
+    }
+
+    /**
+     * The part of the ingest workflow that touches the transaction bytes. The checks against state are left out, they
+     * do not depend on how the bytes are passed along.
+     */
+    private record BenchmarkIngestWorkflow(
+            @NonNull TransactionChecker checker, @NonNull SubmissionManager submissionManager)
+            implements IngestWorkflow {
+        @Override
+        public void submitTransaction(@NonNull final Bytes requestBuffer, @NonNull final BufferedData responseBuffer) {
+            try {
+                final var txInfo = checker.parseAndCheck(requestBuffer);
+                submissionManager.submit(txInfo.txBody(), requestBuffer);
+            } catch (final PreCheckException e) {
+                throw new IllegalStateException("Benchmark transaction failed the checks", e);
+            }
+        }
+
+        @Override
+        public void submitTransaction(@NonNull final byte[] requestBytes, @NonNull final BufferedData responseBuffer) {
+            try {
+                final var txInfo = checker.parseAndCheck(Bytes.wrap(requestBytes));
+                submissionManager.submitOwned(txInfo.txBody(), requestBytes);
+            } catch (final PreCheckException e) {
+                throw new IllegalStateException("Benchmark transaction failed the checks", e);
+            }
+        }
+    }
+
+    /** A platform that accepts and drops every transaction. */
+    private static final class SinkPlatform implements Platform {
+        @Override
+        public PlatformContext getContext() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public NotificationEngine getNotificationEngine() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AddressBook getAddressBook() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public NodeId getSelfId() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T extends SwirldState> AutoCloseableWrapper<T> getLatestImmutableState(@NonNull final String reason) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean createTransaction(@NonNull final byte[] transaction) {
+            return true;
+        }
+
+        @Override
+        public Signature sign(@NonNull final byte[] data) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void start() {
+            // Nothing to start
+        }
+    }
+
+    /** A cache that never reports a duplicate, as every iteration submits the same transaction. */
+    private static final class NoOpDeduplicationCache implements DeduplicationCache {
+        @Override
+        public void add(@NonNull final TransactionID transactionID) {
+            // Nothing to remember
+        }
+
+        @Override
+        public boolean contains(@NonNull final TransactionID transactionID) {
+            return false;
+        }
+
+        @Override
+        public void clear() {
+            // Nothing to clear
+        }
+    }
+
+    private static final class NoOpStreamObserver implements StreamObserver<BufferedData> {
+        @Override
+        public void onNext(final BufferedData value) {
+            // The response is not interesting here
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            throw new IllegalStateException("Benchmark transaction failed", t);
+        }
+
+        @Override
+        public void onCompleted() {
+            // Nothing to complete
+        }
+    }
+}
@@ -20,10 +20,17 @@ import com.hedera.hapi.node.base.Key;
 import com.hedera.hapi.node.base.SignaturePair;
 import com.hedera.node.app.fixtures.AppTestBase;
 import com.hedera.node.app.signature.ExpandedSignaturePair;
+import com.hedera.node.app.signature.SignatureVerificationFuture;
 import com.hedera.node.app.spi.fixtures.Scenarios;
 import com.hedera.pbj.runtime.io.buffer.Bytes;
+import com.swirlds.common.crypto.CryptographyHolder;
+import java.security.GeneralSecurityException;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -37,19 +44,35 @@ import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
 
-/** Measures the amount of time to prepare expanded signatures and call the crypto engine */
+/**
+ * Measures the amount of time to prepare expanded signatures and call the crypto engine, and the amount of time to
+ * fully verify all signatures of a transaction with the real crypto engine. Transactions with many signatures are
+ * typical for threshold keys and key lists.
+ */
 @State(Scope.Benchmark)
 @Fork(value = 1, warmups = 1)
 @BenchmarkMode(Mode.AverageTime)
 @OutputTimeUnit(TimeUnit.NANOSECONDS)
 public class VerificationBenchmark extends AppTestBase implements Scenarios {
-    @Param({"1", "2", "5", "10"})
+    @Param({"1", "2", "5", "10", "25", "50"})
     public int numSigPairs;
 
     private Set<ExpandedSignaturePair> sigPairs;
     private Bytes fakeSignedBytes;
     private SignatureVerifierImpl subject;
 
+    private Set<ExpandedSignaturePair> signedSigPairs;
+    private Bytes signedBytes;
+    private SignatureVerifierImpl realSubject;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("removal")
+    public void setUpSigned() throws GeneralSecurityException {
+        signedBytes = randomBytes(1024);
+        signedSigPairs = createSignedSigPairs(numSigPairs, signedBytes);
+        realSubject = new SignatureVerifierImpl(CryptographyHolder.get());
+    }
+
     @Setup(Level.Invocation)
     public void setUp() {
         sigPairs = createSigPairs(numSigPairs);
@@ -63,6 +86,15 @@ public class VerificationBenchmark extends AppTestBase implements Scenarios {
         blackhole.consume(subject.verify(fakeSignedBytes, sigPairs));
     }
 
+    /** Verifies all signatures of a transaction, and waits for all of them to be verified */
+    @Benchmark
+    public void verifyAndWaitBench(Blackhole blackhole) throws InterruptedException, ExecutionException {
+        final var futures = realSubject.verify(signedBytes, signedSigPairs);
+        for (final SignatureVerificationFuture future : futures.values()) {
+            blackhole.consume(future.get().passed());
+        }
+    }
+
     private Set<ExpandedSignaturePair> createSigPairs(int numSigPairs) {
         final var pairs = new HashSet<ExpandedSignaturePair>();
         for (int i = 0; i < numSigPairs; i++) {
@@ -76,4 +108,27 @@ public class VerificationBenchmark extends AppTestBase implements Scenarios {
         }
         return pairs;
     }
+
+    private static Set<ExpandedSignaturePair> createSignedSigPairs(int numSigPairs, Bytes signedBytes)
+            throws GeneralSecurityException {
+        final var message = signedBytes.toByteArray();
+        final var keyPairGenerator = KeyPairGenerator.getInstance("Ed25519");
+        final var pairs = new HashSet<ExpandedSignaturePair>();
+        for (int i = 0; i < numSigPairs; i++) {
+            final var keyPair = keyPairGenerator.generateKeyPair();
+            // The X.509 encoding of an Ed25519 public key ends with the raw 32 key bytes
+            final var encoded = keyPair.getPublic().getEncoded();
+            final var keyBytes = Bytes.wrap(Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length));
+            final var signer = Signature.getInstance("Ed25519");
+            signer.initSign(keyPair.getPrivate());
+            signer.update(message);
+            final var sigPair = SignaturePair.newBuilder()
+                    .ed25519(Bytes.wrap(signer.sign()))
+                    .pubKeyPrefix(keyBytes)
+                    .build();
+            pairs.add(
+                    new ExpandedSignaturePair(Key.newBuilder().ed25519(keyBytes).build(), keyBytes, null, sigPair));
+        }
+        return pairs;
+    }
 }
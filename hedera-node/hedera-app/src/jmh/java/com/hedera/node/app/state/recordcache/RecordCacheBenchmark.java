@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.node.app.state.recordcache;
+
+import static com.hedera.hapi.node.base.ResponseCodeEnum.SUCCESS;
+
+import com.hedera.hapi.node.base.AccountID;
+import com.hedera.hapi.node.base.Timestamp;
+import com.hedera.hapi.node.base.TokenType;
+import com.hedera.hapi.node.base.TransactionID;
+import com.hedera.hapi.node.transaction.TransactionReceipt;
+import com.hedera.hapi.node.transaction.TransactionRecord;
+import com.hedera.node.app.fixtures.AppTestBase;
+import com.hedera.node.app.state.SingleTransactionRecord;
+import com.hedera.node.app.state.SingleTransactionRecord.TransactionOutputs;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the throughput of adding records to the {@link RecordCacheImpl} (which also expires records older than the
+ * max transaction duration), and of duplicate and payer lookups, with the cache filled with a full window of records.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, warmups = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RecordCacheBenchmark extends AppTestBase {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final TransactionOutputs SIMPLE_OUTPUT = new TransactionOutputs(TokenType.FUNGIBLE_COMMON);
+    /** Records are expired 180 seconds after their valid start, with the default configuration */
+    private static final int WINDOW_SECONDS = 180;
+    /** Consensus time is normally a couple of seconds after the transaction valid start */
+    private static final long CONSENSUS_DELAY_NANOS = 2 * NANOS_PER_SECOND;
+
+    /** Number of records that come to consensus every second */
+    @Param({"1000", "10000"})
+    public int recordsPerSecond;
+
+    /** Number of distinct payers */
+    @Param({"1000"})
+    public int numPayers;
+
+    private RecordCacheImpl subject;
+    private AccountID[] payers;
+    private TransactionID[] knownIds;
+    private long consensusNanos;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final var app = appBuilder().withService(new RecordCacheService()).build();
+        subject = new RecordCacheImpl(
+                new DeduplicationCacheImpl(app.configProvider()), app.workingStateAccessor(), app.configProvider());
+        payers = new AccountID[numPayers];
+        for (int i = 0; i < numPayers; i++) {
+            payers[i] = AccountID.newBuilder().accountNum(1001 + i).build();
+        }
+        // Fill the cache with a full window of records
+        consensusNanos = 1_700_000_000L * NANOS_PER_SECOND;
+        knownIds = new TransactionID[WINDOW_SECONDS * recordsPerSecond];
+        for (int i = 0; i < knownIds.length; i++) {
+            knownIds[i] = addNext();
+        }
+    }
+
+    /** Adds a record, expiring on average one record per call once the window is full */
+    @Benchmark
+    public void addAndExpire(Blackhole blackhole) {
+        blackhole.consume(addNext());
+    }
+
+    @Benchmark
+    public void hasDuplicate(Blackhole blackhole) {
+        final var txId = knownIds[ThreadLocalRandom.current().nextInt(knownIds.length)];
+        blackhole.consume(subject.hasDuplicate(txId, 0L));
+    }
+
+    @Benchmark
+    public void getRecordsByPayer(Blackhole blackhole) {
+        final var payer = payers[ThreadLocalRandom.current().nextInt(numPayers)];
+        blackhole.consume(subject.getRecords(payer));
+    }
+
+    private TransactionID addNext() {
+        consensusNanos += NANOS_PER_SECOND / recordsPerSecond;
+        final var payer = payers[(int) (sequence++ % numPayers)];
+        final var txId = TransactionID.newBuilder()
+                .transactionValidStart(timestamp(consensusNanos - CONSENSUS_DELAY_NANOS))
+                .accountID(payer)
+                .build();
+        final var record = TransactionRecord.newBuilder()
+                .transactionID(txId)
+                .consensusTimestamp(timestamp(consensusNanos))
+                .receipt(TransactionReceipt.newBuilder().status(SUCCESS))
+                .build();
+        subject.add(
+                0,
+                payer,
+                List.of(new SingleTransactionRecord(simpleCryptoTransfer(txId), record, List.of(), SIMPLE_OUTPUT)));
+        return txId;
+    }
+
+    private static Timestamp timestamp(final long nanos) {
+        return Timestamp.newBuilder()
+                .seconds(nanos / NANOS_PER_SECOND)
+                .nanos((int) (nanos % NANOS_PER_SECOND))
+                .build();
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.node.app.throttle;
+
+import static com.hedera.hapi.node.base.HederaFunctionality.CONSENSUS_SUBMIT_MESSAGE;
+import static com.hedera.hapi.node.base.HederaFunctionality.CRYPTO_GET_ACCOUNT_BALANCE;
+import static com.hedera.node.app.throttle.ThrottleAccumulator.ThrottleType.FRONTEND_THROTTLE;
+
+import com.hedera.hapi.node.base.AccountID;
+import com.hedera.hapi.node.base.HederaFunctionality;
+import com.hedera.hapi.node.base.SignatureMap;
+import com.hedera.hapi.node.base.Transaction;
+import com.hedera.hapi.node.base.TransactionID;
+import com.hedera.hapi.node.consensus.ConsensusSubmitMessageTransactionBody;
+import com.hedera.hapi.node.transaction.Query;
+import com.hedera.hapi.node.transaction.ThrottleBucket;
+import com.hedera.hapi.node.transaction.ThrottleDefinitions;
+import com.hedera.hapi.node.transaction.ThrottleGroup;
+import com.hedera.hapi.node.transaction.TransactionBody;
+import com.hedera.node.app.fixtures.AppTestBase;
+import com.hedera.node.app.state.HederaState;
+import com.hedera.node.app.workflows.TransactionInfo;
+import com.hedera.pbj.runtime.io.buffer.Bytes;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Measures the throughput of ingest throttle decisions under contention, comparing the {@link
+ * SynchronizedThrottleAccumulator} with a throttle that holds a single lock for the whole decision, as the ingest
+ * throttle used to. Half of the decisions are for transactions, and half for queries.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, warmups = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class IngestThrottleBenchmark extends AppTestBase {
+    private static final AccountID PAYER = AccountID.newBuilder().accountNum(1234L).build();
+
+    private SynchronizedThrottleAccumulator subject;
+    private ThrottleAccumulator fullyLockedThrottle;
+    private Instant lastDecisionTime = Instant.EPOCH;
+    private HederaState state;
+    private TransactionInfo txnInfo;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final var app = appBuilder().build();
+        state = app.workingStateAccessor().getHederaState();
+        subject = new SynchronizedThrottleAccumulator(newThrottle(app));
+        fullyLockedThrottle = newThrottle(app);
+
+        final var txnId = TransactionID.newBuilder().accountID(PAYER).build();
+        final var txBody = TransactionBody.newBuilder()
+                .transactionID(txnId)
+                .consensusSubmitMessage(ConsensusSubmitMessageTransactionBody.DEFAULT)
+                .build();
+        txnInfo = new TransactionInfo(
+                Transaction.DEFAULT,
+                txBody,
+                txnId,
+                PAYER,
+                SignatureMap.DEFAULT,
+                Bytes.EMPTY,
+                CONSENSUS_SUBMIT_MESSAGE);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean planned1() {
+        return planned();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean planned4() {
+        return planned();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean planned16() {
+        return planned();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean planned64() {
+        return planned();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean fullyLocked1() {
+        return fullyLocked();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean fullyLocked4() {
+        return fullyLocked();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean fullyLocked16() {
+        return fullyLocked();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean fullyLocked64() {
+        return fullyLocked();
+    }
+
+    private boolean planned() {
+        return subject.shouldThrottle(txnInfo, state)
+                | subject.shouldThrottle(CRYPTO_GET_ACCOUNT_BALANCE, Query.DEFAULT, PAYER);
+    }
+
+    private boolean fullyLocked() {
+        synchronized (this) {
+            final boolean txnAns = fullyLockedThrottle.shouldThrottle(txnInfo, nextDecisionTime(), state);
+            final boolean queryAns = fullyLockedThrottle.shouldThrottle(
+                    CRYPTO_GET_ACCOUNT_BALANCE, nextDecisionTime(), Query.DEFAULT, PAYER);
+            return txnAns | queryAns;
+        }
+    }
+
+    private Instant nextDecisionTime() {
+        final var now = Instant.now();
+        lastDecisionTime = now.isBefore(lastDecisionTime) ? lastDecisionTime : now;
+        return lastDecisionTime;
+    }
+
+    private ThrottleAccumulator newThrottle(final App app) {
+        final var throttle = new ThrottleAccumulator(
+                () -> 1, app.configProvider(), FRONTEND_THROTTLE, new ThrottleMetrics(metrics, FRONTEND_THROTTLE));
+        throttle.applyGasConfig();
+        // Both functions are in two buckets, as most functions are in the real throttle definitions
+        throttle.rebuildFor(ThrottleDefinitions.newBuilder()
+                .throttleBuckets(
+                        bucket("ThroughputLimits", 10_000_000, CONSENSUS_SUBMIT_MESSAGE),
+                        bucket("PriorityReservations", 1_000_000, CONSENSUS_SUBMIT_MESSAGE),
+                        bucket("FreeQueryLimits", 1_000_000, CRYPTO_GET_ACCOUNT_BALANCE),
+                        bucket("QueryLimits", 100_000_000, CRYPTO_GET_ACCOUNT_BALANCE))
+                .build());
+        return throttle;
+    }
+
+    private static ThrottleBucket bucket(
+            final String name, final long milliOpsPerSec, final HederaFunctionality operation) {
+        return ThrottleBucket.newBuilder()
+                .name(name)
+                .burstPeriodMs(1_000L)
+                .throttleGroups(ThrottleGroup.newBuilder()
+                        .milliOpsPerSec(milliOpsPerSec)
+                        .operations(List.of(operation))
+                        .build())
+                .build();
+    }
+}
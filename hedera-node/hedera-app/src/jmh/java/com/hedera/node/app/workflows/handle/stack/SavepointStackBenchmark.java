@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.node.app.workflows.handle.stack;
+
+import com.hedera.node.app.spi.fixtures.state.MapWritableKVState;
+import com.hedera.node.app.spi.fixtures.state.MapWritableStates;
+import com.hedera.node.app.spi.state.ReadableStates;
+import com.hedera.node.app.spi.state.WritableKVState;
+import com.hedera.node.app.spi.state.WritableStates;
+import com.hedera.node.app.state.HederaState;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.HashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures a whole user transaction on a {@link SavepointStackImpl}, from the first savepoint to the commit of the full
+ * stack, for call patterns typical of the EVM and of the token service.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, warmups = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SavepointStackBenchmark {
+    private static final String SERVICE_NAME = "BenchmarkService";
+    private static final String STORAGE_KEY = "STORAGE";
+    private static final String ACCOUNTS_KEY = "ACCOUNTS";
+    private static final int NUM_SLOTS = 100_000;
+    private static final int NUM_ACCOUNTS = 10_000;
+
+    /** Depth of nested contract calls, or number of child dispatches */
+    @Param({"1", "8", "64", "256"})
+    public int depth;
+
+    /** Storage slots read by every contract call */
+    @Param({"16"})
+    public int readsPerCall;
+
+    private Long[] slots;
+    private Long[] accounts;
+    private SavepointStackImpl stack;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        slots = new Long[NUM_SLOTS];
+        final var storage = new HashMap<Long, Long>();
+        for (int i = 0; i < NUM_SLOTS; i++) {
+            slots[i] = (long) i;
+            storage.put(slots[i], (long) i);
+        }
+        accounts = new Long[NUM_ACCOUNTS];
+        final var balances = new HashMap<Long, Long>();
+        for (int i = 0; i < NUM_ACCOUNTS; i++) {
+            accounts[i] = (long) i;
+            balances.put(accounts[i], 1_000_000L);
+        }
+        final var writableStates = MapWritableStates.builder()
+                .state(new MapWritableKVState<>(STORAGE_KEY, storage))
+                .state(new MapWritableKVState<>(ACCOUNTS_KEY, balances))
+                .build();
+        stack = new SavepointStackImpl(new HederaState() {
+            @NonNull
+            @Override
+            public ReadableStates getReadableStates(@NonNull final String serviceName) {
+                return writableStates;
+            }
+
+            @NonNull
+            @Override
+            public WritableStates getWritableStates(@NonNull final String serviceName) {
+                return writableStates;
+            }
+        });
+    }
+
+    /**
+     * A chain of nested contract calls, each in its own savepoint. Every call reads storage slots, some of which were
+     * written by its callers, and writes two slots. Every fourth call reverts.
+     */
+    @Benchmark
+    public void evmNestedCalls(@NonNull final Blackhole blackhole) {
+        final var random = ThreadLocalRandom.current();
+        final WritableKVState<Long, Long> storage =
+                stack.getWritableStates(SERVICE_NAME).get(STORAGE_KEY);
+        final var written = new Long[depth * 2];
+        for (int call = 0; call < depth; call++) {
+            stack.createSavepoint();
+            for (int i = 0; i < readsPerCall; i++) {
+                final var slot = (call > 0 && (i & 1) == 0)
+                        ? written[random.nextInt(call * 2)]
+                        : slots[random.nextInt(NUM_SLOTS)];
+                blackhole.consume(storage.get(slot));
+            }
+            written[call * 2] = slots[random.nextInt(NUM_SLOTS)];
+            written[call * 2 + 1] = slots[random.nextInt(NUM_SLOTS)];
+            storage.put(written[call * 2], (long) call);
+            storage.put(written[call * 2 + 1], (long) call);
+        }
+        for (int call = depth - 1; call >= 0; call--) {
+            if ((call & 3) == 3) {
+                stack.rollback();
+            } else {
+                stack.commit();
+            }
+        }
+        stack.commitFullStack();
+    }
+
+    /**
+     * A user transaction that dispatches child transactions one after the other, as a token transfer with custom
+     * fees or a contract calling the token service system contract does. Every child transfers between two accounts
+     * in its own savepoint, and the last child fails and is rolled back.
+     */
+    @Benchmark
+    public void htsChildDispatches(@NonNull final Blackhole blackhole) {
+        final var random = ThreadLocalRandom.current();
+        final WritableKVState<Long, Long> balances =
+                stack.getWritableStates(SERVICE_NAME).get(ACCOUNTS_KEY);
+        final var payer = accounts[random.nextInt(NUM_ACCOUNTS)];
+        for (int child = 0; child < depth; child++) {
+            stack.createSavepoint();
+            final var sender = accounts[random.nextInt(NUM_ACCOUNTS)];
+            final var receiver = accounts[random.nextInt(NUM_ACCOUNTS)];
+            final long senderBalance = balances.getForModify(sender);
+            final long receiverBalance = balances.getForModify(receiver);
+            final long payerBalance = balances.getForModify(payer);
+            balances.put(sender, senderBalance - 1);
+            balances.put(receiver, receiverBalance + 1);
+            balances.put(payer, payerBalance - 1);
+            blackhole.consume(balances.modifiedKeys());
+            if (child == depth - 1) {
+                stack.rollback();
+            } else {
+                stack.commit();
+            }
+        }
+        stack.commitFullStack();
+    }
+}
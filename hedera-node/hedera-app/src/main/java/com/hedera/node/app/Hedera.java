@@ -931,6 +931,8 @@ public final class Hedera implements SwirldMain {
         final var transactions = new ArrayList<Transaction>(1000);
         event.forEachTransaction(transactions::add);
         daggerApp.preHandleWorkflow().preHandle(readableStoreFactory, creator.accountId(), transactions.stream());
+        // Start warming the caches for these transactions before the event reaches consensus
+        daggerApp.cacheWarmer().warmAhead(transactions);
     }
 
     public void onNewRecoveredState(@NonNull final MerkleHederaState recoveredState) {
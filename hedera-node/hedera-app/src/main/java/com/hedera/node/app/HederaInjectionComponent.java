@@ -48,6 +48,7 @@ import com.hedera.node.app.state.WorkingStateAccessor;
 import com.hedera.node.app.throttle.ThrottleServiceManager;
 import com.hedera.node.app.throttle.ThrottleServiceModule;
 import com.hedera.node.app.workflows.WorkflowsInjectionModule;
+import com.hedera.node.app.workflows.handle.CacheWarmer;
 import com.hedera.node.app.workflows.handle.HandleWorkflow;
 import com.hedera.node.app.workflows.handle.PlatformStateUpdateFacility;
 import com.hedera.node.app.workflows.handle.record.GenesisRecordsConsensusHook;
@@ -114,6 +115,8 @@ public interface HederaInjectionComponent {
 
     HandleWorkflow handleWorkflow();
 
+    CacheWarmer cacheWarmer();
+
     BlockRecordManager blockRecordManager();
 
     FeeManager feeManager();
@@ -127,8 +127,10 @@ public abstract class MethodBase implements ServerCalls.UnaryMethod<BufferedData
             final var responseBuffer = BUFFER_THREAD_LOCAL.get();
             responseBuffer.reset();
 
-            // Convert the request BufferedData to a Bytes instance without copying the bytes
-            final var requestBytes = requestBuffer.getBytes(0, requestBuffer.length());
+            // Copy the request out of the per-thread request buffer. This is the only copy of the request bytes
+            // on the way to the workflow, the array is not shared and may be retained by the implementation.
+            final var requestBytes = new byte[(int) requestBuffer.length()];
+            requestBuffer.getBytes(0, requestBytes);
 
             // Call the workflow
             handle(requestBytes, responseBuffer);
@@ -158,6 +160,19 @@ public abstract class MethodBase implements ServerCalls.UnaryMethod<BufferedData
      */
     protected abstract void handle(@NonNull final Bytes requestBuffer, @NonNull final BufferedData responseBuffer);
 
+    /**
+     * Called to handle the method invocation with the request as an array that was copied for this invocation only.
+     * Implementations that keep the request bytes, e.g. to submit them to the platform, can override this method to
+     * take ownership of the array instead of copying the bytes once more. By default, the array is wrapped and passed
+     * to {@link #handle(Bytes, BufferedData)}.
+     *
+     * @param requestBytes The array containing the protobuf bytes for the request, owned by the callee
+     * @param responseBuffer A {@link BufferedData} into which the response protobuf bytes may be written
+     */
+    protected void handle(@NonNull final byte[] requestBytes, @NonNull final BufferedData responseBuffer) {
+        handle(Bytes.wrap(requestBytes), responseBuffer);
+    }
+
     /**
      * Helper method for creating a {@link Counter} metric.
      *
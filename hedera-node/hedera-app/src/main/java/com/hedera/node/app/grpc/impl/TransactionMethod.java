@@ -55,4 +55,10 @@ public final class TransactionMethod extends MethodBase {
     protected void handle(@NonNull final Bytes requestBuffer, @NonNull final BufferedData responseBuffer) {
         workflow.submitTransaction(requestBuffer, responseBuffer);
     }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void handle(@NonNull final byte[] requestBytes, @NonNull final BufferedData responseBuffer) {
+        workflow.submitTransaction(requestBytes, responseBuffer);
+    }
 }
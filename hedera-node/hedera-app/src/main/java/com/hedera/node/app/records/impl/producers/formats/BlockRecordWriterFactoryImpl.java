@@ -21,12 +21,16 @@ import static java.util.Objects.requireNonNull;
 import com.hedera.node.app.records.impl.producers.BlockRecordWriter;
 import com.hedera.node.app.records.impl.producers.BlockRecordWriterFactory;
 import com.hedera.node.app.records.impl.producers.formats.v6.BlockRecordWriterV6;
+import com.hedera.node.app.records.impl.producers.formats.v7.BlockRecordWriterV7;
 import com.hedera.node.app.spi.info.SelfNodeInfo;
 import com.hedera.node.config.ConfigProvider;
 import com.hedera.node.config.data.BlockRecordStreamConfig;
 import com.swirlds.common.stream.Signer;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.nio.file.FileSystem;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -36,6 +40,11 @@ public class BlockRecordWriterFactoryImpl implements BlockRecordWriterFactory {
     private final Signer signer;
     private final SelfNodeInfo nodeInfo;
     private final FileSystem fileSystem;
+    /**
+     * The executor to hash and compress files on if {@link BlockRecordStreamConfig#parallelFileWriting()} is enabled.
+     * It is created on first use, with the number of threads configured at that time.
+     */
+    private ExecutorService fileWritingExecutor;
 
     /**
      *
@@ -65,12 +74,25 @@ public class BlockRecordWriterFactoryImpl implements BlockRecordWriterFactory {
         // pick a record file format
         return switch (recordFileVersion) {
             case 6 -> new BlockRecordWriterV6(
-                    configProvider.getConfiguration().getConfigData(BlockRecordStreamConfig.class),
+                    recordStreamConfig,
                     nodeInfo,
                     signer,
-                    fileSystem);
-            case 7 -> throw new IllegalArgumentException("Record file version 7 is not yet supported");
+                    fileSystem,
+                    recordStreamConfig.parallelFileWriting() ? fileWritingExecutor(recordStreamConfig) : null);
+            case 7 -> new BlockRecordWriterV7(recordStreamConfig, nodeInfo, signer, fileSystem);
             default -> throw new IllegalArgumentException("Unknown record file version: " + recordFileVersion);
         };
     }
+
+    private synchronized ExecutorService fileWritingExecutor(@NonNull final BlockRecordStreamConfig config) {
+        if (fileWritingExecutor == null) {
+            final var threadCount = new AtomicInteger();
+            fileWritingExecutor = Executors.newFixedThreadPool(config.fileWritingThreads(), runnable -> {
+                final var thread = new Thread(runnable, "record-file-writer-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return fileWritingExecutor;
+    }
 }
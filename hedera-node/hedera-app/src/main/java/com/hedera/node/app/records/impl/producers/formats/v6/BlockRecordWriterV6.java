@@ -47,6 +47,7 @@ import com.swirlds.common.crypto.DigestType;
 import com.swirlds.common.crypto.HashingOutputStream;
 import com.swirlds.common.stream.Signer;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -60,6 +61,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.zip.GZIPOutputStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -90,6 +92,9 @@ public final class BlockRecordWriterV6 implements BlockRecordWriter {
     private final int maxSideCarSizeInBytes;
     /** Whether to compress the record file and sidecar files. */
     private final boolean compressFiles;
+    /** The executor to hash and compress files on, or null to do so on the thread writing the records */
+    @Nullable
+    private final Executor fileWritingExecutor;
     /** The node-specific path to the directory where record files are written */
     private final Path nodeScopedRecordDir;
     /**
@@ -137,7 +142,13 @@ public final class BlockRecordWriterV6 implements BlockRecordWriter {
     private GZIPOutputStream gzipOutputStream = null;
     /** HashingOutputStream for hashing the file contents, wraps {@link #gzipOutputStream} or {@link #fileOutputStream} */
     private HashingOutputStream hashingOutputStream;
-    /** The buffered output stream we are writing to, wraps {@link #hashingOutputStream} */
+    /**
+     * Hashes and optionally compresses the file contents on the {@link #fileWritingExecutor}, wraps
+     * {@link #fileOutputStream}. Used instead of {@link #hashingOutputStream} and {@link #gzipOutputStream} if there is
+     * a {@link #fileWritingExecutor}.
+     */
+    private ParallelGzipHashingOutputStream parallelOutputStream = null;
+    /** The buffered output stream we are writing to, wraps {@link #hashingOutputStream} or {@link #parallelOutputStream} */
     private BufferedOutputStream bufferedOutputStream;
     /** WritableStreamingData we are writing to, wraps {@link #bufferedOutputStream} */
     private WritableStreamingData outputStream;
@@ -159,6 +170,27 @@ public final class BlockRecordWriterV6 implements BlockRecordWriter {
             @NonNull final NodeInfo nodeInfo,
             @NonNull final Signer signer,
             @NonNull final FileSystem fileSystem) {
+        this(config, nodeInfo, signer, fileSystem, null);
+    }
+
+    /**
+     * Creates a new incremental record file writer on a new file, which hashes and compresses the record file and the
+     * sidecar files on the given executor, if any. The files are the same as without the executor, except that the
+     * compressed bytes may differ. The uncompressed contents, and therefore the file hashes and signatures, are
+     * identical.
+     *
+     * @param config The configuration to be used for writing this block
+     * @param nodeInfo The node info for the node writing this file
+     * @param signer The signer to use to sign the file bytes to produce the signature file
+     * @param fileSystem The file system to use to write the file
+     * @param fileWritingExecutor The executor to hash and compress files on, or null to do so on the calling thread
+     */
+    public BlockRecordWriterV6(
+            @NonNull final BlockRecordStreamConfig config,
+            @NonNull final NodeInfo nodeInfo,
+            @NonNull final Signer signer,
+            @NonNull final FileSystem fileSystem,
+            @Nullable final Executor fileWritingExecutor) {
 
         if (config.recordFileVersion() != 6) {
             logger.fatal(
@@ -177,6 +209,7 @@ public final class BlockRecordWriterV6 implements BlockRecordWriter {
         this.state = State.UNINITIALIZED;
         this.signer = requireNonNull(signer);
         this.compressFiles = config.compressFilesOnCreation();
+        this.fileWritingExecutor = fileWritingExecutor;
         this.maxSideCarSizeInBytes = config.sidecarMaxSizeMb() * 1024 * 1024;
 
         // Compute directories for record and sidecar files
@@ -222,13 +255,19 @@ public final class BlockRecordWriterV6 implements BlockRecordWriter {
         this.recordFilePath = getRecordFilePath(startConsensusTime);
         try {
             fileOutputStream = Files.newOutputStream(recordFilePath);
-            if (compressFiles) {
-                gzipOutputStream = new GZIPOutputStream(fileOutputStream);
-                hashingOutputStream = new HashingOutputStream(createWholeFileMessageDigest(), gzipOutputStream);
+            if (fileWritingExecutor != null) {
+                parallelOutputStream = new ParallelGzipHashingOutputStream(
+                        fileOutputStream, createWholeFileMessageDigest(), compressFiles, fileWritingExecutor);
+                bufferedOutputStream = new BufferedOutputStream(parallelOutputStream);
             } else {
-                hashingOutputStream = new HashingOutputStream(createWholeFileMessageDigest(), fileOutputStream);
+                if (compressFiles) {
+                    gzipOutputStream = new GZIPOutputStream(fileOutputStream);
+                    hashingOutputStream = new HashingOutputStream(createWholeFileMessageDigest(), gzipOutputStream);
+                } else {
+                    hashingOutputStream = new HashingOutputStream(createWholeFileMessageDigest(), fileOutputStream);
+                }
+                bufferedOutputStream = new BufferedOutputStream(hashingOutputStream);
             }
-            bufferedOutputStream = new BufferedOutputStream(hashingOutputStream);
             outputStream = new WritableStreamingData(bufferedOutputStream);
 
             // Write the header
@@ -271,20 +310,25 @@ public final class BlockRecordWriterV6 implements BlockRecordWriter {
             // will propagate though a chain of streams. So we have to flush and close each one individually.
             bufferedOutputStream.flush();
             if (gzipOutputStream != null) gzipOutputStream.flush();
-            fileOutputStream.flush();
+            // The parallel output stream writes to the file on other threads, it flushes the file when closed
+            if (parallelOutputStream == null) fileOutputStream.flush();
 
             closeSidecarFileWriter();
             writeFooter(endRunningHash);
 
             outputStream.close();
             bufferedOutputStream.close();
+            if (parallelOutputStream != null) parallelOutputStream.close();
             if (gzipOutputStream != null) gzipOutputStream.close();
             fileOutputStream.close();
 
             // write signature file, this tells the uploader that this record file set is complete
+            final var fileHash = parallelOutputStream != null
+                    ? parallelOutputStream.getDigest()
+                    : hashingOutputStream.getDigest();
             writeSignatureFile(
                     recordFilePath,
-                    Bytes.wrap(hashingOutputStream.getDigest()),
+                    Bytes.wrap(fileHash),
                     signer,
                     true,
                     6,
@@ -402,7 +446,8 @@ public final class BlockRecordWriterV6 implements BlockRecordWriter {
 
     @NonNull
     private SidecarWriterV6 createSidecarFileWriter(final int id) throws IOException {
-        return new SidecarWriterV6(getSidecarFilePath(id), compressFiles, maxSideCarSizeInBytes, id);
+        return new SidecarWriterV6(
+                getSidecarFilePath(id), compressFiles, maxSideCarSizeInBytes, id, fileWritingExecutor);
     }
 
     private void closeSidecarFileWriter() {
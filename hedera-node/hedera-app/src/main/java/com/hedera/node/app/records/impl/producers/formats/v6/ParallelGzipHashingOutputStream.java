@@ -0,0 +1,284 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.node.app.records.impl.producers.formats.v6;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * An {@link OutputStream} that hashes everything written to it and, optionally, gzip compresses it on an
+ * {@link Executor}, so the thread writing the records neither hashes nor compresses. It replaces the chain of a
+ * {@link com.swirlds.common.crypto.HashingOutputStream} on top of a {@link java.util.zip.GZIPOutputStream}: the digest
+ * is computed over the uncompressed bytes, exactly as in that chain, so the file hash and the signature of a file are
+ * the same whichever of the two is used.
+ *
+ * <p>The written bytes are collected in blocks of {@link #BLOCK_SIZE} bytes. The blocks are hashed one after the other
+ * in order, but concurrently with the compression of the blocks, which happens in parallel. Each block is compressed
+ * into a raw deflate stream, primed with the last 32KiB of the previous block and terminated by a sync flush, so the
+ * compressed blocks concatenate to a single deflate stream, which is written in a single gzip member with the usual
+ * header and trailer. The uncompressed content is identical to that of a {@link java.util.zip.GZIPOutputStream}, but
+ * the compressed bytes are not, as the deflate blocks end at different positions.
+ *
+ * <p>Closing this stream waits for all blocks to be hashed and written, but does not close the underlying stream, the
+ * same as a {@link com.swirlds.common.crypto.HashingOutputStream} does not.
+ */
+final class ParallelGzipHashingOutputStream extends OutputStream {
+    /** The number of uncompressed bytes that are hashed and compressed as one block */
+    static final int BLOCK_SIZE = 128 * 1024;
+    /** The size of the deflate window, the maximum number of bytes of the previous block useful as dictionary */
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    /** The maximum number of blocks that may be in flight before {@link #write} waits for the oldest */
+    private static final int MAX_BLOCKS_IN_FLIGHT = 16;
+    /** The gzip header, as written by {@link java.util.zip.GZIPOutputStream}, with an unknown operating system */
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    /** The stream the (compressed) bytes are written to */
+    private final OutputStream out;
+    /** The digest of the uncompressed bytes, only used by the hashing tasks */
+    private final MessageDigest digest;
+    /** The checksum of the uncompressed bytes for the gzip trailer, only used by the hashing tasks */
+    private final CRC32 crc = new CRC32();
+    /** Whether to gzip compress the bytes, or to write them as they are */
+    private final boolean compress;
+    /** The executor on which blocks are hashed, compressed and written */
+    private final Executor executor;
+    /** The futures of the blocks that have not been written yet, oldest first */
+    private final Deque<CompletableFuture<Void>> blocksInFlight = new ArrayDeque<>();
+    /** The completion of the hashing of the last block submitted */
+    private CompletableFuture<Void> hashed = completedFuture(null);
+    /** The completion of the writing of the last block submitted */
+    private CompletableFuture<Void> written = completedFuture(null);
+    /** The block currently being filled */
+    private byte[] block = new byte[BLOCK_SIZE];
+    /** The number of bytes in {@link #block} */
+    private int blockLength = 0;
+    /** The last block submitted, used as dictionary for the compression of the next one */
+    private byte[] previousBlock = null;
+    /** The total number of uncompressed bytes written */
+    private long uncompressedSize = 0;
+    /** Whether this stream has been closed */
+    private boolean closed = false;
+    /** The digest of the uncompressed bytes, computed in close */
+    private byte[] hash = null;
+
+    /**
+     * Creates a new stream, and writes the gzip header to the underlying stream if compressing.
+     *
+     * @param out the stream to write the (compressed) bytes to
+     * @param digest the digest to compute over the uncompressed bytes
+     * @param compress whether to gzip compress the bytes
+     * @param executor the executor to hash, compress and write the blocks on
+     * @throws IOException if the gzip header could not be written
+     */
+    ParallelGzipHashingOutputStream(
+            @NonNull final OutputStream out,
+            @NonNull final MessageDigest digest,
+            final boolean compress,
+            @NonNull final Executor executor)
+            throws IOException {
+        this.out = requireNonNull(out);
+        this.digest = requireNonNull(digest);
+        this.compress = compress;
+        this.executor = requireNonNull(executor);
+        if (compress) {
+            out.write(GZIP_HEADER);
+        }
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        ensureOpen();
+        block[blockLength++] = (byte) b;
+        if (blockLength == BLOCK_SIZE) {
+            submitBlock(false);
+        }
+    }
+
+    @Override
+    public void write(@NonNull final byte[] bytes, final int offset, final int length) throws IOException {
+        ensureOpen();
+        int position = offset;
+        int remaining = length;
+        while (remaining > 0) {
+            final int count = Math.min(remaining, BLOCK_SIZE - blockLength);
+            System.arraycopy(bytes, position, block, blockLength, count);
+            blockLength += count;
+            position += count;
+            remaining -= count;
+            if (blockLength == BLOCK_SIZE) {
+                submitBlock(false);
+            }
+        }
+    }
+
+    /**
+     * Does not flush the current block, which would only make the compression worse. Everything written so far is
+     * flushed by {@link #close()}.
+     */
+    @Override
+    public void flush() {
+        // Nothing to do, see javadoc
+    }
+
+    /**
+     * Hashes and writes the remaining bytes, waits for all blocks, and writes the gzip trailer if compressing. The
+     * underlying stream is flushed, but not closed.
+     *
+     * @throws IOException if writing any of the blocks failed
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        submitBlock(true);
+        await(CompletableFuture.allOf(hashed, written));
+        if (compress) {
+            final var trailer = new byte[8];
+            writeIntLE(trailer, 0, (int) crc.getValue());
+            writeIntLE(trailer, 4, (int) uncompressedSize);
+            out.write(trailer);
+        }
+        out.flush();
+        hash = digest.digest();
+    }
+
+    /**
+     * Get the digest of all bytes written to this stream, will return null before the stream has been closed.
+     *
+     * @return the digest bytes
+     */
+    @Nullable
+    byte[] getDigest() {
+        return hash == null ? null : hash.clone();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    /**
+     * Submits the current block for hashing, compressing and writing, and starts a new block. Blocks are never modified
+     * after they were submitted, so the tasks can read them without synchronization.
+     *
+     * @param last whether this is the last block, which terminates the deflate stream
+     */
+    private void submitBlock(final boolean last) throws IOException {
+        final var data = block;
+        final var length = blockLength;
+        final var dictionary = previousBlock;
+        uncompressedSize += length;
+
+        hashed = hashed.thenRunAsync(
+                () -> {
+                    digest.update(data, 0, length);
+                    crc.update(data, 0, length);
+                },
+                executor);
+        final CompletableFuture<byte[]> output = compress
+                ? CompletableFuture.supplyAsync(() -> deflate(data, length, dictionary, last), executor)
+                : completedFuture(length == data.length ? data : Arrays.copyOf(data, length));
+        written = written.thenCombine(output, (ignored, bytes) -> {
+            try {
+                out.write(bytes);
+                return null;
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        blocksInFlight.addLast(written);
+        while (blocksInFlight.size() > MAX_BLOCKS_IN_FLIGHT) {
+            await(blocksInFlight.removeFirst());
+        }
+
+        previousBlock = length == BLOCK_SIZE ? data : null;
+        block = new byte[BLOCK_SIZE];
+        blockLength = 0;
+    }
+
+    /**
+     * Compresses a single block into raw deflate data. All blocks but the last end with a sync flush, so their output
+     * can be concatenated with the output of the next block.
+     */
+    @NonNull
+    private static byte[] deflate(
+            @NonNull final byte[] data, final int length, @Nullable final byte[] dictionary, final boolean last) {
+        final var deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary, dictionary.length - DICTIONARY_SIZE, DICTIONARY_SIZE);
+            }
+            deflater.setInput(data, 0, length);
+            final var result = new ByteArrayOutputStream(length / 2 + 64);
+            final var buffer = new byte[64 * 1024];
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    final int count = deflater.deflate(buffer);
+                    result.write(buffer, 0, count);
+                }
+            } else {
+                int count;
+                do {
+                    count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    result.write(buffer, 0, count);
+                } while (count == buffer.length);
+            }
+            return result.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void await(@NonNull final CompletableFuture<?> future) throws IOException {
+        try {
+            future.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            throw new IOException("Failed to write block", e.getCause());
+        }
+    }
+
+    private static void writeIntLE(@NonNull final byte[] buffer, final int offset, final int value) {
+        buffer[offset] = (byte) value;
+        buffer[offset + 1] = (byte) (value >> 8);
+        buffer[offset + 2] = (byte) (value >> 16);
+        buffer[offset + 3] = (byte) (value >> 24);
+    }
+}
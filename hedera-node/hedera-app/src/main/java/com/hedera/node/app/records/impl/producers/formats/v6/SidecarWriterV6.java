@@ -26,6 +26,7 @@ import com.hedera.pbj.runtime.io.buffer.Bytes;
 import com.hedera.pbj.runtime.io.stream.WritableStreamingData;
 import com.swirlds.common.crypto.HashingOutputStream;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -35,21 +36,26 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.zip.GZIPOutputStream;
 
 /**
  * An incremental sidecar file writer that writes a single {@link TransactionSidecarRecord} at a time. It also maintains
  * a hash as it is going that can be fetched at the end after closing. A single {@link SidecarWriterV6} represents one
  * sidecar file and has a life-span of writing a single file.
+ *
+ * <p>The sidecar file format did not change in v7, so the v7 record file writer uses this class as well.
  */
-final class SidecarWriterV6 implements AutoCloseable {
+public final class SidecarWriterV6 implements AutoCloseable {
     /** The maximum size of a sidecar file in bytes */
     private final int maxSideCarSizeInBytes;
     /** The HashingOutputStream does not propagate close() to its delegate,
      * so we need to manually call close() on the stream it wraps. */
     private final OutputStream hashingDelegateStream;
-    /** HashingOutputStream for hashing the file contents */
+    /** HashingOutputStream for hashing the file contents, null if hashing in a {@link #parallelOutputStream} */
     private final HashingOutputStream hashingOutputStream;
+    /** Stream hashing and optionally compressing the file contents on an executor, null if not used */
+    private final ParallelGzipHashingOutputStream parallelOutputStream;
     /** WritableStreamingData we are data writing to, that goes into the file */
     private final WritableStreamingData outputStream;
     /** Set of the types of sidecar records that are in this file */
@@ -69,7 +75,28 @@ final class SidecarWriterV6 implements AutoCloseable {
      * @param maxSideCarSizeInBytes the maximum size of a sidecar file in bytes before compression
      * @throws IOException If there was a problem creating the file
      */
-    SidecarWriterV6(@NonNull final Path file, final boolean compressFile, final int maxSideCarSizeInBytes, final int id)
+    public SidecarWriterV6(
+            @NonNull final Path file, final boolean compressFile, final int maxSideCarSizeInBytes, final int id)
+            throws IOException {
+        this(file, compressFile, maxSideCarSizeInBytes, id, null);
+    }
+
+    /**
+     * Creates a new incremental sidecar file writer on a new file, which is hashed and compressed on the given
+     * executor, if any.
+     *
+     * @param file path to the file to write
+     * @param compressFile true if the file should be gzip compressed
+     * @param maxSideCarSizeInBytes the maximum size of a sidecar file in bytes before compression
+     * @param fileWritingExecutor the executor to hash and compress on, or null to do so on the calling thread
+     * @throws IOException If there was a problem creating the file
+     */
+    SidecarWriterV6(
+            @NonNull final Path file,
+            final boolean compressFile,
+            final int maxSideCarSizeInBytes,
+            final int id,
+            @Nullable final Executor fileWritingExecutor)
             throws IOException {
         this.id = id;
         this.maxSideCarSizeInBytes = maxSideCarSizeInBytes;
@@ -84,13 +111,22 @@ final class SidecarWriterV6 implements AutoCloseable {
         }
         // create streams
         final var fout = Files.newOutputStream(file);
-        if (compressFile) {
+        if (fileWritingExecutor != null) {
+            hashingDelegateStream = fout;
+            hashingOutputStream = null;
+            parallelOutputStream =
+                    new ParallelGzipHashingOutputStream(fout, wholeFileDigest, compressFile, fileWritingExecutor);
+            BufferedOutputStream bout = new BufferedOutputStream(parallelOutputStream);
+            outputStream = new WritableStreamingData(bout);
+        } else if (compressFile) {
+            parallelOutputStream = null;
             GZIPOutputStream gout = new GZIPOutputStream(fout);
             hashingDelegateStream = gout;
             hashingOutputStream = new HashingOutputStream(wholeFileDigest, gout);
             BufferedOutputStream bout = new BufferedOutputStream(hashingOutputStream);
             outputStream = new WritableStreamingData(bout);
         } else {
+            parallelOutputStream = null;
             hashingDelegateStream = fout;
             hashingOutputStream = new HashingOutputStream(wholeFileDigest, fout);
             BufferedOutputStream bout = new BufferedOutputStream(hashingOutputStream);
@@ -109,7 +145,7 @@ final class SidecarWriterV6 implements AutoCloseable {
      * @param transactionSidecarRecord the TransactionSidecarRecord to write to file
      * @return true if the record was written, false if it was not written as it would cause the file to exceed the maximum size
      */
-    boolean writeTransactionSidecarRecord(
+    public boolean writeTransactionSidecarRecord(
             @NonNull final TransactionSidecarRecord.SidecarRecordsOneOfType sidecarType,
             @NonNull final Bytes transactionSidecarRecord) {
         if ((bytesWritten + transactionSidecarRecord.length()) > maxSideCarSizeInBytes) {
@@ -140,7 +176,7 @@ final class SidecarWriterV6 implements AutoCloseable {
      *
      * @return the hash bytes
      */
-    Bytes fileHash() {
+    public Bytes fileHash() {
         return hash;
     }
 
@@ -149,7 +185,7 @@ final class SidecarWriterV6 implements AutoCloseable {
      *
      * @return the list of sidecar transaction types
      */
-    List<SidecarType> types() {
+    public List<SidecarType> types() {
         return List.copyOf(sidecarTypes);
     }
 
@@ -159,7 +195,12 @@ final class SidecarWriterV6 implements AutoCloseable {
     @Override
     public void close() throws IOException {
         outputStream.close();
+        if (parallelOutputStream != null) {
+            // Waits for the whole file to be hashed and written
+            parallelOutputStream.close();
+        }
         hashingDelegateStream.close();
-        hash = Bytes.wrap(hashingOutputStream.getDigest());
+        hash = Bytes.wrap(
+                parallelOutputStream != null ? parallelOutputStream.getDigest() : hashingOutputStream.getDigest());
     }
 }
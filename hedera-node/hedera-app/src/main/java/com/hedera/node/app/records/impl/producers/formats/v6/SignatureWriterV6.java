@@ -42,9 +42,9 @@ import org.apache.logging.log4j.Logger;
 
 /**
  * Simple stateless class with static methods to write signature files. It cleanly separates out the code for generating
- * signature files.
+ * signature files. The v7 record file writer writes the same v6 signature files.
  */
-final class SignatureWriterV6 {
+public final class SignatureWriterV6 {
     /** Logger to use */
     private static final Logger logger = LogManager.getLogger(SignatureWriterV6.class);
     /** The suffix added to RECORD_EXTENSION for the record signature files */
@@ -67,7 +67,7 @@ final class SignatureWriterV6 {
      * @param startRunningHash the start running hash
      * @param endRunningHash the end running hash
      */
-    static void writeSignatureFile(
+    public static void writeSignatureFile(
             @NonNull final Path recordFilePath,
             @NonNull Bytes recordFileHash,
             @NonNull final Signer signer,
@@ -16,37 +16,46 @@
 
 package com.hedera.node.app.records.impl.producers.formats.v7;
 
-import static com.hedera.hapi.streams.schema.RecordStreamFileSchema.RECORD_STREAM_ITEMS;
-import static com.hedera.hapi.streams.schema.RecordStreamFileSchema.START_OBJECT_RUNNING_HASH;
-import static com.hedera.pbj.runtime.ProtoWriterTools.writeMessage;
+import static com.hedera.pbj.runtime.ProtoConstants.TAG_WIRE_TYPE_MASK;
+import static com.hedera.pbj.runtime.ProtoParserTools.TAG_FIELD_OFFSET;
 
 import com.hedera.hapi.node.base.SemanticVersion;
 import com.hedera.hapi.node.base.Transaction;
 import com.hedera.hapi.node.transaction.TransactionRecord;
-import com.hedera.hapi.streams.HashObject;
 import com.hedera.hapi.streams.TransactionSidecarRecord;
 import com.hedera.node.app.records.impl.producers.BlockRecordFormat;
 import com.hedera.node.app.records.impl.producers.SerializedSingleTransactionRecord;
 import com.hedera.node.app.state.SingleTransactionRecord;
 import com.hedera.pbj.runtime.Codec;
+import com.hedera.pbj.runtime.FieldDefinition;
+import com.hedera.pbj.runtime.FieldType;
+import com.hedera.pbj.runtime.ParseException;
+import com.hedera.pbj.runtime.ProtoConstants;
+import com.hedera.pbj.runtime.ProtoWriterTools;
 import com.hedera.pbj.runtime.io.ReadableSequentialData;
 import com.hedera.pbj.runtime.io.WritableSequentialData;
 import com.hedera.pbj.runtime.io.buffer.Bytes;
-import com.hedera.pbj.runtime.io.stream.WritableStreamingData;
 import com.swirlds.common.crypto.DigestType;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.IOException;
-import java.io.UncheckedIOException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
 
 /**
- * This is a prototype for a RecordFileWriter for a cleaned up version of V6 format, going to true protobuf and
- * no SelfSerializable formatting.
- * <p>
- * It is only here so that the APIs further up can be designed in a way that is compatible with the new format.
+ * The v7 record format, a cleaned up version of the v6 format that is true protobuf, without any SelfSerializable
+ * formatting.
+ *
+ * <p>Every transaction is serialized to a {@link RecordStreamItemV7}, which is a superset of the v6
+ * {@link com.hedera.hapi.streams.RecordStreamItem}: it also contains the hash of the sidecar records of the
+ * transaction. The version, block number and HAPI version are not repeated in the items, they are written once in the
+ * header of the record file by the {@link BlockRecordWriterV7}. So this format, unlike the previous prototype, has no
+ * state and can be shared by all writers.
+ *
+ * <p>The running hash is the SHA-384 hash of the previous running hash followed by the serialized item. That is a
+ * single digest per item, instead of the two digests of the v6 format, which first hashes the item, and then the
+ * previous running hash with the item hash, both with SelfSerializable headers.
  */
 public final class BlockRecordFormatV7 implements BlockRecordFormat {
     /** The version of this format */
@@ -54,13 +63,6 @@ public final class BlockRecordFormatV7 implements BlockRecordFormat {
 
     public static final BlockRecordFormat INSTANCE = new BlockRecordFormatV7();
 
-    /**
-     * True once the first item has been created
-     * TODO remove this, find another way. Because this is not a singleton format it can not have state, so
-     *      file writer or StreamFileProducer will need to maintain state.
-     */
-    private boolean hasFirstItemBeenSerializedYet = false;
-
     private BlockRecordFormatV7() {
         // Prohibit instantiation
     }
@@ -87,23 +89,8 @@ public final class BlockRecordFormatV7 implements BlockRecordFormat {
                 sidecarHash = Bytes.wrap(sidecarMessageDigest.digest());
             }
             // now create a RecordStreamItemV7
-            RecordStreamItemV7 recordStreamItemV7 = hasFirstItemBeenSerializedYet
-                    ? new RecordStreamItemV7(
-                            singleTransactionRecord.transaction(),
-                            singleTransactionRecord.transactionRecord(),
-                            sidecarHash,
-                            null,
-                            0,
-                            0)
-                    : new RecordStreamItemV7(
-                            singleTransactionRecord.transaction(),
-                            singleTransactionRecord.transactionRecord(),
-                            sidecarHash,
-                            hapiVersion,
-                            blockNumber,
-                            VERSION_7);
-            // we have created an item so hasFirstItemBeenSerializedYet is now true
-            hasFirstItemBeenSerializedYet = true;
+            final RecordStreamItemV7 recordStreamItemV7 = new RecordStreamItemV7(
+                    singleTransactionRecord.transaction(), singleTransactionRecord.transactionRecord(), sidecarHash);
             return new SerializedSingleTransactionRecord(
                     null,
                     RecordStreamItemV7.PROTOBUF.toBytes(recordStreamItemV7),
@@ -126,12 +113,9 @@ public final class BlockRecordFormatV7 implements BlockRecordFormat {
             //noinspection ForLoopReplaceableByForEach
             for (int i = 0; i < serializedItems.size(); i++) {
                 final Bytes serializedItem = serializedItems.get(i).protobufSerializedRecordStreamItem();
-                // first hash the item
-                serializedItem.writeTo(messageDigest);
-                final byte[] serializedItemHash = messageDigest.digest();
-                // now hash the previous hash and the item hash
+                // hash the previous hash and the item in one go
                 messageDigest.update(previousHash);
-                messageDigest.update(serializedItemHash);
+                serializedItem.writeTo(messageDigest);
                 previousHash = messageDigest.digest();
             }
             return Bytes.wrap(previousHash);
@@ -140,76 +124,161 @@ public final class BlockRecordFormatV7 implements BlockRecordFormat {
         }
     }
 
-    private void writeHeader(
-            @NonNull final WritableStreamingData outputStream,
-            @NonNull final SemanticVersion hapiProtoVersion,
-            @NonNull final HashObject startObjectRunningHash) {
-        try {
-            // Write the record file version int first to start of file
-            outputStream.writeInt(VERSION_7);
-            // [2] - start_object_running_hash
-            writeMessage(
-                    outputStream,
-                    START_OBJECT_RUNNING_HASH,
-                    startObjectRunningHash,
-                    com.hedera.hapi.streams.HashObject.PROTOBUF::write,
-                    com.hedera.hapi.streams.HashObject.PROTOBUF::measureRecord);
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
-        }
-    }
+    // =================================================================================================================
 
     /**
-     * Write a {@link SerializedSingleTransactionRecord}.
+     * A record stream item of the v7 format. Fields 1 and 2 are the same as those of
+     * {@link com.hedera.hapi.streams.RecordStreamItem}, so a v6 parser can read the item and ignore field 3.
      *
-     * @param outputStream the output stream to write to
-     * @param item the item to extract/convert
+     * @param transaction the transaction
+     * @param transactionRecord the record of the transaction
+     * @param hashOfSidecarItems the SHA-384 hash of the serialized sidecar records of the transaction, if any
      */
-    private void writeRecordStreamItem(
-            @NonNull final WritableStreamingData outputStream, @NonNull final SerializedSingleTransactionRecord item) {
-        final Bytes itemBytes = item.protobufSerializedRecordStreamItem();
-        // [3] - record_stream_items
-        // FUTURE can change once https://github.com/hashgraph/pbj/issues/44 is fixed to:
-        // ProtoWriterTools.writeTag(outputStream, RECORD_STREAM_ITEMS, ProtoConstants.WIRE_TYPE_DELIMITED);
-        outputStream.writeVarInt((RECORD_STREAM_ITEMS.number() << TAG_TYPE_BITS) | WIRE_TYPE_DELIMITED, false);
-        outputStream.writeVarInt((int) itemBytes.length(), false);
-        outputStream.writeBytes(itemBytes);
-    }
-
-    // =================================================================================================================
-
-    /** Temporary fake record stream item format for V7 */
     public record RecordStreamItemV7(
             @Nullable Transaction transaction,
             @Nullable TransactionRecord transactionRecord,
-            @Nullable Bytes hashOfSidecarItems,
-            @Nullable SemanticVersion hapiVersion,
-            long blockNumber,
-            int recordFileVersion) {
+            @Nullable Bytes hashOfSidecarItems) {
         /** Protobuf codec for reading and writing in protobuf format */
         public static final Codec<RecordStreamItemV7> PROTOBUF = new RecordStreamItemV7ProtoCodec();
     }
 
+    /** Protobuf codec for {@link RecordStreamItemV7}, written by hand as there is no generated one. */
     public static final class RecordStreamItemV7ProtoCodec implements Codec<RecordStreamItemV7> {
-        public @NonNull RecordStreamItemV7 parse(
-                @NonNull final ReadableSequentialData input, final boolean strictMode, final int maxDepth) {
-            return new RecordStreamItemV7(null, null, null, null, 0, 0);
+        static final FieldDefinition FIELD_TRANSACTION =
+                new FieldDefinition("transaction", FieldType.MESSAGE, false, true, false, 1);
+        static final FieldDefinition FIELD_RECORD =
+                new FieldDefinition("record", FieldType.MESSAGE, false, true, false, 2);
+        static final FieldDefinition FIELD_HASH_OF_SIDECAR_ITEMS =
+                new FieldDefinition("hash_of_sidecar_items", FieldType.BYTES, false, true, false, 3);
+
+        @NonNull
+        @Override
+        public RecordStreamItemV7 parse(
+                @NonNull final ReadableSequentialData input, final boolean strictMode, final int maxDepth)
+                throws ParseException {
+            Transaction transaction = null;
+            TransactionRecord transactionRecord = null;
+            Bytes hashOfSidecarItems = null;
+            while (input.hasRemaining()) {
+                final int tag = input.readVarInt(false);
+                final int fieldNum = tag >> TAG_FIELD_OFFSET;
+                final int wireType = tag & TAG_WIRE_TYPE_MASK;
+                if (fieldNum == FIELD_TRANSACTION.number()) {
+                    final int length = readLength(input, fieldNum, wireType);
+                    final long oldLimit = input.limit();
+                    input.limit(input.position() + length);
+                    transaction = Transaction.PROTOBUF.parse(input, strictMode, maxDepth - 1);
+                    input.limit(oldLimit);
+                } else if (fieldNum == FIELD_RECORD.number()) {
+                    final int length = readLength(input, fieldNum, wireType);
+                    final long oldLimit = input.limit();
+                    input.limit(input.position() + length);
+                    transactionRecord = TransactionRecord.PROTOBUF.parse(input, strictMode, maxDepth - 1);
+                    input.limit(oldLimit);
+                } else if (fieldNum == FIELD_HASH_OF_SIDECAR_ITEMS.number()) {
+                    hashOfSidecarItems = input.readBytes(readLength(input, fieldNum, wireType));
+                } else if (strictMode) {
+                    throw new ParseException("Unknown record stream item field: " + fieldNum);
+                } else {
+                    skipField(input, fieldNum, wireType);
+                }
+            }
+            return new RecordStreamItemV7(transaction, transactionRecord, hashOfSidecarItems);
         }
 
-        public void write(@NonNull RecordStreamItemV7 item, @NonNull WritableSequentialData output) {
-            // TBD
+        /**
+         * Read the length of a length-delimited field, all known fields of a record stream item are length-delimited.
+         */
+        private static int readLength(
+                @NonNull final ReadableSequentialData input, final int fieldNum, final int wireType)
+                throws ParseException {
+            if (wireType != ProtoConstants.WIRE_TYPE_DELIMITED.ordinal()) {
+                throw new ParseException(
+                        "Unexpected wire type " + wireType + " of record stream item field: " + fieldNum);
+            }
+            final int length = input.readVarInt(false);
+            if (length < 0 || length > input.remaining()) {
+                throw new ParseException("Invalid length " + length + " of record stream item field: " + fieldNum);
+            }
+            return length;
         }
 
-        public int measure(@NonNull ReadableSequentialData input) {
-            return 0;
+        /** Skip an unknown field, so items written by a later version can still be read. */
+        private static void skipField(
+                @NonNull final ReadableSequentialData input, final int fieldNum, final int wireType)
+                throws ParseException {
+            if (wireType == ProtoConstants.WIRE_TYPE_VARINT_OR_ZIGZAG.ordinal()) {
+                input.readVarLong(false);
+            } else if (wireType == ProtoConstants.WIRE_TYPE_FIXED_64_BIT.ordinal()) {
+                input.skip(Long.BYTES);
+            } else if (wireType == ProtoConstants.WIRE_TYPE_DELIMITED.ordinal()) {
+                input.skip(readLength(input, fieldNum, wireType));
+            } else if (wireType == ProtoConstants.WIRE_TYPE_FIXED_32_BIT.ordinal()) {
+                input.skip(Integer.BYTES);
+            } else {
+                throw new ParseException(
+                        "Unsupported wire type " + wireType + " of record stream item field: " + fieldNum);
+            }
         }
 
-        public int measureRecord(RecordStreamItemV7 item) {
-            return 0;
+        @Override
+        public void write(@NonNull final RecordStreamItemV7 item, @NonNull final WritableSequentialData output)
+                throws IOException {
+            if (item.transaction() != null) {
+                ProtoWriterTools.writeMessage(
+                        output,
+                        FIELD_TRANSACTION,
+                        item.transaction(),
+                        Transaction.PROTOBUF::write,
+                        Transaction.PROTOBUF::measureRecord);
+            }
+            if (item.transactionRecord() != null) {
+                ProtoWriterTools.writeMessage(
+                        output,
+                        FIELD_RECORD,
+                        item.transactionRecord(),
+                        TransactionRecord.PROTOBUF::write,
+                        TransactionRecord.PROTOBUF::measureRecord);
+            }
+            final var hashOfSidecarItems = item.hashOfSidecarItems();
+            if (hashOfSidecarItems != null) {
+                ProtoWriterTools.writeDelimited(
+                        output,
+                        FIELD_HASH_OF_SIDECAR_ITEMS,
+                        (int) hashOfSidecarItems.length(),
+                        out -> out.writeBytes(hashOfSidecarItems));
+            }
+        }
+
+        @Override
+        public int measure(@NonNull final ReadableSequentialData input) throws ParseException {
+            final long start = input.position();
+            parse(input);
+            return (int) (input.position() - start);
+        }
+
+        @Override
+        public int measureRecord(@NonNull final RecordStreamItemV7 item) {
+            int size = 0;
+            if (item.transaction() != null) {
+                size += ProtoWriterTools.sizeOfDelimited(
+                        FIELD_TRANSACTION, Transaction.PROTOBUF.measureRecord(item.transaction()));
+            }
+            if (item.transactionRecord() != null) {
+                size += ProtoWriterTools.sizeOfDelimited(
+                        FIELD_RECORD, TransactionRecord.PROTOBUF.measureRecord(item.transactionRecord()));
+            }
+            if (item.hashOfSidecarItems() != null) {
+                size += ProtoWriterTools.sizeOfDelimited(
+                        FIELD_HASH_OF_SIDECAR_ITEMS, (int) item.hashOfSidecarItems().length());
+            }
+            return size;
         }
 
-        public boolean fastEquals(@NonNull RecordStreamItemV7 item, @NonNull ReadableSequentialData input) {
-            return false;
+        @Override
+        public boolean fastEquals(@NonNull final RecordStreamItemV7 item, @NonNull final ReadableSequentialData input)
+                throws ParseException {
+            return item.equals(parse(input));
         }
     }
 }
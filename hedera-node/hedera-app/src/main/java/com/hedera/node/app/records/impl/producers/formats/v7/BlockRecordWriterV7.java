@@ -0,0 +1,504 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.node.app.records.impl.producers.formats.v7;
+
+import static com.hedera.hapi.streams.schema.RecordStreamFileSchema.BLOCK_NUMBER;
+import static com.hedera.hapi.streams.schema.RecordStreamFileSchema.END_OBJECT_RUNNING_HASH;
+import static com.hedera.hapi.streams.schema.RecordStreamFileSchema.HAPI_PROTO_VERSION;
+import static com.hedera.hapi.streams.schema.RecordStreamFileSchema.RECORD_STREAM_ITEMS;
+import static com.hedera.hapi.streams.schema.RecordStreamFileSchema.SIDECARS;
+import static com.hedera.hapi.streams.schema.RecordStreamFileSchema.START_OBJECT_RUNNING_HASH;
+import static com.hedera.node.app.records.impl.producers.BlockRecordFormat.TAG_TYPE_BITS;
+import static com.hedera.node.app.records.impl.producers.BlockRecordFormat.WIRE_TYPE_DELIMITED;
+import static com.hedera.node.app.records.impl.producers.formats.v6.SignatureWriterV6.writeSignatureFile;
+import static com.hedera.node.app.records.impl.producers.formats.v7.BlockRecordFormatV7.VERSION_7;
+import static com.hedera.pbj.runtime.ProtoWriterTools.writeLong;
+import static com.hedera.pbj.runtime.ProtoWriterTools.writeMessage;
+import static com.swirlds.common.stream.LinkedObjectStreamUtilities.convertInstantToStringWithPadding;
+import static java.util.Objects.requireNonNull;
+
+import com.hedera.hapi.node.base.SemanticVersion;
+import com.hedera.hapi.streams.HashAlgorithm;
+import com.hedera.hapi.streams.HashObject;
+import com.hedera.hapi.streams.SidecarMetadata;
+import com.hedera.node.app.records.impl.producers.BlockRecordWriter;
+import com.hedera.node.app.records.impl.producers.SerializedSingleTransactionRecord;
+import com.hedera.node.app.records.impl.producers.formats.v6.SidecarWriterV6;
+import com.hedera.node.app.spi.info.NodeInfo;
+import com.hedera.node.config.data.BlockRecordStreamConfig;
+import com.hedera.pbj.runtime.FieldDefinition;
+import com.hedera.pbj.runtime.FieldType;
+import com.hedera.pbj.runtime.ProtoConstants;
+import com.hedera.pbj.runtime.ProtoWriterTools;
+import com.hedera.pbj.runtime.io.buffer.Bytes;
+import com.hedera.pbj.runtime.io.stream.WritableStreamingData;
+import com.swirlds.common.crypto.DigestType;
+import com.swirlds.common.crypto.HashingOutputStream;
+import com.swirlds.common.stream.Signer;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * An incremental file-based {@link BlockRecordWriter} for the v7 format. It also writes to sidecars if needed, and when
+ * closed, creates and writes a signature file, exactly like the {@link
+ * com.hedera.node.app.records.impl.producers.formats.v6.BlockRecordWriterV6}.
+ *
+ * <p>A v7 record file is the 4 byte version, followed by a protobuf {@code RecordStreamFile}, with the fields in the
+ * order they are known. The header (hapi_proto_version, start_object_running_hash and block_number) comes first, then
+ * the record stream items, then the footer (end_object_running_hash and sidecars). Every
+ * {@link BlockRecordStreamConfig#checkpointInterval()} items, and after the last item, a checkpoint (field
+ * {@link #CHECKPOINT}) is written with the number of items written so far, and the CRC32C checksum of all bytes
+ * between the end of the previous checkpoint, or the start of the file, and the checkpoint. The checkpoints themselves
+ * are not covered by any checksum. A v6 parser skips the checkpoints as unknown fields.
+ *
+ * <p>The file is written append-only and is never compressed, and it is flushed after every checkpoint. So a reader
+ * can tail the file while it is written: everything up to the last complete checkpoint is final, and can be verified
+ * with the checksum of the checkpoint. As before, the file is only complete once its signature file exists.
+ *
+ * <p>All methods are expected to be called on a single thread other than those specified.
+ */
+public final class BlockRecordWriterV7 implements BlockRecordWriter {
+    private static final Logger logger = LogManager.getLogger(BlockRecordWriterV7.class);
+
+    /** The file extension for record files, the same as for v6 */
+    public static final String RECORD_EXTENSION = "rcd";
+    /** The suffix added to RECORD_EXTENSION for compressed sidecar files */
+    public static final String COMPRESSION_ALGORITHM_EXTENSION = ".gz";
+
+    /** The field of a checkpoint in the record file, a message with {@link #CHECKPOINT_ITEM_COUNT} and checksum */
+    static final FieldDefinition CHECKPOINT =
+            new FieldDefinition("checkpoint", FieldType.MESSAGE, true, false, false, 7);
+    /** The number of record stream items in the file before the checkpoint */
+    static final FieldDefinition CHECKPOINT_ITEM_COUNT =
+            new FieldDefinition("item_count", FieldType.UINT64, false, false, false, 1);
+    /** The CRC32C checksum of the bytes between the previous checkpoint, or the start of the file, and the checkpoint */
+    static final FieldDefinition CHECKPOINT_CHECKSUM =
+            new FieldDefinition("checksum", FieldType.UINT32, false, false, false, 2);
+
+    private enum State {
+        UNINITIALIZED,
+        OPEN,
+        CLOSED
+    }
+
+    /** The {@link Signer} used to sign the hashed bytes of the record file to write as the signature file */
+    private final Signer signer;
+    /** The maximum size of a sidecar file in bytes. */
+    private final int maxSideCarSizeInBytes;
+    /** Whether to compress the sidecar files. The record file itself is never compressed. */
+    private final boolean compressSidecarFiles;
+    /** The number of record stream items between two checkpoints */
+    private final int checkpointInterval;
+    /** The node-specific path to the directory where record files are written */
+    private final Path nodeScopedRecordDir;
+    /**
+     * The node-specific path to the directory where sidecar files are written. Relative to
+     * {@link #nodeScopedRecordDir}
+     */
+    private final Path nodeScopedSidecarDir;
+    /** The checksum of the bytes written since the last checkpoint */
+    private final CRC32C checksum = new CRC32C();
+    /** The block number for the file we are writing, set in init */
+    private long blockNumber;
+    /** The starting running hash before any items in this file, set in init */
+    private HashObject startObjectRunningHash;
+    /** The consensus time of the first <b>user transaction</b> recorded in this block, set in init */
+    private Instant startConsensusTime;
+    /** The version of the HAPI protobuf schema used to record transactions, set in init */
+    private SemanticVersion hapiProtoVersion;
+    /** The list of all {@link SidecarMetadata}s for this block. These are included in the footer of the record file. */
+    private List<SidecarMetadata> sidecarMetadata;
+    /** The current {@link SidecarWriterV6} for writing sidecar file data, null until there is a sidecar record */
+    private SidecarWriterV6 sidecarFileWriter;
+    /** The path to the record file we are writing */
+    private Path recordFilePath;
+    /** The file output stream we are writing to, which writes to {@link #recordFilePath} */
+    private OutputStream fileOutputStream;
+    /** HashingOutputStream for hashing the file contents, wraps {@link #fileOutputStream} */
+    private HashingOutputStream hashingOutputStream;
+    /** Updates the {@link #checksum} with the file contents, wraps {@link #hashingOutputStream} */
+    private CheckedOutputStream checkedOutputStream;
+    /** The buffered output stream we are writing to, wraps {@link #checkedOutputStream} */
+    private BufferedOutputStream bufferedOutputStream;
+    /** WritableStreamingData we are writing to, wraps {@link #bufferedOutputStream} */
+    private WritableStreamingData outputStream;
+    /** The number of record stream items written to the file */
+    private long itemCount;
+    /** The number of record stream items written since the last checkpoint */
+    private int itemsSinceCheckpoint;
+    /** The state of this writer */
+    private State state;
+
+    /**
+     * Creates a new incremental record file writer on a new file.
+     *
+     * @param config The configuration to be used for writing this block
+     * @param nodeInfo The node info for the node writing this file. This is used to get the node-specific directory
+     *                 where the file will be written.
+     * @param signer The signer to use to sign the file bytes to produce the signature file
+     * @param fileSystem The file system to use to write the file
+     */
+    public BlockRecordWriterV7(
+            @NonNull final BlockRecordStreamConfig config,
+            @NonNull final NodeInfo nodeInfo,
+            @NonNull final Signer signer,
+            @NonNull final FileSystem fileSystem) {
+
+        if (config.recordFileVersion() != VERSION_7) {
+            logger.fatal(
+                    "Bad configuration: BlockRecordWriterV7 used with record file version {}",
+                    config.recordFileVersion());
+            throw new IllegalArgumentException("Configuration record file version is not 7!");
+        }
+
+        // The signature files of v7 record files are the same as those of v6 record files
+        if (config.signatureFileVersion() != 6) {
+            logger.fatal(
+                    "Bad configuration: BlockRecordWriterV7 used with signature file version {}",
+                    config.signatureFileVersion());
+            throw new IllegalArgumentException("Configuration signature file version is not 6!");
+        }
+
+        this.state = State.UNINITIALIZED;
+        this.signer = requireNonNull(signer);
+        this.compressSidecarFiles = config.compressFilesOnCreation();
+        this.checkpointInterval = config.checkpointInterval();
+        this.maxSideCarSizeInBytes = config.sidecarMaxSizeMb() * 1024 * 1024;
+
+        // Compute directories for record and sidecar files
+        final Path recordDir = fileSystem.getPath(config.logDir());
+        nodeScopedRecordDir = recordDir.resolve("record" + nodeInfo.memo());
+        nodeScopedSidecarDir = nodeScopedRecordDir.resolve(config.sidecarDir());
+
+        // Create parent directories if needed for the record file itself
+        try {
+            Files.createDirectories(nodeScopedRecordDir);
+        } catch (final IOException e) {
+            logger.fatal("Could not create record directory {}", nodeScopedRecordDir, e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // =================================================================================================================
+    // Implementation of methods in BlockRecordWriter
+
+    /** {@inheritDoc} */
+    @Override
+    public void init(
+            @NonNull final SemanticVersion hapiProtoVersion,
+            @NonNull final HashObject startRunningHash,
+            @NonNull final Instant startConsensusTime,
+            final long blockNumber) {
+
+        if (state != State.UNINITIALIZED) {
+            throw new IllegalStateException("Cannot initialize a BlockRecordWriterV7 twice");
+        }
+
+        this.startObjectRunningHash = requireNonNull(startRunningHash);
+        this.startConsensusTime = requireNonNull(startConsensusTime);
+        this.hapiProtoVersion = requireNonNull(hapiProtoVersion);
+        this.blockNumber = blockNumber;
+        if (blockNumber < 0) {
+            throw new IllegalArgumentException("Block number must be non-negative");
+        }
+
+        // Create the chain of streams. The HashingOutputStream does not propagate flush and close, so we maintain
+        // references to all of them to flush and close them individually.
+        this.recordFilePath = getRecordFilePath(startConsensusTime);
+        try {
+            fileOutputStream = Files.newOutputStream(recordFilePath);
+            hashingOutputStream = new HashingOutputStream(createWholeFileMessageDigest(), fileOutputStream);
+            checkedOutputStream = new CheckedOutputStream(hashingOutputStream, checksum);
+            bufferedOutputStream = new BufferedOutputStream(checkedOutputStream);
+            outputStream = new WritableStreamingData(bufferedOutputStream);
+
+            // Write the header, and flush it so readers know the block as soon as possible
+            writeHeader();
+            flush();
+
+            state = State.OPEN;
+        } catch (final IOException e) {
+            logger.warn("Error initializing record file {}", recordFilePath, e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("java:S125")
+    public void writeItem(@NonNull final SerializedSingleTransactionRecord rec) {
+        if (state != State.OPEN) {
+            throw new IllegalStateException("Cannot write to a BlockRecordWriterV7 that is not open");
+        }
+
+        final var itemBytes = rec.protobufSerializedRecordStreamItem();
+        // [3] - record_stream_items
+        // FUTURE can change once https://github.com/hashgraph/pbj/issues/44 is fixed to:
+        // ProtoWriterTools.writeTag(outputStream, RECORD_STREAM_ITEMS, ProtoConstants.WIRE_TYPE_DELIMITED);
+        outputStream.writeVarInt((RECORD_STREAM_ITEMS.number() << TAG_TYPE_BITS) | WIRE_TYPE_DELIMITED, false);
+        outputStream.writeVarInt((int) itemBytes.length(), false);
+        outputStream.writeBytes(itemBytes);
+        itemCount++;
+        if (++itemsSinceCheckpoint == checkpointInterval) {
+            writeCheckpoint();
+        }
+        handleSidecarItems(rec);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close(@NonNull final HashObject endRunningHash) {
+        if (state != State.OPEN) {
+            throw new IllegalStateException("Cannot close a BlockRecordWriterV7 that is not open");
+        }
+
+        try {
+            if (itemsSinceCheckpoint > 0) {
+                writeCheckpoint();
+            }
+
+            closeSidecarFileWriter();
+            writeFooter(endRunningHash);
+
+            outputStream.close();
+            bufferedOutputStream.close();
+            checkedOutputStream.close();
+            fileOutputStream.close();
+
+            // write signature file, this tells the uploader that this record file set is complete
+            writeSignatureFile(
+                    recordFilePath,
+                    Bytes.wrap(hashingOutputStream.getDigest()),
+                    signer,
+                    true,
+                    VERSION_7,
+                    hapiProtoVersion,
+                    blockNumber,
+                    startObjectRunningHash.hash(),
+                    endRunningHash.hash());
+
+            this.state = State.CLOSED;
+        } catch (final IOException e) {
+            logger.warn("Error closing record file {}", recordFilePath, e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // =================================================================================================================
+    // Private implementation methods
+
+    private void writeHeader() throws IOException {
+        // Write the record file version int first to start of file
+        outputStream.writeInt(VERSION_7);
+        // [1] - hapi_proto_version
+        writeMessage(
+                outputStream,
+                HAPI_PROTO_VERSION,
+                hapiProtoVersion,
+                SemanticVersion.PROTOBUF::write,
+                SemanticVersion.PROTOBUF::measureRecord);
+        // [2] - start_object_running_hash
+        writeMessage(
+                outputStream,
+                START_OBJECT_RUNNING_HASH,
+                startObjectRunningHash,
+                HashObject.PROTOBUF::write,
+                HashObject.PROTOBUF::measureRecord);
+        // [5] - block_number, in the header rather than the footer, so readers tailing the file know the block
+        writeLong(outputStream, BLOCK_NUMBER, blockNumber);
+    }
+
+    /**
+     * Write a checkpoint with the checksum of everything written since the last checkpoint, and flush the file so
+     * readers see the complete checkpoint. The checksum is reset after the checkpoint, so the checkpoint itself is
+     * not covered by the checksum of the next checkpoint.
+     */
+    private void writeCheckpoint() {
+        try {
+            // Pass all bytes written so far through the checksum
+            bufferedOutputStream.flush();
+            final long crc = checksum.getValue();
+            final int size = ProtoWriterTools.sizeOfTag(
+                            CHECKPOINT_ITEM_COUNT, ProtoConstants.WIRE_TYPE_VARINT_OR_ZIGZAG)
+                    + ProtoWriterTools.sizeOfVarInt64(itemCount)
+                    + ProtoWriterTools.sizeOfTag(CHECKPOINT_CHECKSUM, ProtoConstants.WIRE_TYPE_VARINT_OR_ZIGZAG)
+                    + ProtoWriterTools.sizeOfVarInt64(crc);
+            // [7] - checkpoint
+            ProtoWriterTools.writeDelimited(outputStream, CHECKPOINT, size, out -> {
+                ProtoWriterTools.writeTag(out, CHECKPOINT_ITEM_COUNT);
+                out.writeVarLong(itemCount, false);
+                ProtoWriterTools.writeTag(out, CHECKPOINT_CHECKSUM);
+                out.writeVarLong(crc, false);
+            });
+            flush();
+            checksum.reset();
+            itemsSinceCheckpoint = 0;
+        } catch (final IOException e) {
+            logger.warn("Error writing checkpoint to record file {}", recordFilePath, e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Flush all buffered bytes to the file, so they are visible to readers */
+    private void flush() throws IOException {
+        bufferedOutputStream.flush();
+        checkedOutputStream.flush();
+        fileOutputStream.flush();
+    }
+
+    /**
+     * Write the footer to the file
+     *
+     * @param endRunningHash the ending running hash after the last record stream item
+     */
+    private void writeFooter(@NonNull final HashObject endRunningHash) throws UncheckedIOException {
+        try {
+            // [4] - end_object_running_hash
+            writeMessage(
+                    outputStream,
+                    END_OBJECT_RUNNING_HASH,
+                    endRunningHash,
+                    HashObject.PROTOBUF::write,
+                    HashObject.PROTOBUF::measureRecord);
+            // [6] - sidecars
+            ProtoWriterTools.writeMessageList(
+                    outputStream,
+                    SIDECARS,
+                    sidecarMetadata == null ? Collections.emptyList() : sidecarMetadata,
+                    SidecarMetadata.PROTOBUF::write,
+                    SidecarMetadata.PROTOBUF::measureRecord);
+        } catch (IOException e) {
+            logger.warn("Error writing footer to record file {}", recordFilePath, e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Write the sidecar records of an item to the sidecar file(s), in the same way as the v6 writer.
+     *
+     * @param rec Current item to write to the sidecar(s)
+     */
+    private void handleSidecarItems(@NonNull final SerializedSingleTransactionRecord rec) {
+        try {
+            final var sideCarItemsBytesList = rec.sideCarItemsBytes();
+            final int numOfSidecarItems = sideCarItemsBytesList.size();
+            for (int i = 0; i < numOfSidecarItems; i++) {
+                final var sidecarRecordBytes = sideCarItemsBytesList.get(i);
+                final var kind = rec.sideCarItems().get(i).sidecarRecords().kind();
+                if (sidecarFileWriter == null) sidecarFileWriter = createSidecarFileWriter(1);
+                // if it was not written then the file is full, so create a new one and write to it
+                if (!sidecarFileWriter.writeTransactionSidecarRecord(kind, sidecarRecordBytes)) {
+                    closeSidecarFileWriter();
+                    sidecarFileWriter = createSidecarFileWriter(sidecarFileWriter.id() + 1);
+                    if (!sidecarFileWriter.writeTransactionSidecarRecord(kind, sidecarRecordBytes)) {
+                        // Sidecars are not mandatory, so we can just log a warning and move on.
+                        logger.warn(
+                                "Sidecar file is too large and cannot be written. Sidecar size: {} bytes",
+                                sidecarRecordBytes.length());
+                    }
+                }
+            }
+        } catch (final IOException e) {
+            // NOTE: Writing sidecar files really is best-effort, if it doesn't happen, we're OK with just logging the
+            // warning and moving on.
+            logger.warn("Error writing sidecar file", e);
+        }
+    }
+
+    @NonNull
+    private SidecarWriterV6 createSidecarFileWriter(final int id) throws IOException {
+        return new SidecarWriterV6(getSidecarFilePath(id), compressSidecarFiles, maxSideCarSizeInBytes, id);
+    }
+
+    private void closeSidecarFileWriter() {
+        try {
+            if (sidecarFileWriter != null) {
+                sidecarFileWriter.close();
+                final Bytes sidecarHash = sidecarFileWriter.fileHash();
+                if (sidecarMetadata == null) sidecarMetadata = new ArrayList<>();
+                sidecarMetadata.add(new SidecarMetadata(
+                        new HashObject(HashAlgorithm.SHA_384, (int) sidecarHash.length(), sidecarHash),
+                        sidecarFileWriter.id(),
+                        sidecarFileWriter.types()));
+            }
+        } catch (final IOException e) {
+            // NOTE: Writing sidecar files really is best-effort, if it doesn't happen, we're OK with just logging the
+            // warning and moving on.
+            logger.warn("Error closing sidecar file", e);
+        }
+    }
+
+    /**
+     * Get the record file path for a record file with the given consensus time
+     *
+     * @param consensusTime  a consensus timestamp of the first object to be written in the file
+     * @return Path to a record file for that consensus time
+     */
+    @NonNull
+    private Path getRecordFilePath(final Instant consensusTime) {
+        return nodeScopedRecordDir.resolve(convertInstantToStringWithPadding(consensusTime) + "." + RECORD_EXTENSION);
+    }
+
+    /**
+     * Get full sidecar file path from given Instant object
+     *
+     * @param sidecarId the sidecar id of this sidecar file
+     * @return the new sidecar file path
+     */
+    @NonNull
+    private Path getSidecarFilePath(final int sidecarId) {
+        return nodeScopedSidecarDir.resolve(convertInstantToStringWithPadding(startConsensusTime)
+                + "_"
+                + String.format("%02d", sidecarId)
+                + "."
+                + RECORD_EXTENSION
+                + (compressSidecarFiles ? COMPRESSION_ALGORITHM_EXTENSION : ""));
+    }
+
+    /**
+     * Create the digest for hashing the file contents, which is signed for the signature file. This is distinct from
+     * the running hash, which is the hash of the record stream items.
+     *
+     * @return a new message digest
+     * @throws RuntimeException if the digest algorithm is not found
+     */
+    @NonNull
+    private MessageDigest createWholeFileMessageDigest() {
+        try {
+            return MessageDigest.getInstance(DigestType.SHA_384.algorithmName());
+        } catch (NoSuchAlgorithmException e) {
+            logger.fatal("Unable to create message digest", e);
+            throw new RuntimeException(e);
+        }
+    }
+}
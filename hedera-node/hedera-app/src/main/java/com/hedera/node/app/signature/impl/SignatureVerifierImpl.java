@@ -30,7 +30,9 @@ import com.swirlds.common.crypto.Cryptography;
 import com.swirlds.common.crypto.SignatureType;
 import com.swirlds.common.crypto.TransactionSignature;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.inject.Inject;
@@ -39,10 +41,22 @@ import javax.inject.Singleton;
 /**
  * A concrete implementation of {@link SignatureVerifier} that uses the {@link Cryptography} engine to verify the
  * signatures.
+ *
+ * <p>All signatures of a transaction are prepared first, and then submitted to the crypto engine for asynchronous
+ * verification by its pool of verification threads. The returned {@link SignatureVerificationFuture}s complete as
+ * the crypto engine finishes each signature, so the calling thread is free to do other work, or to wait on the
+ * futures, while the signatures are verified in parallel.
  */
 @Singleton
 public final class SignatureVerifierImpl implements SignatureVerifier {
 
+    /**
+     * The maximum number of signatures submitted to the crypto engine as a single work item. The crypto engine verifies
+     * all signatures of a work item one after another on the same thread, so the signatures of transactions with many
+     * signatures (threshold keys, key lists) are split into several work items to be verified in parallel.
+     */
+    static final int MAX_SIGNATURES_PER_WORK_ITEM = 8;
+
     /** The {@link Cryptography} engine to use for signature verification. */
     private final Cryptography cryptoEngine;
 
@@ -75,6 +89,7 @@ public final class SignatureVerifierImpl implements SignatureVerifier {
 
         // Gather each TransactionSignature to send to the platform and the resulting SignatureVerificationFutures
         final var futures = HashMap.<Key, SignatureVerificationFuture>newHashMap(sigs.size());
+        final var txSigs = new ArrayList<TransactionSignature>(sigs.size());
         for (ExpandedSignaturePair sigPair : sigs) {
             final var kind = sigPair.sigPair().signature().kind();
             final var preparer =
@@ -91,15 +106,38 @@ public final class SignatureVerifierImpl implements SignatureVerifier {
             preparer.addSignature(sigPair.signature());
             preparer.addKey(sigPair.keyBytes());
             final TransactionSignature txSig = preparer.prepareTransactionSignature();
-            cryptoEngine.verifySync(txSig);
+            txSigs.add(txSig);
             final SignatureVerificationFuture future =
                     new SignatureVerificationFutureImpl(sigPair.key(), sigPair.evmAlias(), txSig);
             futures.put(sigPair.key(), future);
         }
 
+        // Send all the signatures to the crypto engine at once. The futures complete once they are verified
+        submit(txSigs);
         return futures;
     }
 
+    /**
+     * Submits the given signatures to the crypto engine for asynchronous verification, in work items of at most
+     * {@link #MAX_SIGNATURES_PER_WORK_ITEM} signatures each.
+     *
+     * @param txSigs the signatures to verify
+     */
+    @SuppressWarnings("removal")
+    private void submit(@NonNull final List<TransactionSignature> txSigs) {
+        final var size = txSigs.size();
+        if (size == 0) {
+            return;
+        }
+        if (size <= MAX_SIGNATURES_PER_WORK_ITEM) {
+            cryptoEngine.verifyAsync(txSigs);
+            return;
+        }
+        for (int from = 0; from < size; from += MAX_SIGNATURES_PER_WORK_ITEM) {
+            cryptoEngine.verifyAsync(txSigs.subList(from, Math.min(from + MAX_SIGNATURES_PER_WORK_ITEM, size)));
+        }
+    }
+
     private static Preparer createPreparerForED(@NonNull final Bytes signedBytes) {
         return new Preparer(signedBytes, SignatureType.ED25519);
     }
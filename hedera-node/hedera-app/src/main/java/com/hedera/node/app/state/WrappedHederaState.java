@@ -83,7 +83,21 @@ public class WrappedHederaState implements HederaState {
     @NonNull
     public WritableStates getWritableStates(@NonNull String serviceName) {
         return writableStatesMap.computeIfAbsent(
-                serviceName, s -> new WrappedWritableStates(delegate.getWritableStates(s)));
+                serviceName, s -> createWritableStates(s, delegate.getWritableStates(s)));
+    }
+
+    /**
+     * Creates the {@link WrappedWritableStates} that captures the modifications of the given service. Subclasses may
+     * override this method to change how the {@link WritableStates} of a service are wrapped.
+     *
+     * @param serviceName the name of the service
+     * @param delegate the {@link WritableStates} of the service in the underlying {@link HederaState}
+     * @return the {@link WrappedWritableStates} for the service
+     */
+    @NonNull
+    protected WrappedWritableStates createWritableStates(
+            @NonNull final String serviceName, @NonNull final WritableStates delegate) {
+        return new WrappedWritableStates(delegate);
     }
 
     /**
@@ -17,7 +17,6 @@
 package com.hedera.node.app.state.recordcache;
 
 import static com.hedera.node.app.spi.HapiUtils.TIMESTAMP_COMPARATOR;
-import static com.hedera.node.app.spi.HapiUtils.isBefore;
 import static com.hedera.node.app.spi.HapiUtils.minus;
 import static com.hedera.node.app.state.recordcache.RecordCacheService.NAME;
 import static com.hedera.node.app.state.recordcache.RecordCacheService.TXN_RECORD_QUEUE;
@@ -38,16 +37,16 @@ import com.hedera.node.app.state.DeduplicationCache;
 import com.hedera.node.app.state.HederaRecordCache;
 import com.hedera.node.app.state.SingleTransactionRecord;
 import com.hedera.node.app.state.WorkingStateAccessor;
+import com.hedera.node.app.state.recordcache.RecordExpiryRing.ExpiryListener;
 import com.hedera.node.config.ConfigProvider;
 import com.hedera.node.config.data.HederaConfig;
 import com.hedera.node.config.data.LedgerConfig;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -66,7 +65,9 @@ import org.apache.logging.log4j.Logger;
  *
  * <p>However, storing them in a queue of this nature does not provide efficient access to the data itself. For this
  * reason, in-memory data structures are used to provide efficient access to the data. These data structures are rebuilt
- * after reconnect or restart, and kept in sync with the data in state.
+ * after reconnect or restart, and kept in sync with the data in state. The order of the queue itself is mirrored in
+ * memory by a {@link RecordExpiryRing}, where records are grouped by consensus second, so expired records are found
+ * without reading the queue from state, and a whole second of records is expired at once.
  *
  * <p>Some transactions produce additional "child" transactions or "preceding" transactions. For example, when an
  * account is to be auto-created due to a crypto transfer to an unknown alias, we create a preceding transaction. Or,
@@ -90,6 +91,10 @@ public class RecordCacheImpl implements HederaRecordCache {
      */
     private static final History EMPTY_HISTORY = new History();
 
+    /** Orders records returned by {@link #getRecords(AccountID)} by consensus time. */
+    private static final Comparator<TransactionRecord> CONSENSUS_ORDER = (a, b) -> TIMESTAMP_COMPARATOR.compare(
+            a.consensusTimestampOrElse(Timestamp.DEFAULT), b.consensusTimestampOrElse(Timestamp.DEFAULT));
+
     /** Gives access to the current working state. */
     private final WorkingStateAccessor workingStateAccessor;
     /** Used for looking up the max valid duration window for a transaction. This must be looked up dynamically. */
@@ -109,12 +114,19 @@ public class RecordCacheImpl implements HederaRecordCache {
      */
     private final Map<TransactionID, History> histories;
     /**
-     * A secondary index that maps from the AccountID of the payer account to a set of transaction IDs that were
-     * submitted by this payer. This is only needed for answering queries. Ideally such queries would exist on the
-     * mirror node instead. The answer to this query will include child records that were created as a consequence
-     * of the original user transaction, but not any preceding records triggered by it.
+     * A secondary index that maps from the AccountID of the payer account to the transaction IDs that were
+     * submitted by this payer, in consensus order. This is only needed for answering queries. Ideally such queries
+     * would exist on the mirror node instead. The answer to this query will include child records that were created
+     * as a consequence of the original user transaction, but not any preceding records triggered by it.
+     */
+    private final Map<AccountID, PayerTransactions> payerToTransactionIndex = new ConcurrentHashMap<>();
+    /**
+     * Mirrors the record queue in state, in the same order, so expired records can be found without reading the
+     * queue. Only used on the "handle" thread, or during startup and reconnect.
      */
-    private final Map<AccountID, Set<TransactionID>> payerToTransactionIndex = new ConcurrentHashMap<>();
+    private final RecordExpiryRing expiryRing = new RecordExpiryRing();
+    /** Removes expired records from the in-memory data structures. Kept in a field to avoid allocating on expiry. */
+    private final ExpiryListener expiryListener = this::removeFromInMemoryCache;
 
     /**
      * Called once during startup to create this singleton. Rebuilds the in-memory data structures based on the current
@@ -149,6 +161,7 @@ public class RecordCacheImpl implements HederaRecordCache {
     public void rebuild() {
         histories.clear();
         payerToTransactionIndex.clear();
+        expiryRing.clear();
         // FUTURE: It doesn't hurt to clear the dedupe cache here, but is also probably not the best place to do it. The
         // system should clear the dedupe cache directly and not indirectly through this call.
         deduplicationCache.clear();
@@ -250,9 +263,45 @@ public class RecordCacheImpl implements HederaRecordCache {
         final var listToAddTo = (isChildTx && !txId.scheduled()) ? history.childRecords() : history.records();
         listToAddTo.add(transactionRecord);
 
-        // Add to the payer-to-transaction index
-        final var transactionIDs = payerToTransactionIndex.computeIfAbsent(payerAccountId, ignored -> new HashSet<>());
-        transactionIDs.add(txId);
+        // Add to the payer-to-transaction index. Only transaction IDs that are keys in the histories map are useful
+        // there, and each of them only needs to be indexed once per payer. Preceding records may have created the
+        // history already, and a duplicate may be paid by someone else, so the history tracks its indexed payers
+        final var isIndexed = txId.nonce() == 0 && history.addIndexedPayer(payerAccountId);
+        if (isIndexed) {
+            payerToTransactionIndex
+                    .computeIfAbsent(payerAccountId, ignored -> new PayerTransactions())
+                    .add(txId);
+        }
+
+        // Finally, mirror the queue entry for this record, so it can be expired later
+        final var consensusSecond =
+                transactionRecord.consensusTimestampOrElse(Timestamp.DEFAULT).seconds();
+        expiryRing.add(consensusSecond, txId, isIndexed ? payerAccountId : null);
+    }
+
+    /**
+     * Called for every expired record, in queue order, this method removes the record from the internal lookup data
+     * structures.
+     *
+     * @param txId The transaction ID of the expired record.
+     * @param indexedPayer The payer the record was indexed for in the payer-to-transaction index, if any.
+     */
+    private void removeFromInMemoryCache(@NonNull final TransactionID txId, @Nullable final AccountID indexedPayer) {
+        // Remove from the histories.  Note that all transactions are added to this map keyed to the "user
+        // transaction" ID, so removing the entry here removes both "parent" and "child" transaction records
+        // associated with that ID.
+        histories.remove(txId);
+        // Remove from the payer to transaction index. Records are expired in the order they were added, so the
+        // expired transaction is always the oldest one indexed for its payer
+        if (indexedPayer != null) {
+            final var transactions = payerToTransactionIndex.get(indexedPayer);
+            if (transactions != null) {
+                transactions.removeOldest();
+                if (transactions.isEmpty()) {
+                    payerToTransactionIndex.remove(indexedPayer);
+                }
+            }
+        }
     }
 
     /**
@@ -264,38 +313,16 @@ public class RecordCacheImpl implements HederaRecordCache {
         // Compute the earliest valid start timestamp that is still within the max transaction duration window.
         final var config = configProvider.getConfiguration().getConfigData(HederaConfig.class);
         final var earliestValidStart = minus(consensusTimestamp, config.transactionMaxValidDuration());
-        // Loop in order and expunge every entry where the start time is before the earliest valid start.
-        // Also remove from the in-memory data structures.
-        do {
-            final var entry = queue.peek();
-            if (entry != null) {
-                final var rec = entry.transactionRecordOrThrow();
-                final var txId = rec.transactionIDOrThrow();
-                // If the valid start time is before the earliest valid start, then it has expired
-                if (isBefore(txId.transactionValidStartOrThrow(), earliestValidStart)) {
-                    // Remove from the histories.  Note that all transactions are added to this map
-                    // keyed to the "user transaction" ID, so removing the entry here removes both
-                    // "parent" and "child" transaction records associated with that ID.
-                    histories.remove(txId);
-                    // remove from queue as well.  The queue only permits removing the current "HEAD",
-                    // but that should always be correct here.
-                    queue.removeIf(TruePredicate.INSTANCE);
-                    // Remove from the payer to transaction index
-                    final var payerAccountId = txId.accountIDOrThrow(); // NOTE: Not accurate if the payer was the node
-                    final var transactionIDs =
-                            payerToTransactionIndex.computeIfAbsent(payerAccountId, ignored -> new HashSet<>());
-                    transactionIDs.remove(txId);
-                    if (transactionIDs.isEmpty()) {
-                        payerToTransactionIndex.remove(payerAccountId);
-                    }
-                } else {
-                    break;
-                }
-            } else {
-                break;
-            }
-        } while (true);
+        // The ring mirrors the queue, so it finds every expired entry at the head of the queue without reading the
+        // queue itself, and removes them from the in-memory data structures.
+        final var expired = expiryRing.expire(earliestValidStart, expiryListener);
+        // Then remove the same entries from the queue as well.  The queue only permits removing the current "HEAD",
+        // but that should always be correct here.
+        for (int i = 0; i < expired; i++) {
+            queue.removeIf(TruePredicate.INSTANCE);
+        }
     }
+
     // ---------------------------------------------------------------------------------------------------------------
     // Implementation methods of RecordCache
     // ---------------------------------------------------------------------------------------------------------------
@@ -310,8 +337,8 @@ public class RecordCacheImpl implements HederaRecordCache {
     @NonNull
     @Override
     public List<TransactionRecord> getRecords(@NonNull final AccountID accountID) {
-        final var transactionIDs = payerToTransactionIndex.get(accountID);
-        if (transactionIDs == null) {
+        final var transactions = payerToTransactionIndex.get(accountID);
+        if (transactions == null) {
             return emptyList();
         }
 
@@ -322,24 +349,52 @@ public class RecordCacheImpl implements HederaRecordCache {
                 .getConfigData(LedgerConfig.class)
                 .recordsMaxQueryableByAccount();
 
-        // While we still need to gather more records, collect them from the different histories.
+        // While we still need to gather more records, collect them from the different histories, the most recent
+        // first. The index is only modified on the "handle" thread, so take a snapshot of its bounds. The tail is read
+        // first, as the "handle" thread writes the ids array and its slot before publishing a new tail, so the array
+        // read afterwards covers every sequence number from the head up to that tail.
         final var records = new ArrayList<TransactionRecord>(maxRemaining);
-        for (final var transactionID : transactionIDs) {
-            final var history = histories.get(transactionID);
-            if (history != null) {
+        final var newest = transactions.tail;
+        final var oldest = transactions.head;
+        final var ids = transactions.ids;
+        for (var i = newest - 1; i >= oldest && maxRemaining > 0; i--) {
+            final var transactionID = ids[(int) (i & (ids.length - 1))];
+            final var history = transactionID == null ? null : histories.get(transactionID);
+            if (history == null) {
+                continue;
+            }
+            // A history may be indexed more than once for an account that paid for duplicates of someone else's
+            // transaction, so make sure it is only included once
+            if (!accountID.equals(transactionID.accountID())
+                    && !history.records().isEmpty()
+                    && containsSame(records, history.records().getFirst())) {
+                continue;
+            }
+            final var numRecords = history.records().size() + history.childRecords().size();
+            if (numRecords <= maxRemaining) {
+                records.addAll(history.records());
+                records.addAll(history.childRecords());
+            } else {
                 final var recs = history.orderedRecords();
-                records.addAll(recs.size() > maxRemaining ? recs.subList(0, maxRemaining) : recs);
-                maxRemaining -= recs.size();
-                if (maxRemaining <= 0) break;
+                records.addAll(recs.subList(recs.size() - maxRemaining, recs.size()));
             }
+            maxRemaining -= numRecords;
         }
 
-        records.sort((a, b) -> TIMESTAMP_COMPARATOR.compare(
-                a.consensusTimestampOrElse(Timestamp.DEFAULT), b.consensusTimestampOrElse(Timestamp.DEFAULT)));
-
+        records.sort(CONSENSUS_ORDER);
         return records;
     }
 
+    private static boolean containsSame(
+            @NonNull final List<TransactionRecord> records, @NonNull final TransactionRecord transactionRecord) {
+        for (final var rec : records) {
+            if (rec == transactionRecord) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /** Utility method that get the writable queue from the working state */
     private WritableStates getWritableState() {
         final var hederaState = workingStateAccessor.getHederaState();
@@ -354,4 +409,42 @@ public class RecordCacheImpl implements HederaRecordCache {
         final var states = requireNonNull(workingStateAccessor.getHederaState()).getReadableStates(NAME);
         return states.getQueue(TXN_RECORD_QUEUE);
     }
+
+    /**
+     * The transaction IDs indexed for a single payer, in consensus order. Transaction IDs are only added and removed
+     * on the "handle" thread, always at the newest and oldest end respectively, so a plain array ring is enough and
+     * no allocation is needed per transaction. Readers on other threads may observe a slightly stale view, which is
+     * acceptable for answering queries.
+     */
+    private static final class PayerTransactions {
+        private volatile TransactionID[] ids = new TransactionID[8];
+        /** Sequence number of the oldest transaction ID. */
+        private volatile long head;
+        /** Sequence number after the newest transaction ID. */
+        private volatile long tail;
+
+        void add(@NonNull final TransactionID transactionID) {
+            var array = ids;
+            if (tail - head == array.length) {
+                final var grown = new TransactionID[array.length * 2];
+                for (var i = head; i < tail; i++) {
+                    grown[(int) (i & (grown.length - 1))] = array[(int) (i & (array.length - 1))];
+                }
+                ids = grown;
+                array = grown;
+            }
+            array[(int) (tail & (array.length - 1))] = transactionID;
+            tail++;
+        }
+
+        void removeOldest() {
+            final var array = ids;
+            array[(int) (head & (array.length - 1))] = null;
+            head++;
+        }
+
+        boolean isEmpty() {
+            return head == tail;
+        }
+    }
 }
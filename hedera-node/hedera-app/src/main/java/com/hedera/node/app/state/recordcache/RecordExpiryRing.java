@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.node.app.state.recordcache;
+
+import com.hedera.hapi.node.base.AccountID;
+import com.hedera.hapi.node.base.Timestamp;
+import com.hedera.hapi.node.base.TransactionID;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.Arrays;
+
+/**
+ * An in-memory mirror of the record queue in state, used by {@link RecordCacheImpl} to decide which records have
+ * expired without reading the queue itself. Entries are grouped into buckets, one bucket per consensus second, and
+ * the buckets form a ring in consensus order. Every entry corresponds to exactly one entry in the record queue, in
+ * the same order.
+ *
+ * <p>A record expires when the valid start of its transaction is before the earliest valid start that is still within
+ * the max transaction duration window, and only if all records before it in the queue have expired as well. Each
+ * bucket tracks the latest valid start of all its records, so a whole second of records is expired at once when
+ * that valid start is too old. Only the bucket at the boundary of the window is checked record by record.
+ *
+ * <p>Bucket arrays are reused as the ring wraps around, so adding and expiring records doesn't allocate once the ring
+ * has grown to its working size. This class is not thread safe, it must only be used on the "handle" thread, or
+ * during startup and reconnect.
+ */
+final class RecordExpiryRing {
+
+    /** Called for every expired entry, in queue order. */
+    @FunctionalInterface
+    interface ExpiryListener {
+        /**
+         * Called when a record expires.
+         *
+         * @param transactionID the transaction ID of the expired record
+         * @param indexedPayer the payer the record was indexed for, or {@code null} if it wasn't indexed by payer
+         */
+        void expired(@NonNull TransactionID transactionID, @Nullable AccountID indexedPayer);
+    }
+
+    private static final int INITIAL_BUCKETS = 256;
+    private static final int INITIAL_BUCKET_CAPACITY = 16;
+
+    /** Records that came to consensus within the same second. */
+    private static final class Bucket {
+        private long consensusSecond;
+        private long maxValidStartNanos;
+        private int head;
+        private int size;
+        private TransactionID[] transactionIDs = new TransactionID[INITIAL_BUCKET_CAPACITY];
+        private AccountID[] indexedPayers = new AccountID[INITIAL_BUCKET_CAPACITY];
+        private long[] validStartNanos = new long[INITIAL_BUCKET_CAPACITY];
+
+        private void reset(final long second) {
+            consensusSecond = second;
+            maxValidStartNanos = Long.MIN_VALUE;
+            head = 0;
+            size = 0;
+        }
+
+        private void add(
+                @NonNull final TransactionID transactionID,
+                @Nullable final AccountID indexedPayer,
+                final long validStart) {
+            if (size == transactionIDs.length) {
+                final int newCapacity = size * 2;
+                transactionIDs = Arrays.copyOf(transactionIDs, newCapacity);
+                indexedPayers = Arrays.copyOf(indexedPayers, newCapacity);
+                validStartNanos = Arrays.copyOf(validStartNanos, newCapacity);
+            }
+            transactionIDs[size] = transactionID;
+            indexedPayers[size] = indexedPayer;
+            validStartNanos[size] = validStart;
+            size++;
+            maxValidStartNanos = Math.max(maxValidStartNanos, validStart);
+        }
+
+        private void expireHead(@NonNull final ExpiryListener listener) {
+            listener.expired(transactionIDs[head], indexedPayers[head]);
+            transactionIDs[head] = null;
+            indexedPayers[head] = null;
+            head++;
+        }
+
+        private boolean isEmpty() {
+            return head == size;
+        }
+    }
+
+    /** Buckets in consensus order, from {@link #first} (inclusive) to {@link #first} + {@link #count} (exclusive). */
+    private Bucket[] buckets = new Bucket[INITIAL_BUCKETS];
+    /** Index of the oldest bucket. */
+    private int first;
+    /** Number of buckets in use. */
+    private int count;
+    /** Number of entries in all buckets. */
+    private long size;
+
+    /**
+     * Adds a record to the end of the ring. Records must be added in consensus order.
+     *
+     * @param consensusSecond the consensus second of the record
+     * @param transactionID the transaction ID of the record
+     * @param indexedPayer the payer the record was indexed for, or {@code null} if it wasn't indexed by payer
+     */
+    void add(
+            final long consensusSecond,
+            @NonNull final TransactionID transactionID,
+            @Nullable final AccountID indexedPayer) {
+        Bucket last = (count == 0) ? null : buckets[(first + count - 1) & (buckets.length - 1)];
+        // Consensus time never goes backwards, but if it ever did, the record is still kept in queue order
+        if (last == null || last.consensusSecond < consensusSecond) {
+            last = appendBucket(consensusSecond);
+        }
+        last.add(transactionID, indexedPayer, toNanos(transactionID.transactionValidStartOrThrow()));
+        size++;
+    }
+
+    /**
+     * Expires all records at the head of the ring with valid start before the given timestamp. The walk stops at the
+     * first record that hasn't expired, exactly as the walk over the record queue does.
+     *
+     * @param earliestValidStart the earliest valid start that is still within the max transaction duration window
+     * @param listener called for every expired record, in queue order
+     * @return the number of expired records
+     */
+    int expire(@NonNull final Timestamp earliestValidStart, @NonNull final ExpiryListener listener) {
+        final long earliest = toNanos(earliestValidStart);
+        int expired = 0;
+        while (count > 0) {
+            final Bucket bucket = buckets[first];
+            if (bucket.maxValidStartNanos < earliest) {
+                // The whole second has expired
+                while (!bucket.isEmpty()) {
+                    bucket.expireHead(listener);
+                    expired++;
+                }
+            } else {
+                // The boundary second, check record by record
+                while (!bucket.isEmpty() && bucket.validStartNanos[bucket.head] < earliest) {
+                    bucket.expireHead(listener);
+                    expired++;
+                }
+                if (!bucket.isEmpty()) {
+                    break;
+                }
+            }
+            first = (first + 1) & (buckets.length - 1);
+            count--;
+        }
+        size -= expired;
+        return expired;
+    }
+
+    /**
+     * Removes all records from the ring, without notifying any listeners.
+     */
+    void clear() {
+        for (int i = 0; i < count; i++) {
+            final Bucket bucket = buckets[(first + i) & (buckets.length - 1)];
+            Arrays.fill(bucket.transactionIDs, null);
+            Arrays.fill(bucket.indexedPayers, null);
+            bucket.reset(0);
+        }
+        first = 0;
+        count = 0;
+        size = 0;
+    }
+
+    /**
+     * Gets the number of records in the ring.
+     *
+     * @return the number of records
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of consensus seconds with records in the ring.
+     *
+     * @return the number of buckets in use
+     */
+    int bucketCount() {
+        return count;
+    }
+
+    private Bucket appendBucket(final long consensusSecond) {
+        if (count == buckets.length) {
+            // Unroll the ring into a larger array, the oldest bucket goes first
+            final Bucket[] grown = new Bucket[buckets.length * 2];
+            for (int i = 0; i < count; i++) {
+                grown[i] = buckets[(first + i) & (buckets.length - 1)];
+            }
+            buckets = grown;
+            first = 0;
+        }
+        final int index = (first + count) & (buckets.length - 1);
+        Bucket bucket = buckets[index];
+        if (bucket == null) {
+            bucket = new Bucket();
+            buckets[index] = bucket;
+        }
+        bucket.reset(consensusSecond);
+        count++;
+        return bucket;
+    }
+
+    /**
+     * Converts a timestamp to nanoseconds since the epoch. Valid start times are far from the range where this could
+     * overflow.
+     */
+    static long toNanos(@NonNull final Timestamp timestamp) {
+        return timestamp.seconds() * 1_000_000_000L + timestamp.nanos();
+    }
+}
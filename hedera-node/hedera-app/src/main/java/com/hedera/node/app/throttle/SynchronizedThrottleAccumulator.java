@@ -33,13 +33,24 @@ import javax.inject.Singleton;
 /**
  * Keeps track of the amount of usage of different TPS throttle categories and gas, and returns whether a given
  * transaction or query should be throttled based on that.
- * Meant to be used in multithreaded context
+ * Meant to be used in multithreaded context.
+ *
+ * <p>Most of the work to throttle a transaction is finding out which capacity it needs, which may involve parsing
+ * Ethereum transactions and looking up aliases in state. That work is done concurrently by all ingest threads, which
+ * record the capacity claims in a {@link ThrottleClaimPlan}. Only making the claims, a handful of arithmetic operations
+ * per throttle bucket, is serialized. Since the claims are made in the same order and with the same outcome as if the
+ * {@link ThrottleAccumulator} had made them directly, every decision is the same as that of a fully serialized
+ * throttle that handled the transactions in the order their claims were made.
  */
 @Singleton
 public class SynchronizedThrottleAccumulator {
 
+    /** Each ingest thread reuses its own plan, so planning doesn't allocate */
+    private static final ThreadLocal<ThrottleClaimPlan> PLANS = ThreadLocal.withInitial(ThrottleClaimPlan::new);
+
     private final ThrottleAccumulator frontendThrottle;
 
+    /** Only accessed while holding the lock on this object */
     @NonNull
     private Instant lastDecisionTime = Instant.EPOCH;
 
@@ -56,9 +67,16 @@ public class SynchronizedThrottleAccumulator {
      * @param state the current state of the node
      * @return whether the transaction should be throttled
      */
-    public synchronized boolean shouldThrottle(@NonNull TransactionInfo txnInfo, HederaState state) {
-        setDecisionTime(Instant.now());
-        return frontendThrottle.shouldThrottle(txnInfo, lastDecisionTime, state);
+    public boolean shouldThrottle(@NonNull TransactionInfo txnInfo, HederaState state) {
+        final var plan = PLANS.get();
+        try {
+            if (frontendThrottle.planClaims(txnInfo, state, plan)) {
+                return true;
+            }
+            return claim(plan);
+        } finally {
+            plan.clear();
+        }
     }
 
     /**
@@ -70,14 +88,32 @@ public class SynchronizedThrottleAccumulator {
      * @param queryPayerId the payer id of the query
      * @return whether the query should be throttled
      */
-    public synchronized boolean shouldThrottle(
+    public boolean shouldThrottle(
             @NonNull final HederaFunctionality queryFunction,
             @NonNull final Query query,
             @Nullable AccountID queryPayerId) {
         requireNonNull(query);
         requireNonNull(queryFunction);
-        setDecisionTime(Instant.now());
-        return frontendThrottle.shouldThrottle(queryFunction, lastDecisionTime, query, queryPayerId);
+        final var plan = PLANS.get();
+        try {
+            if (frontendThrottle.planClaims(queryFunction, query, queryPayerId, plan)) {
+                return true;
+            }
+            return claim(plan);
+        } finally {
+            plan.clear();
+        }
+    }
+
+    private boolean claim(@NonNull final ThrottleClaimPlan plan) {
+        if (plan.isEmpty()) {
+            // Nothing to claim, e.g. for payers exempt from throttling
+            return false;
+        }
+        synchronized (this) {
+            setDecisionTime(Instant.now());
+            return frontendThrottle.shouldThrottle(plan, lastDecisionTime);
+        }
     }
 
     private void setDecisionTime(@NonNull final Instant time) {
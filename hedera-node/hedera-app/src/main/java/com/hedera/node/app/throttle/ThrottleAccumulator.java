@@ -50,6 +50,7 @@ import com.hedera.hapi.node.transaction.Query;
 import com.hedera.hapi.node.transaction.ThrottleDefinitions;
 import com.hedera.hapi.node.transaction.TransactionBody;
 import com.hedera.node.app.hapi.utils.ethereum.EthTxData;
+import com.hedera.node.app.hapi.utils.sysfiles.domain.throttling.ScaleFactor;
 import com.hedera.node.app.hapi.utils.sysfiles.domain.throttling.ThrottleBucket;
 import com.hedera.node.app.hapi.utils.sysfiles.domain.throttling.ThrottleGroup;
 import com.hedera.node.app.hapi.utils.throttles.DeterministicThrottle;
@@ -92,6 +93,8 @@ import org.apache.logging.log4j.Logger;
  * Keeps track of the amount of usage of different TPS throttle categories and gas, and returns whether a given
  * transaction or query should be throttled based on that.
  * Meant to be used in single-threaded context only as part of the {@link com.hedera.node.app.workflows.handle.HandleWorkflow}.
+ * The only exception are the {@code planClaims} methods, which don't change any throttle and are used concurrently by
+ * the {@link SynchronizedThrottleAccumulator}.
  */
 public class ThrottleAccumulator {
 
@@ -102,10 +105,12 @@ public class ThrottleAccumulator {
             EnumSet.of(CRYPTO_TRANSFER, ETHEREUM_TRANSACTION);
     private static final int UNKNOWN_NUM_IMPLICIT_CREATIONS = -1;
 
-    private EnumMap<HederaFunctionality, ThrottleReqsManager> functionReqs = new EnumMap<>(HederaFunctionality.class);
+    // Read without any lock by the ingest threads when they plan their claims, see SynchronizedThrottleAccumulator
+    private volatile EnumMap<HederaFunctionality, ThrottleReqsManager> functionReqs =
+            new EnumMap<>(HederaFunctionality.class);
     private boolean lastTxnWasGasThrottled;
-    private GasLimitDeterministicThrottle gasThrottle;
-    private List<DeterministicThrottle> activeThrottles = emptyList();
+    private volatile GasLimitDeterministicThrottle gasThrottle;
+    private volatile List<DeterministicThrottle> activeThrottles = emptyList();
     private final ThrottleMetrics throttleMetrics;
 
     private final ConfigProvider configProvider;
@@ -153,7 +158,7 @@ public class ThrottleAccumulator {
             @NonNull final TransactionInfo txnInfo, @NonNull final Instant now, @NonNull final HederaState state) {
         resetLastAllowedUse();
         lastTxnWasGasThrottled = false;
-        if (shouldThrottleTxn(false, txnInfo, now, state)) {
+        if (shouldThrottleTxn(false, txnInfo, now, state, null)) {
             reclaimLastAllowedUse();
             return true;
         }
@@ -161,6 +166,64 @@ public class ThrottleAccumulator {
         return false;
     }
 
+    /**
+     * Records the capacity claims for the given transaction in the given plan, without touching any throttle bucket.
+     * This method may be called concurrently from many threads, as long as each one uses its own plan.
+     *
+     * @param txnInfo the transaction to record the capacity claims for
+     * @param state the current state of the node
+     * @param plan the plan to record the claims in
+     * @return true if the transaction should be throttled no matter what capacity is free, otherwise the decision
+     * depends on the recorded claims, see {@link #shouldThrottle(ThrottleClaimPlan, Instant)}
+     */
+    boolean planClaims(
+            @NonNull final TransactionInfo txnInfo,
+            @NonNull final HederaState state,
+            @NonNull final ThrottleClaimPlan plan) {
+        // The time is only used to claim capacity, which is deferred
+        return shouldThrottleTxn(false, txnInfo, Instant.EPOCH, state, requireNonNull(plan));
+    }
+
+    /**
+     * Records the capacity claims for the given query in the given plan, without touching any throttle bucket.
+     * This method may be called concurrently from many threads, as long as each one uses its own plan.
+     *
+     * @param queryFunction the functionality of the query
+     * @param query the query to record the capacity claims for
+     * @param queryPayerId the payer id of the query
+     * @param plan the plan to record the claims in
+     * @return true if the query should be throttled no matter what capacity is free, otherwise the decision depends
+     * on the recorded claims, see {@link #shouldThrottle(ThrottleClaimPlan, Instant)}
+     */
+    boolean planClaims(
+            @NonNull final HederaFunctionality queryFunction,
+            @NonNull final Query query,
+            @Nullable final AccountID queryPayerId,
+            @NonNull final ThrottleClaimPlan plan) {
+        return shouldThrottleQuery(queryFunction, Instant.EPOCH, query, queryPayerId, requireNonNull(plan));
+    }
+
+    /**
+     * Makes the capacity claims recorded in the given plan, and returns whether the transaction or query they were
+     * recorded for should be throttled. If any claim fails, all capacity claimed for the plan is given back, exactly
+     * as when throttling the transaction or query directly.
+     *
+     * @param plan the recorded claims
+     * @param now the instant of time the claims should be made at
+     * @return whether the transaction or query should be throttled
+     */
+    boolean shouldThrottle(@NonNull final ThrottleClaimPlan plan, @NonNull final Instant now) {
+        resetLastAllowedUse();
+        lastTxnWasGasThrottled = false;
+        final int failedClaim = plan.claimAt(now);
+        if (failedClaim >= 0) {
+            lastTxnWasGasThrottled = plan.isGasClaim(failedClaim);
+            reclaimLastAllowedUse();
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Updates the throttle requirements for the given query and returns whether the query should be throttled.
      *
@@ -175,29 +238,7 @@ public class ThrottleAccumulator {
             @NonNull final Instant now,
             @NonNull final Query query,
             @Nullable final AccountID queryPayerId) {
-        final var configuration = configProvider.getConfiguration();
-        if (throttleExempt(queryPayerId, configuration)) {
-            return false;
-        }
-        if (isGasThrottled(queryFunction)) {
-            final var enforceGasThrottle =
-                    configuration.getConfigData(ContractsConfig.class).throttleThrottleByGas();
-            return enforceGasThrottle
-                    && !gasThrottle.allow(
-                            now,
-                            query.contractCallLocalOrElse(ContractCallLocalQuery.DEFAULT)
-                                    .gas());
-        }
-        resetLastAllowedUse();
-        final var manager = functionReqs.get(queryFunction);
-        if (manager == null) {
-            return true;
-        }
-        if (!manager.allReqsMetAt(now)) {
-            reclaimLastAllowedUse();
-            return true;
-        }
-        return false;
+        return shouldThrottleQuery(queryFunction, now, query, queryPayerId, null);
     }
 
     /**
@@ -324,11 +365,46 @@ public class ThrottleAccumulator {
         throttleMetrics.updateAllMetrics();
     }
 
+    private boolean shouldThrottleQuery(
+            @NonNull final HederaFunctionality queryFunction,
+            @NonNull final Instant now,
+            @NonNull final Query query,
+            @Nullable final AccountID queryPayerId,
+            @Nullable final ThrottleClaimPlan plan) {
+        final var configuration = configProvider.getConfiguration();
+        if (throttleExempt(queryPayerId, configuration)) {
+            return false;
+        }
+        if (isGasThrottled(queryFunction)) {
+            final var enforceGasThrottle =
+                    configuration.getConfigData(ContractsConfig.class).throttleThrottleByGas();
+            return enforceGasThrottle
+                    && !claimGas(
+                            plan,
+                            now,
+                            query.contractCallLocalOrElse(ContractCallLocalQuery.DEFAULT)
+                                    .gas());
+        }
+        if (plan == null) {
+            resetLastAllowedUse();
+        }
+        final var manager = functionReqs.get(queryFunction);
+        if (manager == null) {
+            return true;
+        }
+        if (!claim(plan, manager, now)) {
+            reclaimLastAllowedUse();
+            return true;
+        }
+        return false;
+    }
+
     private boolean shouldThrottleTxn(
             final boolean isScheduled,
             @NonNull final TransactionInfo txnInfo,
             @NonNull final Instant now,
-            @NonNull final HederaState state) {
+            @NonNull final HederaState state,
+            @Nullable final ThrottleClaimPlan plan) {
         final var function = txnInfo.functionality();
         final var configuration = configProvider.getConfiguration();
 
@@ -344,7 +420,7 @@ public class ThrottleAccumulator {
             return false;
         }
 
-        if (isGasExhausted(txnInfo, now, configuration)) {
+        if (isGasExhausted(txnInfo, now, configuration, plan)) {
             lastTxnWasGasThrottled = true;
             return true;
         }
@@ -360,27 +436,27 @@ public class ThrottleAccumulator {
                     throw new IllegalStateException("ScheduleCreate cannot be a child!");
                 }
 
-                yield shouldThrottleScheduleCreate(manager, txnInfo, now, state);
+                yield shouldThrottleScheduleCreate(manager, txnInfo, now, state, plan);
             }
             case SCHEDULE_SIGN -> {
                 if (isScheduled) {
                     throw new IllegalStateException("ScheduleSign cannot be a child!");
                 }
 
-                yield shouldThrottleScheduleSign(manager, txnInfo, now, state);
+                yield shouldThrottleScheduleSign(manager, txnInfo, now, state, plan);
             }
-            case TOKEN_MINT -> shouldThrottleMint(manager, txnInfo.txBody().tokenMint(), now, configuration);
+            case TOKEN_MINT -> shouldThrottleMint(manager, txnInfo.txBody().tokenMint(), now, configuration, plan);
             case CRYPTO_TRANSFER -> {
                 final var accountStore = new ReadableStoreFactory(state).getStore(ReadableAccountStore.class);
                 yield shouldThrottleCryptoTransfer(
-                        manager, now, configuration, getImplicitCreationsCount(txnInfo.txBody(), accountStore));
+                        manager, now, configuration, getImplicitCreationsCount(txnInfo.txBody(), accountStore), plan);
             }
             case ETHEREUM_TRANSACTION -> {
                 final var accountStore = new ReadableStoreFactory(state).getStore(ReadableAccountStore.class);
                 yield shouldThrottleEthTxn(
-                        manager, now, configuration, getImplicitCreationsCount(txnInfo.txBody(), accountStore));
+                        manager, now, configuration, getImplicitCreationsCount(txnInfo.txBody(), accountStore), plan);
             }
-            default -> !manager.allReqsMetAt(now);
+            default -> !claim(plan, manager, now);
         };
     }
 
@@ -388,7 +464,8 @@ public class ThrottleAccumulator {
             final ThrottleReqsManager manager,
             final TransactionInfo txnInfo,
             final Instant now,
-            final HederaState state) {
+            final HederaState state,
+            @Nullable final ThrottleClaimPlan plan) {
         final var txnBody = txnInfo.txBody();
         final var scheduleCreate = txnBody.scheduleCreateOrThrow();
         final var scheduled = scheduleCreate.scheduledTransactionBodyOrThrow();
@@ -429,14 +506,14 @@ public class ThrottleAccumulator {
                             .build();
                     final int implicitCreationsCount = getImplicitCreationsCount(transferTxnBody, accountStore);
                     if (implicitCreationsCount > 0) {
-                        return shouldThrottleImplicitCreations(implicitCreationsCount, now);
+                        return shouldThrottleImplicitCreations(implicitCreationsCount, now, plan);
                     }
                 }
             }
-            return !manager.allReqsMetAt(now);
+            return !claim(plan, manager, now);
         } else {
             log.warn("Long term scheduling is enabled, but throttling of long term schedules is not yet implemented.");
-            if (!manager.allReqsMetAt(now)) {
+            if (!claim(plan, manager, now)) {
                 return true;
             }
 
@@ -455,7 +532,7 @@ public class ThrottleAccumulator {
                         Bytes.EMPTY,
                         scheduledFunction);
 
-                return shouldThrottleTxn(true, innerTxnInfo, now, state);
+                return shouldThrottleTxn(true, innerTxnInfo, now, state, plan);
             }
 
             return false;
@@ -463,9 +540,13 @@ public class ThrottleAccumulator {
     }
 
     private boolean shouldThrottleScheduleSign(
-            ThrottleReqsManager manager, TransactionInfo txnInfo, Instant now, HederaState state) {
+            ThrottleReqsManager manager,
+            TransactionInfo txnInfo,
+            Instant now,
+            HederaState state,
+            @Nullable ThrottleClaimPlan plan) {
         final var txnBody = txnInfo.txBody();
-        if (!manager.allReqsMetAt(now)) {
+        if (!claim(plan, manager, now)) {
             return true;
         }
 
@@ -518,7 +599,7 @@ public class ThrottleAccumulator {
                     Bytes.EMPTY,
                     scheduledFunction);
 
-            return shouldThrottleTxn(true, innerTxnInfo, now, state);
+            return shouldThrottleTxn(true, innerTxnInfo, now, state, plan);
         }
     }
 
@@ -560,26 +641,71 @@ public class ThrottleAccumulator {
     private boolean isGasExhausted(
             @NonNull final TransactionInfo txnInfo,
             @NonNull final Instant now,
-            @NonNull final Configuration configuration) {
+            @NonNull final Configuration configuration,
+            @Nullable final ThrottleClaimPlan plan) {
         final boolean shouldThrottleByGas =
                 configuration.getConfigData(ContractsConfig.class).throttleThrottleByGas();
         return shouldThrottleByGas
                 && isGasThrottled(txnInfo.functionality())
-                && !gasThrottle.allow(now, getGasLimitForContractTx(txnInfo.txBody(), txnInfo.functionality()));
+                && !claimGas(plan, now, getGasLimitForContractTx(txnInfo.txBody(), txnInfo.functionality()));
+    }
+
+    /**
+     * Claims the requirements of a single transaction from the given manager, or records the claim in the plan and
+     * assumes it succeeds, if there is a plan.
+     */
+    private static boolean claim(
+            @Nullable final ThrottleClaimPlan plan,
+            @NonNull final ThrottleReqsManager manager,
+            @NonNull final Instant now) {
+        if (plan == null) {
+            return manager.allReqsMetAt(now);
+        }
+        plan.addClaim(manager, 0, null);
+        return true;
+    }
+
+    /**
+     * Claims the scaled requirements of {@code n} transactions from the given manager, or records the claim in the
+     * plan and assumes it succeeds, if there is a plan.
+     */
+    private static boolean claim(
+            @Nullable final ThrottleClaimPlan plan,
+            @NonNull final ThrottleReqsManager manager,
+            @NonNull final Instant now,
+            final int n,
+            @NonNull final ScaleFactor scaleFactor) {
+        if (plan == null) {
+            return manager.allReqsMetAt(now, n, scaleFactor);
+        }
+        plan.addClaim(manager, n, scaleFactor);
+        return true;
+    }
+
+    /**
+     * Claims the given amount of gas, or records the claim in the plan and assumes it succeeds, if there is a plan.
+     */
+    private boolean claimGas(@Nullable final ThrottleClaimPlan plan, @NonNull final Instant now, final long gasLimit) {
+        if (plan == null) {
+            return gasThrottle.allow(now, gasLimit);
+        }
+        plan.addGasClaim(gasThrottle, gasLimit);
+        return true;
     }
 
     private boolean shouldThrottleMint(
             @NonNull final ThrottleReqsManager manager,
             @NonNull final TokenMintTransactionBody op,
             @NonNull final Instant now,
-            @NonNull final Configuration configuration) {
+            @NonNull final Configuration configuration,
+            @Nullable final ThrottleClaimPlan plan) {
         final int numNfts = op.metadata().size();
         if (numNfts == 0) {
-            return !manager.allReqsMetAt(now);
+            return !claim(plan, manager, now);
         } else {
             final var nftsMintThrottleScaleFactor =
                     configuration.getConfigData(TokensConfig.class).nftsMintThrottleScaleFactor();
-            return !manager.allReqsMetAt(now, numNfts, nftsMintThrottleScaleFactor);
+            return !claim(plan, manager, now, numNfts, nftsMintThrottleScaleFactor);
         }
     }
 
@@ -587,15 +713,16 @@ public class ThrottleAccumulator {
             @NonNull final ThrottleReqsManager manager,
             @NonNull final Instant now,
             @NonNull final Configuration configuration,
-            final int implicitCreationsCount) {
+            final int implicitCreationsCount,
+            @Nullable final ThrottleClaimPlan plan) {
         final boolean isAutoCreationEnabled =
                 configuration.getConfigData(AutoCreationConfig.class).enabled();
         final boolean isLazyCreationEnabled =
                 configuration.getConfigData(LazyCreationConfig.class).enabled();
         if (isAutoCreationEnabled || isLazyCreationEnabled) {
-            return shouldThrottleBasedOnImplicitCreations(manager, implicitCreationsCount, now);
+            return shouldThrottleBasedOnImplicitCreations(manager, implicitCreationsCount, now, plan);
         } else {
-            return !manager.allReqsMetAt(now);
+            return !claim(plan, manager, now);
         }
     }
 
@@ -603,15 +730,16 @@ public class ThrottleAccumulator {
             @NonNull final ThrottleReqsManager manager,
             @NonNull final Instant now,
             @NonNull final Configuration configuration,
-            final int implicitCreationsCount) {
+            final int implicitCreationsCount,
+            @Nullable final ThrottleClaimPlan plan) {
         final boolean isAutoCreationEnabled =
                 configuration.getConfigData(AutoCreationConfig.class).enabled();
         final boolean isLazyCreationEnabled =
                 configuration.getConfigData(LazyCreationConfig.class).enabled();
         if (isAutoCreationEnabled && isLazyCreationEnabled) {
-            return shouldThrottleBasedOnImplicitCreations(manager, implicitCreationsCount, now);
+            return shouldThrottleBasedOnImplicitCreations(manager, implicitCreationsCount, now, plan);
         } else {
-            return !manager.allReqsMetAt(now);
+            return !claim(plan, manager, now);
         }
     }
 
@@ -750,15 +878,19 @@ public class ThrottleAccumulator {
     }
 
     private boolean shouldThrottleBasedOnImplicitCreations(
-            @NonNull final ThrottleReqsManager manager, final int implicitCreationsCount, @NonNull final Instant now) {
+            @NonNull final ThrottleReqsManager manager,
+            final int implicitCreationsCount,
+            @NonNull final Instant now,
+            @Nullable final ThrottleClaimPlan plan) {
         return (implicitCreationsCount == 0)
-                ? !manager.allReqsMetAt(now)
-                : shouldThrottleImplicitCreations(implicitCreationsCount, now);
+                ? !claim(plan, manager, now)
+                : shouldThrottleImplicitCreations(implicitCreationsCount, now, plan);
     }
 
-    private boolean shouldThrottleImplicitCreations(final int n, @NonNull final Instant now) {
+    private boolean shouldThrottleImplicitCreations(
+            final int n, @NonNull final Instant now, @Nullable final ThrottleClaimPlan plan) {
         final var manager = functionReqs.get(CRYPTO_CREATE);
-        return manager == null || !manager.allReqsMetAt(now, n, ONE_TO_ONE);
+        return manager == null || !claim(plan, manager, now, n, ONE_TO_ONE);
     }
 
     /**
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.node.app.throttle;
+
+import static java.util.Objects.requireNonNull;
+
+import com.hedera.node.app.hapi.utils.sysfiles.domain.throttling.ScaleFactor;
+import com.hedera.node.app.hapi.utils.throttles.GasLimitDeterministicThrottle;
+import com.hedera.node.app.service.mono.throttling.ThrottleReqsManager;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * The ordered list of capacity claims that a {@link ThrottleAccumulator} makes for a single transaction or query.
+ *
+ * <p>Whether a transaction is throttled depends on the throttle buckets only through these claims, and any failed
+ * claim throttles the transaction without looking at the rest. Everything else, like reading the state for implicit
+ * creations or parsing Ethereum transactions, can be done without touching the buckets. So the claims are recorded
+ * first, concurrently with other transactions, and then made in order by {@link #claimAt(Instant)}, which gives
+ * exactly the decision the {@link ThrottleAccumulator} would give if it had made the claims while it went.
+ *
+ * <p>A plan is reused for many transactions, but it is not thread safe.
+ */
+final class ThrottleClaimPlan {
+    private static final int INITIAL_CAPACITY = 4;
+
+    /** The requirements to claim, or null for a claim of gas */
+    private ThrottleReqsManager[] managers = new ThrottleReqsManager[INITIAL_CAPACITY];
+
+    private int[] nTransactions = new int[INITIAL_CAPACITY];
+    private ScaleFactor[] scaleFactors = new ScaleFactor[INITIAL_CAPACITY];
+    private GasLimitDeterministicThrottle[] gasThrottles = new GasLimitDeterministicThrottle[INITIAL_CAPACITY];
+    private long[] gasLimits = new long[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Records a claim of the requirements of the given manager.
+     *
+     * @param manager the manager of the requirements
+     * @param n the number of transactions, only used if there is a scale factor
+     * @param scaleFactor the scale factor, or null to claim the requirements of a single transaction
+     */
+    void addClaim(@NonNull final ThrottleReqsManager manager, final int n, @Nullable final ScaleFactor scaleFactor) {
+        ensureCapacity();
+        managers[size] = requireNonNull(manager);
+        nTransactions[size] = n;
+        scaleFactors[size] = scaleFactor;
+        size++;
+    }
+
+    /**
+     * Records a claim of gas.
+     *
+     * @param gasThrottle the gas throttle
+     * @param gasLimit the amount of gas to claim
+     */
+    void addGasClaim(@NonNull final GasLimitDeterministicThrottle gasThrottle, final long gasLimit) {
+        ensureCapacity();
+        gasThrottles[size] = requireNonNull(gasThrottle);
+        gasLimits[size] = gasLimit;
+        size++;
+    }
+
+    /**
+     * Makes the recorded claims in order, until one fails. Claims that succeeded before the failed one are not undone
+     * here, that is the responsibility of the caller, same as for claims made directly.
+     *
+     * @param now the time of the claims
+     * @return the index of the failed claim, or -1 if all claims succeeded
+     */
+    int claimAt(@NonNull final Instant now) {
+        for (int i = 0; i < size; i++) {
+            final var manager = managers[i];
+            final boolean claimed;
+            if (manager == null) {
+                claimed = gasThrottles[i].allow(now, gasLimits[i]);
+            } else if (scaleFactors[i] == null) {
+                claimed = manager.allReqsMetAt(now);
+            } else {
+                claimed = manager.allReqsMetAt(now, nTransactions[i], scaleFactors[i]);
+            }
+            if (!claimed) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Whether the claim with the given index is a claim of gas.
+     *
+     * @param index the index of the claim
+     * @return whether it is a claim of gas
+     */
+    boolean isGasClaim(final int index) {
+        return managers[index] == null;
+    }
+
+    /**
+     * Whether no claims were recorded.
+     *
+     * @return whether the plan is empty
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all claims, so the plan can be reused.
+     */
+    void clear() {
+        Arrays.fill(managers, 0, size, null);
+        Arrays.fill(scaleFactors, 0, size, null);
+        Arrays.fill(gasThrottles, 0, size, null);
+        size = 0;
+    }
+
+    private void ensureCapacity() {
+        if (size == managers.length) {
+            final int newCapacity = size * 2;
+            managers = Arrays.copyOf(managers, newCapacity);
+            nTransactions = Arrays.copyOf(nTransactions, newCapacity);
+            scaleFactors = Arrays.copyOf(scaleFactors, newCapacity);
+            gasThrottles = Arrays.copyOf(gasThrottles, newCapacity);
+            gasLimits = Arrays.copyOf(gasLimits, newCapacity);
+        }
+    }
+}
@@ -25,6 +25,7 @@ import com.hedera.node.app.service.token.ReadableAccountStore;
 import com.hedera.node.app.spi.workflows.PreCheckException;
 import com.hedera.node.app.spi.workflows.TransactionHandler;
 import com.hedera.node.app.state.HederaState;
+import com.hedera.node.app.state.WorkingStateAccessor;
 import com.hedera.node.app.workflows.TransactionChecker;
 import com.hedera.node.app.workflows.dispatcher.ReadableStoreFactory;
 import com.hedera.node.app.workflows.dispatcher.TransactionDispatcher;
@@ -37,35 +38,73 @@ import com.swirlds.platform.system.events.ConsensusEvent;
 import com.swirlds.platform.system.transaction.Transaction;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
-import java.util.concurrent.Executor;
-import java.util.concurrent.ForkJoinPool;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /**
  * This class is used to warm up the cache. It is called at the beginning of a round with the current state
- * and the round. It will start a background thread which iterates through all transactions and calls the
- * {@link TransactionHandler#warm} method.
+ * and the round. It schedules a background task per transaction which calls the {@link TransactionHandler#warm}
+ * method.
+ *
+ * <p>Warming is a pipeline that runs ahead of the handle thread. Tasks are executed in priority order: all
+ * transactions of the round that is being handled come first, in consensus order, because the handle thread will
+ * reach them next. If {@link CacheConfig#warmAhead()} is enabled, the transactions of every event are also scheduled
+ * for warming right after the event was pre-handled, with a lower priority. Such a transaction is usually warmed
+ * before its round reaches consensus. If it is still waiting when its round is handled, it is promoted to the round's
+ * priority instead of being warmed twice.
  */
 @Singleton
 public class CacheWarmer {
+    private static final Logger logger = LogManager.getLogger(CacheWarmer.class);
+
+    /** Priority of the transactions of the round that is being handled */
+    private static final int HANDLE_PRIORITY = 0;
+    /** Priority of transactions of events that have been pre-handled, but not yet reached consensus */
+    private static final int LOOKAHEAD_PRIORITY = 1;
+    /** Upper bound on scheduled tasks and pending lookahead transactions, e.g. of events that never reach consensus */
+    private static final int MAX_LOOKAHEAD = 100_000;
 
     private final TransactionChecker checker;
     private final TransactionDispatcher dispatcher;
-    private final Executor executor;
+    private final WorkingStateAccessor workingStateAccessor;
+    private final ConfigProvider configProvider;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequence = new AtomicLong();
+    /** Transactions warmed ahead of consensus that have not been reached by {@link #warm(HederaState, Round)} yet */
+    private final Map<Transaction, WarmupTask> pendingLookahead = new ConcurrentHashMap<>();
 
     @Inject
     public CacheWarmer(
             @NonNull final TransactionChecker checker,
             @NonNull final TransactionDispatcher dispatcher,
+            @NonNull final WorkingStateAccessor workingStateAccessor,
             @NonNull final ConfigProvider configProvider) {
         this.checker = checker;
         this.dispatcher = requireNonNull(dispatcher);
+        this.workingStateAccessor = requireNonNull(workingStateAccessor);
+        this.configProvider = requireNonNull(configProvider);
         final int parallelism = configProvider
                 .getConfiguration()
                 .getConfigData(CacheConfig.class)
                 .cryptoTransferWarmThreads();
-        this.executor = new ForkJoinPool(parallelism);
+        final var threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                parallelism, parallelism, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(), runnable -> {
+                    final var thread = new Thread(runnable, "cache-warmer-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
     }
 
     /**
@@ -75,26 +114,72 @@ public class CacheWarmer {
      * @param round the current round
      */
     public void warm(@NonNull final HederaState state, @NonNull final Round round) {
-        executor.execute(() -> {
-            final ReadableStoreFactory storeFactory = new ReadableStoreFactory(state);
-            final ReadableAccountStore accountStore = storeFactory.getStore(ReadableAccountStore.class);
-            for (final ConsensusEvent event : round) {
-                event.forEachTransaction(platformTransaction -> executor.execute(() -> {
-                    final TransactionBody txBody = extractTransactionBody(platformTransaction);
-                    if (txBody != null) {
-                        final AccountID payerID = txBody.transactionIDOrElse(TransactionID.DEFAULT)
-                                .accountID();
-                        if (payerID != null) {
-                            accountStore.warm(payerID);
+        executor.execute(new PrioritizedTask(HANDLE_PRIORITY) {
+            @Override
+            public void run() {
+                final var stores = Stores.of(state);
+                for (final ConsensusEvent event : round) {
+                    event.forEachTransaction(platformTransaction -> {
+                        if (platformTransaction.isSystem()) {
+                            return;
+                        }
+                        final var lookahead = pendingLookahead.remove(platformTransaction);
+                        if (lookahead == null) {
+                            executor.execute(new WarmupTask(
+                                    platformTransaction, stores, HANDLE_PRIORITY, new AtomicBoolean()));
+                        } else if (!lookahead.started.get()) {
+                            executor.execute(new WarmupTask(
+                                    platformTransaction, stores, HANDLE_PRIORITY, lookahead.started));
                         }
-                        final var context = new WarmupContextImpl(txBody, storeFactory);
-                        dispatcher.dispatchWarmup(context);
-                    }
-                }));
+                    });
+                }
             }
         });
     }
 
+    /**
+     * Schedules the transactions of a pre-handled event for warming, ahead of the round in which the event reaches
+     * consensus. Does nothing if {@link CacheConfig#warmAhead()} is disabled, or if the warmer has fallen too far
+     * behind.
+     *
+     * @param transactions the transactions of the event, after pre-handle
+     */
+    public void warmAhead(@NonNull final List<Transaction> transactions) {
+        if (!configProvider.getConfiguration().getConfigData(CacheConfig.class).warmAhead()) {
+            return;
+        }
+        final var state = workingStateAccessor.getHederaState();
+        if (state == null || executor.getQueue().size() >= MAX_LOOKAHEAD) {
+            return;
+        }
+        if (pendingLookahead.size() >= MAX_LOOKAHEAD) {
+            // These are mostly transactions of stale events, which will never be handled
+            pendingLookahead.clear();
+        }
+        final var stores = Stores.of(state);
+        for (final var platformTransaction : transactions) {
+            if (!platformTransaction.isSystem()) {
+                final var task =
+                        new WarmupTask(platformTransaction, stores, LOOKAHEAD_PRIORITY, new AtomicBoolean());
+                pendingLookahead.put(platformTransaction, task);
+                executor.execute(task);
+            }
+        }
+    }
+
+    private void warmTransaction(@NonNull final Stores stores, @NonNull final Transaction platformTransaction) {
+        final TransactionBody txBody = extractTransactionBody(platformTransaction);
+        if (txBody != null) {
+            final AccountID payerID =
+                    txBody.transactionIDOrElse(TransactionID.DEFAULT).accountID();
+            if (payerID != null) {
+                stores.accountStore().warm(payerID);
+            }
+            final var context = new WarmupContextImpl(txBody, stores.storeFactory());
+            dispatcher.dispatchWarmup(context);
+        }
+    }
+
     @Nullable
     private TransactionBody extractTransactionBody(@NonNull final Transaction platformTransaction) {
         // First we check if the transaction was already parsed during pre-handle (should be almost always the case)
@@ -113,4 +198,59 @@ public class CacheWarmer {
             return null;
         }
     }
+
+    /** The stores shared by all tasks that warm with the same state. */
+    private record Stores(@NonNull ReadableStoreFactory storeFactory, @NonNull ReadableAccountStore accountStore) {
+        private static Stores of(@NonNull final HederaState state) {
+            final var storeFactory = new ReadableStoreFactory(state);
+            return new Stores(storeFactory, storeFactory.getStore(ReadableAccountStore.class));
+        }
+    }
+
+    /** A task that is executed by priority first, and in the order it was scheduled second. */
+    private abstract class PrioritizedTask implements Runnable, Comparable<PrioritizedTask> {
+        private final int priority;
+        private final long order = sequence.getAndIncrement();
+
+        private PrioritizedTask(final int priority) {
+            this.priority = priority;
+        }
+
+        @Override
+        public int compareTo(@NonNull final PrioritizedTask other) {
+            final int byPriority = Integer.compare(priority, other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+    }
+
+    /** Warms a single transaction, unless another task for the same transaction has started already. */
+    private final class WarmupTask extends PrioritizedTask {
+        private final Transaction platformTransaction;
+        private final Stores stores;
+        private final AtomicBoolean started;
+
+        private WarmupTask(
+                @NonNull final Transaction platformTransaction,
+                @NonNull final Stores stores,
+                final int priority,
+                @NonNull final AtomicBoolean started) {
+            super(priority);
+            this.platformTransaction = platformTransaction;
+            this.stores = stores;
+            this.started = started;
+        }
+
+        @Override
+        public void run() {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                warmTransaction(stores, platformTransaction);
+            } catch (final RuntimeException e) {
+                // Warming is only an optimization, handle will read whatever it needs anyway
+                logger.debug("Unable to warm the cache for a transaction", e);
+            }
+        }
+    }
 }
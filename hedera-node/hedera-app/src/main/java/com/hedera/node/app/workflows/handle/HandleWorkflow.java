@@ -1009,6 +1009,7 @@ public class HandleWorkflow {
                     "Received transaction without PreHandleResult metadata from node {} (was {})",
                     creator.nodeId(),
                     metadata);
+            handleWorkflowMetrics.incrementPreHandleMisses();
             previousResult = null;
         }
         // We do not know how long transactions are kept in memory. Clearing metadata to avoid keeping it for too long.
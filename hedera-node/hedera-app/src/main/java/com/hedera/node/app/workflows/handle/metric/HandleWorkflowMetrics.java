@@ -24,6 +24,7 @@ import com.hedera.node.config.data.StatsConfig;
 import com.swirlds.common.metrics.IntegerPairAccumulator;
 import com.swirlds.common.metrics.RunningAverageMetric;
 import com.swirlds.common.metrics.RunningAverageMetric.Config;
+import com.swirlds.metrics.api.Counter;
 import com.swirlds.metrics.api.IntegerAccumulator;
 import com.swirlds.metrics.api.Metrics;
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -45,11 +46,16 @@ public class HandleWorkflowMetrics {
             .withDescription("average EVM gas used per second of consensus time")
             .withFormat("%,13.6f");
 
+    private static final Counter.Config PRE_HANDLE_MISSES_CONFIG = new Counter.Config("app", "preHandleMisses")
+            .withDescription("number of transactions that reached handle without a pre-handle result");
+
     private final Map<HederaFunctionality, TransactionMetric> transactionMetrics =
             new EnumMap<>(HederaFunctionality.class);
 
     private final RunningAverageMetric gasPerConsSec;
 
+    private final Counter preHandleMisses;
+
     private long gasUsedThisConsensusSecond = 0L;
 
     /**
@@ -82,6 +88,7 @@ public class HandleWorkflowMetrics {
 
         final StatsConfig statsConfig = configProvider.getConfiguration().getConfigData(StatsConfig.class);
         gasPerConsSec = metrics.getOrCreate(GAS_PER_CONS_SEC_CONFIG.withHalfLife(statsConfig.runningAvgHalfLifeSecs()));
+        preHandleMisses = metrics.getOrCreate(PRE_HANDLE_MISSES_CONFIG);
     }
 
     /**
@@ -105,6 +112,14 @@ public class HandleWorkflowMetrics {
         }
     }
 
+    /**
+     * Records a transaction that reached handle without a pre-handle result, so the handle thread had to pre-handle it
+     * itself.
+     */
+    public void incrementPreHandleMisses() {
+        preHandleMisses.increment();
+    }
+
     public void switchConsensusSecond() {
         gasPerConsSec.update(gasUsedThisConsensusSecond);
         gasUsedThisConsensusSecond = 0L;
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.node.app.workflows.handle.stack;
+
+import static java.util.Objects.requireNonNull;
+
+import com.hedera.node.app.spi.state.WritableKVState;
+import com.hedera.node.app.spi.state.WritableStates;
+import com.hedera.node.app.state.HederaState;
+import com.hedera.node.app.state.WrappedHederaState;
+import com.hedera.node.app.state.WrappedWritableStates;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A frame of a {@link SavepointStackImpl}. Singletons and queues are wrapped per frame, exactly as in a
+ * {@link WrappedHederaState}, but the {@link WritableKVState}s of all frames are the {@link VersionedWritableKVState}s
+ * shared by the whole stack.
+ */
+final class SavepointFrame extends WrappedHederaState {
+
+    private final SavepointStackImpl stack;
+    private final int level;
+
+    /**
+     * Constructs a {@link SavepointFrame} on top of the given state.
+     *
+     * @param delegate the state below this frame, either the root of the stack or the frame below
+     * @param stack the {@link SavepointStackImpl} this frame belongs to
+     * @param level the level of this frame, starting with {@code 1} for the bottom frame
+     */
+    SavepointFrame(@NonNull final HederaState delegate, @NonNull final SavepointStackImpl stack, final int level) {
+        super(delegate);
+        this.stack = requireNonNull(stack, "stack must not be null");
+        this.level = level;
+    }
+
+    @Override
+    @NonNull
+    protected WrappedWritableStates createWritableStates(
+            @NonNull final String serviceName, @NonNull final WritableStates delegate) {
+        return new SavepointWritableStates(delegate, serviceName);
+    }
+
+    /**
+     * The {@link WrappedWritableStates} of a service in a {@link SavepointFrame}.
+     */
+    final class SavepointWritableStates extends WrappedWritableStates {
+
+        private final WritableStates delegate;
+        private final String serviceName;
+
+        private SavepointWritableStates(@NonNull final WritableStates delegate, @NonNull final String serviceName) {
+            super(delegate);
+            this.delegate = delegate;
+            this.serviceName = serviceName;
+        }
+
+        @Override
+        @NonNull
+        public <K, V> WritableKVState<K, V> get(@NonNull final String stateKey) {
+            return stack.kvState(serviceName, stateKey);
+        }
+
+        @Override
+        public boolean isModified() {
+            return super.isModified() || stack.isKVStateModified(serviceName, level);
+        }
+
+        /**
+         * Returns the {@link WritableKVState} of the state below this frame. Only the bottom frame is asked for it, its
+         * {@link WritableKVState}s are the ones the {@link VersionedWritableKVState}s are committed to.
+         *
+         * @param stateKey the state key
+         * @return the {@link WritableKVState} of the state below this frame
+         */
+        @NonNull
+        <K, V> WritableKVState<K, V> delegateKVState(@NonNull final String stateKey) {
+            return delegate.get(stateKey);
+        }
+    }
+}
@@ -19,6 +19,7 @@ package com.hedera.node.app.workflows.handle.stack;
 import static java.util.Objects.requireNonNull;
 
 import com.hedera.node.app.spi.state.ReadableStates;
+import com.hedera.node.app.spi.state.WritableKVState;
 import com.hedera.node.app.spi.state.WritableStates;
 import com.hedera.node.app.spi.workflows.HandleContext.SavepointStack;
 import com.hedera.node.app.state.HederaState;
@@ -32,12 +33,17 @@ import java.util.Map;
 
 /**
  * The default implementation of {@link SavepointStack}.
+ *
+ * <p>Singletons and queues are wrapped once per savepoint. The modifications of all {@link WritableKVState}s are kept
+ * in one {@link VersionedWritableKVState} per state for the whole stack, so reads do not have to walk down the frames,
+ * and committing or rolling back a savepoint only touches the keys that were modified in it.
  */
 public class SavepointStackImpl implements SavepointStack, HederaState {
 
     private final HederaState root;
     private final Deque<WrappedHederaState> stack = new ArrayDeque<>();
     private final Map<String, WritableStatesStack> writableStatesMap = new HashMap<>();
+    private final Map<String, Map<String, VersionedWritableKVState<?, ?>>> kvStates = new HashMap<>();
 
     /**
      * Constructs a new {@link SavepointStackImpl} with the given root state.
@@ -51,7 +57,7 @@ public class SavepointStackImpl implements SavepointStack, HederaState {
     }
 
     private void setupSavepoint(@NonNull final HederaState state) {
-        final var newState = new WrappedHederaState(state);
+        final var newState = new SavepointFrame(state, this, stack.size() + 1);
         stack.push(newState);
     }
 
@@ -65,6 +71,12 @@ public class SavepointStackImpl implements SavepointStack, HederaState {
         if (stack.size() <= 1) {
             throw new IllegalStateException("The savepoint stack is empty");
         }
+        final int level = stack.size();
+        for (final var states : kvStates.values()) {
+            for (final var kvState : states.values()) {
+                kvState.commitLevel(level);
+            }
+        }
         stack.pop().commit();
     }
 
@@ -73,6 +85,12 @@ public class SavepointStackImpl implements SavepointStack, HederaState {
         if (stack.size() <= 1) {
             throw new IllegalStateException("The savepoint stack is empty");
         }
+        final int level = stack.size();
+        for (final var states : kvStates.values()) {
+            for (final var kvState : states.values()) {
+                kvState.rollbackLevel(level);
+            }
+        }
         stack.pop();
     }
 
@@ -80,9 +98,17 @@ public class SavepointStackImpl implements SavepointStack, HederaState {
      * Commits all state changes captured in this stack.
      */
     public void commitFullStack() {
-        while (!stack.isEmpty()) {
-            stack.pop().commit();
+        while (stack.size() > 1) {
+            commit();
         }
+        // The key-value modifications have to be written before the bottom frame commits the terminal states
+        for (final var states : kvStates.values()) {
+            for (final var kvState : states.values()) {
+                kvState.commitToDelegate();
+            }
+        }
+        kvStates.clear();
+        stack.pop().commit();
         setupSavepoint(root);
     }
 
@@ -90,6 +116,7 @@ public class SavepointStackImpl implements SavepointStack, HederaState {
      * Rolls back all state changes captured in this stack.
      */
     public void rollbackFullStack() {
+        kvStates.clear();
         stack.clear();
         setupSavepoint(root);
     }
@@ -154,4 +181,46 @@ public class SavepointStackImpl implements SavepointStack, HederaState {
         }
         return writableStatesMap.computeIfAbsent(serviceName, s -> new WritableStatesStack(this, s));
     }
+
+    /**
+     * Returns the {@link VersionedWritableKVState} that captures the modifications of all frames for the given state.
+     * It is created on first access, on top of the {@link WritableKVState} below the bottom frame.
+     *
+     * @param serviceName the name of the service
+     * @param stateKey the state key
+     * @return the {@link VersionedWritableKVState} for the given state
+     */
+    @SuppressWarnings("unchecked")
+    @NonNull
+    <K, V> WritableKVState<K, V> kvState(@NonNull final String serviceName, @NonNull final String stateKey) {
+        final var states = kvStates.computeIfAbsent(serviceName, s -> new HashMap<>());
+        var kvState = states.get(stateKey);
+        if (kvState == null) {
+            // Going through the bottom frame also makes sure that it commits the terminal states of the service
+            final var bottom = (SavepointFrame.SavepointWritableStates) stack.getLast().getWritableStates(serviceName);
+            kvState = new VersionedWritableKVState<>(bottom.delegateKVState(stateKey), this);
+            states.put(stateKey, kvState);
+        }
+        return (WritableKVState<K, V>) kvState;
+    }
+
+    /**
+     * Returns {@code true} if any {@link WritableKVState} of the given service was modified in the frame at the given
+     * level.
+     *
+     * @param serviceName the name of the service
+     * @param level the level of the frame
+     * @return {@code true}, if a {@link WritableKVState} was modified; otherwise {@code false}
+     */
+    boolean isKVStateModified(@NonNull final String serviceName, final int level) {
+        final var states = kvStates.get(serviceName);
+        if (states != null) {
+            for (final var kvState : states.values()) {
+                if (kvState.isModified(level)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,481 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.node.app.workflows.handle.stack;
+
+import static java.util.Objects.requireNonNull;
+
+import com.hedera.node.app.spi.metrics.StoreMetrics;
+import com.hedera.node.app.spi.state.WritableKVState;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A {@link WritableKVState} that captures the modifications of all frames of a {@link SavepointStackImpl} in a single
+ * versioned map, instead of one wrapped state per frame.
+ *
+ * <p>Every modified key has exactly one entry, holding its latest value (or {@code null} if it was removed) and the
+ * level of the frame that modified it last. Reads are therefore resolved with one lookup in the versioned map, and one
+ * lookup in the read cache on a miss, regardless of the depth of the stack. Only the first modification of a key in a
+ * frame is recorded in the undo log of that frame, together with the value and level it had before. Rolling back a
+ * frame replays its undo log, committing a frame moves its undo log entries one level down. Both are proportional to
+ * the number of keys modified in the frame, not to the size of the state or the depth of the stack.
+ *
+ * <p>The modifications of the bottom frame are written to the delegate by {@link #commitToDelegate()}, in the order
+ * in which the keys were first modified, just as a chain of {@link com.hedera.node.app.spi.state.WrappedWritableKVState}
+ * would write them.
+ *
+ * <p>All modifications are applied to the frame on top of the stack, the level is taken from the
+ * {@link SavepointStackImpl} on every write. This class is not thread-safe, it must only be used on the handle thread.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+final class VersionedWritableKVState<K, V> implements WritableKVState<K, V> {
+
+    /** The latest modification of a key. A {@code null} value means that the key was removed. */
+    private static final class Modification<V> {
+        private V value;
+        private int level;
+
+        private Modification(final int level) {
+            this.level = level;
+        }
+    }
+
+    /** The keys first modified in a frame, with the value and level each of them had before. */
+    private static final class UndoLog<K, V> {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private Object[] keys = new Object[INITIAL_CAPACITY];
+        private Object[] previousValues = new Object[INITIAL_CAPACITY];
+        /** The level of the previous modification, or {@code 0} if the key was not modified before. */
+        private int[] previousLevels = new int[INITIAL_CAPACITY];
+
+        private int size;
+        /** The position of each key in this log. */
+        private final Map<K, Integer> positions = new HashMap<>();
+
+        private void add(@NonNull final K key, @Nullable final V previousValue, final int previousLevel) {
+            if (size == keys.length) {
+                final int newCapacity = size * 2;
+                keys = Arrays.copyOf(keys, newCapacity);
+                previousValues = Arrays.copyOf(previousValues, newCapacity);
+                previousLevels = Arrays.copyOf(previousLevels, newCapacity);
+            }
+            keys[size] = key;
+            previousValues[size] = previousValue;
+            previousLevels[size] = previousLevel;
+            positions.put(key, size);
+            size++;
+        }
+
+        /** Returns the position of the key in this log, or {@code -1} if it is not in this log. */
+        private int positionOf(@NonNull final K key) {
+            final var position = positions.get(key);
+            return position == null ? -1 : position;
+        }
+
+        @SuppressWarnings("unchecked")
+        private K key(final int index) {
+            return (K) keys[index];
+        }
+
+        @SuppressWarnings("unchecked")
+        private V previousValue(final int index) {
+            return (V) previousValues[index];
+        }
+
+        private void clear() {
+            Arrays.fill(keys, 0, size, null);
+            Arrays.fill(previousValues, 0, size, null);
+            positions.clear();
+            size = 0;
+        }
+    }
+
+    private final WritableKVState<K, V> delegate;
+    private final SavepointStackImpl stack;
+    private final Map<K, Modification<V>> modifications = new HashMap<>();
+    /** Values read from the delegate, including {@code null} for keys that do not exist. */
+    private final Map<K, V> readCache = new HashMap<>();
+    /** The undo logs of all frames, the log of level {@code n} is at index {@code n - 1}. */
+    private final List<UndoLog<K, V>> undoLogs = new ArrayList<>();
+
+    /**
+     * Constructs a {@link VersionedWritableKVState} on top of the given delegate.
+     *
+     * @param delegate the {@link WritableKVState} of the bottom frame, to which all modifications are committed
+     * @param stack the {@link SavepointStackImpl} whose depth is the level of all modifications
+     * @throws NullPointerException if any of the arguments is {@code null}
+     */
+    VersionedWritableKVState(@NonNull final WritableKVState<K, V> delegate, @NonNull final SavepointStackImpl stack) {
+        this.delegate = requireNonNull(delegate, "delegate must not be null");
+        this.stack = requireNonNull(stack, "stack must not be null");
+    }
+
+    @Override
+    @NonNull
+    public String getStateKey() {
+        return delegate.getStateKey();
+    }
+
+    @Override
+    @Nullable
+    public V get(@NonNull final K key) {
+        requireNonNull(key);
+        final var modification = modifications.get(key);
+        if (modification != null) {
+            return modification.value;
+        }
+        return readFromDelegate(key);
+    }
+
+    @Override
+    @Nullable
+    public V getForModify(@NonNull final K key) {
+        requireNonNull(key);
+        final var modification = modifications.get(key);
+        if (modification != null) {
+            return modification.value;
+        }
+        final var cached = readCache.get(key);
+        if (cached != null || readCache.containsKey(key)) {
+            return cached;
+        }
+        final var value = delegate.getForModify(key);
+        readCache.put(key, value);
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Returns the value the key had when the frame on top of the stack was created, just as a
+     * {@link com.hedera.node.app.spi.state.WrappedWritableKVState} of that frame would.
+     */
+    @Override
+    @Nullable
+    public V getOriginalValue(@NonNull final K key) {
+        requireNonNull(key);
+        final var modification = modifications.get(key);
+        if (modification == null) {
+            return readFromDelegate(key);
+        }
+        final int level = stack.depth();
+        if (modification.level != level) {
+            // Not modified in the top frame, so the latest value is the value the key had when the frame was created
+            return modification.value;
+        }
+        final var undoLog = undoLog(level);
+        final int position = undoLog == null ? -1 : undoLog.positionOf(key);
+        if (position < 0 || undoLog.previousLevels[position] == 0) {
+            return readFromDelegate(key);
+        }
+        return undoLog.previousValue(position);
+    }
+
+    @Override
+    public void put(@NonNull final K key, @NonNull final V value) {
+        requireNonNull(key);
+        requireNonNull(value);
+        modify(key).value = value;
+    }
+
+    @Override
+    public void remove(@NonNull final K key) {
+        requireNonNull(key);
+        modify(key).value = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Iterates over the keys of the delegate, without the keys that have been removed in any frame, followed by the
+     * keys that have been added in any frame and do not exist in the delegate.
+     */
+    @Override
+    @NonNull
+    public Iterator<K> keys() {
+        final var removedKeys = new HashSet<K>();
+        final var maybeAddedKeys = new LinkedHashSet<K>();
+        for (final var entry : modifications.entrySet()) {
+            if (entry.getValue().value == null) {
+                removedKeys.add(entry.getKey());
+            } else {
+                maybeAddedKeys.add(entry.getKey());
+            }
+        }
+        return new KeyIterator<>(delegate.keys(), removedKeys, maybeAddedKeys);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Returns the keys modified in the frame on top of the stack, in the order in which they were first modified in
+     * that frame. The returned set is a snapshot, it does not reflect later modifications.
+     */
+    @Override
+    @NonNull
+    public Set<K> modifiedKeys() {
+        final var undoLog = undoLog(stack.depth());
+        if (undoLog == null || undoLog.size == 0) {
+            return Collections.emptySet();
+        }
+        final var keys = new LinkedHashSet<K>();
+        for (int i = 0; i < undoLog.size; i++) {
+            keys.add(undoLog.key(i));
+        }
+        return Collections.unmodifiableSet(keys);
+    }
+
+    @Override
+    public boolean isModified() {
+        return isModified(stack.depth());
+    }
+
+    /**
+     * Returns {@code true} if a key was modified in the frame at the given level.
+     *
+     * @param level the level of the frame
+     * @return {@code true}, if the frame modified this state; otherwise {@code false}
+     */
+    boolean isModified(final int level) {
+        final var undoLog = undoLog(level);
+        return undoLog != null && undoLog.size > 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Returns the keys that have been read from the delegate through this state in any frame.
+     */
+    @Override
+    @NonNull
+    public Set<K> readKeys() {
+        return Collections.unmodifiableSet(readCache.keySet());
+    }
+
+    @Override
+    public long size() {
+        long size = delegate.size();
+        for (final var entry : modifications.entrySet()) {
+            final boolean isPresentInDelegate = readFromDelegate(entry.getKey()) != null;
+            final boolean isRemoved = entry.getValue().value == null;
+            if (isPresentInDelegate && isRemoved) {
+                size--;
+            } else if (!isPresentInDelegate && !isRemoved) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public void setMetrics(@NonNull final StoreMetrics storeMetrics) {
+        delegate.setMetrics(storeMetrics);
+    }
+
+    /**
+     * Merges the modifications of the frame at the given level into the frame below it. Keys that were already
+     * modified in the lower frame keep their position in its undo log, all others are appended in order.
+     *
+     * @param level the level of the frame that is committed, must be greater than {@code 1}
+     */
+    void commitLevel(final int level) {
+        final var undoLog = undoLog(level);
+        if (undoLog == null || undoLog.size == 0) {
+            return;
+        }
+        final int lowerLevel = level - 1;
+        UndoLog<K, V> lowerUndoLog = null;
+        for (int i = 0; i < undoLog.size; i++) {
+            final var key = undoLog.key(i);
+            final int previousLevel = undoLog.previousLevels[i];
+            if (previousLevel != lowerLevel) {
+                // The key was not modified in the lower frame yet, it has to be restored if that frame is rolled back
+                if (lowerUndoLog == null) {
+                    lowerUndoLog = ensureUndoLog(lowerLevel);
+                }
+                lowerUndoLog.add(key, undoLog.previousValue(i), previousLevel);
+            }
+            modifications.get(key).level = lowerLevel;
+        }
+        undoLog.clear();
+    }
+
+    /**
+     * Reverts all modifications of the frame at the given level.
+     *
+     * @param level the level of the frame that is rolled back
+     */
+    void rollbackLevel(final int level) {
+        final var undoLog = undoLog(level);
+        if (undoLog == null || undoLog.size == 0) {
+            return;
+        }
+        for (int i = undoLog.size - 1; i >= 0; i--) {
+            final var key = undoLog.key(i);
+            final int previousLevel = undoLog.previousLevels[i];
+            if (previousLevel == 0) {
+                modifications.remove(key);
+            } else {
+                final var modification = modifications.get(key);
+                modification.value = undoLog.previousValue(i);
+                modification.level = previousLevel;
+            }
+        }
+        undoLog.clear();
+    }
+
+    /**
+     * Writes the modifications of the bottom frame to the delegate, in the order in which the keys were first modified.
+     * All frames above the bottom frame must have been committed or rolled back before. Afterwards, this state is
+     * empty.
+     */
+    void commitToDelegate() {
+        final var undoLog = undoLog(1);
+        if (undoLog != null) {
+            for (int i = 0; i < undoLog.size; i++) {
+                final var key = undoLog.key(i);
+                final var value = modifications.get(key).value;
+                if (value == null) {
+                    delegate.remove(key);
+                } else {
+                    delegate.put(key, value);
+                }
+            }
+        }
+        reset();
+    }
+
+    /**
+     * Discards all modifications of all frames, and all values read from the delegate.
+     */
+    void reset() {
+        for (final var undoLog : undoLogs) {
+            undoLog.clear();
+        }
+        modifications.clear();
+        readCache.clear();
+    }
+
+    @NonNull
+    private Modification<V> modify(@NonNull final K key) {
+        final int level = stack.depth();
+        var modification = modifications.get(key);
+        if (modification == null) {
+            modification = new Modification<>(level);
+            modifications.put(key, modification);
+            ensureUndoLog(level).add(key, null, 0);
+        } else if (modification.level != level) {
+            ensureUndoLog(level).add(key, modification.value, modification.level);
+            modification.level = level;
+        }
+        return modification;
+    }
+
+    @Nullable
+    private V readFromDelegate(@NonNull final K key) {
+        final var cached = readCache.get(key);
+        if (cached != null || readCache.containsKey(key)) {
+            return cached;
+        }
+        final var value = delegate.get(key);
+        readCache.put(key, value);
+        return value;
+    }
+
+    @Nullable
+    private UndoLog<K, V> undoLog(final int level) {
+        return level <= undoLogs.size() ? undoLogs.get(level - 1) : null;
+    }
+
+    @NonNull
+    private UndoLog<K, V> ensureUndoLog(final int level) {
+        while (undoLogs.size() < level) {
+            undoLogs.add(new UndoLog<>());
+        }
+        return undoLogs.get(level - 1);
+    }
+
+    /**
+     * Iterates over the keys of the delegate that have not been removed, followed by the added keys that the delegate
+     * did not return. This iterator is not fail-fast.
+     */
+    private static final class KeyIterator<K> implements Iterator<K> {
+        private final Iterator<K> delegateKeys;
+        private final Set<K> removedKeys;
+        private final Set<K> maybeAddedKeys;
+        private Iterator<K> addedKeys;
+        private K next;
+
+        private KeyIterator(
+                @NonNull final Iterator<K> delegateKeys,
+                @NonNull final Set<K> removedKeys,
+                @NonNull final Set<K> maybeAddedKeys) {
+            this.delegateKeys = delegateKeys;
+            this.removedKeys = removedKeys;
+            this.maybeAddedKeys = maybeAddedKeys;
+        }
+
+        @Override
+        public boolean hasNext() {
+            prepareNext();
+            return next != null;
+        }
+
+        @Override
+        public K next() {
+            prepareNext();
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            final var result = next;
+            next = null;
+            return result;
+        }
+
+        private void prepareNext() {
+            while (next == null && delegateKeys.hasNext()) {
+                final var candidate = delegateKeys.next();
+                maybeAddedKeys.remove(candidate);
+                if (!removedKeys.contains(candidate)) {
+                    next = candidate;
+                }
+            }
+            if (next == null) {
+                if (addedKeys == null) {
+                    addedKeys = maybeAddedKeys.iterator();
+                }
+                if (addedKeys.hasNext()) {
+                    next = addedKeys.next();
+                }
+            }
+        }
+    }
+}
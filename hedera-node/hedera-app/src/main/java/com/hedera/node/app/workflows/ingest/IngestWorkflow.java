@@ -39,4 +39,16 @@ public interface IngestWorkflow {
      * @param responseBuffer The raw protobuf response bytes.
      */
     void submitTransaction(@NonNull Bytes requestBuffer, @NonNull BufferedData responseBuffer);
+
+    /**
+     * Called to handle a single transaction during the ingestion flow, with the transaction bytes in an array that is
+     * owned by the workflow. If the transaction passes all checks, the array itself is submitted to the platform,
+     * without copying it once more. The caller must not modify the array after this call.
+     *
+     * @param requestBytes The raw protobuf transaction bytes. Must be a transaction object.
+     * @param responseBuffer The raw protobuf response bytes.
+     */
+    default void submitTransaction(@NonNull byte[] requestBytes, @NonNull BufferedData responseBuffer) {
+        submitTransaction(Bytes.wrap(requestBytes), responseBuffer);
+    }
 }
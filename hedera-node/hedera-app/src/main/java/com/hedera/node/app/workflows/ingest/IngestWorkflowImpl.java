@@ -30,6 +30,7 @@ import com.hedera.pbj.runtime.io.buffer.BufferedData;
 import com.hedera.pbj.runtime.io.buffer.Bytes;
 import com.swirlds.common.utility.AutoCloseableWrapper;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.function.Supplier;
@@ -76,6 +77,27 @@ public final class IngestWorkflowImpl implements IngestWorkflow {
     public void submitTransaction(@NonNull final Bytes requestBuffer, @NonNull final BufferedData responseBuffer) {
         requireNonNull(requestBuffer);
         requireNonNull(responseBuffer);
+        submitTransaction(requestBuffer, null, responseBuffer);
+    }
+
+    @Override
+    public void submitTransaction(@NonNull final byte[] requestBytes, @NonNull final BufferedData responseBuffer) {
+        requireNonNull(requestBytes);
+        requireNonNull(responseBuffer);
+        submitTransaction(Bytes.wrap(requestBytes), requestBytes, responseBuffer);
+    }
+
+    /**
+     * Runs the ingest workflow.
+     *
+     * @param requestBuffer the raw protobuf transaction bytes
+     * @param requestBytes the array backing {@code requestBuffer} if it is owned by the workflow, {@code null} otherwise
+     * @param responseBuffer the raw protobuf response bytes
+     */
+    private void submitTransaction(
+            @NonNull final Bytes requestBuffer,
+            @Nullable final byte[] requestBytes,
+            @NonNull final BufferedData responseBuffer) {
 
         ResponseCodeEnum result = ResponseCodeEnum.OK;
         long estimatedFee = 0L;
@@ -92,7 +114,11 @@ public final class IngestWorkflowImpl implements IngestWorkflow {
             final var transactionInfo = ingestChecker.runAllChecks(state, tx, configuration);
 
             // 7. Submit to platform
-            submissionManager.submit(transactionInfo.txBody(), requestBuffer);
+            if (requestBytes != null) {
+                submissionManager.submitOwned(transactionInfo.txBody(), requestBytes);
+            } else {
+                submissionManager.submit(transactionInfo.txBody(), requestBuffer);
+            }
         } catch (final InsufficientBalanceException e) {
             estimatedFee = e.getEstimatedFee();
             result = e.responseCode();
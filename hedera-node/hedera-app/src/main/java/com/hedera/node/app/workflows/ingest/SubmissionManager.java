@@ -34,6 +34,7 @@ import com.swirlds.common.metrics.SpeedometerMetric;
 import com.swirlds.metrics.api.Metrics;
 import com.swirlds.platform.system.Platform;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -125,8 +126,31 @@ public class SubmissionManager {
     public void submit(@NonNull final TransactionBody txBody, @NonNull final Bytes txBytes) throws PreCheckException {
         requireNonNull(txBody);
         requireNonNull(txBytes);
+        submit(txBody, txBytes, null);
+    }
+
+    /**
+     * Submit a transaction to the {@link Platform}. Unlike {@link #submit(TransactionBody, Bytes)}, the given array is
+     * not copied, it becomes the contents of the platform transaction. The caller must not modify the array
+     * afterwards. If the transaction is an unchecked submit, we ignored the given tx bytes and send in the other bytes.
+     *
+     * @param txBody  the {@link TransactionBody} that should be submitted to the platform
+     * @param txBytes the full transaction bytes as received from gRPC
+     * @throws NullPointerException if one of the arguments is {@code null}
+     * @throws PreCheckException    if the transaction could not be submitted
+     */
+    public void submitOwned(@NonNull final TransactionBody txBody, @NonNull final byte[] txBytes)
+            throws PreCheckException {
+        requireNonNull(txBody);
+        requireNonNull(txBytes);
+        submit(txBody, null, txBytes);
+    }
 
+    private void submit(
+            @NonNull final TransactionBody txBody, @Nullable final Bytes txBytes, @Nullable final byte[] txArray)
+            throws PreCheckException {
         Bytes payload = txBytes;
+        byte[] contents = txArray;
 
         // Unchecked submits are a mechanism to inject transaction to the system, that bypass all
         // pre-checks. This is used in tests to check the reaction to illegal input.
@@ -146,6 +170,7 @@ public class SubmissionManager {
 
             // We allow it outside of prod, but it really shouldn't be used.
             payload = txBody.uncheckedSubmitOrThrow().transactionBytes();
+            contents = null;
         }
 
         // This method is not called at a super high rate, so synchronizing here is perfectly fine. We need to check
@@ -164,7 +189,8 @@ public class SubmissionManager {
             // This call to submit to the platform should almost always work. Maybe under extreme load it will fail,
             // or while the system is being shut down. In any event, the user will receive an error code indicating
             // that the transaction was not submitted and they can retry.
-            final var success = platform.createTransaction(PbjConverter.asBytes(payload));
+            final var success =
+                    platform.createTransaction(contents != null ? contents : PbjConverter.asBytes(payload));
             if (success) {
                 submittedTxns.add(txId);
             } else {
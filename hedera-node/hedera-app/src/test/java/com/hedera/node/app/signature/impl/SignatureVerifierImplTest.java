@@ -23,11 +23,13 @@ import static java.util.Collections.emptySet;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import com.hedera.hapi.node.base.Key;
 import com.hedera.node.app.fixtures.AppTestBase;
 import com.hedera.node.app.service.mono.sigs.utils.MiscCryptoUtils;
 import com.hedera.node.app.signature.ExpandedSignaturePair;
@@ -37,7 +39,9 @@ import com.hedera.pbj.runtime.io.buffer.Bytes;
 import com.swirlds.common.crypto.Cryptography;
 import com.swirlds.common.crypto.TransactionSignature;
 import com.swirlds.common.crypto.VerificationStatus;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
@@ -62,7 +66,7 @@ final class SignatureVerifierImplTest extends AppTestBase implements Scenarios {
     private Cryptography cryptoEngine;
     /** Captures the args sent to the crypto engine. */
     @Captor
-    ArgumentCaptor<TransactionSignature> sigsCaptor;
+    ArgumentCaptor<List<TransactionSignature>> sigsCaptor;
     /** The verifier under test. */
     private SignatureVerifierImpl verifier;
 
@@ -98,6 +102,8 @@ final class SignatureVerifierImplTest extends AppTestBase implements Scenarios {
     void noSignatures() {
         final var result = verifier.verify(signedBytes, emptySet());
         assertThat(result).isEmpty();
+        //noinspection removal
+        verify(cryptoEngine, never()).verifyAsync(anyList());
     }
 
     /**
@@ -113,15 +119,17 @@ final class SignatureVerifierImplTest extends AppTestBase implements Scenarios {
                 ed25519Pair(BOB.keyInfo().publicKey()),
                 hollowPair(ERIN.keyInfo().publicKey(), ERIN.account()));
 
-        //noinspection unchecked
+        //noinspection unchecked,removal
         doAnswer((Answer<Void>) invocation -> {
-                    final TransactionSignature signature = invocation.getArgument(0);
-                    signature.setSignatureStatus(VerificationStatus.VALID);
-                    signature.setFuture(completedFuture(null));
+                    final List<TransactionSignature> signatures = invocation.getArgument(0);
+                    for (final var signature : signatures) {
+                        signature.setSignatureStatus(VerificationStatus.VALID);
+                        signature.setFuture(completedFuture(null));
+                    }
                     return null;
                 })
                 .when(cryptoEngine)
-                .verifySync(any(TransactionSignature.class));
+                .verifyAsync(anyList());
 
         // When we verify them
         final var map = verifier.verify(signedBytes, sigs);
@@ -154,9 +162,11 @@ final class SignatureVerifierImplTest extends AppTestBase implements Scenarios {
         // When we verify them
         verifier.verify(signedBytes, sigs);
 
-        // Then we find the crypto engine was given an array with all the data
-        verify(cryptoEngine, times(3)).verifySync(sigsCaptor.capture());
-        final var txSigs = sigsCaptor.getAllValues();
+        // Then we find the crypto engine was given a single list with all the data
+        //noinspection removal
+        verify(cryptoEngine, times(1)).verifyAsync(sigsCaptor.capture());
+        final var txSigs = sigsCaptor.getValue();
+        assertThat(txSigs).hasSize(3);
 
         final var itr = sigs.iterator();
         for (int i = 0; i < 3; i++) {
@@ -176,4 +186,27 @@ final class SignatureVerifierImplTest extends AppTestBase implements Scenarios {
                     .isTrue();
         }
     }
+
+    @Test
+    @DisplayName("Many signatures are split into several work items for the crypto engine")
+    void manySignaturesAreSplitIntoWorkItems() {
+        // Given more signatures than fit into a single work item
+        final var numSigs = SignatureVerifierImpl.MAX_SIGNATURES_PER_WORK_ITEM * 2 + 1;
+        final var sigs = new HashSet<ExpandedSignaturePair>();
+        for (int i = 0; i < numSigs; i++) {
+            sigs.add(ed25519Pair(Key.newBuilder().ed25519(randomBytes(32)).build()));
+        }
+
+        // When we verify them
+        final var map = verifier.verify(signedBytes, sigs);
+
+        // Then every signature is submitted exactly once, in work items no larger than the maximum
+        assertThat(map).hasSize(numSigs);
+        //noinspection removal
+        verify(cryptoEngine, times(3)).verifyAsync(sigsCaptor.capture());
+        final var submitted = sigsCaptor.getAllValues();
+        assertThat(submitted).allSatisfy(workItem -> assertThat(workItem)
+                .hasSizeLessThanOrEqualTo(SignatureVerifierImpl.MAX_SIGNATURES_PER_WORK_ITEM));
+        assertThat(submitted.stream().mapToInt(List::size).sum()).isEqualTo(numSigs);
+    }
 }
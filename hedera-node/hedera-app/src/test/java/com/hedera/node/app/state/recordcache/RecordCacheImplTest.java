@@ -60,6 +60,8 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -691,6 +693,39 @@ final class RecordCacheImplTest extends AppTestBase {
             assertThat(cache.getRecords(PAYER_ACCOUNT_ID)).containsExactly(record);
         }
 
+        @Test
+        @DisplayName("Query for records for an account ID whose transaction had preceding records")
+        void queryForRecordsForAccountIdWithPrecedingRecords() {
+            // Given a user transaction that had a preceding child transaction
+            final var cache = new RecordCacheImpl(dedupeCache, wsa, props);
+            final var txId = transactionID();
+            final var precedingTxId = txId.copyBuilder().nonce(1).build();
+            final var receipt = TransactionReceipt.newBuilder().status(SUCCESS).build();
+            final var precedingRecord = TransactionRecord.newBuilder()
+                    .transactionID(precedingTxId)
+                    .consensusTimestamp(Timestamp.newBuilder().seconds(1).nanos(1))
+                    .receipt(receipt)
+                    .build();
+            final var userRecord = TransactionRecord.newBuilder()
+                    .transactionID(txId)
+                    .consensusTimestamp(Timestamp.newBuilder().seconds(1).nanos(2))
+                    .receipt(receipt)
+                    .build();
+
+            // When the preceding record is added to the cache before the user record
+            cache.add(
+                    0,
+                    PAYER_ACCOUNT_ID,
+                    List.of(
+                            new SingleTransactionRecord(
+                                    simpleCryptoTransfer(precedingTxId), precedingRecord, List.of(), SIMPLE_OUTPUT),
+                            new SingleTransactionRecord(
+                                    simpleCryptoTransfer(txId), userRecord, List.of(), SIMPLE_OUTPUT)));
+
+            // Then the user transaction is still indexed for its payer, together with the preceding record
+            assertThat(cache.getRecords(PAYER_ACCOUNT_ID)).containsExactly(precedingRecord, userRecord);
+        }
+
         static Stream<Arguments> receiptStatusCodes() {
             final var allValues = new HashSet<>(Arrays.asList(ResponseCodeEnum.values()));
             allValues.remove(UNKNOWN);
@@ -698,6 +733,101 @@ final class RecordCacheImplTest extends AppTestBase {
         }
     }
 
+    @Nested
+    @DisplayName("Expiry of records")
+    final class ExpiryTests {
+        @Test
+        @DisplayName("Records with valid start outside the max valid duration are expired")
+        void expiredRecordsAreRemoved() {
+            // Given a cache with a record for a transaction, and a record for another transaction a second later
+            final var cache = new RecordCacheImpl(dedupeCache, wsa, props);
+            final var start = Instant.now();
+            final var oldTxId = transactionID(start, 0);
+            final var newTxId = transactionID(start.plusSeconds(1), 0);
+            cache.add(0, PAYER_ACCOUNT_ID, List.of(singleRecord(oldTxId, start.plusSeconds(2))));
+            cache.add(0, PAYER_ACCOUNT_ID, List.of(singleRecord(newTxId, start.plusSeconds(3))));
+            assertThat(cache.getRecords(PAYER_ACCOUNT_ID)).hasSize(2);
+
+            // When a record is added once the first transaction is older than the max valid duration
+            final var lastTxId = transactionID(start.plusSeconds(180), 0);
+            final var lastRecord = singleRecord(lastTxId, start.plusSeconds(180).plusNanos(1));
+            cache.add(0, PAYER_ACCOUNT_ID, List.of(lastRecord));
+
+            // Then the first transaction is removed from the cache and from state, but not the others
+            assertThat(cache.getHistory(oldTxId)).isNull();
+            assertThat(cache.hasDuplicate(oldTxId, 0L)).isEqualTo(NO_DUPLICATE);
+            assertThat(cache.hasDuplicate(newTxId, 0L)).isEqualTo(SAME_NODE);
+            assertThat(cache.getRecords(PAYER_ACCOUNT_ID)).hasSize(2).contains(lastRecord.transactionRecord());
+            final var queue = Objects.requireNonNull(wsa.getHederaState())
+                    .getReadableStates(RecordCacheService.NAME)
+                    .<TransactionRecordEntry>getQueue(RecordCacheService.TXN_RECORD_QUEUE);
+            assertThat(Objects.requireNonNull(queue.peek()).transactionRecord())
+                    .isNotNull()
+                    .extracting(TransactionRecord::transactionID)
+                    .isEqualTo(newTxId);
+        }
+
+        @Test
+        @DisplayName("Records can be queried by payer while records are added and expired")
+        void recordsCanBeQueriedWhileAddedAndExpired() throws InterruptedException {
+            // Given a cache that is queried by payer on another thread
+            final var cache = new RecordCacheImpl(dedupeCache, wsa, props);
+            final var done = new AtomicBoolean();
+            final var failure = new AtomicReference<Throwable>();
+            final var reader = new Thread(() -> {
+                try {
+                    while (!done.get()) {
+                        assertThat(cache.getRecords(PAYER_ACCOUNT_ID))
+                                .hasSizeLessThanOrEqualTo(MAX_QUERYABLE_PER_ACCOUNT)
+                                .doesNotHaveDuplicates()
+                                .allMatch(rec -> PAYER_ACCOUNT_ID.equals(
+                                        rec.transactionIDOrThrow().accountID()));
+                    }
+                } catch (final Throwable t) {
+                    failure.set(t);
+                }
+            });
+            reader.start();
+
+            // When enough records are added, ten per second, for the payer's index to both grow and expire
+            final var start = Instant.now();
+            final var numRecords = 5_000;
+            for (int i = 0; i < numRecords; i++) {
+                final var consensusTime = start.plusMillis(100L * i);
+                final var validStart = consensusTime.minusSeconds(1);
+                final var txId = transactionID(validStart, validStart.getNano());
+                cache.add(0, PAYER_ACCOUNT_ID, List.of(singleRecord(txId, consensusTime)));
+            }
+            done.set(true);
+            reader.join();
+
+            // Then the reader never saw an inconsistent index, and the most recent records are still returned
+            assertThat(failure.get()).isNull();
+            assertThat(cache.getRecords(PAYER_ACCOUNT_ID)).hasSize(MAX_QUERYABLE_PER_ACCOUNT);
+        }
+
+        private TransactionID transactionID(@NonNull final Instant validStart, final int nanos) {
+            return TransactionID.newBuilder()
+                    .transactionValidStart(Timestamp.newBuilder()
+                            .seconds(validStart.getEpochSecond())
+                            .nanos(nanos))
+                    .accountID(PAYER_ACCOUNT_ID)
+                    .build();
+        }
+
+        private SingleTransactionRecord singleRecord(
+                @NonNull final TransactionID txId, @NonNull final Instant consensusTime) {
+            final var record = TransactionRecord.newBuilder()
+                    .transactionID(txId)
+                    .consensusTimestamp(Timestamp.newBuilder()
+                            .seconds(consensusTime.getEpochSecond())
+                            .nanos(consensusTime.getNano()))
+                    .receipt(TransactionReceipt.newBuilder().status(SUCCESS))
+                    .build();
+            return new SingleTransactionRecord(simpleCryptoTransfer(txId), record, List.of(), SIMPLE_OUTPUT);
+        }
+    }
+
     @Nested
     @DisplayName("Duplicate checks")
     final class DuplicateCheckTests {
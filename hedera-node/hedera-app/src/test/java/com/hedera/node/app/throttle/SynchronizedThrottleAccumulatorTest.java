@@ -16,15 +16,20 @@
 
 package com.hedera.node.app.throttle;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import com.hedera.hapi.node.base.AccountID;
 import com.hedera.hapi.node.base.HederaFunctionality;
 import com.hedera.hapi.node.transaction.Query;
+import com.hedera.node.app.service.mono.throttling.ThrottleReqsManager;
 import com.hedera.node.app.state.HederaState;
 import com.hedera.node.app.workflows.TransactionInfo;
 import org.junit.jupiter.api.BeforeEach;
@@ -53,12 +58,21 @@ class SynchronizedThrottleAccumulatorTest {
     void verifyShouldThrottleIsCalled() {
         // given
         final var state = mock(HederaState.class);
+        final var manager = mock(ThrottleReqsManager.class);
+        given(throttleAccumulator.planClaims(eq(transactionInfo), eq(state), any()))
+                .willAnswer(invocation -> {
+                    invocation.<ThrottleClaimPlan>getArgument(2).addClaim(manager, 0, null);
+                    return false;
+                });
+        given(throttleAccumulator.shouldThrottle(any(ThrottleClaimPlan.class), any()))
+                .willReturn(true);
 
         // when
-        subject.shouldThrottle(transactionInfo, state);
+        final var ans = subject.shouldThrottle(transactionInfo, state);
 
         // then
-        verify(throttleAccumulator, times(1)).shouldThrottle(eq(transactionInfo), any(), eq(state));
+        assertTrue(ans);
+        verify(throttleAccumulator, times(1)).shouldThrottle(any(ThrottleClaimPlan.class), any());
     }
 
     @Test
@@ -66,12 +80,46 @@ class SynchronizedThrottleAccumulatorTest {
         // given
         final var query = mock(Query.class);
         final var accountID = mock(AccountID.class);
+        final var manager = mock(ThrottleReqsManager.class);
+        given(throttleAccumulator.planClaims(eq(HederaFunctionality.CONTRACT_CREATE), eq(query), eq(accountID), any()))
+                .willAnswer(invocation -> {
+                    invocation.<ThrottleClaimPlan>getArgument(3).addClaim(manager, 0, null);
+                    return false;
+                });
 
         // when
-        subject.shouldThrottle(HederaFunctionality.CONTRACT_CREATE, query, accountID);
+        final var ans = subject.shouldThrottle(HederaFunctionality.CONTRACT_CREATE, query, accountID);
 
         // then
-        verify(throttleAccumulator, times(1))
-                .shouldThrottle(eq(HederaFunctionality.CONTRACT_CREATE), any(), eq(query), eq(accountID));
+        assertFalse(ans);
+        verify(throttleAccumulator, times(1)).shouldThrottle(any(ThrottleClaimPlan.class), any());
+    }
+
+    @Test
+    void doesNotClaimIfThrottledWhileRecordingClaims() {
+        // given
+        final var state = mock(HederaState.class);
+        given(throttleAccumulator.planClaims(eq(transactionInfo), eq(state), any()))
+                .willReturn(true);
+
+        // when
+        final var ans = subject.shouldThrottle(transactionInfo, state);
+
+        // then
+        assertTrue(ans);
+        verify(throttleAccumulator, never()).shouldThrottle(any(ThrottleClaimPlan.class), any());
+    }
+
+    @Test
+    void doesNotClaimIfNothingToClaim() {
+        // given
+        final var state = mock(HederaState.class);
+
+        // when
+        final var ans = subject.shouldThrottle(transactionInfo, state);
+
+        // then
+        assertFalse(ans);
+        verify(throttleAccumulator, never()).shouldThrottle(any(ThrottleClaimPlan.class), any());
     }
 }
@@ -355,6 +355,81 @@ class ThrottleAccumulatorTest {
         assertEquals(9999999940000L, bNow.used());
     }
 
+    @Test
+    void plannedClaimsGiveSameDecisionsForMultiBucketOp() throws IOException, ParseException {
+        // given
+        subject = new ThrottleAccumulator(
+                () -> CAPACITY_SPLIT, configProvider, FRONTEND_THROTTLE, throttleMetrics, gasThrottle);
+        given(configProvider.getConfiguration()).willReturn(configuration);
+        given(configuration.getConfigData(AccountsConfig.class)).willReturn(accountsConfig);
+        given(accountsConfig.lastThrottleExempt()).willReturn(100L);
+        given(configuration.getConfigData(ContractsConfig.class)).willReturn(contractsConfig);
+        given(contractsConfig.throttleThrottleByGas()).willReturn(false);
+
+        given(transactionInfo.payerID())
+                .willReturn(AccountID.newBuilder().accountNum(1234L).build());
+
+        final var defs = getThrottleDefs("bootstrap/throttles.json");
+
+        given(transactionInfo.functionality()).willReturn(CONTRACT_CALL);
+
+        // when
+        subject.rebuildFor(defs);
+        // and
+        final var plan = new ThrottleClaimPlan();
+        assertFalse(subject.planClaims(transactionInfo, state, plan));
+        var firstAns = subject.shouldThrottle(plan, TIME_INSTANT);
+        plan.clear();
+        boolean subsequentAns = false;
+        for (int i = 1; i <= 12; i++) {
+            assertFalse(subject.planClaims(transactionInfo, state, plan));
+            subsequentAns = subject.shouldThrottle(plan, TIME_INSTANT.plusNanos(i));
+            plan.clear();
+        }
+        var throttlesNow = subject.activeThrottlesFor(CONTRACT_CALL);
+        // and
+        var aNow = throttlesNow.get(0);
+        var bNow = throttlesNow.get(1);
+
+        // then the same as managerBehavesAsExpectedForMultiBucketOp
+        assertFalse(firstAns);
+        assertTrue(subsequentAns);
+        assertEquals(24999999820000000L, aNow.used());
+        assertEquals(9999999940000L, bNow.used());
+    }
+
+    @Test
+    void plannedClaimsGiveSameDecisionsForQueries() throws IOException, ParseException {
+        // given
+        subject = new ThrottleAccumulator(
+                () -> CAPACITY_SPLIT, configProvider, FRONTEND_THROTTLE, throttleMetrics, gasThrottle);
+        given(configProvider.getConfiguration()).willReturn(configuration);
+        given(configuration.getConfigData(AccountsConfig.class)).willReturn(accountsConfig);
+        given(accountsConfig.lastThrottleExempt()).willReturn(100L);
+
+        final var defs = getThrottleDefs("bootstrap/throttles.json");
+        subject.rebuildFor(defs);
+
+        // when
+        final var queryPayerId = AccountID.newBuilder().accountNum(1_234L).build();
+        final var plan = new ThrottleClaimPlan();
+        assertFalse(subject.planClaims(CRYPTO_GET_ACCOUNT_BALANCE, query, queryPayerId, plan));
+        var noAns = subject.shouldThrottle(plan, TIME_INSTANT);
+        plan.clear();
+        assertFalse(subject.planClaims(GET_VERSION_INFO, query, queryPayerId, plan));
+        subject.shouldThrottle(plan, TIME_INSTANT.plusNanos(1));
+        plan.clear();
+        assertFalse(subject.planClaims(GET_VERSION_INFO, query, queryPayerId, plan));
+        final var yesAns = subject.shouldThrottle(plan, TIME_INSTANT.plusNanos(2));
+        final var throttlesNow = subject.activeThrottlesFor(CRYPTO_GET_ACCOUNT_BALANCE);
+        final var dNow = throttlesNow.get(0);
+
+        // then the same as worksAsExpectedForKnownQueries
+        assertFalse(noAns);
+        assertTrue(yesAns);
+        assertEquals(10999999990000L, dNow.used());
+    }
+
     @ParameterizedTest
     @EnumSource
     void handlesThrottleExemption(ThrottleAccumulator.ThrottleType throttleType) throws IOException, ParseException {
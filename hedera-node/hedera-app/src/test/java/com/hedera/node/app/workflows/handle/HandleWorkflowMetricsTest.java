@@ -56,7 +56,7 @@ class HandleWorkflowMetricsTest {
 
         // then
         final int transactionMetricsCount = (HederaFunctionality.values().length - 1) * 2;
-        assertThat(metrics.findMetricsByCategory("app")).hasSize(transactionMetricsCount + 1);
+        assertThat(metrics.findMetricsByCategory("app")).hasSize(transactionMetricsCount + 2);
     }
 
     @Test
@@ -170,4 +170,17 @@ class HandleWorkflowMetricsTest {
         assertThat((Double) metrics.getMetric("app", "gasPerConsSec").get(VALUE))
                 .isGreaterThan(0.0);
     }
+
+    @Test
+    void testIncrementPreHandleMisses() {
+        // given
+        final var handleWorkflowMetrics = new HandleWorkflowMetrics(metrics, configProvider);
+
+        // when
+        handleWorkflowMetrics.incrementPreHandleMisses();
+        handleWorkflowMetrics.incrementPreHandleMisses();
+
+        // then
+        assertThat(metrics.getMetric("app", "preHandleMisses").get(VALUE)).isEqualTo(2L);
+    }
 }
@@ -22,6 +22,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.hedera.node.app.fixtures.AppTestBase;
 import com.hedera.node.app.records.impl.producers.formats.v6.BlockRecordWriterV6;
+import com.hedera.node.app.records.impl.producers.formats.v7.BlockRecordWriterV7;
 import java.nio.file.FileSystems;
 import org.junit.jupiter.api.Test;
 
@@ -38,7 +39,7 @@ final class BlockRecordFactoryImplTest extends AppTestBase {
     }
 
     @Test
-    void createV7BasedOnConfigThrows() throws Exception {
+    void createV7BasedOnConfig() throws Exception {
         final var app = appBuilder()
                 .withConfigValue("hedera.recordStream.recordFileVersion", 7)
                 .withConfigValue("hedera.recordStream.logDir", "hedera-node/data/recordStreams")
@@ -46,9 +47,8 @@ final class BlockRecordFactoryImplTest extends AppTestBase {
 
         final var factory =
                 new BlockRecordWriterFactoryImpl(app.configProvider(), selfNodeInfo, SIGNER, FileSystems.getDefault());
-        assertThatThrownBy(factory::create)
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessageContaining("Record file version 7 is not yet supported");
+        final var writer = factory.create();
+        assertThat(writer).isInstanceOf(BlockRecordWriterV7.class);
     }
 
     @Test
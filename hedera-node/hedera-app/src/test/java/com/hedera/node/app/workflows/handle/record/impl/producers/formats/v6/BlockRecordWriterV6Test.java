@@ -47,6 +47,7 @@ import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.Executors;
 import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
 import org.apache.logging.log4j.LogManager;
@@ -386,6 +387,59 @@ final class BlockRecordWriterV6Test extends AppTestBase {
             assertThat(Files.exists(sidecarPath)).isEqualTo(hasSidecars);
         }
 
+        @ParameterizedTest(name = "compress={0}")
+        @ValueSource(booleans = {true, false})
+        @DisplayName("Hashing and compressing in parallel writes the same record, sidecar, and signature files")
+        void parallelFileWriting(final boolean compress) throws Exception {
+            createApp(compress);
+            final var singleTransactionRecords = TEST_BLOCKS.get(2);
+            final var sidecarPath = recordPath
+                    .getParent()
+                    .resolve("sidecar/2018-08-24T16_25_42.000000890Z_01.rcd" + (compress ? ".gz" : ""));
+
+            // Given the files written by a writer that hashes and compresses on the calling thread
+            writeBlock(writer, singleTransactionRecords);
+            final var expectedRecordFile = readContents(recordPath, compress);
+            final var expectedSidecarFile = readContents(sidecarPath, compress);
+            final var expectedSignatureFile = Files.readAllBytes(sigPath);
+            Files.delete(recordPath);
+            Files.delete(sidecarPath);
+            Files.delete(sigPath);
+
+            // When the same block is written by a writer that hashes and compresses in parallel
+            final var executor = Executors.newFixedThreadPool(4);
+            try {
+                writeBlock(
+                        new BlockRecordWriterV6(config, selfNodeInfo, SIGNER, fileSystem, executor),
+                        singleTransactionRecords);
+            } finally {
+                executor.shutdownNow();
+            }
+
+            // Then the contents of the files, and therefore their hashes and signatures, are the same
+            assertThat(readContents(recordPath, compress)).isEqualTo(expectedRecordFile);
+            assertThat(readContents(sidecarPath, compress)).isEqualTo(expectedSidecarFile);
+            assertThat(Files.readAllBytes(sigPath)).isEqualTo(expectedSignatureFile);
+        }
+
+        private void writeBlock(
+                final BlockRecordWriterV6 blockWriter, final List<SingleTransactionRecord> singleTransactionRecords) {
+            blockWriter.init(hapiVersion, STARTING_RUNNING_HASH_OBJ, consensusTime, blockNumber);
+            var previousHash = STARTING_RUNNING_HASH_OBJ.hash();
+            for (final var rec : singleTransactionRecords) {
+                final var serializedRec = BlockRecordFormatV6.INSTANCE.serialize(rec, blockNumber, hapiVersion);
+                previousHash = BlockRecordFormatV6.INSTANCE.computeNewRunningHash(previousHash, List.of(serializedRec));
+                blockWriter.writeItem(serializedRec);
+            }
+            blockWriter.close(new HashObject(HashAlgorithm.SHA_384, (int) previousHash.length(), previousHash));
+        }
+
+        private byte[] readContents(final Path path, final boolean compressed) throws IOException {
+            return compressed
+                    ? new GZIPInputStream(Files.newInputStream(path)).readAllBytes()
+                    : Files.readAllBytes(path);
+        }
+
         @Test
         @DisplayName("Multiple sidecar files written when sidecar file size limit is reached")
         void multipleSidecars() throws IOException {
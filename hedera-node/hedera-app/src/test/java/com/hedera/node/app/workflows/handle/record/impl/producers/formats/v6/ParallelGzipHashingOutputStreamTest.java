@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.node.app.records.impl.producers.formats.v6;
+
+import static com.hedera.node.app.records.impl.producers.formats.v6.ParallelGzipHashingOutputStream.BLOCK_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+final class ParallelGzipHashingOutputStreamTest {
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @ParameterizedTest(name = "size={0}")
+    @ValueSource(ints = {0, 1, 1000, BLOCK_SIZE - 1, BLOCK_SIZE, BLOCK_SIZE + 1, 3_000_000})
+    @DisplayName("Compressed output decompresses to the written bytes, and the digest is over the written bytes")
+    void compressedContentAndDigest(final int size) throws Exception {
+        final var data = compressibleBytes(size);
+        final var out = new ByteArrayOutputStream();
+        final var subject = newStream(out, true);
+
+        writeInPieces(subject, data);
+        subject.close();
+
+        final var decompressed =
+                new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes();
+        assertThat(decompressed).isEqualTo(data);
+        assertThat(subject.getDigest()).isEqualTo(sha384(data));
+    }
+
+    @ParameterizedTest(name = "size={0}")
+    @ValueSource(ints = {0, 1, BLOCK_SIZE, 3_000_000})
+    @DisplayName("Uncompressed output is the written bytes, and the digest is over the written bytes")
+    void uncompressedContentAndDigest(final int size) throws Exception {
+        final var data = compressibleBytes(size);
+        final var out = new ByteArrayOutputStream();
+        final var subject = newStream(out, false);
+
+        writeInPieces(subject, data);
+        subject.close();
+
+        assertThat(out.toByteArray()).isEqualTo(data);
+        assertThat(subject.getDigest()).isEqualTo(sha384(data));
+    }
+
+    @Test
+    @DisplayName("Output of a single block is the same as that of a GZIPOutputStream")
+    void singleBlockMatchesGzipOutputStream() throws Exception {
+        final var data = compressibleBytes(BLOCK_SIZE / 2);
+        final var out = new ByteArrayOutputStream();
+        final var subject = newStream(out, true);
+        subject.write(data);
+        subject.close();
+
+        final var expected = new ByteArrayOutputStream();
+        try (final var gzip = new GZIPOutputStream(expected)) {
+            gzip.write(data);
+        }
+        assertThat(out.toByteArray()).isEqualTo(expected.toByteArray());
+    }
+
+    @Test
+    @DisplayName("The digest is only available after close, and close can be called more than once")
+    void digestAfterClose() throws Exception {
+        final var subject = newStream(new ByteArrayOutputStream(), true);
+        subject.write(42);
+        assertThat(subject.getDigest()).isNull();
+
+        subject.close();
+        subject.close();
+
+        assertThat(subject.getDigest()).isEqualTo(sha384(new byte[] {42}));
+        assertThatThrownBy(() -> subject.write(42)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("A failure to write to the underlying stream is thrown by close")
+    void writeFailureIsThrownByClose() throws Exception {
+        final var failing = new OutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+        final var subject = new ParallelGzipHashingOutputStream(
+                failing, MessageDigest.getInstance("SHA-384"), false, executor);
+        subject.write(compressibleBytes(1000));
+
+        assertThatThrownBy(subject::close).isInstanceOf(IOException.class).hasMessage("disk full");
+    }
+
+    private ParallelGzipHashingOutputStream newStream(final OutputStream out, final boolean compress)
+            throws Exception {
+        return new ParallelGzipHashingOutputStream(out, MessageDigest.getInstance("SHA-384"), compress, executor);
+    }
+
+    private static void writeInPieces(final OutputStream out, final byte[] data) throws IOException {
+        final var random = new Random(42);
+        int position = 0;
+        while (position < data.length) {
+            final int count = Math.min(data.length - position, 1 + random.nextInt(5000));
+            if (count == 1) {
+                out.write(data[position]);
+            } else {
+                out.write(data, position, count);
+            }
+            position += count;
+        }
+    }
+
+    private static byte[] compressibleBytes(final int size) {
+        final var random = new Random(size);
+        final var data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) random.nextInt(20);
+        }
+        return data;
+    }
+
+    private static byte[] sha384(final byte[] data) throws Exception {
+        return MessageDigest.getInstance("SHA-384").digest(data);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.node.app.records.impl.producers.formats.v7;
+
+import static com.hedera.node.app.records.RecordTestData.BLOCK_NUM;
+import static com.hedera.node.app.records.RecordTestData.STARTING_RUNNING_HASH_OBJ;
+import static com.hedera.node.app.records.RecordTestData.TEST_BLOCKS;
+import static com.hedera.node.app.records.RecordTestData.VERSION;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.hedera.hapi.streams.RecordStreamItem;
+import com.hedera.node.app.records.impl.producers.SerializedSingleTransactionRecord;
+import com.hedera.node.app.records.impl.producers.formats.v7.BlockRecordFormatV7.RecordStreamItemV7;
+import com.hedera.pbj.runtime.ParseException;
+import com.hedera.pbj.runtime.io.buffer.Bytes;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+final class BlockRecordFormatV7Test {
+    private static final int MAX_DEPTH = 512;
+
+    @Test
+    void serialization() throws ParseException {
+        for (var testBlock : TEST_BLOCKS) {
+            for (var rec : testBlock) {
+                final var serializedRec = BlockRecordFormatV7.INSTANCE.serialize(rec, BLOCK_NUM, VERSION);
+                final var itemBytes = serializedRec.protobufSerializedRecordStreamItem();
+                final var parsed = RecordStreamItemV7.PROTOBUF.parse(itemBytes.toReadableSequentialData());
+                assertThat(RecordStreamItemV7.PROTOBUF.measureRecord(parsed)).isEqualTo((int) itemBytes.length());
+                assertThat(parsed.transaction()).isEqualTo(rec.transaction());
+                assertThat(parsed.transactionRecord()).isEqualTo(rec.transactionRecord());
+                assertThat(parsed.hashOfSidecarItems() != null)
+                        .isEqualTo(!rec.transactionSidecarRecords().isEmpty());
+                assertThat(serializedRec.sideCarItems()).isEqualTo(rec.transactionSidecarRecords());
+            }
+        }
+    }
+
+    @Test
+    void itemsCanBeReadAsV6Items() throws Exception {
+        final var rec = TEST_BLOCKS.get(1).get(0);
+        final var itemBytes = BlockRecordFormatV7.INSTANCE
+                .serialize(rec, BLOCK_NUM, VERSION)
+                .protobufSerializedRecordStreamItem();
+        final var v6Item = RecordStreamItem.PROTOBUF.parse(itemBytes.toReadableSequentialData());
+        assertThat(v6Item.transaction()).isEqualTo(rec.transaction());
+        assertThat(v6Item.record()).isEqualTo(rec.transactionRecord());
+    }
+
+    @Test
+    void unknownFieldsAreSkippedUnlessStrict() throws ParseException {
+        final var rec = TEST_BLOCKS.get(1).get(0);
+        final var itemBytes = BlockRecordFormatV7.INSTANCE
+                .serialize(rec, BLOCK_NUM, VERSION)
+                .protobufSerializedRecordStreamItem();
+        // Unknown fields 9 (varint), 10 (fixed32), 11 (fixed64) and 12 (length-delimited) after the known fields
+        final var unknownFields = new byte[] {
+            (9 << 3), 1, (10 << 3) | 5, 1, 2, 3, 4, (11 << 3) | 1, 1, 2, 3, 4, 5, 6, 7, 8, (12 << 3) | 2, 2, 1, 2
+        };
+        final var input = withSuffix(itemBytes, unknownFields);
+
+        final var parsed = RecordStreamItemV7.PROTOBUF.parse(input.toReadableSequentialData(), false, MAX_DEPTH);
+        assertThat(parsed).isEqualTo(RecordStreamItemV7.PROTOBUF.parse(itemBytes.toReadableSequentialData()));
+        assertThatThrownBy(() -> RecordStreamItemV7.PROTOBUF.parse(input.toReadableSequentialData(), true, MAX_DEPTH))
+                .isInstanceOf(ParseException.class);
+    }
+
+    @Test
+    void knownFieldsWithWrongWireTypeAreRejected() {
+        final var rec = TEST_BLOCKS.get(1).get(0);
+        final var itemBytes = BlockRecordFormatV7.INSTANCE
+                .serialize(rec, BLOCK_NUM, VERSION)
+                .protobufSerializedRecordStreamItem();
+        // hash_of_sidecar_items (field 3) as a varint rather than length-delimited
+        final var input = withSuffix(itemBytes, new byte[] {(3 << 3), 1});
+
+        assertThatThrownBy(() -> RecordStreamItemV7.PROTOBUF.parse(input.toReadableSequentialData(), false, MAX_DEPTH))
+                .isInstanceOf(ParseException.class);
+    }
+
+    @Test
+    void runningHashIsOneDigestPerItem() throws Exception {
+        final var items = TEST_BLOCKS.get(0).stream()
+                .map(rec -> BlockRecordFormatV7.INSTANCE.serialize(rec, BLOCK_NUM, VERSION))
+                .toList();
+        byte[] expected = STARTING_RUNNING_HASH_OBJ.hash().toByteArray();
+        final var digest = MessageDigest.getInstance("SHA-384");
+        for (final SerializedSingleTransactionRecord item : items) {
+            digest.update(expected);
+            digest.update(item.protobufSerializedRecordStreamItem().toByteArray());
+            expected = digest.digest();
+        }
+        assertThat(BlockRecordFormatV7.INSTANCE.computeNewRunningHash(STARTING_RUNNING_HASH_OBJ.hash(), items))
+                .isEqualTo(Bytes.wrap(expected));
+    }
+
+    private static Bytes withSuffix(final Bytes bytes, final byte[] suffix) {
+        final var prefix = bytes.toByteArray();
+        final var result = Arrays.copyOf(prefix, prefix.length + suffix.length);
+        System.arraycopy(suffix, 0, result, prefix.length, suffix.length);
+        return Bytes.wrap(result);
+    }
+}
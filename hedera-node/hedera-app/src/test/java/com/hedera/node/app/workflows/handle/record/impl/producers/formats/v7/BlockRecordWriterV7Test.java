@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hedera.node.app.records.impl.producers.formats.v7;
+
+import static com.hedera.hapi.streams.schema.RecordStreamFileSchema.BLOCK_NUMBER;
+import static com.hedera.hapi.streams.schema.RecordStreamFileSchema.RECORD_STREAM_ITEMS;
+import static com.hedera.node.app.records.RecordTestData.BLOCK_NUM;
+import static com.hedera.node.app.records.RecordTestData.ENDING_RUNNING_HASH_OBJ;
+import static com.hedera.node.app.records.RecordTestData.SIGNER;
+import static com.hedera.node.app.records.RecordTestData.STARTING_RUNNING_HASH_OBJ;
+import static com.hedera.node.app.records.RecordTestData.TEST_BLOCKS;
+import static com.hedera.node.app.records.RecordTestData.VERSION;
+import static com.hedera.node.app.records.impl.producers.formats.v7.BlockRecordWriterV7.CHECKPOINT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import com.hedera.node.app.fixtures.AppTestBase;
+import com.hedera.node.app.records.impl.producers.formats.v7.BlockRecordFormatV7.RecordStreamItemV7;
+import com.hedera.node.config.data.BlockRecordStreamConfig;
+import com.hedera.pbj.runtime.io.buffer.BufferedData;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+final class BlockRecordWriterV7Test extends AppTestBase {
+    private static final int CHECKPOINT_INTERVAL = 2;
+
+    private FileSystem fileSystem;
+    private BlockRecordStreamConfig config;
+    private Instant consensusTime;
+    private Path recordPath;
+    private Path sigPath;
+
+    @BeforeEach
+    void setUp() {
+        fileSystem = Jimfs.newFileSystem(Configuration.unix());
+        consensusTime = Instant.ofEpochSecond(1_535_127_942L, 890);
+        final var app = appBuilder()
+                .withHapiVersion(VERSION)
+                .withSoftwareVersion(VERSION)
+                .withConfigValue("hedera.recordStream.enabled", true)
+                .withConfigValue("hedera.recordStream.logDir", "/temp")
+                .withConfigValue("hedera.recordStream.sidecarDir", "sidecar")
+                .withConfigValue("hedera.recordStream.recordFileVersion", 7)
+                .withConfigValue("hedera.recordStream.signatureFileVersion", 6)
+                .withConfigValue("hedera.recordStream.compressFilesOnCreation", true)
+                .withConfigValue("hedera.recordStream.checkpointInterval", CHECKPOINT_INTERVAL)
+                .build();
+        config = app.configProvider().getConfiguration().getConfigData(BlockRecordStreamConfig.class);
+        final var recordDir = fileSystem.getPath(config.logDir(), "record" + selfNodeInfo.memo() + "/");
+        // The record file is never compressed, so it can be read while it is written
+        recordPath = recordDir.resolve("2018-08-24T16_25_42.000000890Z.rcd");
+        sigPath = recordDir.resolve("2018-08-24T16_25_42.000000890Z.rcd_sig");
+    }
+
+    @Test
+    @DisplayName("Record File Version must be V7")
+    void recordFileVersionMustBeV7() {
+        final var v6Config = appBuilder()
+                .withConfigValue("hedera.recordStream.recordFileVersion", 6)
+                .build()
+                .configProvider()
+                .getConfiguration()
+                .getConfigData(BlockRecordStreamConfig.class);
+        assertThatThrownBy(() -> new BlockRecordWriterV7(v6Config, selfNodeInfo, SIGNER, fileSystem))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Items, checkpoints and footer are written, and the checkpoints verify the file")
+    void writeBlockWithCheckpoints() throws Exception {
+        final var records = TEST_BLOCKS.get(1);
+        final var writer = new BlockRecordWriterV7(config, selfNodeInfo, SIGNER, fileSystem);
+        writer.init(VERSION, STARTING_RUNNING_HASH_OBJ, consensusTime, BLOCK_NUM);
+        for (final var rec : records) {
+            writer.writeItem(BlockRecordFormatV7.INSTANCE.serialize(rec, BLOCK_NUM, VERSION));
+        }
+        assertThat(Files.exists(sigPath)).isFalse();
+        writer.close(ENDING_RUNNING_HASH_OBJ);
+
+        final var file = readFile(Files.readAllBytes(recordPath));
+        assertThat(file.blockNumber()).isEqualTo(BLOCK_NUM);
+        assertThat(file.items()).hasSameSizeAs(records);
+        for (int i = 0; i < records.size(); i++) {
+            assertThat(file.items().get(i).transaction()).isEqualTo(records.get(i).transaction());
+            assertThat(file.items().get(i).transactionRecord())
+                    .isEqualTo(records.get(i).transactionRecord());
+        }
+        // A checkpoint every CHECKPOINT_INTERVAL items, and one after the last item
+        final var expectedCheckpoints = (records.size() + CHECKPOINT_INTERVAL - 1) / CHECKPOINT_INTERVAL;
+        assertThat(file.checkpointItemCounts()).hasSize(expectedCheckpoints);
+        assertThat(file.checkpointItemCounts().get(expectedCheckpoints - 1)).isEqualTo(records.size());
+        assertThat(Files.exists(sigPath)).isTrue();
+    }
+
+    @Test
+    @DisplayName("A reader tailing the file sees every complete checkpoint before the file is closed")
+    void checkpointsAreVisibleWhileWriting() throws Exception {
+        final var records = TEST_BLOCKS.get(0);
+        final var writer = new BlockRecordWriterV7(config, selfNodeInfo, SIGNER, fileSystem);
+        writer.init(VERSION, STARTING_RUNNING_HASH_OBJ, consensusTime, BLOCK_NUM);
+        for (int i = 0; i < CHECKPOINT_INTERVAL; i++) {
+            writer.writeItem(BlockRecordFormatV7.INSTANCE.serialize(records.get(i), BLOCK_NUM, VERSION));
+        }
+
+        final var file = readFile(Files.readAllBytes(recordPath));
+        assertThat(file.checkpointItemCounts()).containsExactly((long) CHECKPOINT_INTERVAL);
+        assertThat(file.items()).hasSize(CHECKPOINT_INTERVAL);
+        writer.close(ENDING_RUNNING_HASH_OBJ);
+    }
+
+    /** The parts of a v7 record file, read up to the last complete field. */
+    private record V7File(long blockNumber, List<RecordStreamItemV7> items, List<Long> checkpointItemCounts) {}
+
+    /**
+     * Reads a (possibly incomplete) v7 record file, verifying the checksum of every checkpoint.
+     */
+    private static V7File readFile(final byte[] bytes) throws Exception {
+        final var in = BufferedData.wrap(bytes);
+        assertThat(in.readInt()).isEqualTo(BlockRecordFormatV7.VERSION_7);
+        long blockNumber = -1;
+        final var items = new ArrayList<RecordStreamItemV7>();
+        final var checkpointItemCounts = new ArrayList<Long>();
+        long segmentStart = 0;
+        while (in.hasRemaining()) {
+            final long fieldStart = in.position();
+            final int tag = in.readVarInt(false);
+            final int fieldNumber = tag >>> 3;
+            if (fieldNumber == BLOCK_NUMBER.number()) {
+                blockNumber = in.readVarLong(false);
+                continue;
+            }
+            final int length = in.readVarInt(false);
+            final var field = in.readBytes(length);
+            if (fieldNumber == RECORD_STREAM_ITEMS.number()) {
+                items.add(RecordStreamItemV7.PROTOBUF.parse(field.toReadableSequentialData()));
+            } else if (fieldNumber == CHECKPOINT.number()) {
+                final var checkpoint = field.toReadableSequentialData();
+                checkpoint.readVarInt(false);
+                final long itemCount = checkpoint.readVarLong(false);
+                checkpoint.readVarInt(false);
+                final long checksum = checkpoint.readVarLong(false);
+                final var crc = new CRC32C();
+                crc.update(bytes, (int) segmentStart, (int) (fieldStart - segmentStart));
+                assertThat(checksum).isEqualTo(crc.getValue());
+                assertThat(itemCount).isEqualTo(items.size());
+                checkpointItemCounts.add(itemCount);
+                segmentStart = in.position();
+            }
+        }
+        return new V7File(blockNumber, items, checkpointItemCounts);
+    }
+}
@@ -626,6 +626,156 @@ class SavepointStackImplTest extends StateTestBase {
         }
     }
 
+    @Nested
+    @DisplayName("Tests for deeply nested savepoints")
+    class DeepNestingTests {
+        private static final int DEPTH = 64;
+
+        @Test
+        void testReadsSeeAllLevels() {
+            // given
+            final var stack = new SavepointStackImpl(baseState);
+            final var writableState = stack.getWritableStates(FOOD_SERVICE).get(FRUIT_STATE_KEY);
+
+            // when
+            writableState.put(A_KEY, ACAI);
+            for (int i = 0; i < DEPTH; i++) {
+                stack.createSavepoint();
+            }
+            writableState.put(B_KEY, BLUEBERRY);
+            writableState.remove(C_KEY);
+
+            // then
+            final var newData = new HashMap<>(BASE_DATA);
+            newData.put(A_KEY, ACAI);
+            newData.put(B_KEY, BLUEBERRY);
+            newData.remove(C_KEY);
+            assertThat(stack.depth()).isEqualTo(DEPTH + 1);
+            assertThat(stack.getReadableStates(FOOD_SERVICE)).has(content(newData));
+            assertThat(stack.peek().getReadableStates(FOOD_SERVICE)).has(content(newData));
+            assertThat(writableState.getOriginalValue(A_KEY)).isEqualTo(ACAI);
+            assertThat(writableState.getOriginalValue(B_KEY)).isEqualTo(BANANA);
+            assertThat(writableState.getOriginalValue(C_KEY)).isEqualTo(CHERRY);
+            assertThat(writableState.modifiedKeys()).containsExactly(B_KEY, C_KEY);
+            assertThat(baseState.getReadableStates(FOOD_SERVICE)).has(content(BASE_DATA));
+        }
+
+        @Test
+        void testRollbackRestoresEveryLevel() {
+            // given
+            final var stack = new SavepointStackImpl(baseState);
+            final var writableState = stack.getWritableStates(FOOD_SERVICE).get(FRUIT_STATE_KEY);
+            writableState.put(A_KEY, ACAI);
+            stack.createSavepoint();
+            writableState.put(A_KEY, "Level2");
+            writableState.remove(B_KEY);
+            stack.createSavepoint();
+            writableState.put(A_KEY, "Level3");
+            writableState.put(B_KEY, BLACKBERRY);
+            writableState.put(C_KEY, CRANBERRY);
+            assertThat(writableState.getOriginalValue(A_KEY)).isEqualTo("Level2");
+            assertThat(writableState.getOriginalValue(B_KEY)).isNull();
+            assertThat(writableState.getOriginalValue(C_KEY)).isEqualTo(CHERRY);
+
+            // when
+            stack.rollback();
+
+            // then
+            final var level2Data = new HashMap<>(BASE_DATA);
+            level2Data.put(A_KEY, "Level2");
+            level2Data.remove(B_KEY);
+            assertThat(stack.getReadableStates(FOOD_SERVICE)).has(content(level2Data));
+            assertThat(writableState.modifiedKeys()).containsExactly(A_KEY, B_KEY);
+            assertThat(writableState.getOriginalValue(A_KEY)).isEqualTo(ACAI);
+            assertThat(writableState.getOriginalValue(B_KEY)).isEqualTo(BANANA);
+
+            // when
+            stack.rollback();
+
+            // then
+            final var level1Data = new HashMap<>(BASE_DATA);
+            level1Data.put(A_KEY, ACAI);
+            assertThat(stack.getReadableStates(FOOD_SERVICE)).has(content(level1Data));
+            assertThat(writableState.modifiedKeys()).containsExactly(A_KEY);
+        }
+
+        @Test
+        void testCommitMergesIntoLowerLevel() {
+            // given
+            final var stack = new SavepointStackImpl(baseState);
+            final var writableState = stack.getWritableStates(FOOD_SERVICE).get(FRUIT_STATE_KEY);
+            writableState.put(B_KEY, BLUEBERRY);
+            stack.createSavepoint();
+            writableState.put(C_KEY, CRANBERRY);
+            stack.createSavepoint();
+            writableState.put(A_KEY, ACAI);
+            writableState.put(B_KEY, BLACKBERRY);
+
+            // when
+            stack.commit();
+            stack.commit();
+
+            // then
+            final var newData = new HashMap<>(BASE_DATA);
+            newData.put(A_KEY, ACAI);
+            newData.put(B_KEY, BLACKBERRY);
+            newData.put(C_KEY, CRANBERRY);
+            assertThat(stack.depth()).isOne();
+            assertThat(stack.getReadableStates(FOOD_SERVICE)).has(content(newData));
+            assertThat(writableState.modifiedKeys()).containsExactly(B_KEY, C_KEY, A_KEY);
+        }
+
+        @Test
+        void testRollbackAfterCommitIntoLowerLevel() {
+            // given
+            final var stack = new SavepointStackImpl(baseState);
+            final var writableState = stack.getWritableStates(FOOD_SERVICE).get(FRUIT_STATE_KEY);
+            stack.createSavepoint();
+            writableState.put(A_KEY, ACAI);
+            stack.createSavepoint();
+            writableState.put(A_KEY, "Level3");
+            writableState.put(B_KEY, BLUEBERRY);
+            stack.commit();
+
+            // when
+            stack.rollback();
+
+            // then
+            assertThat(stack.depth()).isOne();
+            assertThat(stack.getReadableStates(FOOD_SERVICE)).has(content(BASE_DATA));
+            assertThat(writableState.modifiedKeys()).isEmpty();
+        }
+
+        @Test
+        void testCommitFullStackFromDeepLevel() {
+            // given
+            final var stack = new SavepointStackImpl(baseState);
+            final var writableState = stack.getWritableStates(FOOD_SERVICE).get(FRUIT_STATE_KEY);
+            final var expected = new HashMap<>(BASE_DATA);
+            for (int i = 0; i < DEPTH; i++) {
+                stack.createSavepoint();
+                writableState.put("KEY" + i, "VALUE" + i);
+                expected.put("KEY" + i, "VALUE" + i);
+                if (i % 2 == 1) {
+                    // Every other savepoint is reverted right away
+                    stack.createSavepoint();
+                    writableState.put(A_KEY, "Reverted" + i);
+                    stack.rollback();
+                }
+            }
+            writableState.remove(G_KEY);
+            expected.remove(G_KEY);
+
+            // when
+            stack.commitFullStack();
+
+            // then
+            assertThat(stack.depth()).isOne();
+            assertThat(baseState.getReadableStates(FOOD_SERVICE)).has(content(expected));
+            assertThat(stack.getReadableStates(FOOD_SERVICE)).has(content(expected));
+        }
+    }
+
     private static Condition<ReadableStates> content(Map<String, String> expected) {
         return new Condition<>(contentCheck(expected), "state " + expected);
     }
@@ -29,6 +29,8 @@ import static com.hedera.hapi.node.base.ResponseCodeEnum.TRANSACTION_OVERSIZE;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mock.Strictness.LENIENT;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
@@ -184,6 +186,23 @@ class IngestWorkflowImplTest extends AppTestBase {
         verify(submissionManager).submit(transactionBody, requestBuffer);
     }
 
+    @Test
+    @DisplayName("A transaction received as an owned array is submitted without copying the array")
+    void testSuccessWithOwnedArray() throws PreCheckException, ParseException {
+        // Given the request as an array that is owned by the workflow
+        final var requestBytes = requestBuffer.toByteArray();
+
+        // When the transaction is submitted
+        workflow.submitTransaction(requestBytes, responseBuffer);
+
+        // Then we get a response that is OK
+        final TransactionResponse response = parseResponse(responseBuffer);
+        assertThat(response.nodeTransactionPrecheckCode()).isEqualTo(OK);
+        // And that the very same array was passed to the submission manager
+        verify(submissionManager).submitOwned(eq(transactionBody), same(requestBytes));
+        verify(submissionManager, never()).submit(any(), any());
+    }
+
     @Nested
     @DisplayName("0. Node state pre-checks")
     class NodeTests {
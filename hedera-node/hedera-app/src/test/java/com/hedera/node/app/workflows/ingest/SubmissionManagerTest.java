@@ -20,6 +20,7 @@ import static com.hedera.hapi.node.base.ResponseCodeEnum.DUPLICATE_TRANSACTION;
 import static com.hedera.hapi.node.base.ResponseCodeEnum.PLATFORM_TRANSACTION_NOT_CREATED;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -141,6 +142,24 @@ final class SubmissionManagerTest extends AppTestBase {
             verify(deduplicationCache).add(txBody.transactionIDOrThrow());
         }
 
+        @Test
+        @DisplayName("An owned array is submitted to the platform without copying it")
+        void submittingOwnedArrayToPlatformSucceeds() throws PreCheckException {
+            // Given a platform that will succeed in taking bytes
+            when(platform.createTransaction(any())).thenReturn(true);
+            final var array = bytes.toByteArray();
+
+            // When we submit the array
+            submissionManager.submitOwned(txBody, array);
+
+            // Then the platform receives the very same array
+            verify(platform).createTransaction(same(array));
+            // And the metrics keeping track of errors submitting are NOT touched
+            verify(platformTxnRejections, never()).cycle();
+            // And the deduplication cache is updated
+            verify(deduplicationCache).add(txBody.transactionIDOrThrow());
+        }
+
         @Test
         @DisplayName("If the platform fails to onConsensusRound the bytes, a PreCheckException is thrown")
         void testSubmittingToPlatformFails() {
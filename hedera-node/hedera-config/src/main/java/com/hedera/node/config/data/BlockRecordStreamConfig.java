@@ -37,6 +37,10 @@ import com.swirlds.config.api.validation.annotation.Min;
  * @param compressFilesOnCreation when true record and sidecar files are compressed with GZip when created
  * @param numOfBlockHashesInState the number of block hashes to keep in state for block history
  * @param streamFileProducer the type of stream file producer to use. Currently only "concurrent" is supported
+ * @param parallelFileWriting when true record and sidecar files are hashed and compressed in blocks on a pool of
+ *                            threads, instead of on the thread writing the records
+ * @param fileWritingThreads the number of threads used to hash and compress files if parallelFileWriting is true
+ * @param checkpointInterval the number of record stream items between two checkpoints in a version 7 record file
  */
 @ConfigData("hedera.recordStream")
 public record BlockRecordStreamConfig(
@@ -52,4 +56,7 @@ public record BlockRecordStreamConfig(
         @ConfigProperty(defaultValue = "true") @NetworkProperty boolean compressFilesOnCreation, // NOT SURE
         @ConfigProperty(defaultValue = "256") @Min(1) @Max(4096) @NetworkProperty int numOfBlockHashesInState,
         @ConfigProperty(defaultValue = "concurrent") @NetworkProperty
-                String streamFileProducer) {} // COULD BE NODE LOCAL PROPERTY OR NETWORK PROPERTY
+                String streamFileProducer, // COULD BE NODE LOCAL PROPERTY OR NETWORK PROPERTY
+        @ConfigProperty(defaultValue = "false") @NodeProperty boolean parallelFileWriting,
+        @ConfigProperty(defaultValue = "4") @Min(1) @NodeProperty int fileWritingThreads,
+        @ConfigProperty(defaultValue = "100") @Min(1) @NetworkProperty int checkpointInterval) {}
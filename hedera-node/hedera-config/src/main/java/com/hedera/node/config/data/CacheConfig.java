@@ -24,4 +24,5 @@ import com.swirlds.config.api.ConfigProperty;
 public record CacheConfig(
         @ConfigProperty(value = "records.ttl", defaultValue = "180") @NetworkProperty int recordsTtl,
         @ConfigProperty(value = "cryptoTransfer.warmThreads", defaultValue = "30") @NetworkProperty
-                int cryptoTransferWarmThreads) {}
+                int cryptoTransferWarmThreads,
+        @ConfigProperty(value = "warmAhead", defaultValue = "false") @NetworkProperty boolean warmAhead) {}
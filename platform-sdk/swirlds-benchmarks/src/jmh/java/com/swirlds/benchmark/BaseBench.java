@@ -88,7 +88,7 @@ public abstract class BaseBench {
 
     protected static Configuration configuration;
 
-    private static void loadConfig() throws IOException {
+    private void loadConfig() throws IOException {
         ConfigurationBuilder configurationBuilder = ConfigurationBuilder.create()
                 .autoDiscoverExtensions()
                 .withSource(new LegacyFileConfigSource(Path.of(".", "settings.txt")))
@@ -97,6 +97,7 @@ public abstract class BaseBench {
                 .withConfigDataType(MerkleDbConfig.class)
                 .withConfigDataType(MetricsConfig.class)
                 .withConfigDataType(CryptoConfig.class);
+        overrideConfig(configurationBuilder);
         configuration = configurationBuilder.build();
         ConfigurationHolder.getInstance().setConfiguration(configuration);
 
@@ -107,6 +108,13 @@ public abstract class BaseBench {
         }
     }
 
+    /**
+     * Benchmarks may override this method to set config values, which depend on benchmark params.
+     *
+     * @param configurationBuilder configuration builder
+     */
+    protected void overrideConfig(final ConfigurationBuilder configurationBuilder) {}
+
     @Setup
     public void setup() throws IOException {
         loadConfig();
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.benchmark;
+
+import com.swirlds.config.api.ConfigurationBuilder;
+import com.swirlds.virtualmap.VirtualMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(value = 1)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class VirtualHasherBench extends VirtualMapBaseBench {
+
+    /* Whether dirty leaves are hashed in background while a round is handled */
+    @Param({"false", "true"})
+    public boolean speculativeLeafHashing;
+
+    String benchmarkName() {
+        return "VirtualHasherBench";
+    }
+
+    @Override
+    protected void overrideConfig(final ConfigurationBuilder configurationBuilder) {
+        configurationBuilder.withValue("virtualMap.speculativeLeafHashing", Boolean.toString(speculativeLeafHashing));
+    }
+
+    /**
+     * Simulates rounds. In every round, numRecords random keys are updated, then the map is copied,
+     * and the old copy is hashed. Time from making a copy to getting its hash is the latency hashing
+     * adds between round handling and state signing. Single-threaded.
+     */
+    @Benchmark
+    public void roundToHash() throws Exception {
+        beforeTest("roundToHash");
+
+        logger.info(RUN_DELIMITER);
+
+        VirtualMap<BenchmarkKey, BenchmarkValue> virtualMap = createMap();
+
+        long handleNanos = 0;
+        long hashNanos = 0;
+        long maxHashNanos = 0;
+        for (int i = 0; i < numFiles; i++) {
+            final long roundStart = System.nanoTime();
+            for (int j = 0; j < numRecords; ++j) {
+                final BenchmarkKey key = new BenchmarkKey(Utils.randomLong(maxKey));
+                virtualMap.put(key, new BenchmarkValue(nextValue()));
+            }
+            final long roundEnd = System.nanoTime();
+            handleNanos += roundEnd - roundStart;
+
+            final VirtualMap<BenchmarkKey, BenchmarkValue> oldCopy = virtualMap;
+            virtualMap = virtualMap.copy();
+            oldCopy.getRight().getHash();
+            final long roundHashNanos = System.nanoTime() - roundEnd;
+            hashNanos += roundHashNanos;
+            maxHashNanos = Math.max(maxHashNanos, roundHashNanos);
+            oldCopy.release();
+        }
+
+        logger.info(
+                "Handled {} rounds in {} ms, copy-to-hash latency avg {} ms, max {} ms",
+                numFiles,
+                TimeUnit.NANOSECONDS.toMillis(handleNanos),
+                TimeUnit.NANOSECONDS.toMillis(hashNanos / numFiles),
+                TimeUnit.NANOSECONDS.toMillis(maxHashNanos));
+
+        // Ensure the map is done with hashing/merging/flushing
+        final var finalMap = flushMap(virtualMap);
+
+        afterTest(() -> {
+            finalMap.release();
+            finalMap.getDataSource().close();
+        });
+    }
+}
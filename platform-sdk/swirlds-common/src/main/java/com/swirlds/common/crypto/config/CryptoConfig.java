@@ -18,6 +18,7 @@ package com.swirlds.common.crypto.config;
 
 import com.swirlds.config.api.ConfigData;
 import com.swirlds.config.api.ConfigProperty;
+import com.swirlds.config.api.validation.annotation.Min;
 
 /**
  * Configuration of the crypto system.
@@ -34,13 +35,22 @@ import com.swirlds.config.api.ConfigProperty;
  * @param enableNewKeyStoreModel
  *   whether to enable the new key store model which uses separate PKCS #8 key stores for each node. This model is
  *   compatible with most industry standard tools and libraries including OpenSSL, Java Keytool, and many others.
+ * @param ed25519BatchVerificationEnabled
+ * 		whether to verify Ed25519 signatures with the batch verification provider. It uses the cofactored verification
+ * 		equation, which accepts some crafted signatures that are otherwise rejected, so it must be enabled on all nodes
+ * 		at the same time.
+ * @param ed25519BatchVerificationThreshold
+ * 		the min number of Ed25519 signatures submitted together for them to be verified as a single batch, smaller
+ * 		lists are verified one signature at a time. Only used if batch verification is enabled.
  */
 @ConfigData("crypto")
 public record CryptoConfig(
         @ConfigProperty(defaultValue = "0.5") double cpuVerifierThreadRatio,
         @ConfigProperty(defaultValue = "0.5") double cpuDigestThreadRatio,
         @ConfigProperty(defaultValue = "password") String keystorePassword,
-        @ConfigProperty(defaultValue = "false") boolean enableNewKeyStoreModel) {
+        @ConfigProperty(defaultValue = "false") boolean enableNewKeyStoreModel,
+        @ConfigProperty(defaultValue = "false") boolean ed25519BatchVerificationEnabled,
+        @Min(1) @ConfigProperty(defaultValue = "4") int ed25519BatchVerificationThreshold) {
 
     /**
      * Calculates the number of threads needed to achieve the CPU core ratio given by {@link
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.common.crypto.engine;
+
+import static com.swirlds.logging.legacy.LogMarker.TESTING_EXCEPTIONS;
+
+import com.swirlds.common.crypto.SignatureType;
+import com.swirlds.common.crypto.TransactionSignature;
+import com.swirlds.common.crypto.VerificationStatus;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * An {@link AsyncVerificationHandler} that verifies all the Ed25519 signatures of its work items as a single batch,
+ * using an {@link Ed25519BatchVerificationProvider}, if there are at least as many of them as the batch threshold.
+ * Otherwise, the Ed25519 signatures are verified one at a time with the same provider, so the result never depends on
+ * how signatures were grouped into work items. Signatures of other types are verified by the delegating provider.
+ */
+public class AsyncBatchVerificationHandler extends AsyncVerificationHandler {
+
+    private static final Logger logger = LogManager.getLogger(AsyncBatchVerificationHandler.class);
+
+    private final List<TransactionSignature> workItems;
+    private final Ed25519BatchVerificationProvider batchProvider;
+    private final int batchThreshold;
+
+    /**
+     * Whether the Ed25519 signatures were verified as a batch, only accessed by the thread running this handler.
+     */
+    private boolean batched;
+
+    /**
+     * Constructs an {@link AsyncBatchVerificationHandler} which will operate on the provided {@link List} of items.
+     * This method does not make a copy of the list provided and expects exclusive access to the list.
+     *
+     * @param workItems
+     * 		the list of items to be asynchronously processed
+     * @param provider
+     * 		the algorithm provider used to verify signatures other than Ed25519 signatures
+     * @param batchProvider
+     * 		the provider used to verify Ed25519 signatures
+     * @param batchThreshold
+     * 		the min number of Ed25519 signatures in the list for them to be verified as a batch
+     */
+    public AsyncBatchVerificationHandler(
+            final List<TransactionSignature> workItems,
+            final OperationProvider<TransactionSignature, Void, Boolean, ?, SignatureType> provider,
+            final Ed25519BatchVerificationProvider batchProvider,
+            final int batchThreshold) {
+        super(workItems, provider);
+        this.workItems = workItems;
+        this.batchProvider = batchProvider;
+        this.batchThreshold = batchThreshold;
+    }
+
+    /**
+     * Verifies the Ed25519 signatures as a batch, if there are enough of them, and then completes the remaining work
+     * items one at a time.
+     */
+    @Override
+    public void run() {
+        int ed25519Count = 0;
+        for (final TransactionSignature item : workItems) {
+            item.setFuture(this);
+            if (item.getSignatureType() == SignatureType.ED25519) {
+                ed25519Count++;
+            }
+        }
+
+        if (ed25519Count >= batchThreshold) {
+            try {
+                batchProvider.verify(workItems);
+                batched = true;
+            } catch (final RuntimeException ex) {
+                // Fall back to verifying the signatures one at a time
+                logger.warn(TESTING_EXCEPTIONS.getMarker(), "Intercepted Uncaught Exception", ex);
+            }
+        }
+
+        super.run();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void handleWorkItem(
+            final OperationProvider<TransactionSignature, Void, Boolean, ?, SignatureType> provider,
+            final TransactionSignature item)
+            throws NoSuchAlgorithmException {
+        if (item.getSignatureType() != SignatureType.ED25519) {
+            super.handleWorkItem(provider, item);
+        } else if (!batched) {
+            final boolean isValid = batchProvider.compute(item, item.getSignatureType());
+            item.setSignatureStatus(isValid ? VerificationStatus.VALID : VerificationStatus.INVALID);
+        }
+    }
+}
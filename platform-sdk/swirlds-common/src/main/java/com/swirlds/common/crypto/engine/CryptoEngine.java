@@ -83,6 +83,12 @@ public class CryptoEngine implements Cryptography {
      */
     private final DelegatingVerificationProvider delegatingVerificationProvider;
 
+    /**
+     * The verification provider used to verify Ed25519 signatures, in batches or one at a time, if batch verification
+     * is enabled by {@link CryptoConfig#ed25519BatchVerificationEnabled()}.
+     */
+    private final Ed25519BatchVerificationProvider ed25519BatchVerificationProvider;
+
     /**
      * The intake dispatcher instance that handles asynchronous signature verification
      */
@@ -119,6 +125,7 @@ public class CryptoEngine implements Cryptography {
         this.ecdsaSecp256k1VerificationProvider = new EcdsaSecp256k1VerificationProvider();
         this.delegatingVerificationProvider =
                 new DelegatingVerificationProvider(ed25519VerificationProvider, ecdsaSecp256k1VerificationProvider);
+        this.ed25519BatchVerificationProvider = new Ed25519BatchVerificationProvider();
 
         this.serializationDigestProvider = new SerializationDigestProvider();
         this.runningHashProvider = new RunningHashProvider();
@@ -261,7 +268,7 @@ public class CryptoEngine implements Cryptography {
         if (signature.getSignatureType() == SignatureType.ECDSA_SECP256K1) {
             return verifySyncInternal(signature, ecdsaSecp256k1VerificationProvider, future);
         } else {
-            return verifySyncInternal(signature, ed25519VerificationProvider, future);
+            return verifySyncInternal(signature, ed25519Provider(), future);
         }
     }
 
@@ -275,12 +282,14 @@ public class CryptoEngine implements Cryptography {
 
         boolean finalOutcome = true;
 
+        final OperationProvider<TransactionSignature, Void, Boolean, ?, SignatureType> ed25519Provider =
+                ed25519Provider();
         OperationProvider<TransactionSignature, Void, Boolean, ?, SignatureType> provider;
         for (final TransactionSignature signature : signatures) {
             if (signature.getSignatureType() == SignatureType.ECDSA_SECP256K1) {
                 provider = ecdsaSecp256k1VerificationProvider;
             } else {
-                provider = ed25519VerificationProvider;
+                provider = ed25519Provider;
             }
 
             if (!verifySyncInternal(signature, provider, future)) {
@@ -299,11 +308,25 @@ public class CryptoEngine implements Cryptography {
             final byte[] data, final byte[] signature, final byte[] publicKey, final SignatureType signatureType) {
         if (signatureType == SignatureType.ECDSA_SECP256K1) {
             return ecdsaSecp256k1VerificationProvider.compute(data, signature, publicKey, signatureType);
+        } else if (config.ed25519BatchVerificationEnabled()) {
+            return ed25519BatchVerificationProvider.compute(data, signature, publicKey);
         } else {
             return ed25519VerificationProvider.compute(data, signature, publicKey, signatureType);
         }
     }
 
+    /**
+     * Gets the provider to verify single Ed25519 signatures with. If batch verification is enabled, single signatures
+     * must be verified with the same equation as batches, so all signatures are checked the same way.
+     *
+     * @return the Ed25519 verification provider
+     */
+    private OperationProvider<TransactionSignature, Void, Boolean, ?, SignatureType> ed25519Provider() {
+        return config.ed25519BatchVerificationEnabled()
+                ? ed25519BatchVerificationProvider
+                : ed25519VerificationProvider;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -328,12 +351,23 @@ public class CryptoEngine implements Cryptography {
         }
 
         // Launch new background threads with the new settings
-        this.verificationDispatcher = new IntakeDispatcher<>(
-                threadManager,
-                TransactionSignature.class,
-                this.delegatingVerificationProvider,
-                config.computeCpuVerifierThreadCount(),
-                CryptoEngine::verificationHandler);
+        if (config.ed25519BatchVerificationEnabled()) {
+            final int batchThreshold = config.ed25519BatchVerificationThreshold();
+            this.verificationDispatcher = new IntakeDispatcher<>(
+                    threadManager,
+                    TransactionSignature.class,
+                    this.delegatingVerificationProvider,
+                    config.computeCpuVerifierThreadCount(),
+                    (provider, workItems) -> new AsyncBatchVerificationHandler(
+                            workItems, provider, ed25519BatchVerificationProvider, batchThreshold));
+        } else {
+            this.verificationDispatcher = new IntakeDispatcher<>(
+                    threadManager,
+                    TransactionSignature.class,
+                    this.delegatingVerificationProvider,
+                    config.computeCpuVerifierThreadCount(),
+                    CryptoEngine::verificationHandler);
+        }
     }
 
     /**
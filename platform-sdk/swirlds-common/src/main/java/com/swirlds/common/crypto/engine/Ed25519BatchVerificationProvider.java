@@ -0,0 +1,313 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.common.crypto.engine;
+
+import static com.swirlds.logging.legacy.LogMarker.TESTING_EXCEPTIONS;
+
+import com.swirlds.common.crypto.CryptographyException;
+import com.swirlds.common.crypto.SignatureType;
+import com.swirlds.common.crypto.TransactionSignature;
+import com.swirlds.common.crypto.VerificationStatus;
+import com.swirlds.common.crypto.engine.Ed25519Curve.Point;
+import com.swirlds.logging.legacy.LogMarker;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Implementation of an Ed25519 signature verification provider that verifies many signatures at once. For signatures
+ * {@code (R_i, S_i)} by public keys {@code A_i}, with {@code h_i = SHA-512(R_i || A_i || M_i)}, and random 128-bit
+ * coefficients {@code z_i}, a batch is valid if
+ * <pre>
+ *     [8]((-sum(z_i * S_i)) * B + sum(z_i * R_i) + sum((z_i * h_i) * A_i)) == 0
+ * </pre>
+ * which is computed with a single multi-scalar multiplication, sharing all point doublings between the signatures.
+ * If the batch equation doesn't hold, the batch is split in halves, which are verified recursively, until the invalid
+ * signatures are found. A batch of a single signature is verified with the same equation and {@code z = 1}.
+ *
+ * <p>This provider uses the cofactored verification equation, the only one for which the result of a batch doesn't
+ * depend on how the signatures are grouped. It agrees with {@link Ed25519VerificationProvider} on all signatures
+ * produced by honest signers, but it accepts signatures with components of small order crafted to pass the
+ * cofactored check, which the libSodium based provider rejects. Hence it must be used for all Ed25519 signatures on
+ * all nodes, or for none.
+ *
+ * <p>As with libSodium, non-canonical encodings of public keys and {@code R}, {@code S} values not less than the group
+ * order, and public keys and {@code R} values of small order are rejected. This class is thread safe.
+ */
+public class Ed25519BatchVerificationProvider
+        extends OperationProvider<TransactionSignature, Void, Boolean, Void, SignatureType> {
+
+    private static final Logger logger = LogManager.getLogger(Ed25519BatchVerificationProvider.class);
+
+    private static final int SIGNATURE_LENGTH = 64;
+    private static final int PUBLIC_KEY_LENGTH = 32;
+    private static final int COEFFICIENT_BITS = 128;
+    /** Max number of public keys with cached multiples, the cache is cleared when it grows any larger */
+    private static final int MAX_CACHED_KEYS = 4096;
+
+    /** Source of the random coefficients. They must not be predictable by whoever produced the signatures. */
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+
+    /**
+     * A signature decoded for verification.
+     */
+    private static final class Decoded {
+        private final Point[] rTable;
+        private final Point[] aTable;
+        private final BigInteger s;
+        private final BigInteger h;
+
+        private Decoded(final Point r, final Point[] aTable, final BigInteger s, final BigInteger h) {
+            this.rTable = Ed25519Curve.oddMultiples(r);
+            this.aTable = aTable;
+            this.s = s;
+            this.h = h;
+        }
+    }
+
+    /**
+     * Odd multiples of recently seen public keys, which are never modified once computed. Most signatures are made by
+     * a small set of keys (the keys of the nodes, and of the busiest accounts), so decoding them again is avoided.
+     */
+    private final Map<ByteBuffer, Point[]> keyTables = new ConcurrentHashMap<>();
+
+    /**
+     * Default Constructor.
+     */
+    public Ed25519BatchVerificationProvider() {
+        super();
+    }
+
+    /**
+     * Verifies all the given signatures, and sets their {@link VerificationStatus}. Signatures of types other than
+     * {@link SignatureType#ED25519} are ignored.
+     *
+     * @param signatures the signatures to verify
+     * @return true if all Ed25519 signatures are valid, false otherwise
+     */
+    public boolean verify(final List<TransactionSignature> signatures) {
+        final int size = signatures.size();
+        final TransactionSignature[] batch = new TransactionSignature[size];
+        final Decoded[] decoded = new Decoded[size];
+        int count = 0;
+        boolean allValid = true;
+        for (final TransactionSignature signature : signatures) {
+            if (signature.getSignatureType() != SignatureType.ED25519) {
+                continue;
+            }
+            final Decoded d = decode(signature);
+            if (d == null) {
+                signature.setSignatureStatus(VerificationStatus.INVALID);
+                allValid = false;
+            } else {
+                batch[count] = signature;
+                decoded[count] = d;
+                count++;
+            }
+        }
+        return verifyRange(batch, decoded, 0, count) && allValid;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Void loadAlgorithm(final SignatureType algorithmType) throws NoSuchAlgorithmException {
+        if (algorithmType != SignatureType.ED25519) {
+            throw new NoSuchAlgorithmException();
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Boolean handleItem(
+            final Void algorithm,
+            final SignatureType algorithmType,
+            final TransactionSignature item,
+            final Void optionalData) {
+        final Decoded d = decode(item);
+        return d != null && isValidBatch(new Decoded[] {d}, 0, 1);
+    }
+
+    /**
+     * Verifies a single signature given as byte arrays.
+     *
+     * @param message   the original message that was signed
+     * @param signature the signature to be verified
+     * @param publicKey the public key used to verify the signature
+     * @return true if the provided signature is valid; false otherwise
+     */
+    boolean compute(final byte[] message, final byte[] signature, final byte[] publicKey) {
+        final Decoded d =
+                decode(message, 0, message.length, signature, 0, signature.length, publicKey, 0, publicKey.length);
+        return d != null && isValidBatch(new Decoded[] {d}, 0, 1);
+    }
+
+    /**
+     * Verifies the signatures in the given range, bisecting it until all invalid signatures are found.
+     */
+    private static boolean verifyRange(
+            final TransactionSignature[] signatures, final Decoded[] decoded, final int from, final int to) {
+        if (from == to) {
+            return true;
+        }
+        if (isValidBatch(decoded, from, to)) {
+            for (int i = from; i < to; i++) {
+                signatures[i].setSignatureStatus(VerificationStatus.VALID);
+            }
+            return true;
+        }
+        if (to - from == 1) {
+            signatures[from].setSignatureStatus(VerificationStatus.INVALID);
+            if (logger.isDebugEnabled()) {
+                logger.debug(
+                        TESTING_EXCEPTIONS.getMarker(),
+                        "Adv Crypto Subsystem: Batch Signature Verification Failure for signature type {}",
+                        SignatureType.ED25519);
+            }
+            return false;
+        }
+        final int mid = (from + to) >>> 1;
+        final boolean first = verifyRange(signatures, decoded, from, mid);
+        final boolean second = verifyRange(signatures, decoded, mid, to);
+        return first && second;
+    }
+
+    /**
+     * Checks the batch equation for the signatures in the given range.
+     */
+    private static boolean isValidBatch(final Decoded[] decoded, final int from, final int to) {
+        final int count = to - from;
+        final Point[][] tables = new Point[2 * count][];
+        final byte[][] scalars = new byte[2 * count][];
+        BigInteger sum = BigInteger.ZERO;
+        final SecureRandom random = count > 1 ? RANDOM.get() : null;
+        for (int i = 0; i < count; i++) {
+            final Decoded d = decoded[from + i];
+            final BigInteger z = count > 1 ? new BigInteger(COEFFICIENT_BITS, random) : BigInteger.ONE;
+            tables[2 * i] = d.rTable;
+            scalars[2 * i] = Ed25519Curve.wnaf(z);
+            tables[2 * i + 1] = d.aTable;
+            scalars[2 * i + 1] = Ed25519Curve.wnaf(z.multiply(d.h).mod(Ed25519Curve.L));
+            sum = sum.add(z.multiply(d.s));
+        }
+        final BigInteger baseScalar = Ed25519Curve.L.subtract(sum.mod(Ed25519Curve.L));
+        return Ed25519Curve.isSmallOrderSum(tables, scalars, 2 * count, Ed25519Curve.wnaf(baseScalar));
+    }
+
+    /**
+     * Decodes a signature, or returns null if it can't be valid.
+     */
+    private Decoded decode(final TransactionSignature signature) {
+        final byte[] contents = signature.getContentsDirect();
+        final byte[] expandedPublicKey = signature.getExpandedPublicKeyDirect();
+        final byte[] keyBuffer =
+                (expandedPublicKey != null && expandedPublicKey.length > 0) ? expandedPublicKey : contents;
+        return decode(
+                contents,
+                signature.getMessageOffset(),
+                signature.getMessageLength(),
+                contents,
+                signature.getSignatureOffset(),
+                signature.getSignatureLength(),
+                keyBuffer,
+                signature.getPublicKeyOffset(),
+                signature.getPublicKeyLength());
+    }
+
+    private Decoded decode(
+            final byte[] messageBuffer,
+            final int messageOffset,
+            final int messageLength,
+            final byte[] signatureBuffer,
+            final int signatureOffset,
+            final int signatureLength,
+            final byte[] keyBuffer,
+            final int keyOffset,
+            final int keyLength) {
+        if (signatureLength != SIGNATURE_LENGTH || keyLength != PUBLIC_KEY_LENGTH) {
+            return null;
+        }
+        final BigInteger s = littleEndian(signatureBuffer, signatureOffset + 32, 32);
+        if (s.compareTo(Ed25519Curve.L) >= 0) {
+            return null;
+        }
+        final Ed25519Curve.Scratch scratch = new Ed25519Curve.Scratch();
+        final Point r = new Point();
+        if (!Ed25519Curve.decode(signatureBuffer, signatureOffset, r) || Ed25519Curve.hasSmallOrder(r, scratch)) {
+            return null;
+        }
+        final Point[] aTable = publicKeyTable(keyBuffer, keyOffset, scratch);
+        if (aTable == null) {
+            return null;
+        }
+
+        final MessageDigest sha512;
+        try {
+            sha512 = MessageDigest.getInstance("SHA-512");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new CryptographyException(e, LogMarker.EXCEPTION);
+        }
+        sha512.update(signatureBuffer, signatureOffset, 32);
+        sha512.update(keyBuffer, keyOffset, PUBLIC_KEY_LENGTH);
+        sha512.update(messageBuffer, messageOffset, messageLength);
+        final byte[] digest = sha512.digest();
+        final BigInteger h = littleEndian(digest, 0, digest.length).mod(Ed25519Curve.L);
+        return new Decoded(r, aTable, s, h);
+    }
+
+    /**
+     * Gets the odd multiples of a public key, or null if the key is invalid. Invalid keys aren't cached.
+     */
+    private Point[] publicKeyTable(final byte[] keyBuffer, final int keyOffset, final Ed25519Curve.Scratch scratch) {
+        final ByteBuffer key = ByteBuffer.wrap(keyBuffer, keyOffset, PUBLIC_KEY_LENGTH);
+        Point[] table = keyTables.get(key);
+        if (table != null) {
+            return table;
+        }
+        final Point a = new Point();
+        if (!Ed25519Curve.decode(keyBuffer, keyOffset, a) || Ed25519Curve.hasSmallOrder(a, scratch)) {
+            return null;
+        }
+        table = Ed25519Curve.oddMultiples(a);
+        if (keyTables.size() >= MAX_CACHED_KEYS) {
+            keyTables.clear();
+        }
+        // The key must be copied, the buffer it was read from may be reused
+        keyTables.put(ByteBuffer.wrap(Arrays.copyOfRange(keyBuffer, keyOffset, keyOffset + PUBLIC_KEY_LENGTH)), table);
+        return table;
+    }
+
+    private static BigInteger littleEndian(final byte[] buffer, final int offset, final int length) {
+        final byte[] bigEndian = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bigEndian[i] = buffer[offset + length - 1 - i];
+        }
+        return new BigInteger(1, bigEndian);
+    }
+}
@@ -0,0 +1,393 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.common.crypto.engine;
+
+import java.math.BigInteger;
+import org.bouncycastle.math.ec.rfc7748.X25519Field;
+
+/**
+ * Group arithmetic on the twisted Edwards curve used by Ed25519, as needed for batch signature verification. Field
+ * arithmetic is delegated to BouncyCastle's {@link X25519Field}. Points are kept in extended coordinates
+ * {@code (X : Y : Z : T)} with {@code x = X/Z}, {@code y = Y/Z} and {@code x * y = T/Z}.
+ *
+ * <p>None of the operations here are constant time. They are only used to verify signatures, where all inputs are
+ * public.
+ */
+final class Ed25519Curve {
+
+    /** The order of the prime order subgroup, {@code 2^252 + 27742317777372353535851937790883648493}. */
+    static final BigInteger L = BigInteger.ONE
+            .shiftLeft(252)
+            .add(new BigInteger("27742317777372353535851937790883648493"));
+
+    /** Window width of the non-adjacent forms used for multi-scalar multiplication. */
+    private static final int WNAF_WIDTH = 5;
+
+    /** Number of odd multiples precomputed for every point, {@code P, 3P, ..., 15P}. */
+    private static final int TABLE_SIZE = 1 << (WNAF_WIDTH - 2);
+
+    /** Number of digits in the non-adjacent form of a scalar less than {@code 2^253}. */
+    private static final int WNAF_DIGITS = 256;
+
+    /** The curve constant {@code d = -121665/121666}. */
+    private static final int[] D = X25519Field.create();
+
+    /** {@code 2 * d}, used in point addition. */
+    private static final int[] D2 = X25519Field.create();
+
+    /** The standard base point. */
+    static final Point BASE;
+
+    /** Odd multiples of the base point. */
+    private static final Point[] BASE_TABLE;
+
+    static {
+        final int[] num = X25519Field.create();
+        final int[] den = X25519Field.create();
+        num[0] = 121665;
+        den[0] = 121666;
+        X25519Field.invVar(den, den);
+        X25519Field.mul(num, den, D);
+        X25519Field.negate(D, D);
+        X25519Field.normalize(D);
+        X25519Field.add(D, D, D2);
+        X25519Field.normalize(D2);
+
+        // The base point has y = 4/5 and a positive x
+        final byte[] encoded = new byte[32];
+        encoded[0] = 0x58;
+        for (int i = 1; i < 32; i++) {
+            encoded[i] = 0x66;
+        }
+        BASE = new Point();
+        if (!decode(encoded, 0, BASE)) {
+            throw new IllegalStateException("Cannot decode the Ed25519 base point");
+        }
+        BASE_TABLE = oddMultiples(BASE);
+    }
+
+    private Ed25519Curve() {}
+
+    /**
+     * A point in extended coordinates.
+     */
+    static final class Point {
+        final int[] x = X25519Field.create();
+        final int[] y = X25519Field.create();
+        final int[] z = X25519Field.create();
+        final int[] t = X25519Field.create();
+
+        void setIdentity() {
+            X25519Field.zero(x);
+            X25519Field.one(y);
+            X25519Field.one(z);
+            X25519Field.zero(t);
+        }
+
+        void set(final Point p) {
+            X25519Field.copy(p.x, 0, x, 0);
+            X25519Field.copy(p.y, 0, y, 0);
+            X25519Field.copy(p.z, 0, z, 0);
+            X25519Field.copy(p.t, 0, t, 0);
+        }
+    }
+
+    /**
+     * Scratch field elements for point operations, so the hot loops don't allocate.
+     */
+    static final class Scratch {
+        private final int[] a = X25519Field.create();
+        private final int[] b = X25519Field.create();
+        private final int[] c = X25519Field.create();
+        private final int[] d = X25519Field.create();
+        private final int[] e = X25519Field.create();
+        private final int[] f = X25519Field.create();
+        private final int[] g = X25519Field.create();
+        private final int[] h = X25519Field.create();
+    }
+
+    /**
+     * Decodes a point from its 32-byte encoding. Only canonical encodings, with the y coordinate less than the field
+     * prime, are accepted.
+     *
+     * @param src    the buffer to decode from
+     * @param offset the offset of the encoding in the buffer
+     * @param r      the decoded point
+     * @return true if the encoding is a canonical encoding of a point on the curve, false otherwise
+     */
+    static boolean decode(final byte[] src, final int offset, final Point r) {
+        final byte[] encoded = new byte[32];
+        System.arraycopy(src, offset, encoded, 0, 32);
+        final int sign = (encoded[31] >>> 7) & 1;
+        encoded[31] &= 0x7F;
+        if (!isCanonical(encoded)) {
+            return false;
+        }
+
+        X25519Field.decode(encoded, 0, r.y);
+        final int[] u = X25519Field.create();
+        final int[] v = X25519Field.create();
+        X25519Field.sqr(r.y, u);
+        X25519Field.mul(D, u, v);
+        X25519Field.subOne(u);
+        X25519Field.addOne(v);
+        X25519Field.carry(u);
+        X25519Field.carry(v);
+        if (!X25519Field.sqrtRatioVar(u, v, r.x)) {
+            return false;
+        }
+        X25519Field.normalize(r.x);
+        if (sign == 1 && X25519Field.isZeroVar(r.x)) {
+            return false;
+        }
+        if ((r.x[0] & 1) != sign) {
+            X25519Field.negate(r.x, r.x);
+            X25519Field.normalize(r.x);
+        }
+        X25519Field.one(r.z);
+        X25519Field.mul(r.x, r.y, r.t);
+        return true;
+    }
+
+    /**
+     * Checks that a little-endian encoded value, with the top bit already cleared, is less than {@code 2^255 - 19}.
+     */
+    private static boolean isCanonical(final byte[] encoded) {
+        if (encoded[31] != 0x7F) {
+            return true;
+        }
+        for (int i = 30; i > 0; i--) {
+            if (encoded[i] != (byte) 0xFF) {
+                return true;
+            }
+        }
+        return (encoded[0] & 0xFF) < 0xED;
+    }
+
+    /**
+     * Adds two points. {@code r} may be the same object as {@code p} or {@code q}.
+     */
+    static void add(final Point p, final Point q, final Point r, final Scratch s) {
+        addOrSubtract(p, q, false, r, s);
+    }
+
+    /**
+     * Subtracts {@code q} from {@code p}. {@code r} may be the same object as {@code p} or {@code q}.
+     */
+    static void subtract(final Point p, final Point q, final Point r, final Scratch s) {
+        addOrSubtract(p, q, true, r, s);
+    }
+
+    private static void addOrSubtract(
+            final Point p, final Point q, final boolean negateQ, final Point r, final Scratch s) {
+        // add-2008-hwcd-3 for a = -1. Negating q swaps its (Y - X) and (Y + X) terms and negates its T
+        final int[] a = s.a, b = s.b, c = s.c, d = s.d, e = s.e, f = s.f, g = s.g, h = s.h;
+        X25519Field.sub(p.y, p.x, a);
+        X25519Field.add(p.y, p.x, b);
+        X25519Field.sub(q.y, q.x, negateQ ? f : e);
+        X25519Field.add(q.y, q.x, negateQ ? e : f);
+        X25519Field.carry(a);
+        X25519Field.carry(b);
+        X25519Field.carry(e);
+        X25519Field.carry(f);
+        X25519Field.mul(a, e, a); // A = (Y1 - X1) * (Y2 - X2)
+        X25519Field.mul(b, f, b); // B = (Y1 + X1) * (Y2 + X2)
+        X25519Field.mul(p.t, q.t, c);
+        X25519Field.mul(c, D2, c); // C = T1 * 2d * T2
+        if (negateQ) {
+            X25519Field.negate(c, c);
+        }
+        X25519Field.mul(p.z, q.z, d);
+        X25519Field.add(d, d, d); // D = 2 * Z1 * Z2
+        X25519Field.sub(b, a, e); // E = B - A
+        X25519Field.sub(d, c, f); // F = D - C
+        X25519Field.add(d, c, g); // G = D + C
+        X25519Field.add(b, a, h); // H = B + A
+        X25519Field.carry(e);
+        X25519Field.carry(f);
+        X25519Field.carry(g);
+        X25519Field.carry(h);
+        X25519Field.mul(e, f, r.x);
+        X25519Field.mul(g, h, r.y);
+        X25519Field.mul(e, h, r.t);
+        X25519Field.mul(f, g, r.z);
+    }
+
+    /**
+     * Doubles a point. {@code r} may be the same object as {@code p}.
+     */
+    static void dbl(final Point p, final Point r, final Scratch s) {
+        // dbl-2008-hwcd for a = -1
+        final int[] a = s.a, b = s.b, c = s.c, e = s.e, f = s.f, g = s.g, h = s.h;
+        X25519Field.sqr(p.x, a); // A = X1^2
+        X25519Field.sqr(p.y, b); // B = Y1^2
+        X25519Field.sqr(p.z, c);
+        X25519Field.add(c, c, c); // C = 2 * Z1^2
+        X25519Field.add(p.x, p.y, e);
+        X25519Field.carry(e);
+        X25519Field.sqr(e, e);
+        X25519Field.sub(e, a, e);
+        X25519Field.sub(e, b, e); // E = (X1 + Y1)^2 - A - B
+        X25519Field.sub(b, a, g); // G = -A + B
+        X25519Field.sub(g, c, f); // F = G - C
+        X25519Field.add(a, b, h);
+        X25519Field.negate(h, h); // H = -A - B
+        X25519Field.carry(e);
+        X25519Field.carry(f);
+        X25519Field.carry(g);
+        X25519Field.carry(h);
+        X25519Field.mul(e, f, r.x);
+        X25519Field.mul(g, h, r.y);
+        X25519Field.mul(e, h, r.t);
+        X25519Field.mul(f, g, r.z);
+    }
+
+    /**
+     * Checks whether a point is the neutral element.
+     */
+    static boolean isIdentity(final Point p) {
+        final int[] x = X25519Field.create();
+        final int[] yz = X25519Field.create();
+        X25519Field.copy(p.x, 0, x, 0);
+        X25519Field.normalize(x);
+        X25519Field.sub(p.y, p.z, yz);
+        X25519Field.carry(yz);
+        X25519Field.normalize(yz);
+        return X25519Field.isZeroVar(x) && X25519Field.isZeroVar(yz);
+    }
+
+    /**
+     * Checks whether {@code [8]P} is the neutral element, which is the case for the points of small order.
+     */
+    static boolean hasSmallOrder(final Point p, final Scratch s) {
+        final Point r = new Point();
+        dbl(p, r, s);
+        dbl(r, r, s);
+        dbl(r, r, s);
+        return isIdentity(r);
+    }
+
+    /**
+     * Computes the odd multiples {@code P, 3P, ..., (2 * TABLE_SIZE - 1)P} of a point.
+     */
+    static Point[] oddMultiples(final Point p) {
+        final Scratch s = new Scratch();
+        final Point[] table = new Point[TABLE_SIZE];
+        final Point twice = new Point();
+        dbl(p, twice, s);
+        table[0] = new Point();
+        table[0].set(p);
+        for (int i = 1; i < TABLE_SIZE; i++) {
+            table[i] = new Point();
+            add(table[i - 1], twice, table[i], s);
+        }
+        return table;
+    }
+
+    /**
+     * Computes the width-{@link #WNAF_WIDTH} non-adjacent form of a non-negative scalar less than {@code 2^253}.
+     * Every digit is either zero or an odd number with absolute value less than {@code 2^(WNAF_WIDTH - 1)}.
+     *
+     * @param scalar the scalar
+     * @return the digits, least significant first
+     */
+    static byte[] wnaf(final BigInteger scalar) {
+        final long[] words = new long[5];
+        final byte[] bytes = scalar.toByteArray();
+        for (int i = 0; i < bytes.length && i < 32; i++) {
+            final long b = bytes[bytes.length - 1 - i] & 0xFFL;
+            words[i >>> 3] |= b << ((i & 7) << 3);
+        }
+
+        final byte[] digits = new byte[WNAF_DIGITS];
+        final int width = 1 << WNAF_WIDTH;
+        final int mask = width - 1;
+        int pos = 0;
+        int carry = 0;
+        while (pos < WNAF_DIGITS) {
+            final int index = pos >>> 6;
+            final int bit = pos & 63;
+            final long bits = (bit < 64 - WNAF_WIDTH)
+                    ? (words[index] >>> bit)
+                    : ((words[index] >>> bit) | (words[index + 1] << (64 - bit)));
+            final int window = carry + (int) (bits & mask);
+            if ((window & 1) == 0) {
+                pos++;
+                continue;
+            }
+            if (window < width / 2) {
+                carry = 0;
+                digits[pos] = (byte) window;
+            } else {
+                carry = 1;
+                digits[pos] = (byte) (window - width);
+            }
+            pos += WNAF_WIDTH;
+        }
+        return digits;
+    }
+
+    /**
+     * Checks that {@code [8](sum(scalars[i] * points[i]) + baseScalar * B)} is the neutral element, using Straus'
+     * interleaved multi-scalar multiplication. All scalars must be non-negative and less than {@code 2^253}.
+     *
+     * @param tables     odd multiples of the points, as computed by {@link #oddMultiples(Point)}
+     * @param scalars    the scalars in non-adjacent form, as computed by {@link #wnaf(BigInteger)}
+     * @param count      the number of points to use
+     * @param baseScalar the scalar of the base point in non-adjacent form
+     * @return true if the cofactor multiple of the sum is the neutral element
+     */
+    static boolean isSmallOrderSum(
+            final Point[][] tables, final byte[][] scalars, final int count, final byte[] baseScalar) {
+        final Scratch s = new Scratch();
+        final Point acc = new Point();
+        acc.setIdentity();
+
+        int top = WNAF_DIGITS - 1;
+        while (top >= 0 && baseScalar[top] == 0 && allZero(scalars, count, top)) {
+            top--;
+        }
+        for (int pos = top; pos >= 0; pos--) {
+            dbl(acc, acc, s);
+            for (int i = 0; i < count; i++) {
+                addDigit(acc, tables[i], scalars[i][pos], s);
+            }
+            addDigit(acc, BASE_TABLE, baseScalar[pos], s);
+        }
+        dbl(acc, acc, s);
+        dbl(acc, acc, s);
+        dbl(acc, acc, s);
+        return isIdentity(acc);
+    }
+
+    private static boolean allZero(final byte[][] scalars, final int count, final int pos) {
+        for (int i = 0; i < count; i++) {
+            if (scalars[i][pos] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addDigit(final Point acc, final Point[] table, final int digit, final Scratch s) {
+        if (digit > 0) {
+            add(acc, table[digit >>> 1], acc, s);
+        } else if (digit < 0) {
+            subtract(acc, table[(-digit) >>> 1], acc, s);
+        }
+    }
+}
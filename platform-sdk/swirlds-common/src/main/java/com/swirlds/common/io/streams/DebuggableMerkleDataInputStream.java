@@ -604,12 +604,35 @@ public class DebuggableMerkleDataInputStream extends MerkleDataInputStream {
      * {@inheritDoc}
      */
     @Override
-    public <T extends MerkleNode> T readMerkleTree(final Path directory, final int maxNumberOfNodes)
+    public <T extends MerkleNode> T readMerkleTree(
+            final Path directory,
+            final int maxNumberOfNodes,
+            @NonNull final List<MerkleNode> subtrees,
+            @NonNull final Map<Long /* class ID */, Integer /* version */> deserializedVersions)
             throws IOException {
 
         startOperation(SerializationOperation.READ_MERKLE_TREE);
         try {
-            return super.readMerkleTree(directory, maxNumberOfNodes);
+            return super.readMerkleTree(directory, maxNumberOfNodes, subtrees, deserializedVersions);
+        } finally {
+            finishOperation();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public List<MerkleNode> readMerkleSubtrees(
+            final Path directory,
+            final int maxNumberOfNodes,
+            @NonNull final Map<Long /* class ID */, Integer /* version */> deserializedVersions)
+            throws IOException {
+
+        startOperation(SerializationOperation.READ_MERKLE_TREE);
+        try {
+            return super.readMerkleSubtrees(directory, maxNumberOfNodes, deserializedVersions);
         } finally {
             finishOperation();
         }
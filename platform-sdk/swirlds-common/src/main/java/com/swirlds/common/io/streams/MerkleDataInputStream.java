@@ -18,6 +18,7 @@ package com.swirlds.common.io.streams;
 
 import static com.swirlds.common.constructable.ClassIdFormatter.classIdString;
 import static com.swirlds.common.io.streams.SerializableStreamConstants.NULL_CLASS_ID;
+import static com.swirlds.common.io.streams.SerializableStreamConstants.SUBTREE_REFERENCE_CLASS_ID;
 import static com.swirlds.common.merkle.copy.MerkleInitialize.initializeAndMigrateTreeAfterDeserialization;
 
 import com.swirlds.common.constructable.ConstructableRegistry;
@@ -36,8 +37,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
@@ -50,6 +53,11 @@ public class MerkleDataInputStream extends SerializableDataInputStream {
     private final Queue<PartiallyConstructedMerkleInternal> internalNodes;
     private MerkleNode root;
 
+    /**
+     * The subtrees that were read from other streams, referenced by index from this stream.
+     */
+    private List<MerkleNode> subtrees = List.of();
+
     /**
      * Create a stream capable of reading merkle trees.
      *
@@ -148,6 +156,15 @@ public class MerkleDataInputStream extends SerializableDataInputStream {
             addToParent(null);
             return;
         }
+        if (classId == SUBTREE_REFERENCE_CLASS_ID) {
+            final int index = readInt();
+            if (index < 0 || index >= subtrees.size()) {
+                throw new MerkleSerializationException(
+                        "Reference to subtree " + index + ", but only " + subtrees.size() + " subtrees were read");
+            }
+            addToParent(subtrees.get(index));
+            return;
+        }
 
         final MerkleNode node = ConstructableRegistry.getInstance().createObject(classId);
         if (node == null) {
@@ -203,6 +220,35 @@ public class MerkleDataInputStream extends SerializableDataInputStream {
      */
     public <T extends MerkleNode> T readMerkleTree(final Path directory, final int maxNumberOfNodes)
             throws IOException {
+        return readMerkleTree(directory, maxNumberOfNodes, List.of(), new HashMap<>());
+    }
+
+    /**
+     * Read a merkle tree that was written with {@link MerkleDataOutputStream#writeMerkleTree(Path, MerkleNode, Map)},
+     * putting the subtrees that were written to other streams in place of their references. The subtrees must already
+     * have been read with {@link #readMerkleSubtrees(Path, int, Map)}. The whole tree, including the subtrees, is
+     * initialized and migrated once it has been read.
+     *
+     * @param directory
+     * 		the directory from which data is being read
+     * @param maxNumberOfNodes
+     * 		maximum number of nodes to read, not counting the nodes of the subtrees
+     * @param subtrees
+     * 		the subtrees, in the order of the indices of their references
+     * @param deserializedVersions
+     * 		the versions of the classes deserialized in the subtrees
+     * @param <T>
+     * 		Type of the node
+     * @return the merkle tree read from the stream
+     * @throws IOException
+     * 		thrown when version or the options or nodes count are invalid
+     */
+    public <T extends MerkleNode> T readMerkleTree(
+            final Path directory,
+            final int maxNumberOfNodes,
+            @NonNull final List<MerkleNode> subtrees,
+            @NonNull final Map<Long /* class ID */, Integer /* version */> deserializedVersions)
+            throws IOException {
 
         validateDirectory(directory);
 
@@ -219,8 +265,66 @@ public class MerkleDataInputStream extends SerializableDataInputStream {
             return null;
         }
 
-        final Map<Long /* class ID */, Integer /* version */> deserializedVersions = new HashMap<>();
+        this.subtrees = Objects.requireNonNull(subtrees);
+        final MerkleNode treeRoot = readNodes(directory, maxNumberOfNodes, deserializedVersions);
+
+        final MerkleNode migratedRoot = initializeAndMigrateTreeAfterDeserialization(treeRoot, deserializedVersions);
 
+        if (migratedRoot == null) {
+            return null;
+        }
+        return migratedRoot.cast();
+    }
+
+    /**
+     * Read the subtrees written with {@link MerkleDataOutputStream#writeMerkleSubtrees(Path, List)}. The subtrees are
+     * neither initialized nor migrated, that happens once the tree that they belong to is read with
+     * {@link #readMerkleTree(Path, int, List, Map)}.
+     *
+     * @param directory
+     * 		the directory from which data is being read
+     * @param maxNumberOfNodes
+     * 		maximum number of nodes to read for each subtree
+     * @param deserializedVersions
+     * 		the versions of the deserialized classes are added to this map, which may be shared with other threads
+     * 		reading other subtrees of the same tree if it is thread safe
+     * @return the subtrees
+     * @throws IOException
+     * 		thrown when the version or the nodes count are invalid
+     */
+    @NonNull
+    public List<MerkleNode> readMerkleSubtrees(
+            final Path directory,
+            final int maxNumberOfNodes,
+            @NonNull final Map<Long /* class ID */, Integer /* version */> deserializedVersions)
+            throws IOException {
+
+        validateDirectory(directory);
+
+        final int merkleVersion = readInt();
+        if (merkleVersion != MerkleSerializationProtocol.CURRENT) {
+            throw new MerkleSerializationException("Unhandled merkle serialization version " + merkleVersion);
+        }
+
+        final int subtreeCount = readInt();
+        final List<MerkleNode> roots = new ArrayList<>(subtreeCount);
+        for (int i = 0; i < subtreeCount; i++) {
+            roots.add(readNodes(directory, maxNumberOfNodes, deserializedVersions));
+        }
+        return roots;
+    }
+
+    /**
+     * Read the nodes of a tree until the tree is complete.
+     *
+     * @return the root of the tree
+     */
+    private MerkleNode readNodes(
+            final Path directory,
+            final int maxNumberOfNodes,
+            final Map<Long /* class ID */, Integer /* version */> deserializedVersions)
+            throws IOException {
+        root = null;
         int nodeCount = 0;
         while (!internalNodes.isEmpty() || root == null) {
             nodeCount++;
@@ -229,12 +333,6 @@ public class MerkleDataInputStream extends SerializableDataInputStream {
             }
             readNextNode(directory, deserializedVersions);
         }
-
-        final MerkleNode migratedRoot = initializeAndMigrateTreeAfterDeserialization(root, deserializedVersions);
-
-        if (migratedRoot == null) {
-            return null;
-        }
-        return migratedRoot.cast();
+        return root;
     }
 }
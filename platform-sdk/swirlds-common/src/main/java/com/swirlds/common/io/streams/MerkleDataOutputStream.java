@@ -16,6 +16,7 @@
 
 package com.swirlds.common.io.streams;
 
+import static com.swirlds.common.io.streams.SerializableStreamConstants.SUBTREE_REFERENCE_CLASS_ID;
 import static com.swirlds.common.merkle.iterators.MerkleIterationOrder.BREADTH_FIRST;
 import static com.swirlds.logging.legacy.LogMarker.STATE_TO_DISK;
 
@@ -29,7 +30,9 @@ import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 import org.apache.logging.log4j.LogManager;
@@ -98,6 +101,14 @@ public class MerkleDataOutputStream extends SerializableDataOutputStream {
         writeSerializable(null, true);
     }
 
+    /**
+     * Write a reference to a subtree that is serialized to a separate stream.
+     */
+    private void writeSubtreeReference(final int index) throws IOException {
+        writeLong(SUBTREE_REFERENCE_CLASS_ID);
+        writeInt(index);
+    }
+
     /**
      * Perform basic sanity checks on the output directory.
      */
@@ -150,6 +161,27 @@ public class MerkleDataOutputStream extends SerializableDataOutputStream {
      * 		thrown if any IO problems occur
      */
     public void writeMerkleTree(final Path directory, final MerkleNode root) throws IOException {
+        writeMerkleTree(directory, root, Collections.emptyMap());
+    }
+
+    /**
+     * Writes a merkle tree to a stream, except for some of its subtrees, which are written to other streams with
+     * {@link #writeMerkleSubtrees(Path, List)}. Each of those subtrees is replaced by a reference to it in this stream,
+     * and must be passed to {@link MerkleDataInputStream#readMerkleTree(Path, int, List, Map)} when the tree is read.
+     *
+     * @param directory
+     * 		a directory where additional data will be written
+     * @param root
+     * 		the root of the tree
+     * @param subtreeReferences
+     * 		the index of each subtree that is written to another stream, keyed by the root of the subtree. Keys must be
+     * 		compared by identity, e.g. by using an {@link java.util.IdentityHashMap}.
+     * @throws IOException
+     * 		thrown if any IO problems occur
+     */
+    public void writeMerkleTree(
+            final Path directory, final MerkleNode root, final Map<MerkleNode, Integer> subtreeReferences)
+            throws IOException {
         writeInt(MerkleSerializationProtocol.CURRENT);
         writeBoolean(root == null);
 
@@ -159,13 +191,48 @@ public class MerkleDataOutputStream extends SerializableDataOutputStream {
             return;
         }
 
+        writeNodes(directory, root, subtreeReferences);
+    }
+
+    /**
+     * Writes a list of merkle subtrees to a stream, so that they can be read with
+     * {@link MerkleDataInputStream#readMerkleSubtrees(Path, int, Map)}. Used together with
+     * {@link #writeMerkleTree(Path, MerkleNode, Map)} to serialize the subtrees of a tree to several streams.
+     *
+     * @param directory
+     * 		a directory where additional data will be written
+     * @param roots
+     * 		the roots of the subtrees, none of which may be null
+     * @throws IOException
+     * 		thrown if any IO problems occur
+     */
+    public void writeMerkleSubtrees(final Path directory, final List<MerkleNode> roots) throws IOException {
+        writeInt(MerkleSerializationProtocol.CURRENT);
+        writeInt(roots.size());
+
+        validateDirectory(directory);
+
+        for (final MerkleNode root : roots) {
+            writeNodes(directory, root, Collections.emptyMap());
+        }
+    }
+
+    /**
+     * Write the nodes of a tree in breadth first order, writing a reference in place of each of the given subtrees.
+     */
+    private void writeNodes(
+            final Path directory, final MerkleNode root, final Map<MerkleNode, Integer> subtreeReferences)
+            throws IOException {
         root.treeIterator()
                 .setOrder(BREADTH_FIRST)
-                .setDescendantFilter(DESCENDANT_FILTER)
+                .setDescendantFilter(node -> DESCENDANT_FILTER.test(node) && !subtreeReferences.containsKey(node))
                 .ignoreNull(false)
                 .forEachRemainingWithIO((final MerkleNode node) -> {
+                    final Integer subtreeIndex = node == null ? null : subtreeReferences.get(node);
                     if (node == null) {
                         writeNull();
+                    } else if (subtreeIndex != null) {
+                        writeSubtreeReference(subtreeIndex);
                     } else if (node.isLeaf()) {
                         writeLeaf(directory, node.asLeaf());
                     } else {
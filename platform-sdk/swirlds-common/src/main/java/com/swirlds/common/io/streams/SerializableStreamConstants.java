@@ -28,6 +28,8 @@ public final class SerializableStreamConstants {
     public static final long NULL_CLASS_ID = Long.MIN_VALUE;
     /** The version of a {@link SelfSerializable} instance when the instance is null */
     public static final int NULL_VERSION = Integer.MIN_VALUE;
+    /** The class ID written in place of a merkle subtree that is serialized to a separate stream */
+    public static final long SUBTREE_REFERENCE_CLASS_ID = Long.MIN_VALUE + 1;
     /** The value of Instant.epochSecond when instant is null */
     public static final long NULL_INSTANT_EPOCH_SECOND = Long.MIN_VALUE;
 
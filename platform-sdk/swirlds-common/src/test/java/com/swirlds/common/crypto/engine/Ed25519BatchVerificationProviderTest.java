@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.common.crypto.engine;
+
+import static com.swirlds.common.utility.CommonUtils.unhex;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.common.crypto.SignatureType;
+import com.swirlds.common.crypto.TransactionSignature;
+import com.swirlds.common.crypto.VerificationStatus;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class Ed25519BatchVerificationProviderTest {
+    private static final int MESSAGE_LENGTH = 128;
+
+    private final Random random = new Random(1234);
+    private final Ed25519BatchVerificationProvider provider = new Ed25519BatchVerificationProvider();
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 16, 64})
+    @DisplayName("A batch of valid signatures is valid")
+    void validBatch(final int size) throws GeneralSecurityException {
+        final List<TransactionSignature> signatures = signatures(size, Set.of());
+
+        assertTrue(provider.verify(signatures), "All signatures should be valid");
+        for (final TransactionSignature signature : signatures) {
+            assertEquals(VerificationStatus.VALID, signature.getSignatureStatus(), "Signature should be valid");
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 7, 64})
+    @DisplayName("Invalid signatures in a batch are found by bisection")
+    void invalidSignaturesAreFound(final int size) throws GeneralSecurityException {
+        final Set<Integer> invalid = new HashSet<>();
+        invalid.add(size - 1);
+        for (int i = 0; i < size / 8; i++) {
+            invalid.add(random.nextInt(size));
+        }
+        final List<TransactionSignature> signatures = signatures(size, invalid);
+
+        assertFalse(provider.verify(signatures), "Some signatures should be invalid");
+        for (int i = 0; i < size; i++) {
+            final VerificationStatus expected =
+                    invalid.contains(i) ? VerificationStatus.INVALID : VerificationStatus.VALID;
+            assertEquals(expected, signatures.get(i).getSignatureStatus(), "Wrong status for signature " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Single signature checks agree with batches")
+    void singleSignatures() throws GeneralSecurityException {
+        final Set<Integer> invalid = Set.of(1, 4);
+        final List<TransactionSignature> signatures = signatures(8, invalid);
+
+        for (int i = 0; i < signatures.size(); i++) {
+            final TransactionSignature signature = signatures.get(i);
+            assertEquals(
+                    !invalid.contains(i),
+                    provider.compute(signature, SignatureType.ED25519),
+                    "Wrong result for signature " + i);
+            assertEquals(
+                    !invalid.contains(i),
+                    provider.compute(
+                            Arrays.copyOfRange(signature.getContentsDirect(), 0, MESSAGE_LENGTH),
+                            Arrays.copyOfRange(
+                                    signature.getContentsDirect(), MESSAGE_LENGTH, MESSAGE_LENGTH + 64),
+                            Arrays.copyOfRange(
+                                    signature.getContentsDirect(), MESSAGE_LENGTH + 64, MESSAGE_LENGTH + 96)),
+                    "Wrong result for signature bytes " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Signatures with small order keys or out of range scalars are rejected")
+    void malformedSignatures() throws GeneralSecurityException {
+        final List<TransactionSignature> signatures = signatures(3, Set.of());
+        // The neutral element as public key
+        final byte[] first = signatures.get(0).getContentsDirect();
+        Arrays.fill(first, MESSAGE_LENGTH + 64, MESSAGE_LENGTH + 96, (byte) 0);
+        first[MESSAGE_LENGTH + 64] = 1;
+        // S >= L
+        final byte[] second = signatures.get(1).getContentsDirect();
+        Arrays.fill(second, MESSAGE_LENGTH + 32, MESSAGE_LENGTH + 64, (byte) 0xff);
+
+        assertFalse(provider.verify(signatures), "Malformed signatures should be invalid");
+        assertEquals(VerificationStatus.INVALID, signatures.get(0).getSignatureStatus(), "Small order key");
+        assertEquals(VerificationStatus.INVALID, signatures.get(1).getSignatureStatus(), "Out of range S");
+        assertEquals(VerificationStatus.VALID, signatures.get(2).getSignatureStatus(), "Valid signature");
+    }
+
+    /**
+     * Known answers for edge cases of Ed25519 verification, with the result of libSodium's
+     * {@code crypto_sign_verify_detached} and the expected result of this provider. They only differ for signatures
+     * with a mixed order {@code A} or {@code R}, which pass the cofactored equation but not the cofactorless one.
+     */
+    static Stream<Arguments> knownAnswers() {
+        return Stream.of(
+                Arguments.of(
+                        "RFC 8032 test 1",
+                        "",
+                        "e5564300c360ac729086e2cc806e828a84877f1eb8e5d974d873e06522490155"
+                                + "5fb8821590a33bacc61e39701cf9b46bd25bf5f0595bbe24655141438e7a100b",
+                        "d75a980182b10ab7d54bfed3c964073a0ee172f3daa62325af021a68f707511a",
+                        true,
+                        true),
+                Arguments.of(
+                        "S + L",
+                        "",
+                        "e5564300c360ac729086e2cc806e828a84877f1eb8e5d974d873e06522490155"
+                                + "4c8c7872aa064e049dbb3013fbf29380d25bf5f0595bbe24655141438e7a101b",
+                        "d75a980182b10ab7d54bfed3c964073a0ee172f3daa62325af021a68f707511a",
+                        false,
+                        false),
+                Arguments.of(
+                        "Small order A and R, S = 0",
+                        "746f7273696f6e",
+                        "c7176a703d4dd84fba3c0b760d10670f2a2053fa2c39ccc64ec7fd7792ac037a"
+                                + "0000000000000000000000000000000000000000000000000000000000000000",
+                        "26e8958fc2b227b045c3f489f2ef98f0d5dfac05d3c63339b13802886d53fc05",
+                        false,
+                        false),
+                Arguments.of(
+                        "Mixed order A, only valid with the cofactor",
+                        "6d69786564206f72646572206b6579",
+                        "aff1b93df5b4750a6fa572a3e97186cc4752a49cf16a1e6472874fb5d7df3253"
+                                + "fa2376f0e000062479749ecde92655e4b66e8ec164c79e7917b00a680dc4d10e",
+                        "9158312a9a8d6e3b34c891d6d61444f8b8211c5117ebad15bdb0bd68b07e0245",
+                        false,
+                        true),
+                Arguments.of(
+                        "Mixed order R, only valid with the cofactor",
+                        "6d69786564206f726465722052",
+                        "fdab376d5ac3d1280e69ee09c3fa04c80eacc8a71e7cf286eabd16392e077bfa"
+                                + "a2a012415ac4997b2569f194c3d290cc8ee1b394f439ca9be689d253dd570004",
+                        "d75a980182b10ab7d54bfed3c964073a0ee172f3daa62325af021a68f707511a",
+                        false,
+                        true),
+                Arguments.of(
+                        "Non-canonical encoding of the neutral element as A",
+                        "6e6f6e2d63616e6f6e6963616c206b6579",
+                        "41b77dc37de1f67b3956b6c956a1d76a29db180d2ddf0304faab83cbce6e62bf"
+                                + "a3385623b0903e64567abb58a8e1e3703d0871463540b2f05b3b560affdbda0a",
+                        "eeffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff7f",
+                        false,
+                        false),
+                Arguments.of(
+                        "Non-canonical encoding of the neutral element as R",
+                        "6e6f6e2d63616e6f6e6963616c2052",
+                        "eeffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff7f"
+                                + "86ca47bf0a9e1b5ca2eda7c6b4b740de1c5e33c30c8e11324bf60a34c7672201",
+                        "d75a980182b10ab7d54bfed3c964073a0ee172f3daa62325af021a68f707511a",
+                        false,
+                        false),
+                Arguments.of(
+                        "Neutral element with negative zero x as R",
+                        "6e65676174697665207a65726f2052",
+                        "0100000000000000000000000000000000000000000000000000000000000080"
+                                + "8cc2f88314455ac0ac9654a585b7f46cd78440485973d420d75864a1500d980b",
+                        "d75a980182b10ab7d54bfed3c964073a0ee172f3daa62325af021a68f707511a",
+                        false,
+                        false));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("knownAnswers")
+    @DisplayName("Known answers agree between single and batch verification")
+    void knownAnswers(
+            final String description,
+            final String message,
+            final String signature,
+            final String publicKey,
+            final boolean libSodium,
+            final boolean expected)
+            throws GeneralSecurityException {
+        final byte[] messageBytes = unhex(message);
+        final byte[] signatureBytes = unhex(signature);
+        final byte[] publicKeyBytes = unhex(publicKey);
+        // libSodium uses the cofactorless equation, so it rejects signatures only valid with the cofactor
+        final boolean onlyValidWithCofactor = description.endsWith("only valid with the cofactor");
+        assertEquals(expected && !onlyValidWithCofactor, libSodium, "Only the cofactor may make a difference");
+
+        assertEquals(expected, provider.compute(messageBytes, signatureBytes, publicKeyBytes), "Single verification");
+
+        final List<TransactionSignature> batch = signatures(2, Set.of());
+        batch.add(1, transactionSignature(messageBytes, signatureBytes, publicKeyBytes));
+        assertEquals(expected, provider.verify(batch), "Batch verification");
+        assertEquals(
+                expected ? VerificationStatus.VALID : VerificationStatus.INVALID,
+                batch.get(1).getSignatureStatus(),
+                "Batch verification status");
+        assertEquals(VerificationStatus.VALID, batch.get(0).getSignatureStatus(), "Other signatures in the batch");
+        assertEquals(VerificationStatus.VALID, batch.get(2).getSignatureStatus(), "Other signatures in the batch");
+    }
+
+    /**
+     * Creates signatures by distinct keys over random messages, corrupting the ones with the given indices.
+     */
+    private List<TransactionSignature> signatures(final int count, final Set<Integer> invalid)
+            throws GeneralSecurityException {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("Ed25519");
+        final List<TransactionSignature> signatures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final KeyPair keyPair = generator.generateKeyPair();
+            final byte[] encodedKey = keyPair.getPublic().getEncoded();
+            final byte[] contents = new byte[MESSAGE_LENGTH + 96];
+            random.nextBytes(contents);
+
+            final Signature signer = Signature.getInstance("Ed25519");
+            signer.initSign(keyPair.getPrivate());
+            signer.update(contents, 0, MESSAGE_LENGTH);
+            System.arraycopy(signer.sign(), 0, contents, MESSAGE_LENGTH, 64);
+            // The raw key is at the end of its X.509 encoding
+            System.arraycopy(encodedKey, encodedKey.length - 32, contents, MESSAGE_LENGTH + 64, 32);
+            if (invalid.contains(i)) {
+                contents[random.nextInt(MESSAGE_LENGTH)] ^= 1;
+            }
+            signatures.add(new TransactionSignature(
+                    contents, MESSAGE_LENGTH, 64, MESSAGE_LENGTH + 64, 32, 0, MESSAGE_LENGTH, SignatureType.ED25519));
+        }
+        return signatures;
+    }
+
+    /**
+     * Creates a signature whose contents are the message, followed by the signature and the public key.
+     */
+    private static TransactionSignature transactionSignature(
+            final byte[] message, final byte[] signature, final byte[] publicKey) {
+        final byte[] contents = new byte[message.length + 96];
+        System.arraycopy(message, 0, contents, 0, message.length);
+        System.arraycopy(signature, 0, contents, message.length, 64);
+        System.arraycopy(publicKey, 0, contents, message.length + 64, 32);
+        return new TransactionSignature(
+                contents, message.length, 64, message.length + 64, 32, 0, message.length, SignatureType.ED25519);
+    }
+}
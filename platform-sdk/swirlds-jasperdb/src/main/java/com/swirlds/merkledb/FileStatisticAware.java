@@ -19,7 +19,8 @@ package com.swirlds.merkledb;
 import java.util.LongSummaryStatistics;
 
 /**
- * This interface indicates that the implementing class can provide statistics for the sizes of the files it uses.
+ * This interface indicates that the implementing class can provide statistics for the sizes of the files it uses,
+ * and for how data is read from these files.
  */
 public interface FileStatisticAware {
     /**
@@ -28,4 +29,33 @@ public interface FileStatisticAware {
      * @return statistics for sizes of all fully written files, in bytes
      */
     LongSummaryStatistics getFilesSizeStatistics();
+
+    /**
+     * Get the total size of the files it uses mapped into memory.
+     *
+     * @return memory-mapped size, in bytes
+     */
+    long getMemoryMappedFilesSize();
+
+    /**
+     * Get the number of data items read from memory-mapped files since the last call, and reset the counter.
+     *
+     * @return number of memory-mapped reads
+     */
+    long getAndResetMemoryMappedReads();
+
+    /**
+     * Get the number of data items read using file channels since the last call, and reset the counter.
+     *
+     * @return number of file channel reads
+     */
+    long getAndResetFileChannelReads();
+
+    /**
+     * Get the space amplification of the files it uses, which is the ratio of total files size to the
+     * estimated size of live data in the files.
+     *
+     * @return space amplification, 1 or greater
+     */
+    double getSpaceAmplification();
 }
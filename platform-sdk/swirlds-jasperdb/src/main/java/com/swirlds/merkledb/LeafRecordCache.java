@@ -0,0 +1,439 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * A bounded cache of leaf records, keyed by leaf keys, sized in bytes. Used by {@link
+ * MerkleDbDataSource} to avoid key to path lookups and leaf record reads from disk for hot keys.
+ *
+ * <p>The cache implements W-TinyLFU eviction policy. New entries are added to a small admission
+ * window (LRU). Entries evicted from the window become candidates to the main space, which is a
+ * segmented LRU with probation and protected segments. When the main space is full, a candidate
+ * is only admitted, if it has been accessed more frequently than the main space victim, the least
+ * recently used entry in the probation segment. Access frequencies are tracked using a count-min
+ * sketch with 4 hash functions, periodically halved, so the cache adapts to workload changes.
+ * Compared to a plain LRU, this keeps hot entries in the cache even under scans of cold keys.
+ *
+ * <p>The cache is split into a fixed number of segments to reduce lock contention. Every segment
+ * has its own budget, a fraction of the total cache size, its own lists, and its own frequency
+ * sketch. All segment methods are synchronized.
+ *
+ * <p>This class is thread safe.
+ *
+ * @param <K> key type
+ * @param <V> cached record type
+ */
+public final class LeafRecordCache<K, V> {
+
+    /** Number of cache segments. Must be a power of two */
+    private static final int SEGMENTS_COUNT = 16;
+
+    /** Admission window size, percent of a segment budget */
+    private static final int WINDOW_PERCENT = 1;
+
+    /** Protected segment size, percent of the main space budget */
+    private static final int PROTECTED_PERCENT = 80;
+
+    /** Max size of a single entry, percent of a segment budget. Larger entries aren't cached */
+    private static final int MAX_ENTRY_PERCENT = 5;
+
+    /**
+     * Estimated average entry size in bytes, used to size frequency sketches only. If actual
+     * entries are smaller, frequencies are less accurate, but the cache still works.
+     */
+    private static final int ESTIMATED_ENTRY_SIZE = 128;
+
+    /** Cache segments */
+    private final Segment<K, V>[] segments;
+
+    /** Function to estimate cached record sizes, in bytes */
+    private final ToIntFunction<V> weigher;
+
+    /** Number of cache hits since the last stats update */
+    private final LongAdder hits = new LongAdder();
+    /** Number of cache misses since the last stats update */
+    private final LongAdder misses = new LongAdder();
+    /** Number of entries evicted from the cache since the last stats update */
+    private final LongAdder evictions = new LongAdder();
+    /** Number of candidates not admitted to the main space since the last stats update */
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * Creates a new leaf record cache.
+     *
+     * @param capacityBytes total cache capacity, in bytes
+     * @param weigher function to estimate the size of a cached record, in bytes, including
+     *                overhead of the record object itself
+     */
+    @SuppressWarnings("unchecked")
+    public LeafRecordCache(final long capacityBytes, @NonNull final ToIntFunction<V> weigher) {
+        if (capacityBytes <= 0) {
+            throw new IllegalArgumentException("Leaf record cache capacity must be positive");
+        }
+        this.weigher = Objects.requireNonNull(weigher);
+        final long segmentCapacity = Math.max(1, capacityBytes / SEGMENTS_COUNT);
+        segments = new Segment[SEGMENTS_COUNT];
+        for (int i = 0; i < SEGMENTS_COUNT; i++) {
+            segments[i] = new Segment<>(this, segmentCapacity);
+        }
+    }
+
+    /**
+     * Looks up a record by key.
+     *
+     * @param key the key
+     * @return the cached record, or null if the key is not in the cache
+     */
+    @Nullable
+    public V get(@NonNull final K key) {
+        final int hash = spread(key.hashCode());
+        final V value = segmentFor(hash).get(key, hash);
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Puts a record to the cache. If a record with the same key is already cached, it's replaced.
+     * The record may not be cached, if it's too large compared to a segment budget, or if it's not
+     * accessed frequently enough to be admitted to the main space.
+     *
+     * @param key the key
+     * @param value the record to cache
+     */
+    public void put(@NonNull final K key, @NonNull final V value) {
+        final int hash = spread(key.hashCode());
+        segmentFor(hash).put(key, hash, value, weigher.applyAsInt(value));
+    }
+
+    /**
+     * Removes a record with the given key from the cache, if present.
+     *
+     * @param key the key
+     */
+    public void invalidate(@NonNull final K key) {
+        final int hash = spread(key.hashCode());
+        segmentFor(hash).invalidate(key);
+    }
+
+    /**
+     * Returns the current total size of all cached records, in bytes.
+     *
+     * @return cache size, in bytes
+     */
+    public long getSizeBytes() {
+        long total = 0;
+        for (final Segment<K, V> segment : segments) {
+            total += segment.getWeight();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of cache hits since the last call to this method and resets the counter.
+     *
+     * @return number of cache hits
+     */
+    public long getAndResetHits() {
+        return hits.sumThenReset();
+    }
+
+    /**
+     * Returns the number of cache misses since the last call to this method and resets the counter.
+     *
+     * @return number of cache misses
+     */
+    public long getAndResetMisses() {
+        return misses.sumThenReset();
+    }
+
+    /**
+     * Returns the number of evicted entries since the last call to this method and resets the
+     * counter. Evictions include candidates rejected by the admission policy.
+     *
+     * @return number of evictions
+     */
+    public long getAndResetEvictions() {
+        return evictions.sumThenReset();
+    }
+
+    /**
+     * Returns the number of candidates rejected by the admission policy since the last call to
+     * this method and resets the counter.
+     *
+     * @return number of rejected candidates
+     */
+    public long getAndResetRejections() {
+        return rejections.sumThenReset();
+    }
+
+    private Segment<K, V> segmentFor(final int hash) {
+        // Higher bits are used for segments, lower bits are used by frequency sketches
+        return segments[(hash >>> 28) & (SEGMENTS_COUNT - 1)];
+    }
+
+    private static int spread(final int hashCode) {
+        final int h = hashCode * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** Cache entry. Every entry is in one of the three lists: window, probation, or protected */
+    private static final class Node<K, V> {
+        private final K key;
+        private final int hash;
+        private V value;
+        private int weight;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+        private AccessList<K, V> list;
+
+        Node(final K key, final int hash, final V value, final int weight) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /** A doubly linked list of entries in access order, the head is the least recently used */
+    private static final class AccessList<K, V> {
+        private Node<K, V> head;
+        private Node<K, V> tail;
+        private long weight;
+
+        void addLast(final Node<K, V> node) {
+            node.list = this;
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            weight += node.weight;
+        }
+
+        void remove(final Node<K, V> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            node.list = null;
+            weight -= node.weight;
+        }
+    }
+
+    /** A single cache segment */
+    private static final class Segment<K, V> {
+
+        private final LeafRecordCache<K, V> cache;
+        private final HashMap<K, Node<K, V>> entries = new HashMap<>();
+        private final AccessList<K, V> window = new AccessList<>();
+        private final AccessList<K, V> probation = new AccessList<>();
+        private final AccessList<K, V> protectedList = new AccessList<>();
+        private final FrequencySketch sketch;
+        private final long windowCapacity;
+        private final long maxEntryWeight;
+        private final long mainCapacity;
+        private final long protectedCapacity;
+
+        Segment(final LeafRecordCache<K, V> cache, final long capacity) {
+            this.cache = cache;
+            windowCapacity = Math.max(1, capacity * WINDOW_PERCENT / 100);
+            maxEntryWeight = Math.max(1, capacity * MAX_ENTRY_PERCENT / 100);
+            mainCapacity = capacity - windowCapacity;
+            protectedCapacity = mainCapacity * PROTECTED_PERCENT / 100;
+            sketch = new FrequencySketch(capacity / ESTIMATED_ENTRY_SIZE);
+        }
+
+        synchronized long getWeight() {
+            return window.weight + probation.weight + protectedList.weight;
+        }
+
+        synchronized V get(final K key, final int hash) {
+            sketch.increment(hash);
+            final Node<K, V> node = entries.get(key);
+            if (node == null) {
+                return null;
+            }
+            onAccess(node);
+            return node.value;
+        }
+
+        synchronized void put(final K key, final int hash, final V value, final int weight) {
+            sketch.increment(hash);
+            Node<K, V> node = entries.get(key);
+            if (weight > maxEntryWeight) {
+                // Too large to be cached
+                if (node != null) {
+                    removeNode(node);
+                }
+                return;
+            }
+            if (node != null) {
+                node.list.weight += weight - node.weight;
+                node.weight = weight;
+                node.value = value;
+                onAccess(node);
+            } else {
+                node = new Node<>(key, hash, value, weight);
+                entries.put(key, node);
+                window.addLast(node);
+            }
+            evict();
+        }
+
+        synchronized void invalidate(final K key) {
+            final Node<K, V> node = entries.get(key);
+            if (node != null) {
+                removeNode(node);
+            }
+        }
+
+        private void onAccess(final Node<K, V> node) {
+            final AccessList<K, V> list = node.list;
+            list.remove(node);
+            if (list == window) {
+                window.addLast(node);
+            } else {
+                // Promote probation entries to the protected segment, demote the least recently
+                // used protected entries back to probation, if the protected segment is full
+                protectedList.addLast(node);
+                while (protectedList.weight > protectedCapacity && protectedList.head != node) {
+                    final Node<K, V> demoted = protectedList.head;
+                    protectedList.remove(demoted);
+                    probation.addLast(demoted);
+                }
+            }
+        }
+
+        private void evict() {
+            // Move entries out of the window to the end of probation, they become candidates
+            Node<K, V> candidate = null;
+            while (window.weight > windowCapacity) {
+                final Node<K, V> node = window.head;
+                window.remove(node);
+                probation.addLast(node);
+                if (candidate == null) {
+                    candidate = node;
+                }
+            }
+            // Then evict either candidates or victims, until the main space is within its budget
+            while (probation.weight + protectedList.weight > mainCapacity) {
+                Node<K, V> victim = probation.head;
+                if (victim == null) {
+                    victim = protectedList.head;
+                }
+                if ((candidate == null) || (candidate == victim)) {
+                    if (candidate == victim) {
+                        candidate = candidate.next;
+                    }
+                    removeNode(victim);
+                    cache.evictions.increment();
+                } else if (sketch.frequency(candidate.hash) > sketch.frequency(victim.hash)) {
+                    removeNode(victim);
+                    cache.evictions.increment();
+                } else {
+                    final Node<K, V> rejected = candidate;
+                    candidate = candidate.next;
+                    removeNode(rejected);
+                    cache.evictions.increment();
+                    cache.rejections.increment();
+                }
+            }
+        }
+
+        private void removeNode(final Node<K, V> node) {
+            node.list.remove(node);
+            entries.remove(node.key);
+        }
+    }
+
+    /**
+     * Count-min sketch with 4-bit counters to estimate key access frequencies. When the number of
+     * increments reaches the sample size, all counters are halved.
+     */
+    private static final class FrequencySketch {
+
+        private static final int HASH_FUNCTIONS = 4;
+        private static final int MAX_COUNTER = 15;
+        private static final int[] SEEDS = {0x97CB3127, 0xB24F1A5B, 0xE0D4B2A7, 0x6AE54B85};
+
+        /** Counters, HASH_FUNCTIONS rows of width counters each */
+        private final byte[] counters;
+        private final int widthMask;
+        private final int sampleSize;
+        private int additions = 0;
+
+        FrequencySketch(final long expectedEntries) {
+            final int width = Integer.highestOneBit((int) Math.min(1 << 24, Math.max(1024, expectedEntries)) * 2 - 1);
+            counters = new byte[width * HASH_FUNCTIONS];
+            widthMask = width - 1;
+            sampleSize = width * 10;
+        }
+
+        void increment(final int hash) {
+            boolean added = false;
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                final int index = indexOf(hash, i);
+                if (counters[index] < MAX_COUNTER) {
+                    counters[index]++;
+                    added = true;
+                }
+            }
+            if (added && (++additions == sampleSize)) {
+                for (int i = 0; i < counters.length; i++) {
+                    counters[i] = (byte) (counters[i] >>> 1);
+                }
+                additions /= 2;
+            }
+        }
+
+        int frequency(final int hash) {
+            int frequency = MAX_COUNTER;
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                frequency = Math.min(frequency, counters[indexOf(hash, i)]);
+            }
+            return frequency;
+        }
+
+        private int indexOf(final int hash, final int i) {
+            int h = (hash ^ SEEDS[i]) * 0x85EBCA6B;
+            h ^= h >>> 13;
+            return i * (widthMask + 1) + (h & widthMask);
+        }
+    }
+}
@@ -262,6 +262,13 @@ public final class MerkleDb {
             storeMetadata();
         }
         logger.info(MERKLE_DB.getMarker(), "New MerkleDb instance is created, storageDir={}", storageDir);
+        if (config.leafRecordCacheSize() >= 0) {
+            logger.warn(
+                    MERKLE_DB.getMarker(),
+                    "merkleDb.leafRecordCacheSize={} is ignored, it was an entry count. "
+                            + "Use merkleDb.leafRecordCacheSizeBytes to set the cache size in bytes",
+                    config.leafRecordCacheSize());
+        }
     }
 
     /**
@@ -16,6 +16,7 @@
 
 package com.swirlds.merkledb;
 
+import static com.swirlds.base.units.UnitConstants.MEBIBYTES_TO_BYTES;
 import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticThreadManager;
 import static com.swirlds.logging.legacy.LogMarker.EXCEPTION;
 import static com.swirlds.logging.legacy.LogMarker.MERKLE_DB;
@@ -24,6 +25,7 @@ import static com.swirlds.merkledb.MerkleDb.MERKLEDB_COMPONENT;
 import com.swirlds.common.config.singleton.ConfigurationHolder;
 import com.swirlds.common.threading.framework.config.ThreadConfiguration;
 import com.swirlds.merkledb.config.MerkleDbConfig;
+import com.swirlds.merkledb.files.CompactionIoThrottle;
 import com.swirlds.merkledb.files.DataFileCompactor;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -34,7 +36,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -48,6 +51,9 @@ import org.apache.logging.log4j.Logger;
  * and keep them disabled until they are explicitly enabled again.
  * The compaction tasks are executed in a background thread pool.
  * The number of threads in the pool is defined by {@link MerkleDbConfig#compactionThreads()} property.
+ * When there are more pending compaction tasks than threads, tasks for stores with the worst space
+ * amplification are executed first. All compactions share a single I/O throttle, so combined compaction
+ * rate doesn't exceed {@link MerkleDbConfig#compactionMaxMbPerSecond()}.
  *
  */
 class MerkleDbCompactionCoordinator {
@@ -59,6 +65,11 @@ class MerkleDbCompactionCoordinator {
      */
     private static ExecutorService compactionExecutor = null;
 
+    /**
+     * A throttle shared by all compactions. Accessed using {@link #getCompactionIoThrottle()}.
+     */
+    private static CompactionIoThrottle compactionIoThrottle = null;
+
     static synchronized ExecutorService getCompactionExecutor() {
         if (compactionExecutor == null) {
             final MerkleDbConfig config = ConfigurationHolder.getConfigData(MerkleDbConfig.class);
@@ -67,7 +78,8 @@ class MerkleDbCompactionCoordinator {
                     config.compactionThreads(),
                     50L,
                     TimeUnit.MILLISECONDS,
-                    new LinkedBlockingQueue<>(),
+                    // Only CompactionFuture objects are put to this queue, see submitCompactionTaskForExecution()
+                    new PriorityBlockingQueue<>(),
                     new ThreadConfiguration(getStaticThreadManager())
                             .setThreadGroup(new ThreadGroup("Compaction"))
                             .setComponent(MERKLEDB_COMPONENT)
@@ -79,6 +91,19 @@ class MerkleDbCompactionCoordinator {
         return compactionExecutor;
     }
 
+    /**
+     * Returns a compaction I/O throttle shared by all compactions, or null if compaction rate is not limited.
+     */
+    @Nullable
+    static synchronized CompactionIoThrottle getCompactionIoThrottle() {
+        final MerkleDbConfig config = ConfigurationHolder.getConfigData(MerkleDbConfig.class);
+        if ((compactionIoThrottle == null) && (config.compactionMaxMbPerSecond() > 0)) {
+            compactionIoThrottle =
+                    new CompactionIoThrottle((long) config.compactionMaxMbPerSecond() * MEBIBYTES_TO_BYTES);
+        }
+        return compactionIoThrottle;
+    }
+
     public static final String HASH_STORE_DISK_SUFFIX = "HashStoreDisk";
     public static final String OBJECT_KEY_TO_PATH_SUFFIX = "ObjectKeyToPath";
     public static final String PATH_TO_KEY_VALUE_SUFFIX = "PathToKeyValue";
@@ -227,7 +252,10 @@ class MerkleDbCompactionCoordinator {
                 }
             }
 
-            compactionFuturesByName.put(task.id, executor.submit(task));
+            // Tasks are prioritized by space amplification at the moment of submission
+            final CompactionFuture future = new CompactionFuture(task, task.compactor().getSpaceAmplification());
+            compactionFuturesByName.put(task.id, future);
+            executor.execute(future);
         }
     }
 
@@ -235,6 +263,25 @@ class MerkleDbCompactionCoordinator {
         return compactionEnabled.get();
     }
 
+    /**
+     * A compaction task future, which is ordered in executor queue by space amplification of the
+     * corresponding store, the worst amplification first.
+     */
+    private static final class CompactionFuture extends FutureTask<Boolean> implements Comparable<CompactionFuture> {
+
+        private final double spaceAmplification;
+
+        CompactionFuture(@NonNull final CompactionTask task, final double spaceAmplification) {
+            super(task);
+            this.spaceAmplification = spaceAmplification;
+        }
+
+        @Override
+        public int compareTo(@NonNull final CompactionFuture other) {
+            return Double.compare(other.spaceAmplification, spaceAmplification);
+        }
+    }
+
     /**
      * A helper class representing a task to run compaction for a specific storage type.
      */
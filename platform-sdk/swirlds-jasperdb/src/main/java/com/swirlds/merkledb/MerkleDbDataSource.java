@@ -42,6 +42,7 @@ import com.swirlds.merkledb.collections.LongList;
 import com.swirlds.merkledb.collections.LongListDisk;
 import com.swirlds.merkledb.collections.LongListOffHeap;
 import com.swirlds.merkledb.collections.OffHeapUser;
+import com.swirlds.merkledb.files.CompactionIoThrottle;
 import com.swirlds.merkledb.files.DataFileCollection.LoadedDataCallback;
 import com.swirlds.merkledb.files.DataFileCompactor;
 import com.swirlds.merkledb.files.DataFileReader;
@@ -51,6 +52,8 @@ import com.swirlds.merkledb.files.VirtualLeafRecordSerializer;
 import com.swirlds.merkledb.files.hashmap.Bucket;
 import com.swirlds.merkledb.files.hashmap.HalfDiskHashMap;
 import com.swirlds.merkledb.serialize.KeyIndexType;
+import com.swirlds.merkledb.serialize.KeySerializer;
+import com.swirlds.merkledb.serialize.ValueSerializer;
 import com.swirlds.metrics.api.Metrics;
 import com.swirlds.virtualmap.VirtualKey;
 import com.swirlds.virtualmap.VirtualLongKey;
@@ -64,7 +67,9 @@ import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
@@ -76,6 +81,7 @@ import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Stream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
 
 public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualValue> implements VirtualDataSource<K, V> {
 
@@ -151,19 +157,18 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
     private final MemoryIndexDiskKeyValueStore<VirtualLeafRecord<K, V>> pathToKeyValue;
 
     /**
-     * Cache size for reading virtual leaf records. Initialized in data source creation time from
-     * MerkleDb settings. If the value is zero, leaf records cache isn't used.
+     * Estimated memory overhead of a single leaf records cache entry, in bytes, in addition to
+     * the key and the value: leaf record object, cache node, and hash map entry.
      */
-    private final int leafRecordCacheSize;
+    private static final int LEAF_RECORD_CACHE_ENTRY_OVERHEAD = 128;
 
     /**
-     * Virtual leaf records cache. It's a simple array indexed by leaf keys % cache size. Cache
-     * eviction is not needed, as array size is fixed and can be configured in MerkleDb settings.
-     * Index conflicts are resolved in a very straightforward way: whatever entry is read last, it's
-     * put to the cache.
+     * Virtual leaf records cache, or null if the cache isn't used. The cache is sized in bytes,
+     * the size is initialized in data source creation time from MerkleDb settings for this table.
+     * Besides full leaf records, the cache contains records with keys and paths only, and records
+     * with INVALID_PATH paths for keys, which aren't in the data source.
      */
-    @SuppressWarnings("rawtypes")
-    private final VirtualLeafRecord[] leafRecordCache;
+    private final LeafRecordCache<K, VirtualLeafRecord<K, V>> leafRecordCache;
 
     /** Thread pool storing internal records */
     private final ExecutorService storeInternalExecutor;
@@ -283,12 +288,23 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
             hashStoreRam = null;
         }
 
+        // off-heap indexes may be written as deltas on snapshots
+        final int indexDeltaSnapshotThreshold = database.getConfig().indexDeltaSnapshotThreshold();
+        if (pathToDiskLocationInternalNodes instanceof LongListOffHeap internalNodesOffHeap) {
+            internalNodesOffHeap.enableDeltaSnapshots(indexDeltaSnapshotThreshold);
+        }
+        if (pathToDiskLocationLeafNodes instanceof LongListOffHeap leafNodesOffHeap) {
+            leafNodesOffHeap.enableDeltaSnapshots(indexDeltaSnapshotThreshold);
+        }
+
         statisticsUpdater = new MerkleDbStatisticsUpdater(database.getConfig(), tableName);
 
         final Runnable updateTotalStatsFunction = () -> {
             statisticsUpdater.updateStoreFileStats(this);
             statisticsUpdater.updateOffHeapStats(this);
         };
+        // Compaction rate limit is shared by all data sources
+        final CompactionIoThrottle compactionIoThrottle = MerkleDbCompactionCoordinator.getCompactionIoThrottle();
 
         // internal node hashes store, on disk
         hasDiskStoreForHashes = tableConfig.getHashesRamToDiskThreshold() < Long.MAX_VALUE;
@@ -319,7 +335,8 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                     statisticsUpdater::setHashesStoreCompactionTimeMs,
                     statisticsUpdater::setHashesStoreCompactionSavedSpaceMb,
                     statisticsUpdater::setHashesStoreFileSizeByLevelMb,
-                    updateTotalStatsFunction);
+                    updateTotalStatsFunction,
+                    compactionIoThrottle);
         } else {
             hashStoreDisk = null;
             hashStoreDiskFileCompactor = null;
@@ -331,11 +348,11 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
             isLongKeyMode = true;
             objectKeyToPath = null;
             objectKeyToPathFileCompactor = null;
-            if (Files.exists(dbPaths.longKeyToPathFile)) {
-                longKeyToPath = new LongListOffHeap(dbPaths.longKeyToPathFile);
-            } else {
-                longKeyToPath = new LongListOffHeap();
-            }
+            final LongListOffHeap longKeyToPathOffHeap = Files.exists(dbPaths.longKeyToPathFile)
+                    ? new LongListOffHeap(dbPaths.longKeyToPathFile)
+                    : new LongListOffHeap();
+            longKeyToPathOffHeap.enableDeltaSnapshots(indexDeltaSnapshotThreshold);
+            longKeyToPath = longKeyToPathOffHeap;
         } else {
             isLongKeyMode = false;
             longKeyToPath = null;
@@ -356,7 +373,8 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                     statisticsUpdater::setLeafKeysStoreCompactionTimeMs,
                     statisticsUpdater::setLeafKeysStoreCompactionSavedSpaceMb,
                     statisticsUpdater::setLeafKeysStoreFileSizeByLevelMb,
-                    updateTotalStatsFunction);
+                    updateTotalStatsFunction,
+                    compactionIoThrottle);
             objectKeyToPath.printStats();
         }
         final LoadedDataCallback<VirtualLeafRecord<K, V>> leafRecordLoadedCallback;
@@ -395,11 +413,20 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
                 statisticsUpdater::setLeavesStoreCompactionTimeMs,
                 statisticsUpdater::setLeavesStoreCompactionSavedSpaceMb,
                 statisticsUpdater::setLeavesStoreFileSizeByLevelMb,
-                updateTotalStatsFunction);
+                updateTotalStatsFunction,
+                compactionIoThrottle);
 
         // Leaf records cache
-        leafRecordCacheSize = database.getConfig().leafRecordCacheSize();
-        leafRecordCache = (leafRecordCacheSize > 0) ? new VirtualLeafRecord[leafRecordCacheSize] : null;
+        final long leafRecordCacheSize = database.getConfig().getLeafRecordCacheSize(tableName);
+        final KeySerializer<K> keySerializer = tableConfig.getKeySerializer();
+        final ValueSerializer<V> valueSerializer = tableConfig.getValueSerializer();
+        leafRecordCache = (leafRecordCacheSize > 0)
+                ? new LeafRecordCache<>(
+                        leafRecordCacheSize,
+                        rec -> LEAF_RECORD_CACHE_ENTRY_OVERHEAD
+                                + keySerializer.getSerializedSize(rec.getKey())
+                                + (rec.getValue() != null ? valueSerializer.getSerializedSize(rec.getValue()) : 0))
+                : null;
 
         // Update count of open databases
         COUNT_OF_OPEN_DATABASES.increment();
@@ -558,18 +585,9 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         requireNonNull(key);
 
         final long path;
-        VirtualLeafRecord<K, V> cached = null;
-        int cacheIndex = -1;
-        if (leafRecordCache != null) {
-            cacheIndex = Math.abs(key.hashCode() % leafRecordCacheSize);
-            // No synchronization is needed here. Java guarantees (JLS 17.7) that reference writes
-            // are atomic, so we will never get corrupted objects from the array. The object may
-            // be overwritten in the cache in a different thread in parallel, but it isn't a
-            // problem as cached entry key is checked below anyway
-            cached = leafRecordCache[cacheIndex];
-        }
-        // If an entry is found in the cache, and entry key is the one requested
-        if ((cached != null) && key.equals(cached.getKey())) {
+        final VirtualLeafRecord<K, V> cached = (leafRecordCache != null) ? leafRecordCache.get(key) : null;
+        // If an entry is found in the cache
+        if (cached != null) {
             // Some cache entries contain just key and path, but no value. If the value is there,
             // just return the cached entry. If not, at least make use of the path
             if (cached.getValue() != null) {
@@ -580,7 +598,6 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
             path = cached.getPath();
         } else {
             // Cache miss
-            cached = null;
             statisticsUpdater.countLeafKeyReads();
             path = isLongKeyMode
                     ? longKeyToPath.get(((VirtualLongKey) key).getKeyAsLong(), INVALID_PATH)
@@ -591,7 +608,7 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         if (path == INVALID_PATH) {
             // Cache the result if not already cached
             if (leafRecordCache != null && cached == null) {
-                leafRecordCache[cacheIndex] = new VirtualLeafRecord<K, V>(path, key, null);
+                leafRecordCache.put(key, new VirtualLeafRecord<>(path, key, null));
             }
             return null;
         }
@@ -610,9 +627,8 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         assert leafRecord != null && leafRecord.getKey().equals(key);
 
         if (leafRecordCache != null) {
-            // No synchronization is needed here, see the comment above
             // A copy is returned to ensure cached value immutability.
-            leafRecordCache[cacheIndex] = leafRecord;
+            leafRecordCache.put(key, leafRecord);
             leafRecord = leafRecord.copy();
         }
 
@@ -649,12 +665,9 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         requireNonNull(key);
 
         // Check the cache first
-        int cacheIndex = -1;
         if (leafRecordCache != null) {
-            cacheIndex = Math.abs(key.hashCode() % leafRecordCacheSize);
-            // No synchronization is needed here. See the comment in loadLeafRecord(key) above
-            final VirtualLeafRecord<K, V> cached = leafRecordCache[cacheIndex];
-            if (cached != null && key.equals(cached.getKey())) {
+            final VirtualLeafRecord<K, V> cached = leafRecordCache.get(key);
+            if (cached != null) {
                 // Cached path may be a valid path or INVALID_PATH, both are legal here
                 return cached.getPath();
             }
@@ -667,12 +680,67 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
 
         if (leafRecordCache != null) {
             // Path may be INVALID_PATH here. Still needs to be cached (negative result)
-            leafRecordCache[cacheIndex] = new VirtualLeafRecord<K, V>(path, key, null);
+            leafRecordCache.put(key, new VirtualLeafRecord<>(path, key, null));
         }
 
         return path;
     }
 
+    /**
+     * Find paths of multiple keys. Keys found in the leaf record cache are resolved from the
+     * cache. For all other keys, if keys aren't longs, all keys are looked up in the object key
+     * to path map in a single batch, so every bucket is read from disk at most once.
+     *
+     * @param keys the keys to find paths for
+     * @return the paths in the same order as the keys, or INVALID_PATH for keys that aren't stored
+     * @throws IOException If there was a problem locating the keys
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public long[] findKeys(final List<K> keys) throws IOException {
+        requireNonNull(keys);
+        final long[] paths = new long[keys.size()];
+        // Indices of keys not found in the cache
+        final IntArrayList missedIndices = new IntArrayList(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            final K key = requireNonNull(keys.get(i));
+            if (leafRecordCache != null) {
+                final VirtualLeafRecord<K, V> cached = leafRecordCache.get(key);
+                if (cached != null) {
+                    paths[i] = cached.getPath();
+                    continue;
+                }
+            }
+            missedIndices.add(i);
+        }
+        if (missedIndices.isEmpty()) {
+            return paths;
+        }
+
+        final List<K> missedKeys = new ArrayList<>(missedIndices.size());
+        missedIndices.forEach(i -> missedKeys.add(keys.get(i)));
+        final long[] missedPaths;
+        if (isLongKeyMode) {
+            missedPaths = new long[missedKeys.size()];
+            for (int i = 0; i < missedPaths.length; i++) {
+                missedPaths[i] = longKeyToPath.get(((VirtualLongKey) missedKeys.get(i)).getKeyAsLong(), INVALID_PATH);
+            }
+        } else {
+            missedPaths = objectKeyToPath.getAll(missedKeys, INVALID_PATH);
+        }
+        for (int i = 0; i < missedPaths.length; i++) {
+            statisticsUpdater.countLeafKeyReads();
+            final K key = missedKeys.get(i);
+            final long path = missedPaths[i];
+            paths[missedIndices.get(i)] = path;
+            if (leafRecordCache != null) {
+                // Path may be INVALID_PATH here. Still needs to be cached (negative result)
+                leafRecordCache.put(key, new VirtualLeafRecord<>(path, key, null));
+            }
+        }
+        return paths;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -1205,6 +1273,7 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         if (!isLongKeyMode) {
             final DataFileReader<Bucket<K>> objectKeyToPathReader = objectKeyToPath.endWriting();
             statisticsUpdater.setFlushLeafKeysStoreFileSize(objectKeyToPathReader);
+            statisticsUpdater.setFlushLeafKeysStageTimes(objectKeyToPath.getLastFlushStageTimes());
             compactionCoordinator.compactDiskStoreForObjectKeyToPathAsync();
         }
     }
@@ -1215,22 +1284,13 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
      * If the key is deleted, it's still updated in the cache. It means no record with the given
      * key exists in the data source, so further lookups for the key are skipped.
      * <p>
-     * Cache index is calculated as the key's hash code % cache size. The cache is only updated,
-     * if the current record at this index has the given key. If the key is different, no update is
-     * performed.
-     *
      * @param key Virtual leaf record key
      */
-    @SuppressWarnings("unchecked")
     private void invalidateReadCache(final K key) {
         if (leafRecordCache == null) {
             return;
         }
-        final int cacheIndex = Math.abs(key.hashCode() % leafRecordCacheSize);
-        final VirtualLeafRecord<K, V> cached = leafRecordCache[cacheIndex];
-        if ((cached != null) && key.equals(cached.getKey())) {
-            leafRecordCache[cacheIndex] = null;
-        }
+        leafRecordCache.invalidate(key);
     }
 
     FileStatisticAware getHashStoreDisk() {
@@ -1245,6 +1305,11 @@ public final class MerkleDbDataSource<K extends VirtualKey, V extends VirtualVal
         return pathToKeyValue;
     }
 
+    /** Returns the leaf records cache, or null if the cache isn't used */
+    LeafRecordCache<K, VirtualLeafRecord<K, V>> getLeafRecordCache() {
+        return leafRecordCache;
+    }
+
     MerkleDbCompactionCoordinator getCompactionCoordinator() {
         return compactionCoordinator;
     }
@@ -18,6 +18,7 @@ package com.swirlds.merkledb;
 
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.metrics.api.DoubleAccumulator;
+import com.swirlds.metrics.api.DoubleGauge;
 import com.swirlds.metrics.api.FloatFormats;
 import com.swirlds.metrics.api.IntegerGauge;
 import com.swirlds.metrics.api.LongAccumulator;
@@ -58,6 +59,22 @@ public class MerkleDbStatistics {
     private LongAccumulator leafReads;
     /** Leaf keys - reads / s */
     private LongAccumulator leafKeyReads;
+    /** All stores - data item reads from memory-mapped files / s */
+    private LongAccumulator memoryMappedReads;
+    /** All stores - data item reads using file channels / s */
+    private LongAccumulator fileChannelReads;
+    /** Leaf keys store - bucket cache hits / s */
+    private LongAccumulator bucketCacheHits;
+    /** Leaf keys store - bucket cache misses / s */
+    private LongAccumulator bucketCacheMisses;
+    /** Leaf records cache - hits / s */
+    private LongAccumulator leafRecordCacheHits;
+    /** Leaf records cache - misses / s */
+    private LongAccumulator leafRecordCacheMisses;
+    /** Leaf records cache - evictions / s */
+    private LongAccumulator leafRecordCacheEvictions;
+    /** Leaf records cache - candidates rejected by admission policy / s */
+    private LongAccumulator leafRecordCacheRejections;
 
     /** Hashes store - file count */
     private IntegerGauge hashesStoreFileCount;
@@ -74,6 +91,14 @@ public class MerkleDbStatistics {
     /** Total file size in Mb */
     // Should all file sizes be doubles?
     private IntegerGauge totalFileSizeMb;
+    /** Total size of files mapped into memory in Mb */
+    private IntegerGauge memoryMappedFileSizeMb;
+    /** Hashes store - space amplification, total files size to live data size ratio */
+    private DoubleGauge hashesStoreSpaceAmplification;
+    /** Leaves store - space amplification, total files size to live data size ratio */
+    private DoubleGauge leavesStoreSpaceAmplification;
+    /** Leaf keys store - space amplification, total files size to live data size ratio */
+    private DoubleGauge leafKeysStoreSpaceAmplification;
 
     private LongAccumulator flushHashesWritten;
     private DoubleAccumulator flushHashesStoreFileSizeMb;
@@ -82,6 +107,14 @@ public class MerkleDbStatistics {
     private DoubleAccumulator flushLeavesStoreFileSizeMb;
     private LongAccumulator flushLeafKeysWritten;
     private DoubleAccumulator flushLeafKeysStoreFileSizeMb;
+    /** Leaf keys flush - time spent reading buckets, summed across all flushing threads, in ms */
+    private LongAccumulator flushLeafKeysBucketsReadTimeMs;
+    /** Leaf keys flush - time spent updating buckets, summed across all flushing threads, in ms */
+    private LongAccumulator flushLeafKeysBucketsUpdateTimeMs;
+    /** Leaf keys flush - time spent writing buckets, in ms */
+    private LongAccumulator flushLeafKeysBucketsWriteTimeMs;
+    /** Leaf keys flush - time the writing thread waited for updated buckets, in ms */
+    private LongAccumulator flushLeafKeysBucketsWriteWaitTimeMs;
 
     /** Hashes store compactions - time in ms */
     private final List<LongAccumulator> hashesStoreCompactionTimeMsList;
@@ -113,6 +146,8 @@ public class MerkleDbStatistics {
     private IntegerGauge offHeapObjectKeyBucketsIndexMb;
     /** Off-heap usage in MB of hashes list in RAM */
     private IntegerGauge offHeapHashesListMb;
+    /** Off-heap usage in MB of object keys store bucket cache */
+    private IntegerGauge offHeapBucketCacheMb;
     /** Total data source off-heap usage in MB */
     private IntegerGauge offHeapDataSourceMb;
 
@@ -143,6 +178,12 @@ public class MerkleDbStatistics {
         return metrics.getOrCreate(new IntegerGauge.Config(STAT_CATEGORY, name).withDescription(description));
     }
 
+    private static DoubleGauge buildDoubleGauge(final Metrics metrics, final String name, final String description) {
+        return metrics.getOrCreate(new DoubleGauge.Config(STAT_CATEGORY, name)
+                .withDescription(description)
+                .withFormat(FloatFormats.FORMAT_9_6));
+    }
+
     private static LongAccumulator buildLongAccumulator(
             final Metrics metrics, final String name, final String description) {
         return metrics.getOrCreate(new LongAccumulator.Config(STAT_CATEGORY, name)
@@ -177,6 +218,38 @@ public class MerkleDbStatistics {
                 metrics, DS_PREFIX + READS_PREFIX + "leaves_" + label, "Number of leaf reads, " + label);
         leafKeyReads = buildLongAccumulator(
                 metrics, DS_PREFIX + READS_PREFIX + "leafKeys_" + label, "Number of leaf key reads, " + label);
+        memoryMappedReads = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + READS_PREFIX + "memoryMapped_" + label,
+                "Number of data item reads from memory-mapped files, " + label);
+        fileChannelReads = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + READS_PREFIX + "fileChannel_" + label,
+                "Number of data item reads using file channels, " + label);
+        bucketCacheHits = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + READS_PREFIX + "bucketCacheHits_" + label,
+                "Number of leaf key bucket reads served from bucket cache, " + label);
+        bucketCacheMisses = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + READS_PREFIX + "bucketCacheMisses_" + label,
+                "Number of leaf key bucket reads not found in bucket cache, " + label);
+        leafRecordCacheHits = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + READS_PREFIX + "leafRecordCacheHits_" + label,
+                "Number of leaf and leaf key reads served from leaf records cache, " + label);
+        leafRecordCacheMisses = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + READS_PREFIX + "leafRecordCacheMisses_" + label,
+                "Number of leaf and leaf key reads not found in leaf records cache, " + label);
+        leafRecordCacheEvictions = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + READS_PREFIX + "leafRecordCacheEvictions_" + label,
+                "Number of entries evicted from leaf records cache, " + label);
+        leafRecordCacheRejections = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + READS_PREFIX + "leafRecordCacheRejections_" + label,
+                "Number of entries not admitted to leaf records cache, " + label);
 
         // File counts and sizes
         hashesStoreFileCount = metrics.getOrCreate(
@@ -204,6 +277,22 @@ public class MerkleDbStatistics {
                 metrics,
                 DS_PREFIX + FILES_PREFIX + "totalSizeMb_" + label,
                 "Total file size, data source, " + label + ", Mb");
+        memoryMappedFileSizeMb = buildIntegerGauge(
+                metrics,
+                DS_PREFIX + FILES_PREFIX + "memoryMappedSizeMb_" + label,
+                "Total size of files mapped into memory, data source, " + label + ", Mb");
+        hashesStoreSpaceAmplification = buildDoubleGauge(
+                metrics,
+                DS_PREFIX + FILES_PREFIX + "hashesStoreSpaceAmplification_" + label,
+                "Hashes store files size to live data size ratio, " + label);
+        leavesStoreSpaceAmplification = buildDoubleGauge(
+                metrics,
+                DS_PREFIX + FILES_PREFIX + "leavesStoreSpaceAmplification_" + label,
+                "Leaves store files size to live data size ratio, " + label);
+        leafKeysStoreSpaceAmplification = buildDoubleGauge(
+                metrics,
+                DS_PREFIX + FILES_PREFIX + "leafKeysStoreSpaceAmplification_" + label,
+                "Leaf keys store files size to live data size ratio, " + label);
 
         // Flushes
         flushHashesWritten = buildLongAccumulator(
@@ -234,6 +323,22 @@ public class MerkleDbStatistics {
                 metrics,
                 DS_PREFIX + FLUSHES_PREFIX + "leafKeysStoreFileSizeMb_" + label,
                 "Size of the new leaf keys store file created during flush, " + label + ", Mb");
+        flushLeafKeysBucketsReadTimeMs = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + FLUSHES_PREFIX + "leafKeysBucketsReadTimeMs_" + label,
+                "Time spent reading buckets during flush, all threads, " + label + ", ms");
+        flushLeafKeysBucketsUpdateTimeMs = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + FLUSHES_PREFIX + "leafKeysBucketsUpdateTimeMs_" + label,
+                "Time spent updating buckets during flush, all threads, " + label + ", ms");
+        flushLeafKeysBucketsWriteTimeMs = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + FLUSHES_PREFIX + "leafKeysBucketsWriteTimeMs_" + label,
+                "Time spent writing buckets during flush, " + label + ", ms");
+        flushLeafKeysBucketsWriteWaitTimeMs = buildLongAccumulator(
+                metrics,
+                DS_PREFIX + FLUSHES_PREFIX + "leafKeysBucketsWriteWaitTimeMs_" + label,
+                "Time spent waiting for buckets to write during flush, " + label + ", ms");
 
         // Compaction
 
@@ -297,6 +402,9 @@ public class MerkleDbStatistics {
         offHeapHashesListMb = metrics.getOrCreate(
                 new IntegerGauge.Config(STAT_CATEGORY, DS_PREFIX + OFFHEAP_PREFIX + "hashesListMb_" + label)
                         .withDescription("Off-heap usage, hashes list, " + label + ", Mb"));
+        offHeapBucketCacheMb = metrics.getOrCreate(
+                new IntegerGauge.Config(STAT_CATEGORY, DS_PREFIX + OFFHEAP_PREFIX + "bucketCacheMb_" + label)
+                        .withDescription("Off-heap usage, object leaf key bucket cache, " + label + ", Mb"));
         offHeapDataSourceMb = metrics.getOrCreate(
                 new IntegerGauge.Config(STAT_CATEGORY, DS_PREFIX + OFFHEAP_PREFIX + "dataSourceMb_" + label)
                         .withDescription("Off-heap usage, data source, " + label + ", Mb"));
@@ -329,6 +437,102 @@ public class MerkleDbStatistics {
         }
     }
 
+    /**
+     * Increments {@link #memoryMappedReads} stat by the given value
+     *
+     * @param value
+     * 		the number of reads to add
+     */
+    public void countMemoryMappedReads(final long value) {
+        if (memoryMappedReads != null) {
+            memoryMappedReads.update(value);
+        }
+    }
+
+    /**
+     * Increments {@link #fileChannelReads} stat by the given value
+     *
+     * @param value
+     * 		the number of reads to add
+     */
+    public void countFileChannelReads(final long value) {
+        if (fileChannelReads != null) {
+            fileChannelReads.update(value);
+        }
+    }
+
+    /**
+     * Increments {@link #bucketCacheHits} stat by the given value
+     *
+     * @param value
+     * 		the number of hits to add
+     */
+    public void countBucketCacheHits(final long value) {
+        if (bucketCacheHits != null) {
+            bucketCacheHits.update(value);
+        }
+    }
+
+    /**
+     * Increments {@link #bucketCacheMisses} stat by the given value
+     *
+     * @param value
+     * 		the number of misses to add
+     */
+    public void countBucketCacheMisses(final long value) {
+        if (bucketCacheMisses != null) {
+            bucketCacheMisses.update(value);
+        }
+    }
+
+    /**
+     * Increments {@link #leafRecordCacheHits} stat by the given value
+     *
+     * @param value
+     * 		the number of hits to add
+     */
+    public void countLeafRecordCacheHits(final long value) {
+        if (leafRecordCacheHits != null) {
+            leafRecordCacheHits.update(value);
+        }
+    }
+
+    /**
+     * Increments {@link #leafRecordCacheMisses} stat by the given value
+     *
+     * @param value
+     * 		the number of misses to add
+     */
+    public void countLeafRecordCacheMisses(final long value) {
+        if (leafRecordCacheMisses != null) {
+            leafRecordCacheMisses.update(value);
+        }
+    }
+
+    /**
+     * Increments {@link #leafRecordCacheEvictions} stat by the given value
+     *
+     * @param value
+     * 		the number of evictions to add
+     */
+    public void countLeafRecordCacheEvictions(final long value) {
+        if (leafRecordCacheEvictions != null) {
+            leafRecordCacheEvictions.update(value);
+        }
+    }
+
+    /**
+     * Increments {@link #leafRecordCacheRejections} stat by the given value
+     *
+     * @param value
+     * 		the number of rejections to add
+     */
+    public void countLeafRecordCacheRejections(final long value) {
+        if (leafRecordCacheRejections != null) {
+            leafRecordCacheRejections.update(value);
+        }
+    }
+
     /**
      * Set the current value for the {@link #hashesStoreFileCount} stat
      *
@@ -413,6 +617,36 @@ public class MerkleDbStatistics {
         }
     }
 
+    /**
+     * Set the current value for the {@link #memoryMappedFileSizeMb} stat
+     *
+     * @param value
+     * 		the value to set
+     */
+    public void setMemoryMappedFileSizeMb(final int value) {
+        if (memoryMappedFileSizeMb != null) {
+            memoryMappedFileSizeMb.set(value);
+        }
+    }
+
+    public void setHashesStoreSpaceAmplification(final double value) {
+        if (hashesStoreSpaceAmplification != null) {
+            hashesStoreSpaceAmplification.set(value);
+        }
+    }
+
+    public void setLeavesStoreSpaceAmplification(final double value) {
+        if (leavesStoreSpaceAmplification != null) {
+            leavesStoreSpaceAmplification.set(value);
+        }
+    }
+
+    public void setLeafKeysStoreSpaceAmplification(final double value) {
+        if (leafKeysStoreSpaceAmplification != null) {
+            leafKeysStoreSpaceAmplification.set(value);
+        }
+    }
+
     public void countFlushHashesWritten(final long value) {
         if (flushHashesWritten != null) {
             flushHashesWritten.update(value);
@@ -455,6 +689,30 @@ public class MerkleDbStatistics {
         }
     }
 
+    /**
+     * Set the time spent in different stages of the last leaf keys store flush.
+     *
+     * @param readMs time spent reading buckets, summed across all flushing threads
+     * @param updateMs time spent updating buckets, summed across all flushing threads
+     * @param writeMs time spent writing buckets
+     * @param writeWaitMs time the writing thread waited for updated buckets
+     */
+    public void setFlushLeafKeysBucketsStageTimesMs(
+            final long readMs, final long updateMs, final long writeMs, final long writeWaitMs) {
+        if (flushLeafKeysBucketsReadTimeMs != null) {
+            flushLeafKeysBucketsReadTimeMs.update(readMs);
+        }
+        if (flushLeafKeysBucketsUpdateTimeMs != null) {
+            flushLeafKeysBucketsUpdateTimeMs.update(updateMs);
+        }
+        if (flushLeafKeysBucketsWriteTimeMs != null) {
+            flushLeafKeysBucketsWriteTimeMs.update(writeMs);
+        }
+        if (flushLeafKeysBucketsWriteWaitTimeMs != null) {
+            flushLeafKeysBucketsWriteWaitTimeMs.update(writeWaitMs);
+        }
+    }
+
     /**
      * Set the current value for the accumulator corresponding to provided compaction level from
      * {@link #hashesStoreCompactionTimeMsList}
@@ -643,6 +901,17 @@ public class MerkleDbStatistics {
         }
     }
 
+    /**
+     * Set the current value for the {@link #offHeapBucketCacheMb} stat
+     *
+     * @param value the value to set
+     */
+    public void setOffHeapBucketCacheMb(final int value) {
+        if (offHeapBucketCacheMb != null) {
+            offHeapBucketCacheMb.set(value);
+        }
+    }
+
     /**
      * Set the current value for the {@link #offHeapDataSourceMb} stat
      *
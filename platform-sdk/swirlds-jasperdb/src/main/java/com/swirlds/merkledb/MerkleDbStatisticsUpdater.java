@@ -23,6 +23,8 @@ import com.swirlds.merkledb.collections.LongList;
 import com.swirlds.merkledb.collections.OffHeapUser;
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.merkledb.files.DataFileReader;
+import com.swirlds.merkledb.files.hashmap.BucketCache;
+import com.swirlds.merkledb.files.hashmap.HalfDiskHashMap;
 import com.swirlds.metrics.api.Metrics;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.util.LongSummaryStatistics;
@@ -65,6 +67,12 @@ public class MerkleDbStatisticsUpdater {
                 newLeafKeysFile == null ? 0 : newLeafKeysFile.getSize() * BYTES_TO_MEBIBYTES);
     }
 
+    /** Updates statistics with time spent in different stages of leaf keys store flush. */
+    void setFlushLeafKeysStageTimes(final HalfDiskHashMap.FlushStageTimes stageTimes) {
+        statistics.setFlushLeafKeysBucketsStageTimesMs(
+                stageTimes.readMs(), stageTimes.updateMs(), stageTimes.writeMs(), stageTimes.writerWaitMs());
+    }
+
     /** Updates statistics with leaf store file size. */
     void setFlushLeavesStoreFileSize(final DataFileReader<?> newLeafKeysFile) {
         statistics.setFlushLeavesStoreFileSizeMb(
@@ -78,7 +86,7 @@ public class MerkleDbStatisticsUpdater {
     }
 
     /**
-     * Updates hashes store file stats: file count and total size in Mb. No-op if all hashes
+     * Updates hashes store file stats: file count, total size in Mb, and space amplification. No-op if all hashes
      * are cached in RAM.
      *
      * @return hashes store file size, Mb
@@ -90,13 +98,15 @@ public class MerkleDbStatisticsUpdater {
             statistics.setHashesStoreFileCount((int) internalHashesFileSizeStats.getCount());
             final int fileSizeInMb = (int) (internalHashesFileSizeStats.getSum() * BYTES_TO_MEBIBYTES);
             statistics.setHashesStoreFileSizeMb(fileSizeInMb);
+            statistics.setHashesStoreSpaceAmplification(
+                    dataSource.getHashStoreDisk().getSpaceAmplification());
             return fileSizeInMb;
         }
         return 0;
     }
 
     /**
-     * Updates leaves store file stats: file count and total size in Mb.
+     * Updates leaves store file stats: file count, total size in Mb, and space amplification.
      *
      * @return leaves store file size, Mb
      */
@@ -106,11 +116,12 @@ public class MerkleDbStatisticsUpdater {
         statistics.setLeavesStoreFileCount((int) leafDataFileSizeStats.getCount());
         final int fileSizeInMb = (int) (leafDataFileSizeStats.getSum() * BYTES_TO_MEBIBYTES);
         statistics.setLeavesStoreFileSizeMb(fileSizeInMb);
+        statistics.setLeavesStoreSpaceAmplification(dataSource.getPathToKeyValue().getSpaceAmplification());
         return fileSizeInMb;
     }
 
     /**
-     * Updates leaf keys store file stats: file count and total size in Mb. No-op if keys are
+     * Updates leaf keys store file stats: file count, total size in Mb, and space amplification. No-op if keys are
      * longs and stored in a LongList rather than in a store on disk.
      *
      * @return leaf keys store file size, Mb
@@ -122,6 +133,8 @@ public class MerkleDbStatisticsUpdater {
             statistics.setLeafKeysStoreFileCount((int) leafKeyFileSizeStats.getCount());
             final int fileSizeInMb = (int) (leafKeyFileSizeStats.getSum() * BYTES_TO_MEBIBYTES);
             statistics.setLeafKeysStoreFileSizeMb(fileSizeInMb);
+            statistics.setLeafKeysStoreSpaceAmplification(
+                    dataSource.getObjectKeyToPath().getSpaceAmplification());
             return fileSizeInMb;
         }
         return 0;
@@ -132,6 +145,40 @@ public class MerkleDbStatisticsUpdater {
         statistics.setTotalFileSizeMb(updateHashesStoreFileStats(dataSource)
                 + updateLeavesStoreFileStats(dataSource)
                 + updateLeafKeysStoreFileStats(dataSource));
+        updateFileReadStats(
+                dataSource.getHashStoreDisk(), dataSource.getPathToKeyValue(), dataSource.getObjectKeyToPath());
+        final BucketCache bucketCache = getBucketCache(dataSource);
+        if (bucketCache != null) {
+            statistics.countBucketCacheHits(bucketCache.getAndResetHits());
+            statistics.countBucketCacheMisses(bucketCache.getAndResetMisses());
+        }
+        final LeafRecordCache<?, ?> leafRecordCache = dataSource.getLeafRecordCache();
+        if (leafRecordCache != null) {
+            statistics.countLeafRecordCacheHits(leafRecordCache.getAndResetHits());
+            statistics.countLeafRecordCacheMisses(leafRecordCache.getAndResetMisses());
+            statistics.countLeafRecordCacheEvictions(leafRecordCache.getAndResetEvictions());
+            statistics.countLeafRecordCacheRejections(leafRecordCache.getAndResetRejections());
+        }
+    }
+
+    /**
+     * Updates memory-mapped vs. file channel read counts and memory-mapped files size across all
+     * the given stores. Null stores are skipped.
+     */
+    private void updateFileReadStats(final FileStatisticAware... stores) {
+        long memoryMappedSize = 0;
+        long memoryMappedReads = 0;
+        long fileChannelReads = 0;
+        for (final FileStatisticAware store : stores) {
+            if (store != null) {
+                memoryMappedSize += store.getMemoryMappedFilesSize();
+                memoryMappedReads += store.getAndResetMemoryMappedReads();
+                fileChannelReads += store.getAndResetFileChannelReads();
+            }
+        }
+        statistics.setMemoryMappedFileSizeMb((int) (memoryMappedSize * BYTES_TO_MEBIBYTES));
+        statistics.countMemoryMappedReads(memoryMappedReads);
+        statistics.countFileChannelReads(fileChannelReads);
     }
 
     /**
@@ -150,6 +197,10 @@ public class MerkleDbStatisticsUpdater {
             totalOffHeapMemoryConsumption +=
                     updateOffHeapStat(dataSource.getHashStoreRam(), statistics::setOffHeapHashesListMb);
         }
+        final BucketCache bucketCache = getBucketCache(dataSource);
+        if (bucketCache != null) {
+            totalOffHeapMemoryConsumption += updateOffHeapStat(bucketCache, statistics::setOffHeapBucketCacheMb);
+        }
         statistics.setOffHeapDataSourceMb(totalOffHeapMemoryConsumption);
     }
 
@@ -188,6 +239,13 @@ public class MerkleDbStatisticsUpdater {
         statistics.countFlushHashesWritten(1);
     }
 
+    /** Returns the bucket cache of the object keys store, or null if keys are longs or caching is disabled */
+    private static BucketCache getBucketCache(final MerkleDbDataSource<?, ?> dataSource) {
+        return (dataSource.getObjectKeyToPath() instanceof HalfDiskHashMap<?> objectKeyToPath)
+                ? objectKeyToPath.getBucketCache()
+                : null;
+    }
+
     private static int updateOffHeapStat(final LongList longList, final IntConsumer updateFunction) {
         if (longList instanceof OffHeapUser longListOffHeap) {
             final int result = (int) (longListOffHeap.getOffHeapConsumption() * BYTES_TO_MEBIBYTES);
@@ -22,6 +22,7 @@ import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
 
+import com.swirlds.common.io.utility.LegacyTemporaryFileBuilder;
 import com.swirlds.merkledb.utilities.MerkleDbFileUtils;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.File;
@@ -29,12 +30,18 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.stream.LongStream;
 import java.util.stream.StreamSupport;
@@ -109,6 +116,20 @@ public abstract class AbstractLongList<C> implements LongList {
     /** File header size for the latest format */
     protected final int currentFileHeaderSize;
 
+    /** Delta snapshot file name suffix. A delta file is stored next to the full snapshot file it applies to */
+    public static final String DELTA_FILE_SUFFIX = ".delta";
+    /** The version number for format of delta snapshot files */
+    protected static final int DELTA_FILE_FORMAT_VERSION = 1;
+    /** The number of bytes to read for delta file header:
+     * - file version<br>
+     * - number of longs per chunk<br>
+     * - min valid index<br>
+     * - size<br>
+     * - number of chunks in the delta<br>
+     */
+    protected static final int DELTA_FILE_HEADER_SIZE =
+            Integer.BYTES + Integer.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES;
+
     /**
      * The number of longs to store in each allocated buffer. Must be a positive integer. If the
      * value is small, then we will end up allocating a very large number of buffers. If the value
@@ -139,6 +160,12 @@ public abstract class AbstractLongList<C> implements LongList {
      */
     protected final long reservedBufferLength;
 
+    /**
+     * Bit set of chunks modified since the last full snapshot of this list, or null if modified chunks
+     * aren't tracked. Used to write delta snapshots
+     */
+    protected volatile AtomicLongArray dirtyChunks = null;
+
     /**
      * Construct a new LongList with the specified number of longs per chunk and maximum number of
      * longs.
@@ -190,7 +217,10 @@ public abstract class AbstractLongList<C> implements LongList {
             chunkList = new AtomicReferenceArray<>(calculateNumberOfChunks(maxLongs));
             onEmptyOrAbsentSourceFile(path);
         } else {
-            try (final FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // If there is a delta snapshot next to the file, merge them to a temp file and load from there
+            final Path deltaFile = deltaFileFor(path);
+            final Path sourceFile = Files.exists(deltaFile) ? mergeDeltaFile(path, deltaFile) : path;
+            try (final FileChannel fileChannel = FileChannel.open(sourceFile, StandardOpenOption.READ)) {
                 // read header from existing file
                 final ByteBuffer versionBuffer = readFromFileChannel(fileChannel, VERSION_METADATA_SIZE);
                 final int formatVersion = versionBuffer.getInt();
@@ -227,8 +257,114 @@ public abstract class AbstractLongList<C> implements LongList {
                 }
                 chunkList = new AtomicReferenceArray<>(calculateNumberOfChunks(maxLongs));
                 readBodyFromFileChannelOnInit(file.getName(), fileChannel);
+            } finally {
+                if (sourceFile != path) {
+                    Files.deleteIfExists(sourceFile);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the delta snapshot file for the given full snapshot file.
+     *
+     * @param file full snapshot file
+     * @return delta file path, the file may not exist
+     */
+    static Path deltaFileFor(final Path file) {
+        return file.resolveSibling(file.getFileName() + DELTA_FILE_SUFFIX);
+    }
+
+    /**
+     * Merges a full snapshot file and a delta file written on top of it into a new temp file in
+     * the latest full snapshot format. Chunks present in the delta file are taken from the delta,
+     * all other chunks are taken from the full snapshot.
+     *
+     * @param baseFile full snapshot file
+     * @param deltaFile delta file
+     * @return temp file with merged data, the caller is responsible for deleting it
+     * @throws IOException if there was a problem reading the files or writing the merged file
+     */
+    private static Path mergeDeltaFile(final Path baseFile, final Path deltaFile) throws IOException {
+        final Path mergedFile = LegacyTemporaryFileBuilder.buildTemporaryFile(
+                baseFile.getFileName().toString());
+        try (final FileChannel baseChannel = FileChannel.open(baseFile, StandardOpenOption.READ);
+                final FileChannel deltaChannel = FileChannel.open(deltaFile, StandardOpenOption.READ);
+                final FileChannel mergedChannel =
+                        FileChannel.open(mergedFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            final ByteBuffer baseHeader = readFromFileChannel(baseChannel, FILE_HEADER_SIZE_V2);
+            final int baseVersion = baseHeader.getInt();
+            if (baseVersion != CURRENT_FILE_FORMAT_VERSION) {
+                throw new IOException("Delta snapshot base file format version is not supported, " + baseVersion);
+            }
+            final int numLongsPerChunk = baseHeader.getInt();
+            final long maxLongs = baseHeader.getLong();
+            final long baseMinValidIndex = baseHeader.getLong();
+            final long baseSize = baseMinValidIndex + (baseChannel.size() - FILE_HEADER_SIZE_V2) / Long.BYTES;
+
+            final ByteBuffer deltaHeader = readFromFileChannel(deltaChannel, DELTA_FILE_HEADER_SIZE);
+            final int deltaVersion = deltaHeader.getInt();
+            if (deltaVersion != DELTA_FILE_FORMAT_VERSION) {
+                throw new IOException("Delta snapshot file format version is not supported, " + deltaVersion);
+            }
+            if (deltaHeader.getInt() != numLongsPerChunk) {
+                throw new IOException("Delta snapshot chunk size doesn't match base file chunk size");
+            }
+            final long minValidIndex = deltaHeader.getLong();
+            final long size = deltaHeader.getLong();
+            final int deltaChunkCount = deltaHeader.getInt();
+            final int memoryChunkSize = numLongsPerChunk * Long.BYTES;
+            // Chunk index to chunk data position in the delta file
+            final Map<Integer, Long> deltaChunks = new HashMap<>();
+            for (int i = 0; i < deltaChunkCount; i++) {
+                final long chunkPos = DELTA_FILE_HEADER_SIZE + (long) i * (Integer.BYTES + memoryChunkSize);
+                final ByteBuffer chunkIndexBuffer = ByteBuffer.allocate(Integer.BYTES);
+                MerkleDbFileUtils.completelyRead(deltaChannel, chunkIndexBuffer, chunkPos);
+                deltaChunks.put(chunkIndexBuffer.flip().getInt(), chunkPos + Integer.BYTES);
+            }
+
+            final ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE_V2);
+            header.putInt(CURRENT_FILE_FORMAT_VERSION);
+            header.putInt(numLongsPerChunk);
+            header.putLong(maxLongs);
+            header.putLong(minValidIndex);
+            MerkleDbFileUtils.completelyWrite(mergedChannel, header.flip());
+
+            final ByteBuffer chunkBuffer = ByteBuffer.allocate(memoryChunkSize).order(ByteOrder.nativeOrder());
+            long index = minValidIndex;
+            while (index < size) {
+                final int chunkIndex = toIntExact(index / numLongsPerChunk);
+                final long chunkStart = (long) chunkIndex * numLongsPerChunk;
+                final long chunkEnd = Math.min(size, chunkStart + numLongsPerChunk);
+                Arrays.fill(chunkBuffer.array(), (byte) 0);
+                chunkBuffer.clear();
+                final Long deltaChunkPos = deltaChunks.get(chunkIndex);
+                if (deltaChunkPos != null) {
+                    MerkleDbFileUtils.completelyRead(deltaChannel, chunkBuffer, deltaChunkPos);
+                } else {
+                    // Only a part of the chunk may be present in the base file
+                    final long from = max(chunkStart, baseMinValidIndex);
+                    final long to = min(chunkEnd, baseSize);
+                    if (from < to) {
+                        chunkBuffer.position(toIntExact((from - chunkStart) * Long.BYTES));
+                        chunkBuffer.limit(toIntExact((to - chunkStart) * Long.BYTES));
+                        MerkleDbFileUtils.completelyRead(
+                                baseChannel,
+                                chunkBuffer,
+                                FILE_HEADER_SIZE_V2 + (from - baseMinValidIndex) * Long.BYTES);
+                    }
+                }
+                chunkBuffer.position(toIntExact((index - chunkStart) * Long.BYTES));
+                chunkBuffer.limit(toIntExact((chunkEnd - chunkStart) * Long.BYTES));
+                MerkleDbFileUtils.completelyWrite(mergedChannel, chunkBuffer);
+                index = chunkEnd;
             }
+            mergedChannel.force(true);
+        } catch (final IOException | RuntimeException e) {
+            Files.deleteIfExists(mergedFile);
+            throw e;
         }
+        return mergedFile;
     }
 
     /**
@@ -306,6 +442,24 @@ public abstract class AbstractLongList<C> implements LongList {
         final C chunk = createOrGetChunk(index);
         final int subIndex = toIntExact(index % numLongsPerChunk);
         putToChunk(chunk, subIndex, value);
+        markChunkDirty(toIntExact(index / numLongsPerChunk));
+    }
+
+    /**
+     * Marks a chunk as modified since the last full snapshot, if modified chunks are tracked.
+     *
+     * @param chunkIndex the chunk index
+     */
+    protected final void markChunkDirty(final int chunkIndex) {
+        final AtomicLongArray dirty = dirtyChunks;
+        if (dirty != null) {
+            final int word = chunkIndex >>> 6;
+            final long mask = 1L << chunkIndex;
+            // Avoid a CAS, if the chunk is already marked
+            if ((dirty.get(word) & mask) == 0) {
+                dirty.getAndAccumulate(word, mask, (a, b) -> a | b);
+            }
+        }
     }
 
     /**
@@ -341,6 +495,7 @@ public abstract class AbstractLongList<C> implements LongList {
         final int subIndex = toIntExact(index % numLongsPerChunk);
         boolean result = putIfEqual(chunk, subIndex, oldValue, newValue);
         if (result) {
+            markChunkDirty(chunkIndex);
             // update the size if necessary
             size.getAndUpdate(oldSize -> index >= oldSize ? (index + 1) : oldSize);
         }
@@ -515,6 +670,7 @@ public abstract class AbstractLongList<C> implements LongList {
             final C chunk = chunkList.get(i);
             if (chunk != null && chunkList.compareAndSet(i, chunk, null)) {
                 releaseChunk(chunk);
+                markChunkDirty(i);
             }
         }
 
@@ -524,6 +680,7 @@ public abstract class AbstractLongList<C> implements LongList {
         C chunk = chunkList.get(firstChunkWithDataIndex);
         if (chunk != null && numberOfElementsToCleanUp > 0) {
             partialChunkCleanup(chunk, true, numberOfElementsToCleanUp);
+            markChunkDirty(firstChunkWithDataIndex);
         }
 
         // clean up chunk(s) reserved for buffer
@@ -531,6 +688,7 @@ public abstract class AbstractLongList<C> implements LongList {
             chunk = chunkList.get(i);
             if (chunk != null) {
                 partialChunkCleanup(chunk, true, numLongsPerChunk);
+                markChunkDirty(i);
             }
         }
     }
@@ -552,6 +710,7 @@ public abstract class AbstractLongList<C> implements LongList {
             final C chunk = chunkList.get(i);
             if (chunk != null && chunkList.compareAndSet(i, chunk, null)) {
                 releaseChunk(chunk);
+                markChunkDirty(i);
             }
         }
 
@@ -561,6 +720,7 @@ public abstract class AbstractLongList<C> implements LongList {
         C chunk = chunkList.get(firstChunkWithDataIndex);
         if (chunk != null && numberOfEntriesToCleanUp > 0) {
             partialChunkCleanup(chunk, false, numberOfEntriesToCleanUp);
+            markChunkDirty(firstChunkWithDataIndex);
         }
 
         // clean up chunk(s) reserved for buffer
@@ -568,6 +728,7 @@ public abstract class AbstractLongList<C> implements LongList {
             chunk = chunkList.get(i);
             if (chunk != null) {
                 partialChunkCleanup(chunk, false, numLongsPerChunk);
+                markChunkDirty(i);
             }
         }
     }
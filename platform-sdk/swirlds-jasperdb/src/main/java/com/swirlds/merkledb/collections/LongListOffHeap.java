@@ -27,7 +27,10 @@ import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -46,6 +49,12 @@ import org.apache.logging.log4j.Logger;
  *
  * <p>Per the {@link LongList} contract, this class is thread-safe for both concurrent reads and
  * writes.
+ *
+ * <p>If enabled using {@link #enableDeltaSnapshots(int)}, snapshots may be written as deltas. The
+ * list tracks chunks modified since its last full snapshot. On the next snapshot, if the number of
+ * modified chunks is small enough, the last full snapshot file is hard-linked to the new location,
+ * and only modified chunks are written to a delta file next to it. When the list is loaded from
+ * such snapshot, the full file and the delta are merged.
  */
 public final class LongListOffHeap extends AbstractLongList<ByteBuffer> implements OffHeapUser {
     /** Offset of the {@code java.nio.Buffer#address} field. */
@@ -60,6 +69,20 @@ public final class LongListOffHeap extends AbstractLongList<ByteBuffer> implemen
     }
 
     private static final Logger logger = LogManager.getLogger(LongListOffHeap.class);
+
+    /**
+     * Max percentage of chunks modified since the last full snapshot, up to which delta snapshots
+     * are written. Zero if delta snapshots are disabled
+     */
+    private volatile int deltaSnapshotThreshold = 0;
+
+    /**
+     * A file, which contains the last full snapshot of this list, and its size. It's either the
+     * file written by the last full snapshot, or a hard link to it created by the last delta snapshot
+     */
+    private Path lastFullSnapshotFile = null;
+
+    private long lastFullSnapshotFileSize = 0;
     /**
      * Construct a new OffHeapLongList with the default 8Mb chunk size and 2Mb of reserved buffer
      */
@@ -94,6 +117,143 @@ public final class LongListOffHeap extends AbstractLongList<ByteBuffer> implemen
         super(file, DEFAULT_RESERVED_BUFFER_LENGTH);
     }
 
+    /**
+     * Enables delta snapshots. The next snapshot is always written in full. After that, snapshots are
+     * written as deltas, as long as the number of chunks modified since the last full snapshot
+     * doesn't exceed the given percentage of all chunks.
+     *
+     * @param threshold max percentage of modified chunks to write a delta snapshot, 1 to 100.
+     *                  If zero, delta snapshots are disabled
+     */
+    public void enableDeltaSnapshots(final int threshold) {
+        if ((threshold < 0) || (threshold > 100)) {
+            throw new IllegalArgumentException("Delta snapshot threshold must be between 0 and 100");
+        }
+        deltaSnapshotThreshold = threshold;
+        if ((threshold > 0) && (dirtyChunks == null)) {
+            dirtyChunks = new AtomicLongArray((chunkList.length() + Long.SIZE - 1) / Long.SIZE);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>If delta snapshots are enabled, a delta snapshot may be written instead of a full one.
+     * In this case, the given file is a hard link to the last full snapshot, and a delta file
+     * is created next to it.
+     */
+    @Override
+    public synchronized void writeToFile(final Path file) throws IOException {
+        final AtomicLongArray dirty = dirtyChunks;
+        if ((deltaSnapshotThreshold == 0) || (dirty == null)) {
+            super.writeToFile(file);
+            return;
+        }
+        if (canWriteDelta(dirty)) {
+            boolean linked = false;
+            try {
+                Files.createLink(file, lastFullSnapshotFile);
+                linked = true;
+                writeDeltaFile(deltaFileFor(file), dirty);
+                // Older snapshots may be deleted, keep a reference to the most recent link
+                lastFullSnapshotFile = file;
+                return;
+            } catch (final IOException | UnsupportedOperationException e) {
+                // E.g. the last full snapshot is on a different file system
+                logger.warn(
+                        EXCEPTION.getMarker(),
+                        "Failed to write delta snapshot to {}, writing full snapshot",
+                        file.getFileName(),
+                        e);
+                if (linked) {
+                    Files.deleteIfExists(deltaFileFor(file));
+                    Files.delete(file);
+                }
+            }
+        }
+        // Reset modified chunks before writing, so all changes made while writing are tracked
+        for (int i = 0; i < dirty.length(); i++) {
+            dirty.set(i, 0);
+        }
+        super.writeToFile(file);
+        lastFullSnapshotFile = file;
+        lastFullSnapshotFileSize = Files.size(file);
+    }
+
+    /**
+     * Checks if the last full snapshot is still available, and the number of chunks modified since
+     * then doesn't exceed the configured threshold.
+     */
+    private boolean canWriteDelta(final AtomicLongArray dirty) throws IOException {
+        if ((lastFullSnapshotFile == null)
+                || !Files.exists(lastFullSnapshotFile)
+                || (Files.size(lastFullSnapshotFile) != lastFullSnapshotFileSize)) {
+            return false;
+        }
+        final int firstChunkWithDataIndex = toIntExact(minValidIndex.get() / numLongsPerChunk);
+        final int totalNumOfChunks = calculateNumberOfChunks(size());
+        long dirtyCount = 0;
+        for (int i = 0; i < dirty.length(); i++) {
+            dirtyCount += Long.bitCount(dirty.get(i));
+        }
+        return dirtyCount * 100 <= (long) deltaSnapshotThreshold * (totalNumOfChunks - firstChunkWithDataIndex);
+    }
+
+    /**
+     * Writes all chunks modified since the last full snapshot to a delta file.
+     *
+     * @param deltaFile the file to write to
+     * @param dirty modified chunks
+     * @throws IOException if there was a problem writing the file
+     */
+    private void writeDeltaFile(final Path deltaFile, final AtomicLongArray dirty) throws IOException {
+        final long currentMinValidIndex = minValidIndex.get();
+        final long currentSize = size();
+        final int firstChunkWithDataIndex = toIntExact(currentMinValidIndex / numLongsPerChunk);
+        final int totalNumOfChunks = calculateNumberOfChunks(currentSize);
+        // Take a copy of modified chunks, so the header is consistent with the data written below
+        final long[] dirtyCopy = new long[dirty.length()];
+        int deltaChunkCount = 0;
+        for (int i = 0; i < dirtyCopy.length; i++) {
+            dirtyCopy[i] = dirty.get(i);
+        }
+        for (int i = firstChunkWithDataIndex; i < totalNumOfChunks; i++) {
+            if (isSet(dirtyCopy, i)) {
+                deltaChunkCount++;
+            }
+        }
+        try (final FileChannel fc =
+                FileChannel.open(deltaFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            final ByteBuffer header = ByteBuffer.allocate(DELTA_FILE_HEADER_SIZE);
+            header.putInt(DELTA_FILE_FORMAT_VERSION);
+            header.putInt(numLongsPerChunk);
+            header.putLong(currentMinValidIndex);
+            header.putLong(currentSize);
+            header.putInt(deltaChunkCount);
+            MerkleDbFileUtils.completelyWrite(fc, header.flip());
+            final ByteBuffer chunkIndexBuffer = ByteBuffer.allocate(Integer.BYTES);
+            final ByteBuffer emptyBuffer = createChunk();
+            try {
+                for (int i = firstChunkWithDataIndex; i < totalNumOfChunks; i++) {
+                    if (!isSet(dirtyCopy, i)) {
+                        continue;
+                    }
+                    MerkleDbFileUtils.completelyWrite(fc, chunkIndexBuffer.clear().putInt(i).flip());
+                    final ByteBuffer nonNullBuffer = requireNonNullElse(chunkList.get(i), emptyBuffer);
+                    // Slice so we don't mess with the byte buffer pointers
+                    MerkleDbFileUtils.completelyWrite(fc, nonNullBuffer.slice(0, nonNullBuffer.capacity()));
+                }
+            } finally {
+                UNSAFE.invokeCleaner(emptyBuffer);
+            }
+            fc.force(true);
+        }
+    }
+
+    private static boolean isSet(final long[] bits, final int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
     /** {@inheritDoc} */
     @Override
     protected void readBodyFromFileChannelOnInit(String sourceFileName, FileChannel fileChannel) throws IOException {
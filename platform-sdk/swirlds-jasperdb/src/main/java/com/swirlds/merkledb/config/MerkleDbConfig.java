@@ -21,9 +21,11 @@ import com.swirlds.config.api.ConfigProperty;
 import com.swirlds.config.api.Configuration;
 import com.swirlds.config.api.validation.ConfigViolation;
 import com.swirlds.config.api.validation.annotation.ConstraintMethod;
+import com.swirlds.config.api.validation.annotation.Max;
 import com.swirlds.config.api.validation.annotation.Min;
 import com.swirlds.config.api.validation.annotation.Positive;
 import com.swirlds.config.extensions.validators.DefaultConfigViolation;
+import java.util.List;
 
 /**
  * Instance-wide config for {@code MerkleDbDataSource}.
@@ -62,12 +64,36 @@ import com.swirlds.config.extensions.validators.DefaultConfigViolation;
  * @param reservedBufferLengthForLeafList
  *      Length of a reserved buffer in a LongList used to store leafs. Value in bytes.
  * @param leafRecordCacheSize
- *      Cache size in bytes for reading virtual leaf records. Initialized in data source creation time from MerkleDb config.
- *      If the value is zero, leaf records cache isn't used.
+ *      Deprecated and ignored. This used to be the number of entries in the leaf records cache, it is replaced by
+ *      {@link #leafRecordCacheSizeBytes}. If it is set, a warning is logged.
+ * @param leafRecordCacheSizeBytes
+ *      Cache size in bytes for reading virtual leaf records, per table. Initialized in data source creation time from
+ *      MerkleDb config. Can be overridden for individual tables using {@link #leafRecordCacheTableSizes}. If the
+ *      value is zero, leaf records cache isn't used.
+ * @param leafRecordCacheTableSizes
+ *      Leaf records cache sizes in bytes for individual tables, in "tableName=size" format, for example
+ *      "ContractService.STORAGE=1073741824". Tables not listed here use {@link #leafRecordCacheSizeBytes}.
  * @param maxFileChannelsPerFileReader
  *     Maximum number of file channels per file reader.
  * @param maxThreadsPerFileChannel
  *    Maximum number of threads per file channel.
+ * @param memoryMappedReadsEnabled
+ *    If true, completed (read only) data files are mapped into memory, and data items are read
+ *    from the mapped regions rather than through file channels.
+ * @param bucketCacheSizeBytes
+ *    Size of off-heap bucket cache, in bytes, per half disk hash map. If zero, buckets aren't cached.
+ * @param bucketCacheSlotSize
+ *    Size of a single slot in the bucket cache, in bytes. Buckets larger than this size aren't cached.
+ * @param compactionGarbageRatioThreshold
+ *    Fraction of dead (overwritten or removed) data items in a data file, starting from which the file is
+ *    compacted, even if there are not enough files at its compaction level for a regular compaction.
+ * @param compactionMaxMbPerSecond
+ *    Max rate at which all compactions combined copy data, in Mb per second. Every copied byte is read once
+ *    and written once. If zero, compaction rate is not limited.
+ * @param indexDeltaSnapshotThreshold
+ *    Percentage of off-heap index chunks, up to which index snapshots are written as deltas against the last
+ *    full index snapshot, rather than in full. A delta snapshot hard-links the last full index file and only
+ *    writes chunks changed since then. If zero, index snapshots are always written in full.
  */
 @ConfigData("merkleDb")
 public record MerkleDbConfig(
@@ -84,9 +110,20 @@ public record MerkleDbConfig(
         @ConfigProperty(defaultValue = "50.0") double percentHalfDiskHashMapFlushThreads,
         @ConfigProperty(defaultValue = "-1") int numHalfDiskHashMapFlushThreads,
         @ConfigProperty(defaultValue = "262144") int reservedBufferLengthForLeafList,
-        @ConfigProperty(defaultValue = "1048576") int leafRecordCacheSize,
+        @ConfigProperty(defaultValue = "-1") int leafRecordCacheSize,
+        @Min(0) @ConfigProperty(defaultValue = "134217728") long leafRecordCacheSizeBytes,
+        @ConstraintMethod("leafRecordCacheTableSizesValidation")
+                @ConfigProperty(defaultValue = ConfigProperty.NULL_DEFAULT_VALUE)
+                List<String> leafRecordCacheTableSizes,
         @Min(1) @ConfigProperty(defaultValue = "8") int maxFileChannelsPerFileReader,
-        @Min(1) @ConfigProperty(defaultValue = "8") int maxThreadsPerFileChannel) {
+        @Min(1) @ConfigProperty(defaultValue = "8") int maxThreadsPerFileChannel,
+        @ConfigProperty(defaultValue = "false") boolean memoryMappedReadsEnabled,
+        @Min(0) @ConfigProperty(defaultValue = "0") long bucketCacheSizeBytes,
+        @Positive @ConfigProperty(defaultValue = "4096") int bucketCacheSlotSize,
+        @ConstraintMethod("compactionGarbageRatioThresholdValidation") @ConfigProperty(defaultValue = "0.5")
+                double compactionGarbageRatioThreshold,
+        @Min(0) @ConfigProperty(defaultValue = "0") int compactionMaxMbPerSecond,
+        @Min(0) @Max(100) @ConfigProperty(defaultValue = "0") int indexDeltaSnapshotThreshold) {
 
     static double UNIT_FRACTION_PERCENT = 100.0;
 
@@ -104,6 +141,71 @@ public record MerkleDbConfig(
         return null;
     }
 
+    public ConfigViolation compactionGarbageRatioThresholdValidation(final Configuration configuration) {
+        final double compactionGarbageRatioThreshold =
+                configuration.getConfigData(MerkleDbConfig.class).compactionGarbageRatioThreshold();
+        if ((compactionGarbageRatioThreshold <= 0) || (compactionGarbageRatioThreshold > 1)) {
+            return new DefaultConfigViolation(
+                    "compactionGarbageRatioThreshold",
+                    "%f".formatted(compactionGarbageRatioThreshold),
+                    true,
+                    "Cannot configure compactionGarbageRatioThreshold to " + compactionGarbageRatioThreshold
+                            + ", it must be > 0 and <= 1");
+        }
+        return null;
+    }
+
+    public ConfigViolation leafRecordCacheTableSizesValidation(final Configuration configuration) {
+        final List<String> tableSizes = configuration.getConfigData(MerkleDbConfig.class).leafRecordCacheTableSizes();
+        if (tableSizes == null) {
+            return null;
+        }
+        for (final String tableSize : tableSizes) {
+            if (parseTableSize(tableSize) < 0) {
+                return new DefaultConfigViolation(
+                        "leafRecordCacheTableSizes",
+                        tableSize,
+                        true,
+                        "Cannot configure leafRecordCacheTableSizes entry " + tableSize
+                                + ", it must be in tableName=size format, where size >= 0");
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns leaf records cache size for the given table, in bytes.
+     *
+     * @param tableName the table name
+     * @return cache size, in bytes, or zero if the cache isn't used for the table
+     */
+    public long getLeafRecordCacheSize(final String tableName) {
+        final List<String> tableSizes = leafRecordCacheTableSizes();
+        if (tableSizes != null) {
+            for (final String tableSize : tableSizes) {
+                final int sep = tableSize.indexOf('=');
+                if ((sep > 0) && tableSize.substring(0, sep).trim().equals(tableName)) {
+                    return Math.max(0, parseTableSize(tableSize));
+                }
+            }
+        }
+        return leafRecordCacheSizeBytes();
+    }
+
+    /** Parses size from a "tableName=size" string. Returns -1, if the string is not in this format */
+    private static long parseTableSize(final String tableSize) {
+        final int sep = tableSize.indexOf('=');
+        if (sep <= 0) {
+            return -1;
+        }
+        try {
+            final long size = Long.parseLong(tableSize.substring(sep + 1).trim());
+            return size >= 0 ? size : -1;
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+
     public int getNumHalfDiskHashMapFlushThreads() {
         final int numProcessors = Runtime.getRuntime().availableProcessors();
         final int threads = (numHalfDiskHashMapFlushThreads() == -1)
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the rate at which compactions copy data, so background compactions don't starve flushes
+ * and snapshots of disk bandwidth. A single throttle instance is expected to be shared by all
+ * compactions, so the limit applies to all of them combined.
+ *
+ * <p>The throttle keeps track of the time when the budget is available again. Every copied data
+ * item moves this time forward proportionally to the item size. If the time is in the future,
+ * the compacting thread sleeps. Short delays are not slept immediately, they are accumulated
+ * until they exceed {@link #MIN_SLEEP_NANOS}. Budget unused during idle periods may only be used
+ * for short bursts, up to {@link #MAX_BURST_NANOS}.
+ *
+ * <p>This class is thread safe.
+ */
+public final class CompactionIoThrottle {
+
+    /** The throttle doesn't sleep for shorter periods, short delays are accumulated instead */
+    private static final long MIN_SLEEP_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /** Max period of unused budget, which can be consumed without throttling */
+    private static final long MAX_BURST_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /** Time to copy a single byte at the max allowed rate, in nanoseconds */
+    private final double nanosPerByte;
+
+    /** Time when the budget is available again, in {@link System#nanoTime()} units */
+    private long nextFreeNanos;
+
+    /**
+     * Creates a new throttle.
+     *
+     * @param bytesPerSecond max copying rate, in bytes per second
+     */
+    public CompactionIoThrottle(final long bytesPerSecond) {
+        if (bytesPerSecond <= 0) {
+            throw new IllegalArgumentException("Compaction I/O rate must be positive");
+        }
+        nanosPerByte = (double) TimeUnit.SECONDS.toNanos(1) / bytesPerSecond;
+        nextFreeNanos = System.nanoTime();
+    }
+
+    /**
+     * Accounts the given number of copied bytes. If the max rate is exceeded, blocks the current
+     * thread until the rate is back within the limit.
+     *
+     * @param bytes the number of bytes copied
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public void acquire(final long bytes) throws InterruptedException {
+        final long waitNanos;
+        synchronized (this) {
+            final long now = System.nanoTime();
+            nextFreeNanos = Math.max(nextFreeNanos, now - MAX_BURST_NANOS) + (long) (bytes * nanosPerByte);
+            waitNanos = nextFreeNanos - now;
+        }
+        if (waitNanos >= MIN_SLEEP_NANOS) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
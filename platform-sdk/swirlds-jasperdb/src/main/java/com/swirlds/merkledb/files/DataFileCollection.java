@@ -60,6 +60,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.Stream;
 import org.apache.logging.log4j.LogManager;
@@ -174,6 +175,17 @@ public class DataFileCollection<D> implements Snapshotable {
     private final ConcurrentSkipListSet<Integer> setOfNewFileIndexes =
             logger.isTraceEnabled() ? new ConcurrentSkipListSet<>() : null;
 
+    /**
+     * Number of memory-mapped reads from files, which have been deleted from this collection
+     * since the last call to {@link #getAndResetMemoryMappedReads()}.
+     */
+    private final LongAdder deletedFilesMemoryMappedReads = new LongAdder();
+    /**
+     * Number of file channel reads from files, which have been deleted from this collection
+     * since the last call to {@link #getAndResetFileChannelReads()}.
+     */
+    private final LongAdder deletedFilesFileChannelReads = new LongAdder();
+
     /**
      * Construct a new DataFileCollection.
      *
@@ -344,6 +356,98 @@ public class DataFileCollection<D> implements Snapshotable {
                         .summaryStatistics();
     }
 
+    /**
+     * Get the total size of all files in this collection mapped into memory.
+     *
+     * @return memory-mapped size, in bytes
+     */
+    public long getMemoryMappedFilesSize() {
+        final ImmutableIndexedObjectList<DataFileReader<D>> activeIndexedFiles = dataFiles.get();
+        return activeIndexedFiles == null
+                ? 0
+                : activeIndexedFiles.stream()
+                        .mapToLong(DataFileReader::getMemoryMappedSize)
+                        .sum();
+    }
+
+    /**
+     * Get the number of data items read from memory-mapped files in this collection since the
+     * last call to this method, and reset the counter.
+     *
+     * @return number of memory-mapped reads
+     */
+    public long getAndResetMemoryMappedReads() {
+        final ImmutableIndexedObjectList<DataFileReader<D>> activeIndexedFiles = dataFiles.get();
+        final long activeFilesReads = activeIndexedFiles == null
+                ? 0
+                : activeIndexedFiles.stream()
+                        .mapToLong(DataFileReader::getAndResetMemoryMappedReads)
+                        .sum();
+        return activeFilesReads + deletedFilesMemoryMappedReads.sumThenReset();
+    }
+
+    /**
+     * Get the number of data items read using file channels from files in this collection since
+     * the last call to this method, and reset the counter.
+     *
+     * @return number of file channel reads
+     */
+    public long getAndResetFileChannelReads() {
+        final ImmutableIndexedObjectList<DataFileReader<D>> activeIndexedFiles = dataFiles.get();
+        final long activeFilesReads = activeIndexedFiles == null
+                ? 0
+                : activeIndexedFiles.stream()
+                        .mapToLong(DataFileReader::getAndResetFileChannelReads)
+                        .sum();
+        return activeFilesReads + deletedFilesFileChannelReads.sumThenReset();
+    }
+
+    /**
+     * Marks a data item at the given location as dead, i.e. no longer referenced from the index.
+     * This method should be called when an index entry is overwritten or removed. Dead item counts
+     * are used to prioritize compactions, see {@link DataFileReader#getDeadItemsRatio()}.
+     *
+     * @param dataLocation the previous data location from the index, or 0 if there was no entry
+     */
+    public void markItemDead(final long dataLocation) {
+        if (dataLocation == 0) {
+            return;
+        }
+        final int fileIndex = fileIndexFromDataLocation(dataLocation);
+        final ImmutableIndexedObjectList<DataFileReader<D>> activeIndexedFiles = dataFiles.get();
+        if ((fileIndex < 0) || (activeIndexedFiles == null)) {
+            return;
+        }
+        final DataFileReader<D> reader = activeIndexedFiles.get(fileIndex);
+        // The file may be already compacted and deleted
+        if (reader != null) {
+            reader.markItemDead();
+        }
+    }
+
+    /**
+     * Get the space amplification of this collection, which is the ratio of total size of all
+     * fully written files to the estimated size of live data in these files. Live data size is
+     * estimated based on dead items ratios of the files. An amplification of 1 means there is no
+     * garbage in the files.
+     *
+     * @return space amplification, 1 or greater
+     */
+    public double getSpaceAmplification() {
+        long totalSize = 0;
+        double liveSize = 0;
+        for (final DataFileReader<D> reader : getAllCompletedFiles()) {
+            final long fileSize = reader.getSize();
+            totalSize += fileSize;
+            liveSize += fileSize * (1.0 - reader.getDeadItemsRatio());
+        }
+        if (totalSize == 0) {
+            return 1.0;
+        }
+        // Avoid infinite values if all data is dead
+        return totalSize / Math.max(liveSize, 1.0);
+    }
+
     /** Close all the data files */
     public void close() throws IOException {
         // finish writing if we still are
@@ -704,6 +808,9 @@ public class DataFileCollection<D> implements Snapshotable {
         // now close and delete all the files
         for (final DataFileReader<D> fileReader : files) {
             fileReader.close();
+            // keep read counts of the deleted files till the next stats update
+            deletedFilesMemoryMappedReads.add(fileReader.getAndResetMemoryMappedReads());
+            deletedFilesFileChannelReads.add(fileReader.getAndResetFileChannelReads());
             Files.delete(fileReader.getPath());
         }
     }
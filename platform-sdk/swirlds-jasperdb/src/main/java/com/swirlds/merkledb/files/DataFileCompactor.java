@@ -35,6 +35,7 @@ import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Semaphore;
@@ -96,6 +97,13 @@ public class DataFileCompactor<D> {
     @Nullable
     private final Runnable updateTotalStatsFunction;
 
+    /**
+     * Throttle to limit the rate at which data is copied during compaction, or null if compaction
+     * rate is not limited. The throttle is usually shared by all compactors
+     */
+    @Nullable
+    private final CompactionIoThrottle ioThrottle;
+
     /**
      * A lock used for synchronization between snapshots and compactions. While a compaction is in
      * progress, it runs on its own without any synchronization. However, a few critical sections
@@ -162,6 +170,39 @@ public class DataFileCompactor<D> {
             @Nullable final BiConsumer<Integer, Double> reportSavedSpaceMetricFunction,
             @Nullable final BiConsumer<Integer, Double> reportFileSizeByLevelMetricFunction,
             @Nullable Runnable updateTotalStatsFunction) {
+        this(
+                dbConfig,
+                storeName,
+                dataFileCollection,
+                index,
+                reportDurationMetricFunction,
+                reportSavedSpaceMetricFunction,
+                reportFileSizeByLevelMetricFunction,
+                updateTotalStatsFunction,
+                null);
+    }
+
+    /**
+     * @param dbConfig                       MerkleDb config
+     * @param storeName                      name of the store to compact
+     * @param dataFileCollection             data file collection to compact
+     * @param index                          index to update during compaction
+     * @param reportDurationMetricFunction   function to report how long compaction took, in ms
+     * @param reportSavedSpaceMetricFunction function to report how much space was compacted, in Mb
+     * @param reportFileSizeByLevelMetricFunction function to report how much spaсе is used by the store by compaction level, in Mb
+     * @param updateTotalStatsFunction       A function that updates statistics of total usage of disk space and off-heap space
+     * @param ioThrottle                     throttle to limit compaction rate, or null if the rate is not limited
+     */
+    public DataFileCompactor(
+            final MerkleDbConfig dbConfig,
+            final String storeName,
+            final DataFileCollection<D> dataFileCollection,
+            CASableLongIndex index,
+            @Nullable final BiConsumer<Integer, Long> reportDurationMetricFunction,
+            @Nullable final BiConsumer<Integer, Double> reportSavedSpaceMetricFunction,
+            @Nullable final BiConsumer<Integer, Double> reportFileSizeByLevelMetricFunction,
+            @Nullable Runnable updateTotalStatsFunction,
+            @Nullable final CompactionIoThrottle ioThrottle) {
         this.dbConfig = dbConfig;
         this.storeName = storeName;
         this.dataFileCollection = dataFileCollection;
@@ -170,6 +211,7 @@ public class DataFileCompactor<D> {
         this.reportSavedSpaceMetricFunction = reportSavedSpaceMetricFunction;
         this.reportFileSizeByLevelMetricFunction = reportFileSizeByLevelMetricFunction;
         this.updateTotalStatsFunction = updateTotalStatsFunction;
+        this.ioThrottle = ioThrottle;
     }
 
     /**
@@ -184,12 +226,32 @@ public class DataFileCompactor<D> {
      * @throws IOException          If there was a problem with the compaction
      * @throws InterruptedException If the compaction thread was interrupted
      */
-    synchronized List<Path> compactFiles(
+    List<Path> compactFiles(
             final CASableLongIndex index,
             final List<? extends DataFileReader<D>> filesToCompact,
             final int targetCompactionLevel)
             throws IOException, InterruptedException {
-        if (filesToCompact.size() < getMinNumberOfFilesToCompact()) {
+        return compactFiles(index, filesToCompact, targetCompactionLevel, getMinNumberOfFilesToCompact());
+    }
+
+    /**
+     * Compacts all files in compactionPlan, if there are at least {@code minFilesToCompact} of them.
+     *
+     * @param index          takes a map of moves from old location to new location
+     * @param filesToCompact list of files to compact
+     * @param targetCompactionLevel target compaction level
+     * @param minFilesToCompact min number of files to compact
+     * @return list of files created during the compaction
+     * @throws IOException          If there was a problem with the compaction
+     * @throws InterruptedException If the compaction thread was interrupted
+     */
+    synchronized List<Path> compactFiles(
+            final CASableLongIndex index,
+            final List<? extends DataFileReader<D>> filesToCompact,
+            final int targetCompactionLevel,
+            final int minFilesToCompact)
+            throws IOException, InterruptedException {
+        if (filesToCompact.isEmpty() || (filesToCompact.size() < minFilesToCompact)) {
             // nothing to do we have merged since the last data update
             logger.debug(MERKLE_DB.getMarker(), "No files were available for merging [{}]", storeName);
             return Collections.emptyList();
@@ -243,6 +305,7 @@ public class DataFileCompactor<D> {
                     return;
                 }
                 final long fileOffset = DataFileCommon.byteOffsetFromDataLocation(dataLocation);
+                final long copiedBytes;
                 // Take the lock. If a snapshot is started in a different thread, this call
                 // will block until the snapshot is done. The current file will be flushed,
                 // and current data file writer and reader will point to a new file
@@ -251,6 +314,7 @@ public class DataFileCompactor<D> {
                     final DataFileWriter<D> newFileWriter = currentWriter.get();
                     final BufferedData itemBytes = reader.readDataItemBytes(fileOffset);
                     assert itemBytes != null;
+                    copiedBytes = itemBytes.remaining();
                     long newLocation = newFileWriter.writeCopiedDataItem(itemBytes);
                     // update the index
                     index.putIfEqual(path, dataLocation, newLocation);
@@ -268,6 +332,10 @@ public class DataFileCompactor<D> {
                 } finally {
                     snapshotCompactionLock.release();
                 }
+                // Throttle outside the lock, so snapshots are never blocked by compaction rate limits
+                if (ioThrottle != null) {
+                    ioThrottle.acquire(copiedBytes);
+                }
             });
             allDataItemsProcessed = true;
         } finally {
@@ -404,9 +472,32 @@ public class DataFileCompactor<D> {
     public boolean compact() throws IOException, InterruptedException {
         final List<DataFileReader<D>> completedFiles = dataFileCollection.getAllCompletedFiles();
         reportFileSizeByLevel(completedFiles);
-        final List<DataFileReader<D>> filesToCompact =
-                compactionPlan(completedFiles, getMinNumberOfFilesToCompact(), dbConfig.maxCompactionLevel());
-        if (filesToCompact.isEmpty()) {
+        final List<DataFileReader<D>> filesToCompact = new ArrayList<>(
+                compactionPlan(completedFiles, getMinNumberOfFilesToCompact(), dbConfig.maxCompactionLevel()));
+        final List<DataFileReader<D>> garbageFiles =
+                garbageCompactionPlan(completedFiles, dbConfig.compactionGarbageRatioThreshold());
+        final int targetCompactionLevel;
+        final int minFilesToCompact;
+        if (!filesToCompact.isEmpty()) {
+            targetCompactionLevel = getTargetCompactionLevel(filesToCompact, filesToCompact.size());
+            minFilesToCompact = getMinNumberOfFilesToCompact();
+            // Files with lots of garbage from the levels being compacted are compacted, too
+            for (final DataFileReader<D> garbageFile : garbageFiles) {
+                if ((garbageFile.getMetadata().getCompactionLevel() <= targetCompactionLevel)
+                        && !filesToCompact.contains(garbageFile)) {
+                    filesToCompact.add(garbageFile);
+                }
+            }
+        } else if (!garbageFiles.isEmpty()) {
+            // Not enough files for a regular compaction, but some files are mostly garbage. Rewrite
+            // them to reclaim space, keeping live data at the same compaction level
+            filesToCompact.addAll(garbageFiles);
+            targetCompactionLevel = garbageFiles.stream()
+                    .mapToInt(r -> r.getMetadata().getCompactionLevel())
+                    .max()
+                    .orElse(INITIAL_COMPACTION_LEVEL);
+            minFilesToCompact = 1;
+        } else {
             logger.debug(MERKLE_DB.getMarker(), "[{}] No need to compact, as the compaction plan is empty", storeName);
             return false;
         }
@@ -414,8 +505,6 @@ public class DataFileCompactor<D> {
         final int filesCount = filesToCompact.size();
         logger.info(MERKLE_DB.getMarker(), "[{}] Starting compaction", storeName);
 
-        final int targetCompactionLevel = getTargetCompactionLevel(filesToCompact, filesCount);
-
         final long start = System.currentTimeMillis();
 
         final long filesToCompactSize = getSizeOfFiles(filesToCompact);
@@ -426,7 +515,8 @@ public class DataFileCompactor<D> {
                 filesCount,
                 formatSizeBytes(filesToCompactSize));
 
-        final List<Path> newFilesCreated = compactFiles(index, filesToCompact, targetCompactionLevel);
+        final List<Path> newFilesCreated =
+                compactFiles(index, filesToCompact, targetCompactionLevel, minFilesToCompact);
 
         final long end = System.currentTimeMillis();
         final long tookMillis = end - start;
@@ -527,6 +617,32 @@ public class DataFileCompactor<D> {
         return readersToCompact;
     }
 
+    /**
+     * This method selects files, which should be compacted because of the amount of garbage in them,
+     * regardless of their compaction levels. Files are scored by their dead items ratio, and all files
+     * with the ratio at or above the given threshold are returned, the most garbage first.
+     *
+     * @return files to compact to reclaim space
+     */
+    static <D> List<DataFileReader<D>> garbageCompactionPlan(
+            List<DataFileReader<D>> dataFileReaders, double garbageRatioThreshold) {
+        return dataFileReaders.stream()
+                .filter(r -> r.getDeadItemsRatio() >= garbageRatioThreshold)
+                .sorted(Comparator.comparingDouble((DataFileReader<D> r) -> r.getDeadItemsRatio())
+                        .reversed())
+                .toList();
+    }
+
+    /**
+     * Get the space amplification of the data file collection to compact. Compaction coordinator
+     * uses it to prioritize compactions of different stores.
+     *
+     * @return space amplification, 1 or greater
+     */
+    public double getSpaceAmplification() {
+        return dataFileCollection.getSpaceAmplification();
+    }
+
     private static <D> Map<Integer, List<DataFileReader<D>>> getReadersByLevel(
             final List<DataFileReader<D>> dataFileReaders) {
         return dataFileReaders.stream()
@@ -33,6 +33,7 @@ import java.nio.ByteBuffer;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -41,6 +42,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * The aim for a DataFileReader is to facilitate fast highly concurrent random reading of items from
@@ -78,6 +80,19 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
     private static final ThreadLocal<ByteBuffer> BUFFER_CACHE = new ThreadLocal<>();
     private static final ThreadLocal<BufferedData> BUFFEREDDATA_CACHE = new ThreadLocal<>();
 
+    /**
+     * Size of a single memory-mapped region. A mapped byte buffer can't be larger than 2Gb, so
+     * larger files are mapped as multiple regions.
+     */
+    private static final long MAPPED_REGION_SIZE = 1L << 30;
+
+    /**
+     * Number of bytes every mapped region extends past {@link #MAPPED_REGION_SIZE}, so data items
+     * that start close to the end of a region can still be read from that region. Items that
+     * don't fit into the overlap are read using file channels.
+     */
+    private static final long MAPPED_REGION_OVERLAP = 1L << 20;
+
     private final MerkleDbConfig dbConfig;
 
     /** Max number of file channels to use for reading */
@@ -124,6 +139,25 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
      */
     private final AtomicLong fileSizeBytes = new AtomicLong(0);
 
+    /**
+     * Read-only memory-mapped regions of this file. Only completed files are mapped, and only if
+     * {@link MerkleDbConfig#memoryMappedReadsEnabled()} is set. If null, all reads are done using
+     * file channels.
+     */
+    private volatile ByteBuffer[] mappedRegions = null;
+
+    /** Number of data items read from memory-mapped regions since the last stats update */
+    private final LongAdder memoryMappedReads = new LongAdder();
+    /** Number of data items read using file channels since the last stats update */
+    private final LongAdder fileChannelReads = new LongAdder();
+
+    /**
+     * Number of data items in this file, which are no longer referenced from the index, because
+     * they have been overwritten or removed. This counter isn't persisted, it's reset to zero when
+     * the file is loaded from disk
+     */
+    private final LongAdder deadItems = new LongAdder();
+
     /**
      * Open an existing data file, reading the metadata from the file
      *
@@ -178,10 +212,17 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
      * is created for an existing file, it's usually marked as completed immediately. If the reader
      * is created for a new file, which is still being written in a different thread, it's marked as
      * completed right after the file is fully written and the writer is closed.
+     *
+     * <p>Completed files are immutable. If memory-mapped reads are enabled in MerkleDb config, the
+     * file is mapped into memory here, and all subsequent reads are served from the mapping.
      */
     public void setFileCompleted() {
         try {
-            fileSizeBytes.set(fileChannels.get(0).size());
+            final long size = fileChannels.get(0).size();
+            fileSizeBytes.set(size);
+            if (dbConfig.memoryMappedReadsEnabled() && open.get()) {
+                mapFile(size);
+            }
         } catch (final IOException e) {
             throw new UncheckedIOException("Failed to update data file reader size", e);
         } finally {
@@ -314,6 +355,74 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
         return threadsPerFileChannel;
     }
 
+    /**
+     * Checks if this file is memory-mapped for reading.
+     *
+     * @return true if data items are read from memory-mapped regions rather than file channels
+     */
+    public boolean isMemoryMapped() {
+        return mappedRegions != null;
+    }
+
+    /**
+     * Get the number of bytes of this file mapped into memory. Regions overlap a little, so the
+     * number may be slightly larger than the file size.
+     *
+     * @return memory-mapped size in bytes, or zero if this file is not memory-mapped
+     */
+    public long getMemoryMappedSize() {
+        final ByteBuffer[] regions = mappedRegions;
+        if (regions == null) {
+            return 0;
+        }
+        long size = 0;
+        for (final ByteBuffer region : regions) {
+            size += region.capacity();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of data items read from memory-mapped regions since the last call to
+     * this method and resets the counter.
+     *
+     * @return number of memory-mapped reads
+     */
+    public long getAndResetMemoryMappedReads() {
+        return memoryMappedReads.sumThenReset();
+    }
+
+    /**
+     * Returns the number of data items read using file channels since the last call to this
+     * method and resets the counter.
+     *
+     * @return number of file channel reads
+     */
+    public long getAndResetFileChannelReads() {
+        return fileChannelReads.sumThenReset();
+    }
+
+    /**
+     * Marks a data item in this file as dead, i.e. no longer referenced from the index.
+     */
+    public void markItemDead() {
+        deadItems.increment();
+    }
+
+    /**
+     * Returns the fraction of data items in this file, which are no longer referenced from the
+     * index. For files, which are not fully written yet, the returned value is 0.
+     *
+     * @return dead items ratio, from 0 to 1
+     */
+    public double getDeadItemsRatio() {
+        final long itemsCount = metadata.getDataItemCount();
+        if (itemsCount == 0) {
+            return 0;
+        }
+        return Math.min(1.0, (double) deadItems.sum() / itemsCount);
+    }
+
     /**
      * Get if the DataFile is open for reading.
      *
@@ -326,6 +435,9 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
     @Override
     public void close() throws IOException {
         open.set(false);
+        // Mapped buffers can't be unmapped explicitly, they are released when garbage collected.
+        // Threads that are reading from the regions right now may still complete their reads
+        mappedRegions = null;
         for (int i = 0; i < maxFileChannels; i++) {
             final FileChannel fileChannel = fileChannels.getAndSet(i, null);
             if (fileChannel != null) {
@@ -337,6 +449,28 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
     // =================================================================================================================
     // Private methods
 
+    /**
+     * Maps this file into memory as a set of read-only regions. Each region, except the last one,
+     * is {@link #MAPPED_REGION_SIZE} plus {@link #MAPPED_REGION_OVERLAP} bytes long. A separate
+     * file channel is used for mapping, the mapping stays valid after the channel is closed.
+     *
+     * @param size the file size, in bytes
+     * @throws IOException
+     *      If an I/O error occurs
+     */
+    private void mapFile(final long size) throws IOException {
+        final int regionsCount = Math.toIntExact((size + MAPPED_REGION_SIZE - 1) / MAPPED_REGION_SIZE);
+        final ByteBuffer[] regions = new ByteBuffer[regionsCount];
+        try (final FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (int i = 0; i < regionsCount; i++) {
+                final long regionStart = i * MAPPED_REGION_SIZE;
+                final long regionSize = Math.min(MAPPED_REGION_SIZE + MAPPED_REGION_OVERLAP, size - regionStart);
+                regions[i] = fileChannel.map(MapMode.READ_ONLY, regionStart, regionSize);
+            }
+        }
+        mappedRegions = regions;
+    }
+
     /**
      * Opens a new file channel for reading the file, if the total number of channels opened is
      * less than {@link #maxFileChannels}. This method is safe to call from multiple threads.
@@ -426,6 +560,14 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
      * @throws ClosedChannelException if the file was closed
      */
     private BufferedData read(final long byteOffsetInFile) throws IOException {
+        final ByteBuffer[] regions = mappedRegions;
+        if (regions != null) {
+            final BufferedData mappedData = readMapped(regions, byteOffsetInFile);
+            if (mappedData != null) {
+                memoryMappedReads.increment();
+                return mappedData;
+            }
+        }
         // Buffer size to read data item tag and size. If the whole item is small and
         // fits into this buffer, there is no need to make an extra file read
         final int PRE_READ_BUF_SIZE = 2048;
@@ -466,6 +608,7 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
                 if (bytesRead >= sizeOfTag + sizeOfSize + size) {
                     readBuf.position(sizeOfTag + sizeOfSize);
                     readBuf.limit(sizeOfTag + sizeOfSize + size);
+                    fileChannelReads.increment();
                     return readBuf;
                 }
                 // Otherwise read it separately
@@ -483,6 +626,7 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
                 assert bytesRead == size : "Failed to read all data item bytes";
                 readBuf.position(0);
                 readBuf.limit(bytesRead);
+                fileChannelReads.increment();
                 return readBuf;
             } catch (final ClosedByInterruptException e) {
                 // If the thread and the channel are interrupted, propagate it to the callers
@@ -499,6 +643,58 @@ public final class DataFileReader<D> implements AutoCloseable, Comparable<DataFi
         throw new IOException("Failed to read from file, file channel keeps getting closed");
     }
 
+    /**
+     * Reads a data item from memory-mapped file regions. No data is copied, the returned buffer
+     * is a slice of the corresponding region. Unlike file channel reads, this method is safe to
+     * call from multiple threads at the same time without any leases.
+     *
+     * @param regions memory-mapped file regions
+     * @param byteOffsetInFile Offset of the data item in the file
+     * @return a buffer containing the data item bytes, or null if the item crosses the region
+     *      boundary, and it should be read using file channels instead
+     */
+    private static BufferedData readMapped(final ByteBuffer[] regions, final long byteOffsetInFile) {
+        final ByteBuffer region = regions[(int) (byteOffsetInFile / MAPPED_REGION_SIZE)];
+        final int offset = (int) (byteOffsetInFile % MAPPED_REGION_SIZE);
+        final int tag = readUnsignedVarInt(region, offset);
+        if (tag < 0) {
+            return null;
+        }
+        assert tag
+                == ((FIELD_DATAFILE_ITEMS.number() << TAG_FIELD_OFFSET) | ProtoConstants.WIRE_TYPE_DELIMITED.ordinal());
+        final int sizeOfTag = ProtoWriterTools.sizeOfUnsignedVarInt32(tag);
+        final int size = readUnsignedVarInt(region, offset + sizeOfTag);
+        if (size < 0) {
+            return null;
+        }
+        final int itemOffset = offset + sizeOfTag + ProtoWriterTools.sizeOfUnsignedVarInt32(size);
+        if (itemOffset + size > region.limit()) {
+            return null;
+        }
+        // Absolute slice() doesn't change region's position, so regions can be shared by threads
+        return BufferedData.wrap(region.slice(itemOffset, size));
+    }
+
+    /**
+     * Reads an unsigned var int from a byte buffer at the given absolute index. The buffer's
+     * position is not changed.
+     *
+     * @param buffer the buffer to read from
+     * @param index the index to read at
+     * @return the var int value, or -1 if the buffer ends before the var int is fully read
+     */
+    private static int readUnsignedVarInt(final ByteBuffer buffer, final int index) {
+        int result = 0;
+        for (int shift = 0, i = index; (shift < Integer.SIZE) && (i < buffer.limit()); shift += 7, i++) {
+            final byte b = buffer.get(i);
+            result |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        return -1;
+    }
+
     // Testing support
 
     int getFileChannelsCount() {
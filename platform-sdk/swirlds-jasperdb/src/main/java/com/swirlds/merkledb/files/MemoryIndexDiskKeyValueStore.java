@@ -132,6 +132,8 @@ public class MemoryIndexDiskKeyValueStore<D> implements AutoCloseable, Snapshota
      */
     public void put(final long key, final D dataItem) throws IOException {
         final long dataLocation = fileCollection.storeDataItem(dataItem);
+        // the previous data item for the key, if any, is now garbage
+        fileCollection.markItemDead(index.get(key, 0));
         // store data location in index
         index.put(key, dataLocation);
     }
@@ -231,6 +233,38 @@ public class MemoryIndexDiskKeyValueStore<D> implements AutoCloseable, Snapshota
         return fileCollection.getAllCompletedFilesSizeStatistics();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMemoryMappedFilesSize() {
+        return fileCollection.getMemoryMappedFilesSize();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getAndResetMemoryMappedReads() {
+        return fileCollection.getAndResetMemoryMappedReads();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getAndResetFileChannelReads() {
+        return fileCollection.getAndResetFileChannelReads();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getSpaceAmplification() {
+        return fileCollection.getSpaceAmplification();
+    }
+
     public DataFileCollection<D> getFileCollection() {
         return fileCollection;
     }
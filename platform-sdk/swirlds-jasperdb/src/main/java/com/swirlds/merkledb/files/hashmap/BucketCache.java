@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files.hashmap;
+
+import com.hedera.pbj.runtime.io.buffer.BufferedData;
+import com.swirlds.merkledb.collections.OffHeapUser;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.LongAdder;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.eclipse.collections.impl.map.mutable.primitive.IntIntHashMap;
+
+/**
+ * A bounded off-heap cache of serialized {@link HalfDiskHashMap} buckets, keyed by bucket index.
+ *
+ * <p>Every cached bucket is stored together with its data location, i.e. the bucket location
+ * from HDHM bucket index at the time when the bucket was read or written. Lookups are made with
+ * the current bucket location from the index. If the locations don't match, the bucket was
+ * updated during a flush or moved during compaction, and the cached copy is dropped. This way
+ * the cache never needs to be explicitly invalidated when bucket index changes.
+ *
+ * <p>The cache is split into a fixed number of segments to reduce lock contention. Each segment
+ * owns a direct byte buffer divided into equal slots, {@code slotSize} bytes each. Buckets larger
+ * than a slot are never cached. When a segment is full, a slot to evict is selected using CLOCK
+ * (second chance) algorithm.
+ *
+ * <p>This class is thread safe.
+ */
+public final class BucketCache implements OffHeapUser {
+
+    /** Number of cache segments. Must be a power of two */
+    private static final int SEGMENTS_COUNT = 16;
+
+    /** Cache segments */
+    private final Segment[] segments;
+
+    /** Slot size, in bytes */
+    private final int slotSize;
+
+    /** Number of cache hits since the last stats update */
+    private final LongAdder hits = new LongAdder();
+    /** Number of cache misses since the last stats update */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a new bucket cache.
+     *
+     * @param capacityBytes total cache capacity, in bytes
+     * @param slotSize slot size, in bytes. Buckets larger than this size are not cached
+     */
+    public BucketCache(final long capacityBytes, final int slotSize) {
+        if (slotSize <= 0) {
+            throw new IllegalArgumentException("Bucket cache slot size must be positive");
+        }
+        this.slotSize = slotSize;
+        // Every segment is backed by a single byte buffer, which can't be larger than 2Gb
+        final long slotsPerSegment =
+                Math.min(Math.max(1, capacityBytes / slotSize / SEGMENTS_COUNT), Integer.MAX_VALUE / slotSize);
+        segments = new Segment[SEGMENTS_COUNT];
+        for (int i = 0; i < SEGMENTS_COUNT; i++) {
+            segments[i] = new Segment((int) slotsPerSegment, slotSize);
+        }
+    }
+
+    /**
+     * Looks up a bucket in the cache. If found, and the cached bucket location matches the
+     * given location, the bucket contents are loaded into the provided bucket.
+     *
+     * @param bucketIndex the bucket index
+     * @param bucketLocation the current bucket location from HDHM bucket index
+     * @param bucket the bucket to load cached bucket contents into
+     * @return true if the bucket was found in the cache, false otherwise
+     */
+    public boolean get(final int bucketIndex, final long bucketLocation, @NonNull final Bucket<?> bucket) {
+        final boolean found = segmentFor(bucketIndex).get(bucketIndex, bucketLocation, bucket);
+        if (found) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return found;
+    }
+
+    /**
+     * Puts a bucket to the cache. If the bucket is larger than a cache slot, it isn't cached,
+     * and any previously cached bucket with the same index is removed from the cache.
+     *
+     * @param bucketIndex the bucket index
+     * @param bucketLocation the bucket location in HDHM bucket index, where the bucket is read from
+     *                       or written to
+     * @param bucket the bucket to cache
+     */
+    public void put(final int bucketIndex, final long bucketLocation, @NonNull final Bucket<?> bucket) {
+        final Segment segment = segmentFor(bucketIndex);
+        if (bucket.sizeInBytes() > slotSize) {
+            segment.invalidate(bucketIndex);
+        } else {
+            segment.put(bucketIndex, bucketLocation, bucket);
+        }
+    }
+
+    /**
+     * Removes a bucket with the given index from the cache, if present.
+     *
+     * @param bucketIndex the bucket index
+     */
+    public void invalidate(final int bucketIndex) {
+        segmentFor(bucketIndex).invalidate(bucketIndex);
+    }
+
+    /**
+     * Returns the number of cache hits since the last call to this method and resets the counter.
+     *
+     * @return number of cache hits
+     */
+    public long getAndResetHits() {
+        return hits.sumThenReset();
+    }
+
+    /**
+     * Returns the number of cache misses since the last call to this method and resets the counter.
+     *
+     * @return number of cache misses
+     */
+    public long getAndResetMisses() {
+        return misses.sumThenReset();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getOffHeapConsumption() {
+        long total = 0;
+        for (final Segment segment : segments) {
+            total += segment.data.capacity();
+        }
+        return total;
+    }
+
+    private Segment segmentFor(final int bucketIndex) {
+        // Bucket indices are derived from key hash codes, lower bits are distributed well enough
+        return segments[bucketIndex & (SEGMENTS_COUNT - 1)];
+    }
+
+    /**
+     * A single cache segment. All segment methods are synchronized.
+     */
+    private static final class Segment {
+
+        private static final int NO_SLOT = -1;
+
+        /** Off-heap storage for all slots in this segment */
+        private final ByteBuffer data;
+        /** Slot size, in bytes */
+        private final int slotSize;
+        /** Bucket index to slot mapping */
+        private final IntIntHashMap bucketToSlot = new IntIntHashMap();
+        /** Bucket indices stored in slots */
+        private final int[] slotBucketIndices;
+        /** Bucket locations stored in slots */
+        private final long[] slotBucketLocations;
+        /** Bucket sizes stored in slots */
+        private final int[] slotBucketSizes;
+        /** CLOCK reference bits */
+        private final boolean[] slotReferenced;
+        /** Slots, which are not used by any buckets */
+        private final IntArrayList freeSlots;
+        /** CLOCK hand */
+        private int clockHand = 0;
+
+        Segment(final int slotsCount, final int slotSize) {
+            this.slotSize = slotSize;
+            data = ByteBuffer.allocateDirect(slotsCount * slotSize);
+            slotBucketIndices = new int[slotsCount];
+            slotBucketLocations = new long[slotsCount];
+            slotBucketSizes = new int[slotsCount];
+            slotReferenced = new boolean[slotsCount];
+            freeSlots = new IntArrayList(slotsCount);
+            // Free slots are taken from the end of the list, so the first slot is used first
+            for (int i = slotsCount - 1; i >= 0; i--) {
+                freeSlots.add(i);
+            }
+        }
+
+        synchronized boolean get(final int bucketIndex, final long bucketLocation, final Bucket<?> bucket) {
+            final int slot = bucketToSlot.getIfAbsent(bucketIndex, NO_SLOT);
+            if (slot == NO_SLOT) {
+                return false;
+            }
+            if (slotBucketLocations[slot] != bucketLocation) {
+                // The bucket has been updated or moved since it was cached
+                freeSlot(slot);
+                return false;
+            }
+            slotReferenced[slot] = true;
+            bucket.readFrom(BufferedData.wrap(data.slice(slot * slotSize, slotBucketSizes[slot])));
+            return true;
+        }
+
+        synchronized void put(final int bucketIndex, final long bucketLocation, final Bucket<?> bucket) {
+            int slot = bucketToSlot.getIfAbsent(bucketIndex, NO_SLOT);
+            if (slot == NO_SLOT) {
+                slot = allocateSlot();
+                bucketToSlot.put(bucketIndex, slot);
+                slotBucketIndices[slot] = bucketIndex;
+            }
+            final int size = bucket.sizeInBytes();
+            bucket.writeTo(BufferedData.wrap(data.slice(slot * slotSize, size)));
+            slotBucketLocations[slot] = bucketLocation;
+            slotBucketSizes[slot] = size;
+            slotReferenced[slot] = true;
+        }
+
+        synchronized void invalidate(final int bucketIndex) {
+            final int slot = bucketToSlot.getIfAbsent(bucketIndex, NO_SLOT);
+            if (slot != NO_SLOT) {
+                freeSlot(slot);
+            }
+        }
+
+        /**
+         * Returns a free slot, if available, otherwise evicts a bucket using CLOCK algorithm: slots
+         * are scanned starting from the clock hand, recently referenced slots are given a second
+         * chance, and the first not referenced slot is evicted.
+         */
+        private int allocateSlot() {
+            if (!freeSlots.isEmpty()) {
+                return freeSlots.removeAtIndex(freeSlots.size() - 1);
+            }
+            final int slotsCount = slotReferenced.length;
+            while (slotReferenced[clockHand]) {
+                slotReferenced[clockHand] = false;
+                clockHand = (clockHand + 1) % slotsCount;
+            }
+            final int victim = clockHand;
+            clockHand = (clockHand + 1) % slotsCount;
+            bucketToSlot.remove(slotBucketIndices[victim]);
+            return victim;
+        }
+
+        private void freeSlot(final int slot) {
+            bucketToSlot.remove(slotBucketIndices[slot]);
+            slotReferenced[slot] = false;
+            freeSlots.add(slot);
+        }
+    }
+}
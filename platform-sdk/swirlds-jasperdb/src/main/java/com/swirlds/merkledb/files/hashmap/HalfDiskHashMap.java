@@ -36,21 +36,32 @@ import com.swirlds.merkledb.files.DataFileCollection.LoadedDataCallback;
 import com.swirlds.merkledb.files.DataFileReader;
 import com.swirlds.merkledb.serialize.KeySerializer;
 import com.swirlds.virtualmap.VirtualKey;
+import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.LongSummaryStatistics;
+import java.util.Objects;
 import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.collections.api.tuple.primitive.IntObjectPair;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
 import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
 
 /**
@@ -89,7 +100,10 @@ public class HalfDiskHashMap<K extends VirtualKey>
      * it is a matter of balance.
      */
     private static final long GOOD_AVERAGE_BUCKET_ENTRY_COUNT = 32;
-    /** The limit on the number of concurrent read tasks in {@code endWriting()} */
+    /**
+     * The limit on the number of concurrent read tasks in {@code endWriting()}. It's also the
+     * capacity of the queue of updated buckets waiting to be written
+     */
     private static final int MAX_IN_FLIGHT = 64;
 
     /**
@@ -119,6 +133,14 @@ public class HalfDiskHashMap<K extends VirtualKey>
     private final String storeName;
 
     private final BucketSerializer<K> bucketSerializer;
+    /**
+     * Off-heap cache of recently read and written buckets, or null if bucket caching is disabled
+     * in MerkleDb config
+     */
+    @Nullable
+    private final BucketCache bucketCache;
+    /** Time spent in different stages of the last flush */
+    private volatile FlushStageTimes lastFlushStageTimes = FlushStageTimes.EMPTY;
     /** Store for session data during a writing transaction */
     private IntObjectHashMap<BucketMutation<K>> oneTransactionsData = null;
     /**
@@ -256,6 +278,12 @@ public class HalfDiskHashMap<K extends VirtualKey>
         fileCollection = new DataFileCollection<>(
                 // Need: propagate MerkleDb config from the database
                 config, storeDir, storeName, legacyStoreName, bucketSerializer, loadedDataCallback);
+        bucketCache = config.bucketCacheSizeBytes() > 0
+                ? new BucketCache(config.bucketCacheSizeBytes(), config.bucketCacheSlotSize())
+                : null;
+        if (bucketIndexToBucketLocation instanceof LongListOffHeap bucketIndexOffHeap) {
+            bucketIndexOffHeap.enableDeltaSnapshots(config.indexDeltaSnapshotThreshold());
+        }
     }
 
     /**
@@ -303,6 +331,38 @@ public class HalfDiskHashMap<K extends VirtualKey>
         return fileCollection.getAllCompletedFilesSizeStatistics();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMemoryMappedFilesSize() {
+        return fileCollection.getMemoryMappedFilesSize();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getAndResetMemoryMappedReads() {
+        return fileCollection.getAndResetMemoryMappedReads();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getAndResetFileChannelReads() {
+        return fileCollection.getAndResetFileChannelReads();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getSpaceAmplification() {
+        return fileCollection.getSpaceAmplification();
+    }
+
     /**
      * Close this HalfDiskHashMap's data files. Once closed this HalfDiskHashMap can not be reused.
      * You should make sure you call close before system exit otherwise any files being written
@@ -429,7 +489,18 @@ public class HalfDiskHashMap<K extends VirtualKey>
         final ExecutorService flushExecutor = getFlushExecutor();
         final DataFileReader<Bucket<K>> dataFileReader;
         if (size > 0) {
-            final Queue<ReadBucketResult<K>> queue = new ConcurrentLinkedQueue<>();
+            // Flushing is a pipeline. Buckets are read and updated with changed keys in parallel on
+            // the flush executor, at most MAX_IN_FLIGHT buckets at a time. Since buckets are kept in
+            // their serialized form, updated buckets are ready to be written as is. Updated buckets
+            // are put to a bounded queue, and this thread drains it in batches and writes buckets to
+            // the new data file sequentially. The number of in-flight buckets provides backpressure:
+            // no new reads are submitted until the writer catches up
+            final BlockingQueue<ReadBucketResult<K>> queue = new ArrayBlockingQueue<>(MAX_IN_FLIGHT);
+            final List<ReadBucketResult<K>> writeBatch = new ArrayList<>(MAX_IN_FLIGHT);
+            final LongAdder readNanos = new LongAdder();
+            final LongAdder updateNanos = new LongAdder();
+            long writeNanos = 0;
+            long writerWaitNanos = 0;
             final Iterator<IntObjectPair<BucketMutation<K>>> iterator =
                     oneTransactionsData.keyValuesView().iterator();
 
@@ -443,38 +514,67 @@ public class HalfDiskHashMap<K extends VirtualKey>
                     IntObjectPair<BucketMutation<K>> keyValue = iterator.next();
                     final int bucketIndex = keyValue.getOne();
                     final BucketMutation<K> bucketMap = keyValue.getTwo();
-                    flushExecutor.execute(() -> readUpdateQueueBucket(bucketIndex, bucketMap, queue));
+                    flushExecutor.execute(
+                            () -> readUpdateQueueBucket(bucketIndex, bucketMap, queue, readNanos, updateNanos));
                     ++inFlight;
                 }
 
-                ReadBucketResult<K> res;
-                while ((res = queue.poll()) != null) {
+                // wait for at least one updated bucket, then take all buckets available as a batch
+                final long waitStart = System.nanoTime();
+                try {
+                    writeBatch.add(queue.take());
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for buckets to write", e);
+                }
+                queue.drainTo(writeBatch);
+                final long writeStart = System.nanoTime();
+                writerWaitNanos += writeStart - waitStart;
+
+                for (final ReadBucketResult<K> res : writeBatch) {
                     --inFlight;
                     if (res.error != null) {
                         throw new RuntimeException(res.error);
                     }
                     try (final Bucket<K> bucket = res.bucket) {
                         final int bucketIndex = bucket.getBucketIndex();
+                        // the previous bucket version, if any, is now garbage
+                        fileCollection.markItemDead(bucketIndexToBucketLocation.get(bucketIndex, 0));
                         if (bucket.isEmpty()) {
                             // bucket is missing or empty, remove it from the index
                             bucketIndexToBucketLocation.remove(bucketIndex);
+                            if (bucketCache != null) {
+                                bucketCache.invalidate(bucketIndex);
+                            }
                         } else {
                             // save bucket
                             final long bucketLocation = fileCollection.storeDataItem(bucket);
                             // update bucketIndexToBucketLocation
                             bucketIndexToBucketLocation.put(bucketIndex, bucketLocation);
+                            // updated buckets are likely to be read again soon, keep them cached
+                            if (bucketCache != null) {
+                                bucketCache.put(bucketIndex, bucketLocation, bucket);
+                            }
                         }
                     } finally {
                         ++processed;
                     }
                 }
+                writeBatch.clear();
+                writeNanos += System.nanoTime() - writeStart;
             }
             // close files session
             dataFileReader = fileCollection.endWriting(0, numOfBuckets);
             // we have updated all indexes so the data file can now be included in merges
             dataFileReader.setFileCompleted();
+            lastFlushStageTimes = new FlushStageTimes(
+                    TimeUnit.NANOSECONDS.toMillis(readNanos.sum()),
+                    TimeUnit.NANOSECONDS.toMillis(updateNanos.sum()),
+                    TimeUnit.NANOSECONDS.toMillis(writeNanos),
+                    TimeUnit.NANOSECONDS.toMillis(writerWaitNanos));
         } else {
             dataFileReader = null;
+            lastFlushStageTimes = FlushStageTimes.EMPTY;
         }
 
         // clear put cache
@@ -490,19 +590,29 @@ public class HalfDiskHashMap<K extends VirtualKey>
      * @param bucketIndex The bucket index
      * @param keyUpdates Key/value updates to apply to the bucket
      * @param queue The queue to put the bucket or exception to
+     * @param readNanos Accumulator for time spent reading the bucket
+     * @param updateNanos Accumulator for time spent updating the bucket
      */
     private void readUpdateQueueBucket(
-            final int bucketIndex, final BucketMutation<K> keyUpdates, final Queue<ReadBucketResult<K>> queue) {
+            final int bucketIndex,
+            final BucketMutation<K> keyUpdates,
+            final Queue<ReadBucketResult<K>> queue,
+            final LongAdder readNanos,
+            final LongAdder updateNanos) {
         try {
+            final long readStart = System.nanoTime();
             // The bucket will be closed on the lifecycle thread
-            Bucket<K> bucket = fileCollection.readDataItemUsingIndex(bucketIndexToBucketLocation, bucketIndex);
+            Bucket<K> bucket = readBucket(bucketIndex);
             if (bucket == null) {
                 // create a new bucket
                 bucket = bucketSerializer.getBucketPool().getBucket();
                 bucket.setBucketIndex(bucketIndex);
             }
+            final long updateStart = System.nanoTime();
+            readNanos.add(updateStart - readStart);
             // for each changed key in bucket, update bucket
             keyUpdates.forEachKeyValue(bucket::putValue);
+            updateNanos.add(System.nanoTime() - updateStart);
             queue.offer(new ReadBucketResult<>(bucket, null));
         } catch (final Exception e) {
             logger.error(EXCEPTION.getMarker(), "Failed to read / update bucket", e);
@@ -510,6 +620,15 @@ public class HalfDiskHashMap<K extends VirtualKey>
         }
     }
 
+    /**
+     * Get time spent in different stages of the last flush, see {@link #endWriting()}.
+     *
+     * @return flush stage times
+     */
+    public FlushStageTimes getLastFlushStageTimes() {
+        return lastFlushStageTimes;
+    }
+
     // =================================================================================================================
     // Reading API - Multi thead safe
 
@@ -528,7 +647,7 @@ public class HalfDiskHashMap<K extends VirtualKey>
         }
         final int keyHash = key.hashCode();
         final int bucketIndex = computeBucketIndex(keyHash);
-        try (final Bucket<K> bucket = fileCollection.readDataItemUsingIndex(bucketIndexToBucketLocation, bucketIndex)) {
+        try (final Bucket<K> bucket = readBucket(bucketIndex)) {
             if (bucket != null) {
                 return bucket.findValue(keyHash, key, notFoundValue);
             }
@@ -536,6 +655,53 @@ public class HalfDiskHashMap<K extends VirtualKey>
         return notFoundValue;
     }
 
+    /**
+     * Get values for multiple keys from this map. Keys are grouped by bucket index, so every bucket
+     * is read from disk and deserialized at most once, even if many of the keys fall into it.
+     * Different buckets are read in parallel.
+     *
+     * @param keys the keys to get values for
+     * @param notFoundValue the value to return for keys not found in the map
+     * @return an array of values retrieved from the map, in the same order as {@code keys}. For
+     *     keys that aren't found, the corresponding array element is {@code notFoundValue}
+     * @throws IOException If there was a problem reading from the map
+     */
+    public long[] getAll(@NonNull final List<K> keys, final long notFoundValue) throws IOException {
+        Objects.requireNonNull(keys);
+        final long[] values = new long[keys.size()];
+        Arrays.fill(values, notFoundValue);
+        // Bucket index -> indices of all the keys in the list that fall into this bucket
+        final IntObjectHashMap<IntArrayList> keysByBucket = new IntObjectHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            final K key = keys.get(i);
+            if (key == null) {
+                throw new IllegalArgumentException("Can not get a null key");
+            }
+            keysByBucket
+                    .getIfAbsentPut(computeBucketIndex(key.hashCode()), IntArrayList::new)
+                    .add(i);
+        }
+        try {
+            IntStream.of(keysByBucket.keySet().toArray()).parallel().forEach(bucketIndex -> {
+                final IntArrayList keyIndices = keysByBucket.get(bucketIndex);
+                try (final Bucket<K> bucket = readBucket(bucketIndex)) {
+                    if (bucket != null) {
+                        for (int j = 0; j < keyIndices.size(); j++) {
+                            final int keyIndex = keyIndices.get(j);
+                            final K key = keys.get(keyIndex);
+                            values[keyIndex] = bucket.findValue(key.hashCode(), key, notFoundValue);
+                        }
+                    }
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return values;
+    }
+
     // =================================================================================================================
     // Debugging Print API
 
@@ -564,6 +730,16 @@ public class HalfDiskHashMap<K extends VirtualKey>
         return bucketIndexToBucketLocation;
     }
 
+    /**
+     * Get the bucket cache used by this map.
+     *
+     * @return the bucket cache, or null if bucket caching is disabled
+     */
+    @Nullable
+    public BucketCache getBucketCache() {
+        return bucketCache;
+    }
+
     // =================================================================================================================
     // Private API
 
@@ -578,6 +754,55 @@ public class HalfDiskHashMap<K extends VirtualKey>
         return (numOfBuckets - 1) & keyHash;
     }
 
+    /**
+     * Reads a bucket with the given index. If bucket cache is enabled, the bucket is looked up in
+     * the cache first. Buckets read from disk are put to the cache.
+     *
+     * <p>The bucket location is read from the index before the bucket is read from disk. If the
+     * index is updated in parallel, the bucket may be read from a newer location than the one it's
+     * cached with. It's safe, as such cache entry never matches the current location later and is
+     * dropped on the next lookup.
+     *
+     * @param bucketIndex the bucket index
+     * @return the bucket, or null if there is no bucket with the given index. The caller is
+     *      responsible for closing the bucket
+     * @throws IOException If there was a problem reading the bucket from disk
+     */
+    private Bucket<K> readBucket(final int bucketIndex) throws IOException {
+        if (bucketCache == null) {
+            return fileCollection.readDataItemUsingIndex(bucketIndexToBucketLocation, bucketIndex);
+        }
+        final long bucketLocation = bucketIndexToBucketLocation.get(bucketIndex, LongList.IMPERMISSIBLE_VALUE);
+        if (bucketLocation == LongList.IMPERMISSIBLE_VALUE) {
+            return null;
+        }
+        final Bucket<K> cachedBucket = bucketSerializer.getBucketPool().getBucket();
+        if (bucketCache.get(bucketIndex, bucketLocation, cachedBucket)) {
+            return cachedBucket;
+        }
+        cachedBucket.close();
+        final Bucket<K> bucket = fileCollection.readDataItemUsingIndex(bucketIndexToBucketLocation, bucketIndex);
+        if (bucket != null) {
+            bucketCache.put(bucketIndex, bucketLocation, bucket);
+        }
+        return bucket;
+    }
+
+    /**
+     * Time spent in different stages of a flush, in milliseconds. Read and update stages run in
+     * parallel on multiple threads, their times are summed across all threads. Write and writer
+     * wait times are measured on the single writing thread.
+     *
+     * @param readMs time spent reading buckets from disk or bucket cache
+     * @param updateMs time spent applying key updates to buckets
+     * @param writeMs time spent writing updated buckets to the new data file
+     * @param writerWaitMs time the writing thread waited for buckets to be read and updated
+     */
+    public record FlushStageTimes(long readMs, long updateMs, long writeMs, long writerWaitMs) {
+        /** Stage times for a flush with no changes */
+        public static final FlushStageTimes EMPTY = new FlushStageTimes(0, 0, 0, 0);
+    }
+
     private record ReadBucketResult<K extends VirtualKey>(Bucket<K> bucket, Throwable error) {
         public ReadBucketResult {
             assert (bucket != null) ^ (error != null);
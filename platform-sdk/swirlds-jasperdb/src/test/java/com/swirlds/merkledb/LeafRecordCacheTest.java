@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LeafRecordCacheTest {
+
+    private static final int ENTRY_SIZE = 100;
+
+    @Test
+    void putAndGet() {
+        final LeafRecordCache<Long, String> cache = new LeafRecordCache<>(1024 * 1024, v -> ENTRY_SIZE);
+        cache.put(1L, "one");
+        assertEquals("one", cache.get(1L), "Wrong cached value");
+        assertNull(cache.get(2L), "Value must not be found in cache");
+        assertEquals(1, cache.getAndResetHits(), "Wrong number of hits");
+        assertEquals(1, cache.getAndResetMisses(), "Wrong number of misses");
+        assertEquals(0, cache.getAndResetHits(), "Hits must be reset");
+
+        cache.put(1L, "uno");
+        assertEquals("uno", cache.get(1L), "Cached value must be replaced");
+        assertEquals(ENTRY_SIZE, cache.getSizeBytes(), "Wrong cache size");
+    }
+
+    @Test
+    void invalidate() {
+        final LeafRecordCache<Long, String> cache = new LeafRecordCache<>(1024 * 1024, v -> ENTRY_SIZE);
+        cache.put(1L, "one");
+        cache.invalidate(1L);
+        assertNull(cache.get(1L), "Invalidated value must not be found");
+        assertEquals(0, cache.getSizeBytes(), "Wrong cache size");
+        // Invalidating a missing key is a no-op
+        cache.invalidate(2L);
+    }
+
+    @Test
+    void sizeIsBounded() {
+        final long capacity = 1000L * ENTRY_SIZE;
+        final LeafRecordCache<Long, String> cache = new LeafRecordCache<>(capacity, v -> ENTRY_SIZE);
+        for (long i = 0; i < 100_000; i++) {
+            cache.put(i, Long.toString(i));
+        }
+        assertTrue(cache.getSizeBytes() <= capacity, "Cache size must not exceed capacity");
+        assertTrue(cache.getAndResetEvictions() + cache.getAndResetRejections() > 0, "Entries must be evicted");
+    }
+
+    @Test
+    void largeEntriesAreNotCached() {
+        final LeafRecordCache<Long, String> cache = new LeafRecordCache<>(1024 * 1024, String::length);
+        cache.put(1L, "x".repeat(1024 * 1024));
+        assertNull(cache.get(1L), "Large entries must not be cached");
+        assertEquals(0, cache.getSizeBytes(), "Wrong cache size");
+    }
+
+    @Test
+    void hotEntriesSurviveScans() {
+        final int hotKeys = 500;
+        final LeafRecordCache<Long, String> cache = new LeafRecordCache<>(2000L * ENTRY_SIZE, v -> ENTRY_SIZE);
+        long scanKey = 1_000_000;
+        for (int round = 0; round < 20; round++) {
+            for (long i = 0; i < hotKeys; i++) {
+                if (cache.get(i) == null) {
+                    cache.put(i, Long.toString(i));
+                }
+            }
+            // A scan of cold keys, each accessed once, several times larger than the cache
+            for (int i = 0; i < 10_000; i++, scanKey++) {
+                if (cache.get(scanKey) == null) {
+                    cache.put(scanKey, Long.toString(scanKey));
+                }
+            }
+        }
+        cache.getAndResetHits();
+        cache.getAndResetMisses();
+        for (long i = 0; i < hotKeys; i++) {
+            cache.get(i);
+        }
+        assertTrue(cache.getAndResetHits() > hotKeys * 9L / 10, "Most hot entries must stay in cache");
+    }
+}
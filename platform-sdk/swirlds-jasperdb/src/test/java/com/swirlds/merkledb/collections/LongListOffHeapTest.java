@@ -21,14 +21,18 @@ import static com.swirlds.merkledb.collections.AbstractLongList.DEFAULT_MAX_LONG
 import static com.swirlds.merkledb.collections.AbstractLongList.DEFAULT_NUM_LONGS_PER_CHUNK;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.swirlds.common.test.fixtures.io.ResourceLoader;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.MethodOrderer;
@@ -250,4 +254,54 @@ class LongListOffHeapTest extends AbstractLongListTest<LongListOffHeap> {
             }
         }
     }
+
+    @Test
+    void deltaSnapshots() throws IOException {
+        final int numLongsPerChunk = 100;
+        try (final LongListOffHeap list = new LongListOffHeap(numLongsPerChunk, 100_000, 0)) {
+            list.enableDeltaSnapshots(50);
+            for (long i = 1; i < 10_000; i++) {
+                list.put(i, i);
+            }
+            // The first snapshot is full
+            final Path fullFile = testDirectory.resolve("full.ll");
+            list.writeToFile(fullFile);
+            assertFalse(Files.exists(AbstractLongList.deltaFileFor(fullFile)), "First snapshot must be full");
+
+            // Update a few chunks, shrink the list from the left, and grow it to the right
+            list.put(150, 1150);
+            list.put(5_555, 6_555);
+            list.remove(7_000);
+            list.updateValidRange(250, 10_499);
+            list.put(10_499, 20_499);
+            final Path deltaSnapshotFile = testDirectory.resolve("delta.ll");
+            list.writeToFile(deltaSnapshotFile);
+            assertTrue(Files.exists(AbstractLongList.deltaFileFor(deltaSnapshotFile)), "Delta file must be written");
+            // The full snapshot may be deleted, the delta snapshot must still be readable
+            Files.delete(fullFile);
+
+            try (final LongListOffHeap fromDelta = new LongListOffHeap(deltaSnapshotFile);
+                    final LongListDisk diskFromDelta = new LongListDisk(deltaSnapshotFile)) {
+                for (final LongList loaded : List.of(fromDelta, diskFromDelta)) {
+                    assertEquals(list.size(), loaded.size(), "Wrong size");
+                    for (long i = 0; i < list.size(); i++) {
+                        assertEquals(list.get(i), loaded.get(i), "Wrong value at index " + i);
+                    }
+                }
+            }
+
+            // Too many modified chunks, the next snapshot is full
+            for (long i = 250; i < 10_000; i++) {
+                list.put(i, i + 1);
+            }
+            final Path nextFile = testDirectory.resolve("next.ll");
+            list.writeToFile(nextFile);
+            assertFalse(Files.exists(AbstractLongList.deltaFileFor(nextFile)), "Snapshot must be full");
+            try (final LongListOffHeap loaded = new LongListOffHeap(nextFile)) {
+                for (long i = 0; i < list.size(); i++) {
+                    assertEquals(list.get(i), loaded.get(i), "Wrong value at index " + i);
+                }
+            }
+        }
+    }
 }
@@ -18,6 +18,7 @@ package com.swirlds.merkledb.files;
 
 import static com.swirlds.common.test.fixtures.RandomUtils.nextInt;
 import static com.swirlds.merkledb.files.DataFileCompactor.compactionPlan;
+import static com.swirlds.merkledb.files.DataFileCompactor.garbageCompactionPlan;
 import static java.util.Collections.emptyList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
@@ -157,4 +158,26 @@ class DataFileCompactorTest {
                 compactionPlan(Arrays.asList(firstLevel1, secondLevel1, secondLevel2), 3, 5);
         assertEquals(0, result.size());
     }
+
+    @Test
+    void testGarbageCompactionPlan() {
+        when(initialLevel1.getDeadItemsRatio()).thenReturn(0.1);
+        when(firstLevel1.getDeadItemsRatio()).thenReturn(0.9);
+        when(secondLevel1.getDeadItemsRatio()).thenReturn(0.6);
+        when(secondLevel2.getDeadItemsRatio()).thenReturn(0.5);
+        List<? extends DataFileReader<Object>> result = garbageCompactionPlan(
+                Arrays.asList(initialLevel1, firstLevel1, secondLevel1, secondLevel2), 0.6);
+        assertEquals(2, result.size());
+        // the most garbage first
+        assertEquals(firstLevel1, result.get(0));
+        assertEquals(secondLevel1, result.get(1));
+    }
+
+    @Test
+    void testGarbageCompactionPlan_noGarbage() {
+        assertEquals(
+                0,
+                garbageCompactionPlan(Arrays.asList(initialLevel1, firstLevel1), 0.5)
+                        .size());
+    }
 }
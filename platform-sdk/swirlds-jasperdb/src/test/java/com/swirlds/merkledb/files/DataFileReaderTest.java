@@ -16,14 +16,20 @@
 
 package com.swirlds.merkledb.files;
 
+import static com.swirlds.merkledb.files.DataFileCompactor.INITIAL_COMPACTION_LEVEL;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.MockitoAnnotations.openMocks;
 
 import com.swirlds.common.config.singleton.ConfigurationHolder;
+import com.swirlds.common.io.utility.LegacyTemporaryFileBuilder;
+import com.swirlds.config.api.ConfigurationBuilder;
+import com.swirlds.config.extensions.sources.SimpleConfigSource;
 import com.swirlds.merkledb.config.MerkleDbConfig;
 import com.swirlds.merkledb.test.fixtures.ExampleFixedSizeDataSerializer;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -132,6 +138,46 @@ class DataFileReaderTest {
         assertEquals(2, dataFileReader.leaseFileChannel());
     }
 
+    @Test
+    void testMemoryMappedReads() throws IOException {
+        final MerkleDbConfig mmapConfig = ConfigurationBuilder.create()
+                .withSources(new SimpleConfigSource("merkleDb.memoryMappedReadsEnabled", true))
+                .withConfigDataType(MerkleDbConfig.class)
+                .build()
+                .getConfigData(MerkleDbConfig.class);
+        final Path dir = LegacyTemporaryFileBuilder.buildTemporaryDirectory("testMemoryMappedReads");
+        final ExampleFixedSizeDataSerializer serializer = new ExampleFixedSizeDataSerializer();
+        final DataFileWriter<long[]> writer =
+                new DataFileWriter<>("test", dir, 0, serializer, Instant.now(), INITIAL_COMPACTION_LEVEL);
+        final int count = 1000;
+        final long[] locations = new long[count];
+        for (int i = 0; i < count; i++) {
+            locations[i] = writer.storeDataItem(new long[] {i, i * 3L});
+        }
+        writer.finishWriting();
+
+        final DataFileReader<long[]> reader =
+                new DataFileReader<>(mmapConfig, writer.getPath(), serializer, writer.getMetadata());
+        try {
+            // Files are only mapped when completed
+            assertFalse(reader.isMemoryMapped(), "Incomplete file must not be memory-mapped");
+            assertArrayEquals(new long[] {1, 3}, reader.readDataItem(locations[1]));
+            assertEquals(1, reader.getAndResetFileChannelReads(), "Unexpected file channel reads");
+
+            reader.setFileCompleted();
+            assertTrue(reader.isMemoryMapped(), "Completed file must be memory-mapped");
+            assertTrue(reader.getMemoryMappedSize() >= reader.getSize(), "Whole file must be mapped");
+            for (int i = 0; i < count; i++) {
+                assertArrayEquals(new long[] {i, i * 3L}, reader.readDataItem(locations[i]));
+            }
+            assertEquals(count, reader.getAndResetMemoryMappedReads(), "Unexpected memory-mapped reads");
+            assertEquals(0, reader.getAndResetFileChannelReads(), "Unexpected file channel reads");
+        } finally {
+            reader.close();
+        }
+        assertFalse(reader.isMemoryMapped(), "Closed file must not be memory-mapped");
+    }
+
     @AfterEach
     public void tearDown() {
         file.deleteOnExit();
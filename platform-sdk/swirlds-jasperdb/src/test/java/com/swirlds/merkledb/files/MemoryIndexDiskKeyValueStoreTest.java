@@ -291,4 +291,30 @@ class MemoryIndexDiskKeyValueStoreTest {
         deleteDirectoryAndContents(tempDir);
         deleteDirectoryAndContents(tempSnapshotDir);
     }
+
+    @ParameterizedTest
+    @EnumSource(FilesTestType.class)
+    void overwrittenItemsAreGarbage(final FilesTestType testType) throws Exception {
+        final Path tempDir = testDirectory.resolve("overwrittenItemsAreGarbage");
+        final LongListOffHeap index = new LongListOffHeap();
+        final MerkleDbConfig dbConfig = ConfigurationHolder.getConfigData(MerkleDbConfig.class);
+        final MemoryIndexDiskKeyValueStore<long[]> store = new MemoryIndexDiskKeyValueStore<>(
+                dbConfig, tempDir, "overwrittenItemsAreGarbage", null, testType.dataItemSerializer, null, index);
+        writeBatch(testType, store, 0, 1000, 1000, 1234);
+        assertEquals(1.0, store.getSpaceAmplification(), "No garbage expected");
+        // overwrite half of the items
+        writeBatch(testType, store, 0, 500, 1000, 5678);
+        checkRange(testType, store, 0, 500, 5678);
+        checkRange(testType, store, 500, 500, 1234);
+        final DataFileReader<long[]> firstFile =
+                store.getFileCollection().getAllCompletedFiles().get(0);
+        assertEquals(0.5, firstFile.getDeadItemsRatio(), "Half of the first file must be garbage");
+        final DataFileReader<long[]> secondFile =
+                store.getFileCollection().getAllCompletedFiles().get(1);
+        assertEquals(0.0, secondFile.getDeadItemsRatio(), "No garbage expected in the second file");
+        assertTrue(store.getSpaceAmplification() > 1.0, "Space amplification must reflect garbage");
+        store.close();
+        index.close();
+        deleteDirectoryAndContents(tempDir);
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.merkledb.files.hashmap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.merkledb.test.fixtures.ExampleLongKeyFixedSize;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+class BucketCacheTest {
+
+    private static final int SLOT_SIZE = 1024;
+
+    private final ExampleLongKeyFixedSize.Serializer keySerializer = new ExampleLongKeyFixedSize.Serializer();
+
+    private Bucket<ExampleLongKeyFixedSize> createBucket(final int bucketIndex, final int entries) {
+        final Bucket<ExampleLongKeyFixedSize> bucket = new Bucket<>(keySerializer);
+        bucket.setBucketIndex(bucketIndex);
+        for (int i = 0; i < entries; i++) {
+            bucket.putValue(new ExampleLongKeyFixedSize(bucketIndex * 1000L + i), i);
+        }
+        return bucket;
+    }
+
+    @Test
+    void putAndGet() throws IOException {
+        final BucketCache cache = new BucketCache(1024 * 1024, SLOT_SIZE);
+        final Bucket<ExampleLongKeyFixedSize> bucket = createBucket(5, 10);
+        cache.put(5, 100, bucket);
+
+        final Bucket<ExampleLongKeyFixedSize> loaded = new Bucket<>(keySerializer);
+        assertTrue(cache.get(5, 100, loaded), "Bucket must be found in cache");
+        assertEquals(5, loaded.getBucketIndex(), "Wrong bucket index");
+        assertEquals(10, loaded.getBucketEntryCount(), "Wrong bucket entry count");
+        final ExampleLongKeyFixedSize key = new ExampleLongKeyFixedSize(5003);
+        assertEquals(3, loaded.findValue(key.hashCode(), key, -1), "Wrong value");
+
+        assertFalse(cache.get(6, 100, loaded), "Bucket must not be found in cache");
+        assertEquals(1, cache.getAndResetHits(), "Wrong number of hits");
+        assertEquals(1, cache.getAndResetMisses(), "Wrong number of misses");
+    }
+
+    @Test
+    void staleLocationIsMiss() {
+        final BucketCache cache = new BucketCache(1024 * 1024, SLOT_SIZE);
+        cache.put(5, 100, createBucket(5, 10));
+        final Bucket<ExampleLongKeyFixedSize> loaded = new Bucket<>(keySerializer);
+        assertFalse(cache.get(5, 200, loaded), "Bucket with a different location must not be found");
+        // Stale entry is dropped from the cache
+        assertFalse(cache.get(5, 100, loaded), "Stale bucket must be removed from cache");
+    }
+
+    @Test
+    void invalidate() {
+        final BucketCache cache = new BucketCache(1024 * 1024, SLOT_SIZE);
+        cache.put(5, 100, createBucket(5, 10));
+        cache.invalidate(5);
+        assertFalse(cache.get(5, 100, new Bucket<>(keySerializer)), "Invalidated bucket must not be found");
+    }
+
+    @Test
+    void largeBucketsAreNotCached() {
+        final BucketCache cache = new BucketCache(1024 * 1024, SLOT_SIZE);
+        cache.put(5, 100, createBucket(5, 10));
+        final Bucket<ExampleLongKeyFixedSize> largeBucket = createBucket(5, 200);
+        assertTrue(largeBucket.sizeInBytes() > SLOT_SIZE);
+        cache.put(5, 200, largeBucket);
+        final Bucket<ExampleLongKeyFixedSize> loaded = new Bucket<>(keySerializer);
+        assertFalse(cache.get(5, 200, loaded), "Large bucket must not be cached");
+        assertFalse(cache.get(5, 100, loaded), "Previously cached bucket must be removed");
+    }
+
+    @Test
+    void evictionKeepsCapacity() {
+        // A single slot per segment, bucket indices 0, 16, 32, ... all go to the same segment
+        final BucketCache cache = new BucketCache(16 * SLOT_SIZE, SLOT_SIZE);
+        assertEquals(16L * SLOT_SIZE, cache.getOffHeapConsumption(), "Wrong off-heap consumption");
+        cache.put(0, 100, createBucket(0, 5));
+        cache.put(16, 200, createBucket(16, 5));
+        final Bucket<ExampleLongKeyFixedSize> loaded = new Bucket<>(keySerializer);
+        assertFalse(cache.get(0, 100, loaded), "Bucket must be evicted");
+        assertTrue(cache.get(16, 200, loaded), "Bucket must be cached");
+        assertEquals(16, loaded.getBucketIndex(), "Wrong bucket index");
+    }
+}
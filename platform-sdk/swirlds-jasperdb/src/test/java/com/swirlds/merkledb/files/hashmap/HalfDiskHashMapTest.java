@@ -18,6 +18,9 @@ package com.swirlds.merkledb.files.hashmap;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.swirlds.common.config.singleton.ConfigurationHolder;
 import com.swirlds.common.io.streams.SerializableDataInputStream;
@@ -29,6 +32,8 @@ import com.swirlds.merkledb.test.fixtures.ExampleLongKeyFixedSize;
 import com.swirlds.virtualmap.VirtualLongKey;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -186,6 +191,54 @@ class HalfDiskHashMapTest {
         checkData(testType, map, 600, 400, 1);
     }
 
+    @ParameterizedTest
+    @EnumSource(FilesTestType.class)
+    void getAllMatchesGet(FilesTestType testType) throws Exception {
+        // create map
+        final HalfDiskHashMap<VirtualLongKey> map = createNewTempMap(testType, 1000);
+        // create some data
+        createSomeData(testType, map, 0, 1000, 3);
+        // request existing keys, missing keys, and duplicates
+        final List<VirtualLongKey> keys = new ArrayList<>();
+        for (int i = 0; i < 1500; i += 7) {
+            keys.add(testType.createVirtualLongKey(i));
+        }
+        keys.add(testType.createVirtualLongKey(42));
+        final long[] values = map.getAll(keys, -1);
+        assertEquals(keys.size(), values.length, "Expected a value for every key");
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(map.get(keys.get(i), -1), values[i], "Unexpected value for key " + keys.get(i));
+        }
+        assertEquals(42 * 3, values[values.length - 1], "Unexpected value for duplicate key");
+        assertEquals(0, map.getAll(List.of(), -1).length, "Expected no values for no keys");
+    }
+
+    @Test
+    void flushStageTimes() throws IOException {
+        final FilesTestType testType = FilesTestType.fixed;
+        try (final HalfDiskHashMap<VirtualLongKey> map = createNewTempMap(testType, 1000)) {
+            assertEquals(HalfDiskHashMap.FlushStageTimes.EMPTY, map.getLastFlushStageTimes());
+            // many more buckets than concurrent read tasks, so the writer has to wait for them
+            map.startWriting();
+            for (int i = 0; i < 10_000; i++) {
+                map.put(testType.createVirtualLongKey(i), i);
+            }
+            assertNotNull(map.endWriting(), "Expected a new data file");
+            final HalfDiskHashMap.FlushStageTimes stageTimes = map.getLastFlushStageTimes();
+            assertTrue(stageTimes.readMs() >= 0, "Read time must not be negative");
+            assertTrue(stageTimes.updateMs() >= 0, "Update time must not be negative");
+            assertTrue(stageTimes.writeMs() >= 0, "Write time must not be negative");
+            assertTrue(stageTimes.writerWaitMs() >= 0, "Writer wait time must not be negative");
+            for (int i = 0; i < 10_000; i++) {
+                assertEquals(i, map.get(testType.createVirtualLongKey(i), -1), "Unexpected value for key " + i);
+            }
+            // empty flush
+            map.startWriting();
+            assertNull(map.endWriting(), "Expected no data file for an empty flush");
+            assertEquals(HalfDiskHashMap.FlushStageTimes.EMPTY, map.getLastFlushStageTimes());
+        }
+    }
+
     @Test
     void testOverwritesWithCollision() throws IOException {
         final FilesTestType testType = FilesTestType.fixed;
@@ -31,9 +31,11 @@ import com.swirlds.platform.test.fixtures.event.source.EventSource;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
@@ -50,12 +52,17 @@ import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.openjdk.jmh.runner.options.TimeValue;
 
+/**
+ * Measures the time it takes consensus to process a graph of events. {@link #eventsPerSecond} processes a graph it has
+ * not seen before on every invocation, and reports the number of events processed per second. Run with {@code -prof gc}
+ * to compare the memory allocated per invocation at different network sizes.
+ */
 @State(Scope.Benchmark)
 @Fork(value = 1)
 @Warmup(iterations = 1, time = 1)
 @Measurement(iterations = 3, time = 10)
 public class ConsensusBenchmark {
-    @Param({"39"})
+    @Param({"40", "100"})
     public int numNodes;
 
     @Param({"10000"})
@@ -64,6 +71,8 @@ public class ConsensusBenchmark {
     @Param({"0"})
     public long seed;
 
+    private PlatformContext platformContext;
+    private StandardEventEmitter emitter;
     private List<IndexedEvent> events;
     private Consensus consensus;
 
@@ -71,10 +80,9 @@ public class ConsensusBenchmark {
     public void setup() throws Exception {
         final List<EventSource<?>> eventSources =
                 EventSourceFactory.newStandardEventSources(WeightGenerators.balancedNodeWeights(numNodes));
-        final PlatformContext platformContext =
-                TestPlatformContextBuilder.create().build();
+        platformContext = TestPlatformContextBuilder.create().build();
         final StandardGraphGenerator generator = new StandardGraphGenerator(platformContext, seed, eventSources);
-        final StandardEventEmitter emitter = new StandardEventEmitter(generator);
+        emitter = new StandardEventEmitter(generator);
         events = emitter.emitEvents(numEvents);
 
         consensus = new ConsensusImpl(
@@ -92,9 +100,55 @@ public class ConsensusBenchmark {
         }
     }
 
+    /**
+     * A new copy of the graph and a new consensus instance for every invocation, so that consensus is calculated for
+     * every event, instead of the events being recognized as having reached consensus in an earlier invocation.
+     */
+    @State(Scope.Thread)
+    public static class NewGraph {
+        private List<IndexedEvent> events;
+        private Consensus consensus;
+
+        @Setup(Level.Invocation)
+        public void setup(final ConsensusBenchmark benchmark) {
+            benchmark.emitter.reset();
+            events = benchmark.emitter.emitEvents(benchmark.numEvents);
+            consensus = new ConsensusImpl(
+                    benchmark.platformContext,
+                    new NoOpConsensusMetrics(),
+                    benchmark.emitter.getGraphGenerator().getAddressBook());
+        }
+    }
+
+    /**
+     * The number of events added to consensus, reported per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class EventCounter {
+        public long events;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            events = 0;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void eventsPerSecond(final NewGraph graph, final EventCounter counter, final Blackhole bh) {
+        for (final IndexedEvent event : graph.events) {
+            bh.consume(graph.consensus.addEvent(event));
+        }
+        counter.events += graph.events.size();
+    }
+
     public static void main(final String[] args) throws RunnerException {
         final Options opt = new OptionsBuilder()
-                .include(ConsensusBenchmark.class.getSimpleName())
+                .include(ConsensusBenchmark.class.getSimpleName() + ".calculateConsensus")
+                // the results below were measured with this number of nodes
+                .param("numNodes", "39")
                 .warmupIterations(1)
                 .measurementIterations(2)
                 .warmupTime(TimeValue.seconds(1))
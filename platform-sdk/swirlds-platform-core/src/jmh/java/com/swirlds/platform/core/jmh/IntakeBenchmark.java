@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.core.jmh;
+
+import static com.swirlds.platform.event.AncientMode.GENERATION_THRESHOLD;
+
+import com.swirlds.common.context.PlatformContext;
+import com.swirlds.common.test.fixtures.WeightGenerators;
+import com.swirlds.common.test.fixtures.platform.TestPlatformContextBuilder;
+import com.swirlds.platform.consensus.EventWindow;
+import com.swirlds.platform.event.GossipEvent;
+import com.swirlds.platform.event.deduplication.EventDeduplicator;
+import com.swirlds.platform.event.deduplication.StandardEventDeduplicator;
+import com.swirlds.platform.event.orphan.DefaultOrphanBuffer;
+import com.swirlds.platform.event.orphan.OrphanBuffer;
+import com.swirlds.platform.gossip.NoOpIntakeEventCounter;
+import com.swirlds.platform.test.event.emitter.StandardEventEmitter;
+import com.swirlds.platform.test.event.source.EventSourceFactory;
+import com.swirlds.platform.test.fixtures.event.IndexedEvent;
+import com.swirlds.platform.test.fixtures.event.generator.StandardGraphGenerator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the part of the intake pipeline that every gossiped event passes through before it is validated: the
+ * {@link EventDeduplicator} followed by the {@link OrphanBuffer}. Events arrive out of order and some of them more than
+ * once, as they do when several peers sync at the same time, and the event window moves up as rounds reach consensus.
+ * Run with {@code -prof gc} to see the allocation rate of the pipeline.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 10)
+public class IntakeBenchmark {
+    /** The number of generations below the newest event that are not ancient */
+    private static final int NON_ANCIENT_GENERATIONS = 26;
+
+    @Param({"40", "100"})
+    public int numNodes;
+
+    @Param({"10000"})
+    public int numEvents;
+
+    /** The percentage of events that are received a second time */
+    @Param({"30"})
+    public int duplicatePercent;
+
+    @Param({"0"})
+    public long seed;
+
+    private PlatformContext platformContext;
+    private List<GossipEvent> receivedEvents;
+
+    @Setup
+    public void setup() {
+        platformContext = TestPlatformContextBuilder.create().build();
+        final StandardGraphGenerator generator = new StandardGraphGenerator(
+                platformContext,
+                seed,
+                EventSourceFactory.newStandardEventSources(WeightGenerators.balancedNodeWeights(numNodes)));
+        final List<IndexedEvent> events = new StandardEventEmitter(generator).emitEvents(numEvents);
+
+        final Random random = new Random(seed);
+        receivedEvents = new ArrayList<>();
+        for (final IndexedEvent event : events) {
+            receivedEvents.add(event.getBaseEvent());
+            if (random.nextInt(100) < duplicatePercent) {
+                receivedEvents.add(event.getBaseEvent());
+            }
+        }
+        // Events from different peers arrive interleaved, so shuffle them within a round of events
+        for (int start = 0; start < receivedEvents.size(); start += numNodes) {
+            Collections.shuffle(
+                    receivedEvents.subList(start, Math.min(start + numNodes, receivedEvents.size())), random);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void intake(final Blackhole bh) {
+        final EventDeduplicator deduplicator =
+                new StandardEventDeduplicator(platformContext, new NoOpIntakeEventCounter());
+        final OrphanBuffer orphanBuffer = new DefaultOrphanBuffer(platformContext, new NoOpIntakeEventCounter());
+
+        long maxGeneration = 0;
+        long ancientThreshold = 0;
+        for (int i = 0; i < receivedEvents.size(); i++) {
+            final GossipEvent event = deduplicator.handleEvent(receivedEvents.get(i));
+            if (event != null) {
+                maxGeneration = Math.max(maxGeneration, event.getGeneration());
+                bh.consume(orphanBuffer.handleEvent(event));
+            }
+
+            // The event window moves up about once per round of events
+            if ((i + 1) % numNodes == 0 && maxGeneration - NON_ANCIENT_GENERATIONS > ancientThreshold) {
+                ancientThreshold = maxGeneration - NON_ANCIENT_GENERATIONS;
+                final EventWindow eventWindow =
+                        new EventWindow(0, ancientThreshold, ancientThreshold, GENERATION_THRESHOLD);
+                deduplicator.setEventWindow(eventWindow);
+                bh.consume(orphanBuffer.setEventWindow(eventWindow));
+            }
+        }
+    }
+}
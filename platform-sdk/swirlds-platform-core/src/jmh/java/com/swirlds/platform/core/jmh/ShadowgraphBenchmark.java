@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.core.jmh;
+
+import static com.swirlds.platform.event.AncientMode.GENERATION_THRESHOLD;
+
+import com.swirlds.common.context.PlatformContext;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.test.fixtures.WeightGenerators;
+import com.swirlds.common.test.fixtures.platform.TestPlatformContextBuilder;
+import com.swirlds.platform.consensus.EventWindow;
+import com.swirlds.platform.gossip.NoOpIntakeEventCounter;
+import com.swirlds.platform.gossip.shadowgraph.ReservedEventWindow;
+import com.swirlds.platform.gossip.shadowgraph.ShadowEvent;
+import com.swirlds.platform.gossip.shadowgraph.Shadowgraph;
+import com.swirlds.platform.gossip.shadowgraph.ShadowgraphInsertionException;
+import com.swirlds.platform.test.event.emitter.StandardEventEmitter;
+import com.swirlds.platform.test.event.source.EventSourceFactory;
+import com.swirlds.platform.test.fixtures.event.IndexedEvent;
+import com.swirlds.platform.test.fixtures.event.generator.StandardGraphGenerator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the throughput of the sync threads reading the {@link Shadowgraph} while events are inserted and expired by
+ * the single thread that owns the shadowgraph, as in a network of {@link #numNodes} nodes. Each sync thread does what
+ * the first phase of a sync does: reserve the event window, get the tips, look up the tips of the peer, and find the
+ * recent ancestors of the tips. The peer is assumed to have the same tips.
+ */
+@State(Scope.Group)
+@Fork(value = 1)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ShadowgraphBenchmark {
+    /** The number of generations that are not expired */
+    private static final int NON_EXPIRED_GENERATIONS = 50;
+    /** The number of generations below the tips whose events are searched for by a sync */
+    private static final int SEARCHED_GENERATIONS = 5;
+
+    @Param({"40", "100"})
+    public int numNodes;
+
+    @Param({"0"})
+    public long seed;
+
+    private StandardEventEmitter emitter;
+    private Shadowgraph shadowgraph;
+    private long expiredThreshold;
+    private long maxGeneration;
+    private int insertedSinceExpiry;
+
+    @Setup
+    public void setup() throws ShadowgraphInsertionException {
+        final PlatformContext platformContext =
+                TestPlatformContextBuilder.create().build();
+        final StandardGraphGenerator generator = new StandardGraphGenerator(
+                platformContext,
+                seed,
+                EventSourceFactory.newStandardEventSources(WeightGenerators.balancedNodeWeights(numNodes)));
+        emitter = new StandardEventEmitter(generator);
+        shadowgraph = new Shadowgraph(platformContext, generator.getAddressBook(), new NoOpIntakeEventCounter());
+        shadowgraph.updateEventWindow(EventWindow.getGenesisEventWindow(GENERATION_THRESHOLD));
+
+        // Fill the window of non-expired generations before measuring
+        while (maxGeneration < 2 * NON_EXPIRED_GENERATIONS) {
+            insertNextEvent();
+        }
+    }
+
+    /**
+     * The thread that inserts events, and expires the old generations once per round of events.
+     */
+    @Benchmark
+    @Group("sync")
+    @GroupThreads(1)
+    public void insert() throws ShadowgraphInsertionException {
+        insertNextEvent();
+    }
+
+    /**
+     * The sync threads, one for each of a number of peers syncing at the same time.
+     */
+    @Benchmark
+    @Group("sync")
+    @GroupThreads(8)
+    public void syncPhase(final Blackhole blackhole) {
+        try (final ReservedEventWindow reservation = shadowgraph.reserve()) {
+            blackhole.consume(reservation.getEventWindow());
+            final List<ShadowEvent> myTips = shadowgraph.getTips();
+            final List<Hash> theirTips = new ArrayList<>(myTips.size());
+            long minTipGeneration = Long.MAX_VALUE;
+            for (final ShadowEvent tip : myTips) {
+                theirTips.add(tip.getEventBaseHash());
+                minTipGeneration = Math.min(minTipGeneration, tip.getEvent().getGeneration());
+            }
+            final List<ShadowEvent> theirShadows = shadowgraph.shadows(theirTips);
+            final long searchFrom = minTipGeneration - SEARCHED_GENERATIONS;
+            blackhole.consume(shadowgraph.findAncestors(
+                    theirShadows.stream().filter(Objects::nonNull).toList(),
+                    s -> s.getEvent().getGeneration() >= searchFrom));
+        }
+    }
+
+    private void insertNextEvent() throws ShadowgraphInsertionException {
+        final IndexedEvent event = emitter.emitEvent();
+        shadowgraph.addEvent(event);
+        maxGeneration = Math.max(maxGeneration, event.getGeneration());
+        if (++insertedSinceExpiry == numNodes) {
+            insertedSinceExpiry = 0;
+            expiredThreshold = Math.max(expiredThreshold, maxGeneration - NON_EXPIRED_GENERATIONS);
+            shadowgraph.updateEventWindow(new EventWindow(0, expiredThreshold, expiredThreshold, GENERATION_THRESHOLD));
+        }
+    }
+}
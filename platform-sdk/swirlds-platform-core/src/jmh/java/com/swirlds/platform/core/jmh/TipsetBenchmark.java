@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.core.jmh;
+
+import static com.swirlds.platform.event.AncientMode.GENERATION_THRESHOLD;
+import static com.swirlds.platform.event.creation.tipset.TipsetAdvancementWeight.ZERO_ADVANCEMENT_WEIGHT;
+
+import com.swirlds.common.context.PlatformContext;
+import com.swirlds.common.platform.NodeId;
+import com.swirlds.common.test.fixtures.WeightGenerators;
+import com.swirlds.common.test.fixtures.platform.TestPlatformContextBuilder;
+import com.swirlds.platform.consensus.EventWindow;
+import com.swirlds.platform.event.GossipEvent;
+import com.swirlds.platform.event.creation.tipset.ChildlessEventTracker;
+import com.swirlds.platform.event.creation.tipset.TipsetAdvancementWeight;
+import com.swirlds.platform.event.creation.tipset.TipsetEventCreator;
+import com.swirlds.platform.event.creation.tipset.TipsetTracker;
+import com.swirlds.platform.event.creation.tipset.TipsetUtils;
+import com.swirlds.platform.event.creation.tipset.TipsetWeightCalculator;
+import com.swirlds.platform.system.events.EventDescriptor;
+import com.swirlds.platform.test.event.emitter.StandardEventEmitter;
+import com.swirlds.platform.test.event.source.EventSourceFactory;
+import com.swirlds.platform.test.fixtures.event.generator.StandardGraphGenerator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the time it takes the {@link TipsetEventCreator} to decide which other parent to create an event with, in a
+ * network of {@link #numNodes} nodes: the maximum selfishness score is computed, and the theoretical advancement weight
+ * of every childless event is computed with the latest self event as the self parent. The tipsets of the events in the
+ * window of non-ancient generations are built before measuring.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 10)
+public class TipsetBenchmark {
+    /** The number of generations below the newest event that are not ancient */
+    private static final int NON_ANCIENT_GENERATIONS = 26;
+
+    @Param({"40", "100"})
+    public int numNodes;
+
+    @Param({"0"})
+    public long seed;
+
+    private TipsetWeightCalculator weightCalculator;
+    private ChildlessEventTracker childlessEventTracker;
+    private EventDescriptor lastSelfEvent;
+
+    @Setup
+    public void setup() {
+        final PlatformContext platformContext = TestPlatformContextBuilder.create().build();
+        final StandardGraphGenerator generator = new StandardGraphGenerator(
+                platformContext,
+                seed,
+                EventSourceFactory.newStandardEventSources(WeightGenerators.balancedNodeWeights(numNodes)));
+        final StandardEventEmitter emitter = new StandardEventEmitter(generator);
+        final NodeId selfId = generator.getAddressBook().getNodeId(0);
+
+        final TipsetTracker tipsetTracker = new TipsetTracker(
+                platformContext.getTime(), generator.getAddressBook(), GENERATION_THRESHOLD);
+        childlessEventTracker = new ChildlessEventTracker();
+        weightCalculator = new TipsetWeightCalculator(
+                platformContext, generator.getAddressBook(), selfId, tipsetTracker, childlessEventTracker);
+
+        // Fill the window of non-ancient generations, moving it up about once per round of events
+        long maxGeneration = 0;
+        long ancientThreshold = 0;
+        for (int i = 1; maxGeneration < 2 * NON_ANCIENT_GENERATIONS; i++) {
+            final GossipEvent event = emitter.emitEvent().getBaseEvent();
+            final EventDescriptor descriptor = event.getDescriptor();
+            final List<EventDescriptor> parents = TipsetUtils.getParentDescriptors(event.getHashedData());
+            tipsetTracker.addEvent(descriptor, parents);
+            if (descriptor.getCreator().equals(selfId)) {
+                childlessEventTracker.registerSelfEventParents(event.getHashedData().getOtherParents());
+                weightCalculator.addEventAndGetAdvancementWeight(descriptor);
+                lastSelfEvent = descriptor;
+            } else {
+                childlessEventTracker.addEvent(descriptor, parents);
+            }
+            maxGeneration = Math.max(maxGeneration, descriptor.getGeneration());
+
+            if (i % numNodes == 0 && maxGeneration - NON_ANCIENT_GENERATIONS > ancientThreshold) {
+                ancientThreshold = maxGeneration - NON_ANCIENT_GENERATIONS;
+                final EventWindow eventWindow =
+                        new EventWindow(0, ancientThreshold, ancientThreshold, GENERATION_THRESHOLD);
+                tipsetTracker.setEventWindow(eventWindow);
+                childlessEventTracker.pruneOldEvents(eventWindow);
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void chooseOtherParent(final Blackhole bh) {
+        bh.consume(weightCalculator.getMaxSelfishnessScore());
+
+        EventDescriptor bestOtherParent = null;
+        TipsetAdvancementWeight bestAdvancementWeight = ZERO_ADVANCEMENT_WEIGHT;
+        for (final EventDescriptor otherParent : childlessEventTracker.getChildlessEvents()) {
+            final List<EventDescriptor> parents = new ArrayList<>(2);
+            parents.add(otherParent);
+            if (lastSelfEvent != null) {
+                parents.add(lastSelfEvent);
+            }
+
+            final TipsetAdvancementWeight advancementWeight = weightCalculator.getTheoreticalAdvancementWeight(parents);
+            if (advancementWeight.isGreaterThan(bestAdvancementWeight)) {
+                bestOtherParent = otherParent;
+                bestAdvancementWeight = advancementWeight;
+            }
+        }
+        bh.consume(bestOtherParent);
+    }
+}
@@ -28,6 +28,7 @@ import com.swirlds.logging.legacy.LogMarker;
 import com.swirlds.platform.consensus.AncestorSearch;
 import com.swirlds.platform.consensus.CandidateWitness;
 import com.swirlds.platform.consensus.ConsensusConstants;
+import com.swirlds.platform.consensus.ConsensusMetadataStore;
 import com.swirlds.platform.consensus.ConsensusRounds;
 import com.swirlds.platform.consensus.ConsensusSnapshot;
 import com.swirlds.platform.consensus.ConsensusSorter;
@@ -165,6 +166,8 @@ public class ConsensusImpl extends ThreadSafeConsensusInfo implements Consensus
     private final List<EventImpl> recentEvents = new LinkedList<>();
     /** stores all round information */
     private final ConsensusRounds rounds;
+    /** stores the memoized lastSee and stronglySeeP results of the recent events */
+    private final ConsensusMetadataStore metadataStore;
     /**
      * Number of events that have reached consensus order. This is used for setting consensus order
      * numbers in events, so it must be part of the signed state.
@@ -225,6 +228,7 @@ public class ConsensusImpl extends ThreadSafeConsensusInfo implements Consensus
         this.addressBook = addressBook;
 
         this.rounds = new ConsensusRounds(config, getStorage(), addressBook);
+        this.metadataStore = new ConsensusMetadataStore(addressBook.getSize());
         this.ancientMode = platformContext
                 .getConfiguration()
                 .getConfigData(EventConfig.class)
@@ -251,6 +255,7 @@ public class ConsensusImpl extends ThreadSafeConsensusInfo implements Consensus
     /** Reset this instance to a state of a newly created instance */
     private void reset() {
         recentEvents.clear();
+        metadataStore.clear();
         rounds.reset();
         numConsensus = 0;
         lastConsensusTime = null;
@@ -323,7 +328,7 @@ public class ConsensusImpl extends ThreadSafeConsensusInfo implements Consensus
             }
 
             if (insertedEvent.isConsensus() || isAncient(insertedEvent.getBaseEvent())) {
-                insertedEvent.clearMetadata();
+                clearMetadata(insertedEvent);
 
                 // all events that are consensus or ancient have a round of -infinity
                 insertedEvent.setRoundCreated(ConsensusConstants.ROUND_NEGATIVE_INFINITY);
@@ -332,7 +337,7 @@ public class ConsensusImpl extends ThreadSafeConsensusInfo implements Consensus
             }
 
             // for all other events, we need to recalculate its round and metadata
-            insertedEvent.clearMetadata();
+            clearMetadata(insertedEvent);
             insertedEvent.setRoundCreated(ConsensusConstants.ROUND_UNDEFINED);
 
             final ConsensusRound consensusRound = calculateAndVote(insertedEvent);
@@ -447,6 +452,17 @@ public class ConsensusImpl extends ThreadSafeConsensusInfo implements Consensus
         firstWitnessS(event);
     }
 
+    /**
+     * Clear the metadata of an event, releasing its slot in the metadata store so that it can be reused by another
+     * event.
+     *
+     * @param event the event to clear the metadata of
+     */
+    private void clearMetadata(@NonNull final EventImpl event) {
+        metadataStore.release(event);
+        event.clearMetadata();
+    }
+
     /**
      * Vote on all candidate witnesses in the current election round. This call could decide a
      * round.
@@ -927,34 +943,34 @@ public class ConsensusImpl extends ThreadSafeConsensusInfo implements Consensus
         if (notRelevantForConsensus(x)) {
             return null;
         }
-        if (x.sizeLastSee() != 0) { // return memoized answer, if available
-            return x.getLastSee((int) m);
+        if (metadataStore.hasLastSee(x)) { // return memoized answer, if available
+            return metadataStore.getLastSee(x, (int) m);
         }
         // memoize answers for all choices of m, then return answer for just this m
         numMembers = addressBook.getSize();
-        x.initLastSee(numMembers);
+        final int slot = metadataStore.initLastSee(x);
 
         op = otherParent(x);
         sp = selfParent(x);
 
         for (int mm = 0; mm < numMembers; mm++) {
             if (creatorIndexEquals(x, mm)) {
-                x.setLastSee(mm, x);
+                metadataStore.setLastSee(slot, mm, x);
             } else if (sp == null && op == null) {
-                x.setLastSee(mm, null);
+                metadataStore.setLastSee(slot, mm, null);
             } else {
                 final EventImpl lsop = lastSee(op, mm);
                 final EventImpl lssp = lastSee(sp, mm);
                 final long lsopGen = lsop == null ? 0 : lsop.getGeneration();
                 final long lsspGen = lssp == null ? 0 : lssp.getGeneration();
                 if ((round(lsop) > round(lssp)) || ((lsopGen > lsspGen) && (firstSee(op, mm) == firstSee(sp, mm)))) {
-                    x.setLastSee(mm, lsop);
+                    metadataStore.setLastSee(slot, mm, lsop);
                 } else {
-                    x.setLastSee(mm, lssp);
+                    metadataStore.setLastSee(slot, mm, lssp);
                 }
             }
         }
-        return x.getLastSee((int) m);
+        return metadataStore.getLastSee(x, (int) m);
     }
 
     /**
@@ -999,8 +1015,8 @@ public class ConsensusImpl extends ThreadSafeConsensusInfo implements Consensus
         if (notRelevantForConsensus(x)) {
             return null;
         }
-        if (x.sizeStronglySeeP() != 0) { // return memoized answer, if available
-            return x.getStronglySeeP((int) m);
+        if (metadataStore.hasStronglySeeP(x)) { // return memoized answer, if available
+            return metadataStore.getStronglySeeP(x, (int) m);
         }
         // calculate the answer, and remember it for next time
         // find and memoize answers for all choices of m, then return answer for just this m
@@ -1012,17 +1028,17 @@ public class ConsensusImpl extends ThreadSafeConsensusInfo implements Consensus
         final long prsp = parentRound(sp); // parent round of self parent of x
         final long prop = parentRound(op); // parent round of other parent of x
 
-        x.initStronglySeeP(numMembers);
+        final int slot = metadataStore.initStronglySeeP(x);
         for (int mm = 0; mm < numMembers; mm++) {
             if (stronglySeeP(sp, mm) != null && prx == prsp) {
-                x.setStronglySeeP(mm, stronglySeeP(sp, mm));
+                metadataStore.setStronglySeeP(slot, mm, stronglySeeP(sp, mm));
             } else if (stronglySeeP(op, mm) != null && prx == prop) {
-                x.setStronglySeeP(mm, stronglySeeP(op, mm));
+                metadataStore.setStronglySeeP(slot, mm, stronglySeeP(op, mm));
             } else {
                 // the canonical witness by mm that is seen by x thru someone else
                 final EventImpl st = seeThru(x, mm, mm);
                 if (round(st) != prx) { // ignore if the canonical is in the wrong round, or doesn't exist
-                    x.setStronglySeeP(mm, null);
+                    metadataStore.setStronglySeeP(slot, mm, null);
                 } else {
                     long weight = 0;
                     for (int m3 = 0; m3 < numMembers; m3++) {
@@ -1032,14 +1048,14 @@ public class ConsensusImpl extends ThreadSafeConsensusInfo implements Consensus
                     }
                     if (Threshold.SUPER_MAJORITY.isSatisfiedBy(weight, totalWeight)) { // strongly see supermajority of
                         // intermediates
-                        x.setStronglySeeP(mm, st);
+                        metadataStore.setStronglySeeP(slot, mm, st);
                     } else {
-                        x.setStronglySeeP(mm, null);
+                        metadataStore.setStronglySeeP(slot, mm, null);
                     }
                 }
             }
         }
-        return x.getStronglySeeP((int) m);
+        return metadataStore.getStronglySeeP(x, (int) m);
     }
 
     /**
@@ -66,6 +66,7 @@ import com.swirlds.platform.crypto.PlatformSigner;
 import com.swirlds.platform.event.AncientMode;
 import com.swirlds.platform.event.EventCounter;
 import com.swirlds.platform.event.GossipEvent;
+import com.swirlds.platform.event.preconsensus.PcesConfig;
 import com.swirlds.platform.event.preconsensus.PcesFileTracker;
 import com.swirlds.platform.event.preconsensus.PcesReplayer;
 import com.swirlds.platform.event.validation.AddressBookUpdate;
@@ -737,8 +738,14 @@ public class SwirldsPlatform implements Platform {
     private void replayPreconsensusEvents() {
         platformWiring.getStatusActionSubmitter().submitStatusAction(new StartedReplayingEventsAction());
 
-        final IOIterator<GossipEvent> iterator =
-                initialPcesFiles.getEventIterator(initialAncientThreshold, startingRound);
+        final PcesConfig pcesConfig = platformContext.getConfiguration().getConfigData(PcesConfig.class);
+        final IOIterator<GossipEvent> iterator = pcesConfig.parallelReplayEnabled()
+                ? initialPcesFiles.getParallelEventIterator(
+                        initialAncientThreshold,
+                        startingRound,
+                        pcesConfig.replayDecoderThreadCount(),
+                        pcesConfig.replayMaximumFilesAhead())
+                : initialPcesFiles.getEventIterator(initialAncientThreshold, startingRound);
 
         logger.info(
                 STARTUP.getMarker(),
@@ -18,6 +18,8 @@ package com.swirlds.platform.config;
 
 import com.swirlds.config.api.ConfigData;
 import com.swirlds.config.api.ConfigProperty;
+import com.swirlds.config.api.validation.annotation.Max;
+import com.swirlds.config.api.validation.annotation.Min;
 import java.time.Duration;
 
 /**
@@ -77,6 +79,17 @@ import java.time.Duration;
  * @param validateInitialState          If false then do not do ISS validation on the state loaded from disk at startup.
  *                                      This should always be enabled in production environments. Disabling initial
  *                                      state validation is intended to be a test-only feature.
+ * @param parallelStateFileEnabled      If true, then the in-memory subtrees of a state being saved are serialized
+ *                                      concurrently into separate chunk files next to the signed state file, which
+ *                                      lists them in a manifest so that the reader can load them concurrently. States
+ *                                      written this way cannot be read by versions that predate this setting.
+ * @param stateFileChunkCount           The maximum number of chunk files, and of threads serializing them, when
+ *                                      parallelStateFileEnabled is true. At most 1024, the most chunk files a signed
+ *                                      state file may refer to.
+ * @param stateFileChunkDepth           The depth in the merkle tree of the subtrees that are serialized to chunk
+ *                                      files when parallelStateFileEnabled is true. The nodes above this depth, and
+ *                                      subtrees that are serialized externally such as virtual maps, stay in the signed
+ *                                      state file.
  */
 @ConfigData("state")
 public record StateConfig(
@@ -98,7 +111,10 @@ public record StateConfig(
         @ConfigProperty(defaultValue = "false") boolean debugStackTracesEnabled,
         @ConfigProperty(defaultValue = "emergencyRecovery.yaml") String emergencyStateFileName,
         @ConfigProperty(defaultValue = "false") boolean deleteInvalidStateFiles,
-        @ConfigProperty(defaultValue = "true") boolean validateInitialState) {
+        @ConfigProperty(defaultValue = "true") boolean validateInitialState,
+        @ConfigProperty(defaultValue = "false") boolean parallelStateFileEnabled,
+        @Min(1) @Max(1024) @ConfigProperty(defaultValue = "8") int stateFileChunkCount,
+        @Min(1) @ConfigProperty(defaultValue = "2") int stateFileChunkDepth) {
 
     /**
      * Get the main class name that should be used for signed states.
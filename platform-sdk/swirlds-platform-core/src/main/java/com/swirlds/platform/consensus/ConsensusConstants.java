@@ -35,6 +35,8 @@ public final class ConsensusConstants {
     public static final long ROUND_FIRST = 1;
     /** value of the event mark when it is unmarked */
     public static final int EVENT_UNMARKED = 0;
+    /** the metadata slot of an event that has no slot in the {@link ConsensusMetadataStore} */
+    public static final int NO_METADATA_SLOT = -1;
     /** the consensus number of the first event ever to reach consensus */
     public static final long FIRST_CONSENSUS_NUMBER = 0;
 }
@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.consensus;
+
+import static com.swirlds.platform.consensus.ConsensusConstants.NO_METADATA_SLOT;
+
+import com.swirlds.platform.internal.EventImpl;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.Arrays;
+
+/**
+ * Stores the memoized lastSee and stronglySeeP results (functions from Swirlds-TR-2020-01) of the events that consensus
+ * is being calculated for. Each such event is assigned a dense int slot, and the results for all members are kept in
+ * one row per slot of a column shared by all events, instead of in two arrays per event. A slot is released when the
+ * metadata of its event is cleared, which happens to every non-judge event each time a round is decided, and the slot
+ * is then reused by the next event, so the columns are allocated once and recycled round after round.
+ *
+ * <p>The slot of an event is stored in the event, see {@link EventImpl#getMetadataSlot()}. Slots of events whose
+ * metadata was cleared without being released here, for example when an event is cleared by another component, are
+ * reclaimed once all slots are in use.
+ *
+ * <p>This class is not thread safe, it is only used by the thread calculating consensus.
+ */
+public class ConsensusMetadataStore {
+    /** the initial number of slots */
+    private static final int INITIAL_CAPACITY = 1024;
+    /** the maximum number of values in a column */
+    private static final long MAX_COLUMN_SIZE = Integer.MAX_VALUE - 8;
+    /** the flag that is set for a slot once lastSee has been memoized */
+    private static final byte LAST_SEE_MEMOIZED = 1;
+    /** the flag that is set for a slot once stronglySeeP has been memoized */
+    private static final byte STRONGLY_SEE_P_MEMOIZED = 2;
+
+    /** the number of members, which is the length of a row */
+    private final int numMembers;
+    /** the event that owns each slot, null if the slot is free */
+    private EventImpl[] owners;
+    /** the flags of the results that have been memoized for each slot */
+    private byte[] memoized;
+    /** lastSee[slot * numMembers + m] is the last ancestor created by m of the event in slot */
+    private EventImpl[] lastSee;
+    /** stronglySeeP[slot * numMembers + m] is the strongly-seen witness in parent round by m of the event in slot */
+    private EventImpl[] stronglySeeP;
+    /** the slots below {@link #numAllocated} that are free, used as a stack */
+    private int[] freeSlots;
+    /** the number of free slots in {@link #freeSlots} */
+    private int numFreeSlots;
+    /** the number of slots that have ever been assigned, all slots from this one up are free */
+    private int numAllocated;
+
+    /**
+     * @param numMembers the number of members in the address book
+     */
+    public ConsensusMetadataStore(final int numMembers) {
+        this.numMembers = numMembers;
+        allocateColumns(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param event the event to check
+     * @return true if lastSee has been memoized for the event
+     */
+    public boolean hasLastSee(@NonNull final EventImpl event) {
+        return isMemoized(event, LAST_SEE_MEMOIZED);
+    }
+
+    /**
+     * Mark lastSee as memoized for the event, assigning it a slot if it does not have one. The results must then be
+     * set for all members.
+     *
+     * @param event the event to memoize lastSee for
+     * @return the slot of the event
+     */
+    public int initLastSee(@NonNull final EventImpl event) {
+        final int slot = slotOf(event);
+        memoized[slot] |= LAST_SEE_MEMOIZED;
+        return slot;
+    }
+
+    /**
+     * @param event the event, which must have lastSee memoized
+     * @param m     the member index
+     * @return the last ancestor created by m
+     */
+    public @Nullable EventImpl getLastSee(@NonNull final EventImpl event, final int m) {
+        return lastSee[event.getMetadataSlot() * numMembers + m];
+    }
+
+    /**
+     * @param slot  the slot returned by {@link #initLastSee(EventImpl)}
+     * @param m     the member index
+     * @param value the last ancestor created by m
+     */
+    public void setLastSee(final int slot, final int m, @Nullable final EventImpl value) {
+        lastSee[slot * numMembers + m] = value;
+    }
+
+    /**
+     * @param event the event to check
+     * @return true if stronglySeeP has been memoized for the event
+     */
+    public boolean hasStronglySeeP(@NonNull final EventImpl event) {
+        return isMemoized(event, STRONGLY_SEE_P_MEMOIZED);
+    }
+
+    /**
+     * Mark stronglySeeP as memoized for the event, assigning it a slot if it does not have one. The results must then
+     * be set for all members.
+     *
+     * @param event the event to memoize stronglySeeP for
+     * @return the slot of the event
+     */
+    public int initStronglySeeP(@NonNull final EventImpl event) {
+        final int slot = slotOf(event);
+        memoized[slot] |= STRONGLY_SEE_P_MEMOIZED;
+        return slot;
+    }
+
+    /**
+     * @param event the event, which must have stronglySeeP memoized
+     * @param m     the member index
+     * @return the strongly-seen witness in parent round by m
+     */
+    public @Nullable EventImpl getStronglySeeP(@NonNull final EventImpl event, final int m) {
+        return stronglySeeP[event.getMetadataSlot() * numMembers + m];
+    }
+
+    /**
+     * @param slot  the slot returned by {@link #initStronglySeeP(EventImpl)}
+     * @param m     the member index
+     * @param value the strongly-seen witness in parent round by m
+     */
+    public void setStronglySeeP(final int slot, final int m, @Nullable final EventImpl value) {
+        stronglySeeP[slot * numMembers + m] = value;
+    }
+
+    /**
+     * Release the slot of an event, forgetting everything memoized for it. Called when the metadata of the event is
+     * cleared.
+     *
+     * @param event the event whose slot to release
+     */
+    public void release(@NonNull final EventImpl event) {
+        final int slot = event.getMetadataSlot();
+        if (ownsSlot(event, slot)) {
+            freeSlot(slot);
+        }
+        event.setMetadataSlot(NO_METADATA_SLOT);
+    }
+
+    /**
+     * Release all slots. The slots stored in events become invalid, so those events will be assigned new slots.
+     */
+    public void clear() {
+        Arrays.fill(owners, 0, numAllocated, null);
+        Arrays.fill(memoized, 0, numAllocated, (byte) 0);
+        Arrays.fill(lastSee, 0, numAllocated * numMembers, null);
+        Arrays.fill(stronglySeeP, 0, numAllocated * numMembers, null);
+        numFreeSlots = 0;
+        numAllocated = 0;
+    }
+
+    /**
+     * @return the number of slots that are assigned to events
+     */
+    public int getNumSlotsInUse() {
+        return numAllocated - numFreeSlots;
+    }
+
+    /**
+     * @return the number of slots the columns currently have room for
+     */
+    public int getCapacity() {
+        return owners.length;
+    }
+
+    private boolean isMemoized(@NonNull final EventImpl event, final byte flag) {
+        final int slot = event.getMetadataSlot();
+        return ownsSlot(event, slot) && (memoized[slot] & flag) != 0;
+    }
+
+    private boolean ownsSlot(@NonNull final EventImpl event, final int slot) {
+        return slot >= 0 && slot < numAllocated && owners[slot] == event;
+    }
+
+    /**
+     * @return the slot of the event, which is assigned if it does not have one yet
+     */
+    private int slotOf(@NonNull final EventImpl event) {
+        final int slot = event.getMetadataSlot();
+        if (ownsSlot(event, slot)) {
+            return slot;
+        }
+        return assignSlot(event);
+    }
+
+    private int assignSlot(@NonNull final EventImpl event) {
+        if (numFreeSlots == 0 && numAllocated == owners.length) {
+            reclaimSlots();
+            // grow ahead of time if reclaiming freed little, so the columns are not scanned over and over
+            if (numFreeSlots < owners.length / 4) {
+                growColumns();
+            }
+        }
+        final int slot = numFreeSlots > 0 ? freeSlots[--numFreeSlots] : numAllocated++;
+        owners[slot] = event;
+        memoized[slot] = 0;
+        event.setMetadataSlot(slot);
+        return slot;
+    }
+
+    /**
+     * Free the slots of events that no longer hold them, because their metadata was cleared without releasing them.
+     */
+    private void reclaimSlots() {
+        for (int slot = 0; slot < numAllocated; slot++) {
+            final EventImpl owner = owners[slot];
+            if (owner != null && owner.getMetadataSlot() != slot) {
+                freeSlot(slot);
+            }
+        }
+    }
+
+    private void freeSlot(final int slot) {
+        owners[slot] = null;
+        memoized[slot] = 0;
+        // drop the references, so that the events can be garbage collected
+        final int rowStart = slot * numMembers;
+        Arrays.fill(lastSee, rowStart, rowStart + numMembers, null);
+        Arrays.fill(stronglySeeP, rowStart, rowStart + numMembers, null);
+        freeSlots[numFreeSlots++] = slot;
+    }
+
+    private void growColumns() {
+        final long newCapacity = 2L * owners.length;
+        if (newCapacity * Math.max(numMembers, 1) > MAX_COLUMN_SIZE) {
+            throw new IllegalStateException("Cannot store consensus metadata for more than " + owners.length
+                    + " events with " + numMembers + " members");
+        }
+        final int capacity = (int) newCapacity;
+        owners = Arrays.copyOf(owners, capacity);
+        memoized = Arrays.copyOf(memoized, capacity);
+        lastSee = Arrays.copyOf(lastSee, capacity * numMembers);
+        stronglySeeP = Arrays.copyOf(stronglySeeP, capacity * numMembers);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+
+    private void allocateColumns(final int capacity) {
+        owners = new EventImpl[capacity];
+        memoized = new byte[capacity];
+        lastSee = new EventImpl[capacity * numMembers];
+        stronglySeeP = new EventImpl[capacity * numMembers];
+        freeSlots = new int[capacity];
+    }
+}
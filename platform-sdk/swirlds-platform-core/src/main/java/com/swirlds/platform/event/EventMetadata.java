@@ -19,6 +19,7 @@ package com.swirlds.platform.event;
 import com.swirlds.common.utility.Clearable;
 import com.swirlds.platform.consensus.CandidateWitness;
 import com.swirlds.platform.consensus.ConsensusConstants;
+import com.swirlds.platform.consensus.ConsensusMetadataStore;
 import com.swirlds.platform.internal.EventImpl;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -49,13 +50,11 @@ public class EventMetadata implements Clearable {
     private boolean isConsensus;
     /** the local time (not consensus time) at which the event reached consensus */
     private Instant reachedConsTimestamp;
-    /** lastSee[m] is the last ancestor created by m (memoizes function from Swirlds-TR-2020-01) */
-    private EventImpl[] lastSee;
     /**
-     * stronglySeeP[m] is strongly-seen witness in parent round by m (memoizes function from
-     * Swirlds-TR-2020-01)
+     * the slot of this event in the {@link ConsensusMetadataStore}, which memoizes the lastSee and
+     * stronglySeeP functions from Swirlds-TR-2020-01
      */
-    private EventImpl[] stronglySeeP;
+    private int metadataSlot = ConsensusConstants.NO_METADATA_SLOT;
     /**
      * The first witness that's a self-ancestor in the self round (memoizes function from
      * Swirlds-TR-2020-01)
@@ -222,78 +221,18 @@ public class EventMetadata implements Clearable {
     }
 
     /**
-     * @param m the member ID
-     * @return last ancestor created by m (memoizes lastSee function from Swirlds-TR-2020-01)
-     */
-    public @Nullable EventImpl getLastSee(final int m) {
-        return lastSee[m];
-    }
-
-    /**
-     * remember event, the last ancestor created by m (memoizes lastSee function from
-     * Swirlds-TR-2020-01)
-     *
-     * @param m the member ID
-     * @param event the last seen {@link EventImpl} object created by m
-     */
-    public void setLastSee(final int m, @Nullable final EventImpl event) {
-        lastSee[m] = event;
-    }
-
-    /**
-     * Initialize the lastSee array to hold n elements (for n &ge; 0) (memoizes lastSee function
-     * from Swirlds-TR-2020-01)
-     *
-     * @param n number of members in the initial address book
-     */
-    public void initLastSee(final int n) {
-        lastSee = n == 0 ? null : new EventImpl[n];
-    }
-
-    /**
-     * @return the number of elements lastSee holds (memoizes lastSee function from
-     *     Swirlds-TR-2020-01)
+     * @return the slot of this event in the {@link ConsensusMetadataStore}, or {@link
+     *     ConsensusConstants#NO_METADATA_SLOT} if it has none
      */
-    public int sizeLastSee() {
-        return lastSee == null ? 0 : lastSee.length;
+    public int getMetadataSlot() {
+        return metadataSlot;
     }
 
     /**
-     * @param m the member ID
-     * @return strongly-seen witness in parent round by m (memoizes stronglySeeP function from
-     *     Swirlds-TR-2020-01)
-     */
-    public @Nullable EventImpl getStronglySeeP(final int m) {
-        return stronglySeeP[m];
-    }
-
-    /**
-     * remember event, the strongly-seen witness in parent round by m (memoizes stronglySeeP
-     * function from Swirlds-TR-2020-01)
-     *
-     * @param m the member ID
-     * @param event the strongly-seen witness in parent round created by m
-     */
-    public void setStronglySeeP(final int m, @Nullable final EventImpl event) {
-        stronglySeeP[m] = event;
-    }
-
-    /**
-     * Initialize the stronglySeeP array to hold n elements (for n &ge; 0) (memoizes stronglySeeP
-     * function from Swirlds-TR-2020-01)
-     *
-     * @param n number of members in AddressBook
-     */
-    public void initStronglySeeP(final int n) {
-        stronglySeeP = n == 0 ? null : new EventImpl[n];
-    }
-
-    /**
-     * @return the number of elements stronglySeeP holds (memoizes stronglySeeP function from
-     *     Swirlds-TR-2020-01)
+     * @param metadataSlot the slot of this event in the {@link ConsensusMetadataStore}
      */
-    public int sizeStronglySeeP() {
-        return stronglySeeP == null ? 0 : stronglySeeP.length;
+    public void setMetadataSlot(final int metadataSlot) {
+        this.metadataSlot = metadataSlot;
     }
 
     /**
@@ -423,8 +362,7 @@ public class EventMetadata implements Clearable {
     }
 
     private void clearNonJudgeMetadata() {
-        initLastSee(0);
-        initStronglySeeP(0);
+        setMetadataSlot(ConsensusConstants.NO_METADATA_SLOT);
         setFirstSelfWitnessS(null);
         setFirstWitnessS(null);
         setRecTimes(null);
@@ -210,6 +210,15 @@ public class GossipEvent implements SelfSerializable {
         prehandleCompleted.countDown();
     }
 
+    /**
+     * Check if all transactions have been prehandled for this event, without waiting.
+     *
+     * @return true if prehandle has completed, false otherwise
+     */
+    public boolean isPrehandleCompleted() {
+        return prehandleCompleted.getCount() == 0;
+    }
+
     /**
      * Wait until all transactions have been prehandled for this event.
      */
@@ -32,10 +32,25 @@ public class Tipset {
     private final AddressBook addressBook;
 
     /**
-     * The tip generations, indexed by node index.
+     * The tip generations, indexed by node index, or null if the tips are stored in {@link #slab}.
      */
     private final long[] tips;
 
+    /**
+     * The slab that stores the tip generations, or null if they are stored in {@link #tips}.
+     */
+    private final TipsetSlab slab;
+
+    /**
+     * The slot of this tipset in {@link #slab}.
+     */
+    private final int slot;
+
+    /**
+     * The number of tips.
+     */
+    private final int size;
+
     /**
      * The value used to represent an undefined tip generation, either because the node ID is not in the address book or
      * because there is no known event for the node ID in this event's ancestry.
@@ -49,12 +64,31 @@ public class Tipset {
      */
     public Tipset(@NonNull final AddressBook addressBook) {
         this.addressBook = Objects.requireNonNull(addressBook);
-        tips = new long[addressBook.getSize()];
+        size = addressBook.getSize();
+        tips = new long[size];
+        slab = null;
+        slot = 0;
 
         // Necessary because we currently start at generation 0, not generation 1.
         Arrays.fill(tips, UNDEFINED);
     }
 
+    /**
+     * Create a tipset whose tips are stored in a slot of a slab. The tipset must no longer be used once the slot is
+     * released.
+     *
+     * @param addressBook the current address book
+     * @param slab        the slab that stores the tips
+     * @param slot        the slot of the tipset in the slab
+     */
+    Tipset(@NonNull final AddressBook addressBook, @NonNull final TipsetSlab slab, final int slot) {
+        this.addressBook = Objects.requireNonNull(addressBook);
+        this.slab = Objects.requireNonNull(slab);
+        this.slot = slot;
+        size = slab.getWidth();
+        tips = null;
+    }
+
     /**
      * Build an empty tipset (i.e. where all generations are {@link #UNDEFINED}) using another tipset as a template.
      *
@@ -83,20 +117,59 @@ public class Tipset {
             throw new IllegalArgumentException("Cannot merge an empty list of tipsets");
         }
 
-        final int length = tipsets.get(0).tips.length;
         final Tipset newTipset = buildEmptyTipset(tipsets.get(0));
-
-        for (int index = 0; index < length; index++) {
-            long max = UNDEFINED;
-            for (final Tipset tipSet : tipsets) {
-                max = Math.max(max, tipSet.tips[index]);
-            }
-            newTipset.tips[index] = max;
+        for (final Tipset tipset : tipsets) {
+            tipset.mergeInto(newTipset.tips, 0);
         }
 
         return newTipset;
     }
 
+    /**
+     * Set each tip in an array to the maximum of itself and the tip with the same index in this tipset.
+     *
+     * @param destination       the array of the tips to update
+     * @param destinationOffset the position of the tip of the node with index 0
+     */
+    void mergeInto(@NonNull final long[] destination, final int destinationOffset) {
+        TipsetMath.max(destination, destinationOffset, getArray(), getOffset(), size);
+    }
+
+    /**
+     * Create a copy of this tipset that stores its own tips, so that it can be kept after the slot of this tipset is
+     * released.
+     *
+     * @return a copy of this tipset
+     */
+    @NonNull
+    Tipset copy() {
+        final Tipset copy = buildEmptyTipset(this);
+        System.arraycopy(getArray(), getOffset(), copy.tips, 0, size);
+        return copy;
+    }
+
+    /**
+     * @return the slot of this tipset in its slab
+     */
+    int getSlot() {
+        return slot;
+    }
+
+    /**
+     * @return the array that holds the tips of this tipset
+     */
+    @NonNull
+    long[] getArray() {
+        return slab == null ? tips : slab.getTips();
+    }
+
+    /**
+     * @return the position in {@link #getArray()} of the tip of the node with index 0
+     */
+    int getOffset() {
+        return slab == null ? 0 : slab.offsetOf(slot);
+    }
+
     /**
      * Get the tip generation for a given node
      *
@@ -108,7 +181,7 @@ public class Tipset {
         if (index == AddressBook.NOT_IN_ADDRESS_BOOK_INDEX) {
             return UNDEFINED;
         }
-        return tips[index];
+        return getArray()[getOffset() + index];
     }
 
     /**
@@ -117,7 +190,7 @@ public class Tipset {
      * @return the number of tips
      */
     public int size() {
-        return tips.length;
+        return size;
     }
 
     /**
@@ -128,8 +201,9 @@ public class Tipset {
      * @return this object
      */
     public @NonNull Tipset advance(@NonNull final NodeId creator, final long generation) {
-        final int index = addressBook.getIndexOfNodeId(creator);
-        tips[index] = Math.max(tips[index], generation);
+        final long[] array = getArray();
+        final int position = getOffset() + addressBook.getIndexOfNodeId(creator);
+        array[position] = Math.max(array[position], generation);
         return this;
     }
 
@@ -158,14 +232,19 @@ public class Tipset {
         long nonZeroWeight = 0;
         long zeroWeightCount = 0;
 
+        final long[] thisTips = this.getArray();
+        final int thisOffset = this.getOffset();
+        final long[] thatTips = that.getArray();
+        final int thatOffset = that.getOffset();
+
         final int selfIndex = addressBook.getIndexOfNodeId(selfId);
-        for (int index = 0; index < tips.length; index++) {
+        for (int index = 0; index < size; index++) {
             if (index == selfIndex) {
                 // We don't consider self advancement here, since self advancement does nothing to help consensus.
                 continue;
             }
 
-            if (this.tips[index] < that.tips[index]) {
+            if (thisTips[thisOffset + index] < thatTips[thatOffset + index]) {
                 final NodeId nodeId = addressBook.getNodeId(index);
                 final Address address = addressBook.getAddress(nodeId);
 
@@ -180,15 +259,48 @@ public class Tipset {
         return TipsetAdvancementWeight.of(nonZeroWeight, zeroWeightCount);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof final Tipset that) || size != that.size) {
+            return false;
+        }
+        final int thisOffset = getOffset();
+        final int thatOffset = that.getOffset();
+        return Arrays.equals(
+                getArray(), thisOffset, thisOffset + size, that.getArray(), thatOffset, thatOffset + size);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        final long[] array = getArray();
+        final int offset = getOffset();
+        int hash = 1;
+        for (int index = 0; index < size; index++) {
+            hash = 31 * hash + Long.hashCode(array[offset + index]);
+        }
+        return hash;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public String toString() {
+        final long[] array = getArray();
+        final int offset = getOffset();
         final StringBuilder sb = new StringBuilder("(");
-        for (int index = 0; index < tips.length; index++) {
-            sb.append(addressBook.getNodeId(index)).append(":").append(tips[index]);
-            if (index < tips.length - 1) {
+        for (int index = 0; index < size; index++) {
+            sb.append(addressBook.getNodeId(index)).append(":").append(array[offset + index]);
+            if (index < size - 1) {
                 sb.append(", ");
             }
         }
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.event.creation.tipset;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * The loops that compare and merge tipsets. They are run for every possible other parent each time an event may be
+ * created, so they are written as straight counted loops over primitive arrays, without branches in the loop body,
+ * which is the shape that the JIT compiler turns into SIMD instructions.
+ */
+final class TipsetMath {
+
+    private TipsetMath() {}
+
+    /**
+     * Set each tip in the destination to the maximum of itself and the tip with the same index in the source.
+     *
+     * @param destination       the array of the tips to update
+     * @param destinationOffset the position of the first tip to update
+     * @param source            the array of the tips to merge
+     * @param sourceOffset      the position of the first tip to merge
+     * @param length            the number of tips
+     */
+    static void max(
+            @NonNull final long[] destination,
+            final int destinationOffset,
+            @NonNull final long[] source,
+            final int sourceOffset,
+            final int length) {
+        for (int index = 0; index < length; index++) {
+            destination[destinationOffset + index] =
+                    Math.max(destination[destinationOffset + index], source[sourceOffset + index]);
+        }
+    }
+
+    /**
+     * Compute the tip advancement weight between two tipsets, see
+     * {@link Tipset#getTipAdvancementWeight(com.swirlds.common.platform.NodeId, Tipset)}. A tip is advanced if it is
+     * greater in the second tipset. Tips are never less than {@link Tipset#UNDEFINED}, so the difference of two tips
+     * does not overflow and its sign bit tells if the tip was advanced.
+     *
+     * @param before          the array of the tips of the first tipset
+     * @param beforeOffset    the position of the first tip of the first tipset
+     * @param after           the array of the tips of the second tipset
+     * @param afterOffset     the position of the first tip of the second tipset
+     * @param weights         the weight of each node, 0 for this node and for zero weight nodes
+     * @param zeroWeightFlags 1 for each zero weight node other than this node, 0 for the others
+     * @param length          the number of tips
+     * @return the tip advancement weight
+     */
+    @NonNull
+    static TipsetAdvancementWeight advancementWeight(
+            @NonNull final long[] before,
+            final int beforeOffset,
+            @NonNull final long[] after,
+            final int afterOffset,
+            @NonNull final long[] weights,
+            @NonNull final long[] zeroWeightFlags,
+            final int length) {
+        long nonZeroWeight = 0;
+        long zeroWeightCount = 0;
+        for (int index = 0; index < length; index++) {
+            final long advanced = (before[beforeOffset + index] - after[afterOffset + index]) >>> 63;
+            nonZeroWeight += advanced * weights[index];
+            zeroWeightCount += advanced & zeroWeightFlags[index];
+        }
+        return TipsetAdvancementWeight.of(nonZeroWeight, zeroWeightCount);
+    }
+}
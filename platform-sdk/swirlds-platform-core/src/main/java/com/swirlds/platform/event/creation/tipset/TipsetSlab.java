@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.event.creation.tipset;
+
+import static com.swirlds.platform.event.creation.tipset.Tipset.UNDEFINED;
+
+import java.util.Arrays;
+
+/**
+ * Stores the tips of many tipsets in one contiguous long array, one row of {@link #getWidth()} tips per slot, instead
+ * of in one array per tipset. The tipsets of non-ancient events are allocated and released in roughly the order the
+ * events are created, so the free slots are kept in a ring and reused in the order they were released, and in the
+ * steady state the slab neither grows nor allocates. The slab doubles in size if all of its slots are in use.
+ *
+ * <p>The array returned by {@link #getTips()} is replaced when the slab grows, so it must be fetched again after each
+ * {@link #allocate()}.
+ *
+ * <p>This class is not thread safe, it is only used by the thread creating events.
+ */
+final class TipsetSlab {
+    /** the initial number of slots */
+    private static final int INITIAL_CAPACITY = 256;
+    /** the maximum number of tips in the slab */
+    private static final long MAX_SLAB_SIZE = Integer.MAX_VALUE - 8;
+
+    /** the number of tips in a row, which is the size of the address book */
+    private final int width;
+    /** tips[slot * width + index] is the tip of the node with index in the tipset in slot */
+    private long[] tips;
+    /** the free slots, a ring of {@link #numFreeSlots} slots starting at {@link #firstFreeSlot} */
+    private int[] freeSlots;
+    /** the position in {@link #freeSlots} of the free slot that is allocated next */
+    private int firstFreeSlot;
+    /** the number of free slots */
+    private int numFreeSlots;
+
+    /**
+     * @param width the number of tips in a tipset
+     */
+    TipsetSlab(final int width) {
+        this.width = width;
+        tips = new long[INITIAL_CAPACITY * width];
+        freeSlots = new int[INITIAL_CAPACITY];
+        clear();
+    }
+
+    /**
+     * Allocate a slot, growing the slab if all slots are in use. All tips of the slot are {@link Tipset#UNDEFINED}.
+     *
+     * @return the slot
+     */
+    int allocate() {
+        if (numFreeSlots == 0) {
+            grow();
+        }
+        final int slot = freeSlots[firstFreeSlot];
+        firstFreeSlot = (firstFreeSlot + 1) % freeSlots.length;
+        numFreeSlots--;
+        final int offset = slot * width;
+        Arrays.fill(tips, offset, offset + width, UNDEFINED);
+        return slot;
+    }
+
+    /**
+     * Release a slot so that it can be allocated again. The tipset in the slot must no longer be used.
+     *
+     * @param slot the slot to release
+     */
+    void release(final int slot) {
+        freeSlots[(firstFreeSlot + numFreeSlots) % freeSlots.length] = slot;
+        numFreeSlots++;
+    }
+
+    /**
+     * Release all slots.
+     */
+    void clear() {
+        for (int slot = 0; slot < freeSlots.length; slot++) {
+            freeSlots[slot] = slot;
+        }
+        firstFreeSlot = 0;
+        numFreeSlots = freeSlots.length;
+    }
+
+    /**
+     * @return the array of all tips, only valid until the next {@link #allocate()}
+     */
+    long[] getTips() {
+        return tips;
+    }
+
+    /**
+     * @param slot the slot
+     * @return the position of the first tip of the slot in {@link #getTips()}
+     */
+    int offsetOf(final int slot) {
+        return slot * width;
+    }
+
+    /**
+     * @return the number of tips in a tipset
+     */
+    int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the number of slots that are allocated
+     */
+    int getNumSlotsInUse() {
+        return freeSlots.length - numFreeSlots;
+    }
+
+    /**
+     * @return the number of slots the slab currently has room for
+     */
+    int getCapacity() {
+        return freeSlots.length;
+    }
+
+    /**
+     * Double the number of slots. Only called when no slot is free, so the new slots are the only free slots.
+     */
+    private void grow() {
+        final int capacity = freeSlots.length;
+        final long newCapacity = 2L * capacity;
+        if (newCapacity * Math.max(width, 1) > MAX_SLAB_SIZE) {
+            throw new IllegalStateException(
+                    "Cannot store more than " + capacity + " tipsets with " + width + " tips each");
+        }
+        tips = Arrays.copyOf(tips, (int) newCapacity * width);
+        freeSlots = new int[(int) newCapacity];
+        for (int i = 0; i < capacity; i++) {
+            freeSlots[i] = capacity + i;
+        }
+        firstFreeSlot = 0;
+        numFreeSlots = capacity;
+    }
+}
@@ -17,7 +17,6 @@
 package com.swirlds.platform.event.creation.tipset;
 
 import static com.swirlds.logging.legacy.LogMarker.EXCEPTION;
-import static com.swirlds.platform.event.creation.tipset.Tipset.merge;
 
 import com.swirlds.base.time.Time;
 import com.swirlds.common.platform.NodeId;
@@ -31,7 +30,6 @@ import com.swirlds.platform.system.events.EventDescriptor;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.time.Duration;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import org.apache.logging.log4j.LogManager;
@@ -51,6 +49,12 @@ public class TipsetTracker {
      */
     private final SequenceMap<EventDescriptor, Tipset> tipsets;
 
+    /**
+     * Stores the tips of the tipsets in {@link #tipsets}. The slot of a tipset is released when its event becomes
+     * ancient.
+     */
+    private final TipsetSlab slab;
+
     /**
      * This tipset is equivalent to a tipset that would be created by merging all tipsets of all events that this object
      * has ever observed. If you ask this tipset for the generation for a particular node, it will return the highest
@@ -78,6 +82,7 @@ public class TipsetTracker {
         this.addressBook = Objects.requireNonNull(addressBook);
 
         this.latestGenerations = new Tipset(addressBook);
+        this.slab = new TipsetSlab(addressBook.getSize());
 
         if (ancientMode == AncientMode.BIRTH_ROUND_THRESHOLD) {
             tipsets = new StandardSequenceMap<>(0, INITIAL_TIPSET_MAP_CAPACITY, true, EventDescriptor::getBirthRound);
@@ -98,7 +103,8 @@ public class TipsetTracker {
      */
     public void setEventWindow(@NonNull final EventWindow eventWindow) {
         this.eventWindow = Objects.requireNonNull(eventWindow);
-        tipsets.shiftWindow(eventWindow.getAncientThreshold());
+        tipsets.shiftWindow(
+                eventWindow.getAncientThreshold(), (descriptor, tipset) -> slab.release(tipset.getSlot()));
     }
 
     /**
@@ -134,23 +140,30 @@ public class TipsetTracker {
                     eventWindow);
         }
 
-        final List<Tipset> parentTipsets = new ArrayList<>(parents.size());
-        for (final EventDescriptor parent : parents) {
-            final Tipset parentTipset = tipsets.get(parent);
+        // Merge the parent tipsets directly into the slot of the new tipset
+        final int slot = slab.allocate();
+        final long[] slabTips = slab.getTips();
+        final int offset = slab.offsetOf(slot);
+        for (int i = 0; i < parents.size(); i++) {
+            final Tipset parentTipset = tipsets.get(parents.get(i));
             if (parentTipset != null) {
-                parentTipsets.add(parentTipset);
+                parentTipset.mergeInto(slabTips, offset);
             }
         }
+        Tipset eventTipset = new Tipset(addressBook, slab, slot)
+                .advance(eventDescriptor.getCreator(), eventDescriptor.getGeneration());
 
-        final Tipset eventTipset;
-        if (parentTipsets.isEmpty()) {
-            eventTipset =
-                    new Tipset(addressBook).advance(eventDescriptor.getCreator(), eventDescriptor.getGeneration());
+        if (eventDescriptor.getAncientIndicator(ancientMode) < tipsets.getFirstSequenceNumberInWindow()) {
+            // The map will not store the tipset of an ancient event, so don't keep it in the slab either
+            eventTipset = eventTipset.copy();
+            slab.release(slot);
         } else {
-            eventTipset = merge(parentTipsets).advance(eventDescriptor.getCreator(), eventDescriptor.getGeneration());
+            final Tipset previousTipset = tipsets.put(eventDescriptor, eventTipset);
+            if (previousTipset != null) {
+                slab.release(previousTipset.getSlot());
+            }
         }
 
-        tipsets.put(eventDescriptor, eventTipset);
         latestGenerations = latestGenerations.advance(eventDescriptor.getCreator(), eventDescriptor.getGeneration());
 
         return eventTipset;
@@ -191,5 +204,6 @@ public class TipsetTracker {
         eventWindow = EventWindow.getGenesisEventWindow(ancientMode);
         latestGenerations = new Tipset(addressBook);
         tipsets.clear();
+        slab.clear();
     }
 }
@@ -28,7 +28,7 @@ import com.swirlds.platform.system.address.AddressBook;
 import com.swirlds.platform.system.events.EventDescriptor;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.time.Duration;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -62,7 +62,7 @@ public class TipsetWeightCalculator {
     /**
      * The current tipset snapshot. This is updated to the latest self event's tipset whenever the weighted advancement
      * between the current snapshot and the new event's tipset exceeds the threshold of 2/3 consensus weight minus the
-     * self weight.
+     * self weight. This is a copy of the tipset of the event, since the snapshot is used after the event is ancient.
      */
     private Tipset snapshot;
 
@@ -101,6 +101,23 @@ public class TipsetWeightCalculator {
      */
     private Tipset latestSelfEventTipset;
 
+    /**
+     * The weight of each node, by node index. The weight of this node and of zero weight nodes is 0, since advancing
+     * them does not add to the advancement weight.
+     */
+    private final long[] nodeWeights;
+
+    /**
+     * 1 for each zero weight node other than this node, 0 for all other nodes, by node index.
+     */
+    private final long[] zeroWeightFlags;
+
+    /**
+     * Holds the merged tipset of the parents of a theoretical event, reused for every call to
+     * {@link #getTheoreticalAdvancementWeight(List)}.
+     */
+    private final long[] theoreticalTips;
+
     private final AddressBook addressBook;
 
     private final RateLimitedLogger ancientParentLogger;
@@ -135,6 +152,20 @@ public class TipsetWeightCalculator {
                 .getConfigData(EventCreationConfig.class)
                 .tipsetSnapshotHistorySize();
 
+        final int selfIndex = addressBook.getIndexOfNodeId(selfId);
+        nodeWeights = new long[addressBook.getSize()];
+        zeroWeightFlags = new long[addressBook.getSize()];
+        for (int index = 0; index < nodeWeights.length; index++) {
+            if (index == selfIndex) {
+                // We don't consider self advancement, since self advancement does nothing to help consensus.
+                continue;
+            }
+            final long weight = addressBook.getAddress(addressBook.getNodeId(index)).getWeight();
+            nodeWeights[index] = weight;
+            zeroWeightFlags[index] = weight == 0 ? 1 : 0;
+        }
+        theoreticalTips = new long[addressBook.getSize()];
+
         snapshot = new Tipset(addressBook);
         latestSelfEventTipset = snapshot;
         snapshotHistory.add(snapshot);
@@ -185,7 +216,14 @@ public class TipsetWeightCalculator {
             throw new IllegalArgumentException("event " + event + " is not in the tipset tracker");
         }
 
-        final TipsetAdvancementWeight advancementWeight = snapshot.getTipAdvancementWeight(selfId, eventTipset);
+        final TipsetAdvancementWeight advancementWeight = TipsetMath.advancementWeight(
+                snapshot.getArray(),
+                snapshot.getOffset(),
+                eventTipset.getArray(),
+                eventTipset.getOffset(),
+                nodeWeights,
+                zeroWeightFlags,
+                nodeWeights.length);
         if (advancementWeight.advancementWeight() > maximumPossibleAdvancementWeight) {
             throw new IllegalStateException("advancement weight " + advancementWeight
                     + " is greater than the maximum possible weight " + maximumPossibleAdvancementWeight);
@@ -193,8 +231,11 @@ public class TipsetWeightCalculator {
 
         final TipsetAdvancementWeight advancementWeightImprovement = advancementWeight.minus(previousAdvancementWeight);
 
+        // The tipset tracker reuses the storage of the tipset once the event is ancient, so keep a copy
+        final Tipset eventTipsetCopy = eventTipset.copy();
+
         if (SUPER_MAJORITY.isSatisfiedBy(advancementWeight.advancementWeight() + selfWeight, totalWeight)) {
-            snapshot = eventTipset;
+            snapshot = eventTipsetCopy;
             snapshotHistory.add(snapshot);
             if (snapshotHistory.size() > maxSnapshotHistorySize) {
                 snapshotHistory.remove();
@@ -204,7 +245,7 @@ public class TipsetWeightCalculator {
             previousAdvancementWeight = advancementWeight;
         }
 
-        latestSelfEventTipset = eventTipset;
+        latestSelfEventTipset = eventTipsetCopy;
 
         return advancementWeightImprovement;
     }
@@ -220,8 +261,12 @@ public class TipsetWeightCalculator {
             return ZERO_ADVANCEMENT_WEIGHT;
         }
 
-        final List<Tipset> parentTipsets = new ArrayList<>(parents.size());
-        for (final EventDescriptor parent : parents) {
+        // Don't bother advancing the self generation in this theoretical tipset,
+        // since self advancement doesn't contribute to tipset advancement weight.
+        Arrays.fill(theoreticalTips, Tipset.UNDEFINED);
+        boolean parentFound = false;
+        for (int i = 0; i < parents.size(); i++) {
+            final EventDescriptor parent = parents.get(i);
             final Tipset parentTipset = tipsetTracker.getTipset(parent);
 
             if (parentTipset == null) {
@@ -240,19 +285,24 @@ public class TipsetWeightCalculator {
                 continue;
             }
 
-            parentTipsets.add(parentTipset);
+            parentTipset.mergeInto(theoreticalTips, 0);
+            parentFound = true;
         }
 
-        if (parentTipsets.isEmpty()) {
+        if (!parentFound) {
             allParentsAreAncientLogger.error(EXCEPTION.getMarker(), "all parents being considered are ancient");
             return ZERO_ADVANCEMENT_WEIGHT;
         }
 
-        // Don't bother advancing the self generation in this theoretical tipset,
-        // since self advancement doesn't contribute to tipset advancement weight.
-        final Tipset newTipset = Tipset.merge(parentTipsets);
-
-        return snapshot.getTipAdvancementWeight(selfId, newTipset).minus(previousAdvancementWeight);
+        return TipsetMath.advancementWeight(
+                        snapshot.getArray(),
+                        snapshot.getOffset(),
+                        theoreticalTips,
+                        0,
+                        nodeWeights,
+                        zeroWeightFlags,
+                        nodeWeights.length)
+                .minus(previousAdvancementWeight);
     }
 
     /**
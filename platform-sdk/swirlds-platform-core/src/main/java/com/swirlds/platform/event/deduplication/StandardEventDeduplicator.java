@@ -35,23 +35,27 @@ import com.swirlds.platform.system.events.EventDescriptor;
 import com.swirlds.platform.wiring.NoInput;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
-import java.nio.ByteBuffer;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 import java.util.function.Function;
 
 /**
  * A standard implementation of an {@link EventDeduplicator}.
+ * <p>
+ * Nearly every descriptor is only ever seen with one signature, so the first signature of a descriptor is kept as is,
+ * and only the rare additional signatures are kept in lists. Handling a duplicate event allocates nothing, and a new
+ * event only allocates its entry and a copy of its signature.
  */
 public class StandardEventDeduplicator implements EventDeduplicator {
     /**
      * Avoid the creation of lambdas for Map.computeIfAbsent() by reusing this lambda.
      */
-    private static final Function<EventDescriptor, Set<ByteBuffer>> NEW_HASH_SET = ignored -> new HashSet<>();
+    private static final Function<EventDescriptor, List<byte[]>> NEW_LIST = ignored -> new ArrayList<>();
 
     /**
-     * Initial capacity of {@link #observedEvents}.
+     * Initial capacity of {@link #observedEvents} and {@link #disparateSignatures}.
      */
     private static final int INITIAL_CAPACITY = 1024;
 
@@ -66,9 +70,15 @@ public class StandardEventDeduplicator implements EventDeduplicator {
     private final IntakeEventCounter intakeEventCounter;
 
     /**
-     * A map from event descriptor to a set of signatures that have been received for that event.
+     * A map from event descriptor to the first signature that has been received for that event.
      */
-    private final SequenceMap<EventDescriptor, Set<ByteBuffer>> observedEvents;
+    private final SequenceMap<EventDescriptor, byte[]> observedEvents;
+
+    /**
+     * A map from event descriptor to the signatures that have been received for that event, other than the first one.
+     * Only has entries for events that have been received with more than one signature.
+     */
+    private final SequenceMap<EventDescriptor, List<byte[]>> disparateSignatures;
 
     private static final LongAccumulator.Config DISPARATE_SIGNATURE_CONFIG = new LongAccumulator.Config(
                     PLATFORM_CATEGORY, "eventsWithDisparateSignature")
@@ -113,8 +123,12 @@ public class StandardEventDeduplicator implements EventDeduplicator {
         this.eventWindow = EventWindow.getGenesisEventWindow(ancientMode);
         if (ancientMode == AncientMode.BIRTH_ROUND_THRESHOLD) {
             observedEvents = new StandardSequenceMap<>(0, INITIAL_CAPACITY, true, EventDescriptor::getBirthRound);
+            disparateSignatures =
+                    new StandardSequenceMap<>(0, INITIAL_CAPACITY, true, EventDescriptor::getBirthRound);
         } else {
             observedEvents = new StandardSequenceMap<>(0, INITIAL_CAPACITY, true, EventDescriptor::getGeneration);
+            disparateSignatures =
+                    new StandardSequenceMap<>(0, INITIAL_CAPACITY, true, EventDescriptor::getGeneration);
         }
     }
 
@@ -130,9 +144,23 @@ public class StandardEventDeduplicator implements EventDeduplicator {
             return null;
         }
 
-        final Set<ByteBuffer> signatures = observedEvents.computeIfAbsent(event.getDescriptor(), NEW_HASH_SET);
-        if (signatures.add(ByteBuffer.wrap(event.getSignature()))) {
-            if (signatures.size() != 1) {
+        final EventDescriptor descriptor = event.getDescriptor();
+        final byte[] signature = event.getSignature();
+        final byte[] firstSignature = observedEvents.get(descriptor);
+
+        final boolean unique;
+        if (firstSignature == null) {
+            // the signature array belongs to the event, so keep a copy of what was observed
+            observedEvents.put(descriptor, signature.clone());
+            unique = true;
+        } else if (Arrays.equals(firstSignature, signature)) {
+            unique = false;
+        } else {
+            unique = addDisparateSignature(descriptor, signature);
+        }
+
+        if (unique) {
+            if (firstSignature != null) {
                 // signature is unique, but descriptor is not
                 disparateSignatureAccumulator.update(1);
             }
@@ -152,6 +180,24 @@ public class StandardEventDeduplicator implements EventDeduplicator {
         }
     }
 
+    /**
+     * Record a signature of an event that differs from the first signature received for that event.
+     *
+     * @param descriptor the descriptor of the event
+     * @param signature  the signature of the event
+     * @return true if the signature had not been received before, false if it is a duplicate
+     */
+    private boolean addDisparateSignature(@NonNull final EventDescriptor descriptor, @NonNull final byte[] signature) {
+        final List<byte[]> signatures = disparateSignatures.computeIfAbsent(descriptor, NEW_LIST);
+        for (int i = 0; i < signatures.size(); i++) {
+            if (Arrays.equals(signatures.get(i), signature)) {
+                return false;
+            }
+        }
+        signatures.add(signature.clone());
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -160,6 +206,7 @@ public class StandardEventDeduplicator implements EventDeduplicator {
         this.eventWindow = Objects.requireNonNull(eventWindow);
 
         observedEvents.shiftWindow(eventWindow.getAncientThreshold());
+        disparateSignatures.shiftWindow(eventWindow.getAncientThreshold());
     }
 
     /**
@@ -168,5 +215,6 @@ public class StandardEventDeduplicator implements EventDeduplicator {
     @Override
     public void clear(@NonNull final NoInput ignored) {
         observedEvents.clear();
+        disparateSignatures.clear();
     }
 }
@@ -31,17 +31,21 @@ import com.swirlds.platform.eventhandling.EventConfig;
 import com.swirlds.platform.gossip.IntakeEventCounter;
 import com.swirlds.platform.system.events.EventDescriptor;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 /**
  * Takes as input an unordered stream of {@link GossipEvent GossipEvent}s and emits a stream
  * of {@link GossipEvent GossipEvent}s in topological order.
+ * <p>
+ * Handling an event that is not an orphan allocates nothing but the returned list. The intermediate results are kept
+ * in scratch structures that are reused for every event, which is safe because the buffer is only used by one thread
+ * at a time.
  */
 public class DefaultOrphanBuffer implements OrphanBuffer {
     /**
@@ -81,6 +85,41 @@ public class DefaultOrphanBuffer implements OrphanBuffer {
      */
     private final SequenceMap<EventDescriptor, List<OrphanedEvent>> missingParentMap;
 
+    /**
+     * Iterates over the parents of the event being handled, reused for every event.
+     */
+    private final ParentIterator parentIterator = new ParentIterator();
+
+    /**
+     * The missing parents of the event being handled, reused for every event.
+     */
+    private final List<EventDescriptor> missingParents = new ArrayList<>();
+
+    /**
+     * The events that have been found to not be orphans, but whose children have not been checked yet. Reused for
+     * every event.
+     */
+    private final Deque<GossipEvent> nonOrphanStack = new ArrayDeque<>();
+
+    /**
+     * The events that are no longer orphans, collected until they are returned. Reused for every event.
+     */
+    private final List<GossipEvent> unorphanedEvents = new ArrayList<>();
+
+    /**
+     * The missing parents that became ancient when the window was shifted, and the orphans of each of them (at the
+     * same index). These are collected while the window is shifting, and acted on once it has finished shifting.
+     */
+    private final List<EventDescriptor> ancientParents = new ArrayList<>();
+
+    private final List<List<OrphanedEvent>> ancientParentOrphans = new ArrayList<>();
+
+    /**
+     * Collects a missing parent that became ancient, and its orphans. Avoids the creation of a lambda per window
+     * shift.
+     */
+    private final BiConsumer<EventDescriptor, List<OrphanedEvent>> ancientParentCollector;
+
     /**
      * Constructor
      *
@@ -92,6 +131,10 @@ public class DefaultOrphanBuffer implements OrphanBuffer {
 
         this.intakeEventCounter = Objects.requireNonNull(intakeEventCounter);
         this.currentOrphanCount = 0;
+        this.ancientParentCollector = (parent, orphans) -> {
+            ancientParents.add(parent);
+            ancientParentOrphans.add(orphans);
+        };
 
         platformContext
                 .getMetrics()
@@ -128,13 +171,17 @@ public class DefaultOrphanBuffer implements OrphanBuffer {
 
         currentOrphanCount++;
 
-        final List<EventDescriptor> missingParents = getMissingParents(event);
+        findMissingParents(event);
         if (missingParents.isEmpty()) {
-            return eventIsNotAnOrphan(event);
+            eventIsNotAnOrphan(event);
+            return drainUnorphanedEvents();
         } else {
-            final OrphanedEvent orphanedEvent = new OrphanedEvent(event, missingParents);
-            for (final EventDescriptor missingParent : missingParents) {
-                this.missingParentMap.computeIfAbsent(missingParent, EMPTY_LIST).add(orphanedEvent);
+            // Orphans are rare, so only they get a list of their own
+            final OrphanedEvent orphanedEvent = new OrphanedEvent(event, new ArrayList<>(missingParents));
+            for (int i = 0; i < missingParents.size(); i++) {
+                this.missingParentMap
+                        .computeIfAbsent(missingParents.get(i), EMPTY_LIST)
+                        .add(orphanedEvent);
             }
 
             return List.of();
@@ -154,77 +201,64 @@ public class DefaultOrphanBuffer implements OrphanBuffer {
         // As the map is cleared out, we need to gather the ancient parents and their orphans. We can't
         // modify the data structure as the window is being shifted, so we collect that data and act on
         // it once the window has finished shifting.
-        final List<ParentAndOrphans> ancientParents = new ArrayList<>();
-        missingParentMap.shiftWindow(
-                eventWindow.getAncientThreshold(),
-                (parent, orphans) -> ancientParents.add(new ParentAndOrphans(parent, orphans)));
+        missingParentMap.shiftWindow(eventWindow.getAncientThreshold(), ancientParentCollector);
 
-        final List<GossipEvent> unorphanedEvents = new ArrayList<>();
-        ancientParents.forEach(
-                parentAndOrphans -> unorphanedEvents.addAll(missingParentBecameAncient(parentAndOrphans)));
+        for (int i = 0; i < ancientParents.size(); i++) {
+            missingParentBecameAncient(ancientParents.get(i), ancientParentOrphans.get(i));
+        }
+        ancientParents.clear();
+        ancientParentOrphans.clear();
 
-        return unorphanedEvents;
+        return drainUnorphanedEvents();
     }
 
     /**
      * Called when a parent becomes ancient.
      * <p>
-     * Accounts for events potentially becoming un-orphaned as a result of the parent becoming ancient.
+     * Accounts for events potentially becoming un-orphaned as a result of the parent becoming ancient. Those events are
+     * added to {@link #unorphanedEvents}.
      *
-     * @param parentAndOrphans the parent that became ancient, along with its orphans
-     * @return the list of events that are no longer orphans as a result of this parent becoming ancient
+     * @param parentDescriptor the parent that became ancient
+     * @param orphans          the orphans that are missing the parent
      */
-    @NonNull
-    private List<GossipEvent> missingParentBecameAncient(@NonNull final ParentAndOrphans parentAndOrphans) {
-        final List<GossipEvent> unorphanedEvents = new ArrayList<>();
-
-        final EventDescriptor parentDescriptor = parentAndOrphans.parent();
-
-        for (final OrphanedEvent orphan : parentAndOrphans.orphans()) {
+    private void missingParentBecameAncient(
+            @NonNull final EventDescriptor parentDescriptor, @NonNull final List<OrphanedEvent> orphans) {
+        for (int i = 0; i < orphans.size(); i++) {
+            final OrphanedEvent orphan = orphans.get(i);
             orphan.missingParents().remove(parentDescriptor);
 
             if (orphan.missingParents().isEmpty()) {
-                unorphanedEvents.addAll(eventIsNotAnOrphan(orphan.orphan()));
+                eventIsNotAnOrphan(orphan.orphan());
             }
         }
-
-        return unorphanedEvents;
     }
 
     /**
-     * Get the parents of an event that are currently missing.
+     * Find the parents of an event that are currently missing, and put them in {@link #missingParents}.
      *
      * @param event the event whose missing parents to find
-     * @return the list of missing parents, empty if no parents are missing
      */
-    @NonNull
-    private List<EventDescriptor> getMissingParents(@NonNull final GossipEvent event) {
-        final List<EventDescriptor> missingParents = new ArrayList<>();
+    private void findMissingParents(@NonNull final GossipEvent event) {
+        missingParents.clear();
 
-        final Iterator<EventDescriptor> parentIterator = new ParentIterator(event);
+        parentIterator.reset(event);
         while (parentIterator.hasNext()) {
             final EventDescriptor parent = parentIterator.next();
             if (!eventsWithParents.contains(parent) && !eventWindow.isAncient(parent)) {
                 missingParents.add(parent);
             }
         }
-
-        return missingParents;
     }
 
     /**
      * Signal that an event is not an orphan.
      * <p>
-     * Accounts for events potentially becoming un-orphaned as a result of this event not being an orphan.
+     * Accounts for events potentially becoming un-orphaned as a result of this event not being an orphan. The event,
+     * and every event that is no longer an orphan as a result, are added to {@link #unorphanedEvents}.
      *
      * @param event the event that is not an orphan
-     * @return the list of events that are no longer orphans as a result of this event not being an orphan
      */
-    @NonNull
-    private List<GossipEvent> eventIsNotAnOrphan(@NonNull final GossipEvent event) {
-        final List<GossipEvent> unorphanedEvents = new ArrayList<>();
-
-        final Deque<GossipEvent> nonOrphanStack = new LinkedList<>();
+    private void eventIsNotAnOrphan(@NonNull final GossipEvent event) {
         nonOrphanStack.push(event);
 
         // When a missing parent is found, there may be many descendants of that parent who end up
@@ -252,15 +286,26 @@ public class DefaultOrphanBuffer implements OrphanBuffer {
                 continue;
             }
 
-            for (final OrphanedEvent child : children) {
+            for (int i = 0; i < children.size(); i++) {
+                final OrphanedEvent child = children.get(i);
                 child.missingParents().remove(nonOrphanDescriptor);
                 if (child.missingParents().isEmpty()) {
                     nonOrphanStack.push(child.orphan());
                 }
             }
         }
+    }
 
-        return unorphanedEvents;
+    /**
+     * Returns the events collected in {@link #unorphanedEvents}, and empties it for the next event.
+     *
+     * @return the events that are no longer orphans, in the order they were found
+     */
+    @NonNull
+    private List<GossipEvent> drainUnorphanedEvents() {
+        final List<GossipEvent> events = List.copyOf(unorphanedEvents);
+        unorphanedEvents.clear();
+        return events;
     }
 
     /**
@@ -283,5 +328,11 @@ public class DefaultOrphanBuffer implements OrphanBuffer {
         // before gossip starts back up
         missingParentMap.clear();
         currentOrphanCount = 0;
+
+        missingParents.clear();
+        nonOrphanStack.clear();
+        unorphanedEvents.clear();
+        ancientParents.clear();
+        ancientParentOrphans.clear();
     }
 }
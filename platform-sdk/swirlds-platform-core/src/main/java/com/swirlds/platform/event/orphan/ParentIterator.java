@@ -19,7 +19,7 @@ package com.swirlds.platform.event.orphan;
 import com.swirlds.platform.event.GossipEvent;
 import com.swirlds.platform.system.events.EventDescriptor;
 import edu.umd.cs.findbugs.annotations.NonNull;
-import java.util.ArrayList;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -27,6 +27,9 @@ import java.util.NoSuchElementException;
 /**
  * Iterates over the parents of an event. This class is temporary and intended to allow code to be written that works
  * for the current binary event parentage and the future n-ary event parentage.
+ * <p>
+ * The parents are read from the event as they are iterated, so an iterator can be {@link #reset(GossipEvent) reset}
+ * and reused for every event without allocating.
  */
 class ParentIterator implements Iterator<EventDescriptor> {
     /**
@@ -35,9 +38,20 @@ class ParentIterator implements Iterator<EventDescriptor> {
     private int returnedEvents;
 
     /**
-     * The parents of the event.
+     * The self parent of the event, or null if it has none.
      */
-    private final List<EventDescriptor> parents;
+    @Nullable
+    private EventDescriptor selfParent;
+
+    /**
+     * The other parents of the event.
+     */
+    private List<EventDescriptor> otherParents = List.of();
+
+    /**
+     * Constructor for an iterator without parents, to be {@link #reset(GossipEvent) reset} before use.
+     */
+    ParentIterator() {}
 
     /**
      * Constructor.
@@ -45,15 +59,21 @@ class ParentIterator implements Iterator<EventDescriptor> {
      * @param event the event whose parents we want to iterate over
      */
     ParentIterator(@NonNull final GossipEvent event) {
-        parents = new ArrayList<>();
-
-        final EventDescriptor selfParent = event.getHashedData().getSelfParent();
-        final List<EventDescriptor> otherParents = event.getHashedData().getOtherParents();
+        reset(event);
+    }
 
-        if (selfParent != null) {
-            parents.add(selfParent);
-        }
-        otherParents.forEach(parents::add);
+    /**
+     * Start iterating over the parents of another event.
+     *
+     * @param event the event whose parents we want to iterate over
+     * @return this iterator
+     */
+    @NonNull
+    ParentIterator reset(@NonNull final GossipEvent event) {
+        selfParent = event.getHashedData().getSelfParent();
+        otherParents = event.getHashedData().getOtherParents();
+        returnedEvents = 0;
+        return this;
     }
 
     /**
@@ -61,7 +81,7 @@ class ParentIterator implements Iterator<EventDescriptor> {
      */
     @Override
     public boolean hasNext() {
-        return returnedEvents < parents.size();
+        return returnedEvents < parentCount();
     }
 
     /**
@@ -77,6 +97,16 @@ class ParentIterator implements Iterator<EventDescriptor> {
         final int indexToReturn = returnedEvents;
         returnedEvents++;
 
-        return parents.get(indexToReturn);
+        if (selfParent == null) {
+            return otherParents.get(indexToReturn);
+        }
+        return indexToReturn == 0 ? selfParent : otherParents.get(indexToReturn - 1);
+    }
+
+    /**
+     * @return the number of parents of the event
+     */
+    private int parentCount() {
+        return (selfParent == null ? 0 : 1) + otherParents.size();
     }
 }
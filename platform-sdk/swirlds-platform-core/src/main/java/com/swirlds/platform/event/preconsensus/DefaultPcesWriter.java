@@ -30,6 +30,7 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.Objects;
@@ -124,6 +125,12 @@ public class DefaultPcesWriter implements PcesWriter {
      */
     private long lastFlushedEvent = -1;
 
+    /**
+     * The highest event sequence number that has been flushed to the file and, if group commit is enabled, handed to
+     * {@link #groupCommitter} to be forced to disk. Never less than {@link #lastFlushedEvent}.
+     */
+    private long lastFlushSubmitted = -1;
+
     /**
      * If true then all added events are new and need to be written to the stream. If false then all added events are
      * already durable and do not need to be written to the stream.
@@ -144,6 +151,16 @@ public class DefaultPcesWriter implements PcesWriter {
      */
     private final Deque<Long> flushRequests = new ArrayDeque<>();
 
+    /**
+     * Forces files to disk on a dedicated thread if group commit is enabled, otherwise null.
+     */
+    private final PcesGroupCommitter groupCommitter;
+
+    /**
+     * The number of bytes each new file is extended to when it is created, or 0 if files are not preallocated.
+     */
+    private final long preallocatedFileBytes;
+
     /**
      * Constructor
      *
@@ -164,6 +181,14 @@ public class DefaultPcesWriter implements PcesWriter {
         spanOverlapFactor = config.spanOverlapFactor();
         minimumSpan = config.minimumSpan();
 
+        if (config.groupCommitEnabled()) {
+            groupCommitter = new PcesGroupCommitter(platformContext, fileManager.getMetrics());
+            preallocatedFileBytes = (long) UNIT_MEGABYTES.convertTo(preferredFileSizeMegabytes, UNIT_BYTES);
+        } else {
+            groupCommitter = null;
+            preallocatedFileBytes = 0;
+        }
+
         this.fileManager = fileManager;
 
         fileType = platformContext
@@ -183,20 +208,26 @@ public class DefaultPcesWriter implements PcesWriter {
             logger.error(EXCEPTION.getMarker(), "beginStreamingNewEvents() called while already streaming new events");
         }
         streamingNewEvents = true;
+        if (groupCommitter != null) {
+            groupCommitter.markDurable(lastFlushedEvent);
+        }
     }
 
     /**
-     * Consider outstanding flush requests and perform a flush if needed.
+     * Consider outstanding flush requests and perform a flush if needed. If group commit is enabled, then the flush only
+     * hands the file to the group commit thread, and {@link #pollGroupCommits()} reports when the events are durable.
      *
-     * @return true if a flush was performed, otherwise false
+     * @return true if a flush was performed and the flushed events are durable, otherwise false
      */
     private boolean processFlushRequests() {
         boolean flushRequired = false;
+        int flushRequestCount = 0;
         while (!flushRequests.isEmpty() && flushRequests.peekFirst() <= lastWrittenEvent) {
             final long flushRequest = flushRequests.removeFirst();
 
-            if (flushRequest > lastFlushedEvent) {
+            if (flushRequest > lastFlushSubmitted) {
                 flushRequired = true;
+                flushRequestCount++;
             }
         }
 
@@ -211,12 +242,34 @@ public class DefaultPcesWriter implements PcesWriter {
                 throw new UncheckedIOException(e);
             }
 
+            lastFlushSubmitted = lastWrittenEvent;
+            if (groupCommitter != null) {
+                groupCommitter.requestCommit(currentMutableFile, lastWrittenEvent, flushRequestCount);
+                return false;
+            }
             lastFlushedEvent = lastWrittenEvent;
         }
 
         return flushRequired;
     }
 
+    /**
+     * Check if the group commit thread has made more events durable since the last check.
+     *
+     * @return true if more events are durable, otherwise false
+     */
+    private boolean pollGroupCommits() {
+        if (groupCommitter == null) {
+            return false;
+        }
+        final long durableSequenceNumber = groupCommitter.getDurableSequenceNumber();
+        if (durableSequenceNumber > lastFlushedEvent) {
+            lastFlushedEvent = durableSequenceNumber;
+            return true;
+        }
+        return false;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -231,6 +284,7 @@ public class DefaultPcesWriter implements PcesWriter {
         if (!streamingNewEvents) {
             lastWrittenEvent = event.getStreamSequenceNumber();
             lastFlushedEvent = event.getStreamSequenceNumber();
+            lastFlushSubmitted = event.getStreamSequenceNumber();
             return event.getStreamSequenceNumber();
         }
 
@@ -245,8 +299,9 @@ public class DefaultPcesWriter implements PcesWriter {
             lastWrittenEvent = event.getStreamSequenceNumber();
 
             final boolean flushPerformed = processFlushRequests();
+            final boolean groupCommitted = pollGroupCommits();
 
-            return fileClosed || flushPerformed ? lastFlushedEvent : null;
+            return fileClosed || flushPerformed || groupCommitted ? lastFlushedEvent : null;
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -282,7 +337,19 @@ public class DefaultPcesWriter implements PcesWriter {
     public Long submitFlushRequest(@NonNull final Long sequenceNumber) {
         flushRequests.add(sequenceNumber);
 
-        return processFlushRequests() ? lastFlushedEvent : null;
+        final boolean flushPerformed = processFlushRequests();
+        final boolean groupCommitted = pollGroupCommits();
+
+        return flushPerformed || groupCommitted ? lastFlushedEvent : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public Long checkDurability(@NonNull final Instant now) {
+        return pollGroupCommits() ? lastFlushedEvent : null;
     }
 
     /**
@@ -336,8 +403,19 @@ public class DefaultPcesWriter implements PcesWriter {
             if (!bootstrapMode) {
                 averageSpanUtilization.add(previousSpan);
             }
+            if (groupCommitter != null) {
+                // The file can't be closed while the group commit thread is forcing it, and the events in
+                // the file must be durable once it is closed
+                groupCommitter.awaitIdle();
+                currentMutableFile.flush();
+                currentMutableFile.sync();
+            }
             currentMutableFile.close();
             lastFlushedEvent = lastWrittenEvent;
+            lastFlushSubmitted = lastWrittenEvent;
+            if (groupCommitter != null) {
+                groupCommitter.markDurable(lastFlushedEvent);
+            }
 
             fileManager.finishedWritingFile(currentMutableFile);
             currentMutableFile = null;
@@ -402,16 +480,20 @@ public class DefaultPcesWriter implements PcesWriter {
 
             currentMutableFile = fileManager
                     .getNextFileDescriptor(nonAncientBoundary, upperBound)
-                    .getMutableFile();
+                    .getMutableFile(preallocatedFileBytes);
         }
 
         return fileClosed;
     }
 
     /**
-     * Close the current mutable file.
+     * Close the current mutable file, and stop the group commit thread if there is one.
      */
     public void closeCurrentMutableFile() {
+        if (groupCommitter != null) {
+            groupCommitter.awaitIdle();
+            groupCommitter.stop();
+        }
         if (currentMutableFile != null) {
             try {
                 currentMutableFile.close();
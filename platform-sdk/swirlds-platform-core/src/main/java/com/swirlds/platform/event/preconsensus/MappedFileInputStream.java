@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.event.preconsensus;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * An input stream over a file that is mapped into memory. Reads copy straight from the page cache, without a read
+ * system call per buffer. Supports {@link #mark(int)} and {@link #reset()} at no cost.
+ */
+final class MappedFileInputStream extends InputStream {
+
+    /**
+     * The mapped file, positioned at the next byte to read. Null once the stream is closed.
+     */
+    private MappedByteBuffer buffer;
+
+    /**
+     * The marked position.
+     */
+    private int mark;
+
+    /**
+     * Map a file into memory and create a stream that reads it from the start. The file must not be larger than 2GB.
+     *
+     * @param path the file to read
+     */
+    MappedFileInputStream(@NonNull final Path path) throws IOException {
+        Objects.requireNonNull(path);
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        // The file is read from start to end
+        buffer.load();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read() throws IOException {
+        final MappedByteBuffer buffer = openBuffer();
+        return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read(@NonNull final byte[] bytes, final int offset, final int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        final MappedByteBuffer buffer = openBuffer();
+        if (length == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        final int count = Math.min(length, buffer.remaining());
+        buffer.get(bytes, offset, count);
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long skip(final long count) throws IOException {
+        final MappedByteBuffer buffer = openBuffer();
+        final int skipped = (int) Math.max(0, Math.min(count, buffer.remaining()));
+        buffer.position(buffer.position() + skipped);
+        return skipped;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int available() throws IOException {
+        return openBuffer().remaining();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void mark(final int readLimit) {
+        if (buffer != null) {
+            mark = buffer.position();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() throws IOException {
+        openBuffer().position(mark);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        // The mapping is released when the buffer is garbage collected
+        buffer = null;
+    }
+
+    @NonNull
+    private MappedByteBuffer openBuffer() throws IOException {
+        if (buffer == null) {
+            throw new IOException("stream is closed");
+        }
+        return buffer;
+    }
+}
@@ -83,6 +83,23 @@ import java.time.Duration;
  *                                             has been stuck for too long
  * @param suspiciousRoundDurabilityDuration    the duration after which a round is considered stuck in the round
  *                                             durability buffer component
+ * @param groupCommitEnabled                   if true, then events are forced to disk by a dedicated I/O thread that
+ *                                             covers all flush requests that arrive while the previous force is in
+ *                                             progress with a single force (a group commit), and segment files are
+ *                                             preallocated to {@code preferredFileSizeMegabytes}. If false, then flush
+ *                                             requests are handled one at a time on the thread that writes events.
+ * @param groupCommitHeartbeatPeriod           the period of the heartbeats sent to the PCES writer when group commit
+ *                                             is enabled, which uses the opportunity to report group commits that
+ *                                             completed while it had no other work
+ * @param parallelReplayEnabled                if true, then preconsensus event files are memory-mapped and decoded on
+ *                                             a pool of threads ahead of the replay when starting up, while events are
+ *                                             still replayed in order. If false, then files are read and decoded one
+ *                                             at a time on the replay thread.
+ * @param replayDecoderThreadCount             the number of threads decoding preconsensus event files during replay,
+ *                                             if parallel replay is enabled
+ * @param replayMaximumFilesAhead              the maximum number of preconsensus event files that are decoded ahead of
+ *                                             the file being replayed, if parallel replay is enabled. Bounds the memory
+ *                                             used by decoded events to about this many times the preferred file size
  */
 @ConfigData("event.preconsensus")
 public record PcesConfig(
@@ -102,4 +119,9 @@ public record PcesConfig(
         @ConfigProperty(defaultValue = "true") boolean compactLastFileOnStartup,
         @ConfigProperty(defaultValue = "false") boolean forceIgnorePcesSignatures,
         @ConfigProperty(defaultValue = "1m") Duration roundDurabilityBufferHeartbeatPeriod,
-        @ConfigProperty(defaultValue = "1m") Duration suspiciousRoundDurabilityDuration) {}
+        @ConfigProperty(defaultValue = "1m") Duration suspiciousRoundDurabilityDuration,
+        @ConfigProperty(defaultValue = "false") boolean groupCommitEnabled,
+        @ConfigProperty(defaultValue = "5ms") Duration groupCommitHeartbeatPeriod,
+        @ConfigProperty(defaultValue = "false") boolean parallelReplayEnabled,
+        @Min(1) @ConfigProperty(defaultValue = "4") int replayDecoderThreadCount,
+        @Min(1) @ConfigProperty(defaultValue = "8") int replayMaximumFilesAhead) {}
@@ -403,6 +403,18 @@ public final class PcesFile implements Comparable<PcesFile> {
         return new PcesMutableFile(this);
     }
 
+    /**
+     * Get an object that can be used to write events to this file, extending the file to the given size up front.
+     * Throws if there already exists a file on disk with the same path.
+     *
+     * @param preallocatedBytes the size to extend the file to when it is created, or 0 to not extend it
+     * @return a writer for this file
+     */
+    @NonNull
+    public PcesMutableFile getMutableFile(final long preallocatedBytes) throws IOException {
+        return new PcesMutableFile(this, preallocatedBytes);
+    }
+
     /**
      * Delete a file (permanently). Automatically deletes parent directories if empty up until the root directory is
      * reached, which is never deleted.
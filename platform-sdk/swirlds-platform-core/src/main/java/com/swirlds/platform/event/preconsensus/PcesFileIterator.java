@@ -27,6 +27,7 @@ import java.io.BufferedInputStream;
 import java.io.EOFException;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 
@@ -35,6 +36,11 @@ import java.util.Objects;
  */
 public class PcesFileIterator implements IOIterator<GossipEvent> {
 
+    /**
+     * The size of the buffer used to check that the rest of a file is preallocated bytes.
+     */
+    private static final int PREALLOCATED_BYTES_BUFFER_SIZE = 8192;
+
     private final long lowerBound;
     private final AncientMode fileType;
     private final SerializableDataInputStream stream;
@@ -54,14 +60,33 @@ public class PcesFileIterator implements IOIterator<GossipEvent> {
     public PcesFileIterator(
             @NonNull final PcesFile fileDescriptor, final long lowerBound, @NonNull final AncientMode fileType)
             throws IOException {
+        this(fileDescriptor, lowerBound, fileType, false);
+    }
+
+    /**
+     * Create a new iterator that walks over events in a preconsensus event file.
+     *
+     * @param fileDescriptor describes a preconsensus event file
+     * @param lowerBound     the lower bound for all events to be returned, corresponds to either generation or birth
+     *                       round depending on the {@link PcesFile} type
+     * @param fileType       the type of file to read
+     * @param memoryMapped   if true then the file is mapped into memory and read from there, otherwise it is read
+     *                       through a buffered stream
+     */
+    public PcesFileIterator(
+            @NonNull final PcesFile fileDescriptor,
+            final long lowerBound,
+            @NonNull final AncientMode fileType,
+            final boolean memoryMapped)
+            throws IOException {
 
         this.lowerBound = lowerBound;
         this.fileType = Objects.requireNonNull(fileType);
         counter = new CountingStreamExtension();
-        stream = new SerializableDataInputStream(new ExtendableInputStream(
-                new BufferedInputStream(
-                        new FileInputStream(fileDescriptor.getPath().toFile())),
-                counter));
+        final InputStream fileStream = memoryMapped
+                ? new MappedFileInputStream(fileDescriptor.getPath())
+                : new BufferedInputStream(new FileInputStream(fileDescriptor.getPath().toFile()));
+        stream = new SerializableDataInputStream(new ExtendableInputStream(fileStream, counter));
 
         try {
             final int fileVersion = stream.readInt();
@@ -84,6 +109,13 @@ public class PcesFileIterator implements IOIterator<GossipEvent> {
             final long initialCount = counter.getCount();
 
             try {
+                if (reachedPreallocatedBytes()) {
+                    // The rest of the file was preallocated but never written to. Possible if the node
+                    // crashed before the file was closed.
+                    stream.close();
+                    streamClosed = true;
+                    break;
+                }
                 final GossipEvent candidate = stream.readSerializable(false, GossipEvent::new);
                 if (candidate.getAncientIndicator(fileType) >= lowerBound) {
                     next = candidate;
@@ -96,8 +128,53 @@ public class PcesFileIterator implements IOIterator<GossipEvent> {
                 }
                 stream.close();
                 streamClosed = true;
+            } catch (final IOException | RuntimeException e) {
+                if (!isFollowedByPreallocatedBytes()) {
+                    throw e;
+                }
+                // We started parsing an event, but it was cut short by bytes that were preallocated but never
+                // written to. Possible if the node crashed while writing the event to a preallocated file.
+                hasPartialEvent = true;
+                stream.close();
+                streamClosed = true;
+            }
+        }
+    }
+
+    /**
+     * Check if the next event would be read from bytes that were preallocated but never written to. Every event starts
+     * with its version, which is never 0, while preallocated bytes are all 0.
+     *
+     * @return true if the next 4 bytes are 0
+     */
+    private boolean reachedPreallocatedBytes() throws IOException {
+        stream.mark(Integer.BYTES);
+        if (stream.readInt() == 0) {
+            return true;
+        }
+        stream.reset();
+        return false;
+    }
+
+    /**
+     * Check if an event that could not be deserialized was followed by bytes that were preallocated but never written
+     * to, in which case the event was only partially written. Reads the rest of the file.
+     *
+     * @return true if there are bytes left in the file, and all of them are 0
+     */
+    private boolean isFollowedByPreallocatedBytes() throws IOException {
+        final byte[] buffer = new byte[PREALLOCATED_BYTES_BUFFER_SIZE];
+        boolean found = false;
+        int count;
+        while ((count = stream.read(buffer)) != -1) {
+            for (int i = 0; i < count; i++) {
+                if (buffer[i] != 0) {
+                    return false;
+                }
             }
+            found |= count > 0;
         }
+        return found;
     }
 
     /**
@@ -246,6 +246,17 @@ public class PcesFileManager {
         return descriptor;
     }
 
+    /**
+     * Get the preconsensus event stream metrics, so that components working with the files managed here update the
+     * same metrics.
+     *
+     * @return the metrics
+     */
+    @NonNull
+    public PcesMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * The event file writer calls this method when it finishes writing an event file.
      *
@@ -171,6 +171,27 @@ public class PcesFileTracker {
         return new PcesMultiFileIterator(lowerBound, getFileIterator(lowerBound, startingRound), fileType);
     }
 
+    /**
+     * Get an iterator that walks over all events starting with a specified lower bound, decoding files ahead of the
+     * consumer on a pool of threads.
+     * <p>
+     * Note: this method only works at system startup time, using this iterator after startup has undefined behavior.
+     *
+     * @param lowerBound        the desired lower bound, iterator is guaranteed to return all available events with an
+     *                          ancient indicator greater or equal to this value. No events with a smaller ancient
+     *                          indicator will be returned.
+     * @param startingRound     the round to start iterating from
+     * @param threadCount       the number of threads decoding files
+     * @param maximumFilesAhead the maximum number of files decoded ahead of the file being consumed
+     * @return an iterator that walks over events
+     */
+    @NonNull
+    public PcesParallelMultiFileIterator getParallelEventIterator(
+            final long lowerBound, final long startingRound, final int threadCount, final int maximumFilesAhead) {
+        return new PcesParallelMultiFileIterator(
+                lowerBound, getFileIterator(lowerBound, startingRound), fileType, threadCount, maximumFilesAhead);
+    }
+
     /**
      * Get an iterator that walks over all event files currently being tracked, in order.
      * <p>
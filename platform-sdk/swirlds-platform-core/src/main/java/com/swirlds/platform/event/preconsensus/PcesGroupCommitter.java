@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.event.preconsensus;
+
+import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticThreadManager;
+import static com.swirlds.logging.legacy.LogMarker.EXCEPTION;
+
+import com.swirlds.base.time.Time;
+import com.swirlds.common.context.PlatformContext;
+import com.swirlds.common.threading.framework.config.ThreadConfiguration;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Forces preconsensus event files to disk on a dedicated I/O thread, so that the thread writing events does not wait
+ * for the disk. All commits requested while a force is in progress are covered by the next force (a group commit).
+ */
+final class PcesGroupCommitter {
+
+    private static final Logger logger = LogManager.getLogger(PcesGroupCommitter.class);
+
+    private final PcesMetrics metrics;
+    private final Time time;
+    private final Thread thread;
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition commitRequested = lock.newCondition();
+    private final Condition commitFinished = lock.newCondition();
+
+    /**
+     * The file to force to disk, or null if no commit has been requested since the last one started.
+     */
+    private PcesMutableFile requestedFile;
+
+    /**
+     * The highest sequence number that the requested commit makes durable.
+     */
+    private long requestedSequenceNumber;
+
+    /**
+     * The number of flush requests covered by the requested commit.
+     */
+    private int requestedFlushCount;
+
+    /**
+     * True while the I/O thread is forcing a file to disk.
+     */
+    private boolean committing;
+
+    /**
+     * The highest sequence number known to be durable. Only increases.
+     */
+    private volatile long durableSequenceNumber = -1;
+
+    /**
+     * The exception thrown by the last force, if it failed.
+     */
+    private volatile IOException failure;
+
+    /**
+     * Constructor. Starts the I/O thread.
+     *
+     * @param platformContext the platform context
+     * @param metrics         the metrics for preconsensus events
+     */
+    PcesGroupCommitter(@NonNull final PlatformContext platformContext, @NonNull final PcesMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics);
+        this.time = platformContext.getTime();
+        thread = new ThreadConfiguration(getStaticThreadManager())
+                .setComponent("platform")
+                .setThreadName("pces-group-commit")
+                .setRunnable(this::run)
+                .build(true);
+    }
+
+    /**
+     * Request that a file is forced to disk. The events must already be flushed to the file. Returns immediately, if a
+     * force is in progress then the request is merged with any other request made before that force finishes.
+     *
+     * @param file           the file to force
+     * @param sequenceNumber the highest sequence number written to the file
+     * @param flushCount     the number of flush requests that this commit covers
+     */
+    void requestCommit(@NonNull final PcesMutableFile file, final long sequenceNumber, final int flushCount) {
+        throwIfFailed();
+        lock.lock();
+        try {
+            requestedFile = file;
+            requestedSequenceNumber = Math.max(requestedSequenceNumber, sequenceNumber);
+            requestedFlushCount += flushCount;
+            commitRequested.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the highest sequence number that has been made durable.
+     *
+     * @return the highest durable sequence number
+     * @throws UncheckedIOException if a force has failed
+     */
+    long getDurableSequenceNumber() {
+        throwIfFailed();
+        return durableSequenceNumber;
+    }
+
+    /**
+     * Record that events have been made durable by other means, i.e. when a file is closed. Must not be called while a
+     * commit may be in progress.
+     *
+     * @param sequenceNumber the highest durable sequence number
+     */
+    void markDurable(final long sequenceNumber) {
+        durableSequenceNumber = Math.max(durableSequenceNumber, sequenceNumber);
+    }
+
+    /**
+     * Cancel the requested commit if it has not been started, and wait for the commit in progress to finish. After
+     * this method returns the file being written can be closed, the caller is responsible for forcing it first.
+     */
+    void awaitIdle() {
+        lock.lock();
+        try {
+            requestedFile = null;
+            requestedFlushCount = 0;
+            while (committing) {
+                commitFinished.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+        throwIfFailed();
+    }
+
+    /**
+     * Stop the I/O thread. Requested commits that have not been started are dropped.
+     */
+    void stop() {
+        thread.interrupt();
+    }
+
+    /**
+     * The body of the I/O thread.
+     */
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            final PcesMutableFile file;
+            final long sequenceNumber;
+            final int flushCount;
+            lock.lock();
+            try {
+                while (requestedFile == null) {
+                    commitRequested.await();
+                }
+                file = requestedFile;
+                sequenceNumber = requestedSequenceNumber;
+                flushCount = requestedFlushCount;
+                requestedFile = null;
+                requestedFlushCount = 0;
+                committing = true;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                commit(file, sequenceNumber, flushCount);
+            } finally {
+                lock.lock();
+                try {
+                    committing = false;
+                    commitFinished.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Force a file to disk and record the results.
+     */
+    private void commit(@NonNull final PcesMutableFile file, final long sequenceNumber, final int flushCount) {
+        final long start = time.nanoTime();
+        try {
+            file.sync();
+        } catch (final IOException e) {
+            logger.error(EXCEPTION.getMarker(), "Unable to force preconsensus event file {} to disk", file, e);
+            failure = e;
+            return;
+        }
+        metrics.getPreconsensusEventFsyncLatency().update(TimeUnit.NANOSECONDS.toMicros(time.nanoTime() - start));
+        metrics.getPreconsensusEventGroupCommitFlushRequests().update(flushCount);
+
+        final long previousDurableSequenceNumber = durableSequenceNumber;
+        if (sequenceNumber > previousDurableSequenceNumber) {
+            metrics.getPreconsensusEventGroupCommitEvents().update(sequenceNumber - previousDurableSequenceNumber);
+            durableSequenceNumber = sequenceNumber;
+        }
+    }
+
+    /**
+     * Rethrow the failure of the last force on the calling thread, if there was one.
+     */
+    private void throwIfFailed() {
+        final IOException e = failure;
+        if (e != null) {
+            throw new UncheckedIOException("unable to force preconsensus event file to disk", e);
+        }
+    }
+}
@@ -83,6 +83,27 @@ public class PcesMetrics {
             .withDescription("The age of the oldest preconsensus event file, in seconds.");
     private final LongGauge preconsensusEventFileOldestSeconds;
 
+    private static final RunningAverageMetric.Config PRECONSENSUS_EVENT_FSYNC_LATENCY_CONFIG =
+            new RunningAverageMetric.Config(CATEGORY, "preconsensusEventFsyncLatency")
+                    .withUnit("microseconds")
+                    .withDescription("The average time it takes to force preconsensus events to disk. Only reported "
+                            + "when group commit is enabled.");
+    private final RunningAverageMetric preconsensusEventFsyncLatency;
+
+    private static final RunningAverageMetric.Config PRECONSENSUS_EVENT_GROUP_COMMIT_FLUSH_REQUESTS_CONFIG =
+            new RunningAverageMetric.Config(CATEGORY, "preconsensusEventGroupCommitFlushRequests")
+                    .withUnit("count")
+                    .withDescription("The average number of flush requests covered by a single force of "
+                            + "preconsensus events to disk. Only reported when group commit is enabled.");
+    private final RunningAverageMetric preconsensusEventGroupCommitFlushRequests;
+
+    private static final RunningAverageMetric.Config PRECONSENSUS_EVENT_GROUP_COMMIT_EVENTS_CONFIG =
+            new RunningAverageMetric.Config(CATEGORY, "preconsensusEventGroupCommitEvents")
+                    .withUnit("count")
+                    .withDescription("The average number of events made durable by a single force of preconsensus "
+                            + "events to disk. Only reported when group commit is enabled.");
+    private final RunningAverageMetric preconsensusEventGroupCommitEvents;
+
     /**
      * Construct preconsensus event metrics.
      *
@@ -100,6 +121,10 @@ public class PcesMetrics {
         preconsensusEventFileYoungestIdentifier =
                 metrics.getOrCreate(PRECONSENSUS_EVENT_FILE_YOUNGEST_IDENTIFIER_CONFIG);
         preconsensusEventFileOldestSeconds = metrics.getOrCreate(PRECONSENSUS_EVENT_FILE_OLDEST_SECONDS_CONFIG);
+        preconsensusEventFsyncLatency = metrics.getOrCreate(PRECONSENSUS_EVENT_FSYNC_LATENCY_CONFIG);
+        preconsensusEventGroupCommitFlushRequests =
+                metrics.getOrCreate(PRECONSENSUS_EVENT_GROUP_COMMIT_FLUSH_REQUESTS_CONFIG);
+        preconsensusEventGroupCommitEvents = metrics.getOrCreate(PRECONSENSUS_EVENT_GROUP_COMMIT_EVENTS_CONFIG);
     }
 
     /**
@@ -164,4 +189,25 @@ public class PcesMetrics {
     public LongGauge getPreconsensusEventFileOldestSeconds() {
         return preconsensusEventFileOldestSeconds;
     }
+
+    /**
+     * Get the metric tracking the time it takes to force preconsensus events to disk, in microseconds.
+     */
+    public RunningAverageMetric getPreconsensusEventFsyncLatency() {
+        return preconsensusEventFsyncLatency;
+    }
+
+    /**
+     * Get the metric tracking the number of flush requests covered by a single group commit.
+     */
+    public RunningAverageMetric getPreconsensusEventGroupCommitFlushRequests() {
+        return preconsensusEventGroupCommitFlushRequests;
+    }
+
+    /**
+     * Get the metric tracking the number of events made durable by a single group commit.
+     */
+    public RunningAverageMetric getPreconsensusEventGroupCommitEvents() {
+        return preconsensusEventGroupCommitEvents;
+    }
 }
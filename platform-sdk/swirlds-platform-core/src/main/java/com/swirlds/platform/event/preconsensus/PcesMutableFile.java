@@ -24,9 +24,14 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.BufferedOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Represents a preconsensus event file that can be written to.
@@ -55,12 +60,34 @@ public class PcesMutableFile {
      */
     private final SerializableDataOutputStream out;
 
+    /**
+     * The channel of the file, used to force the file to disk.
+     */
+    private final FileChannel channel;
+
+    /**
+     * True if the file was extended to its expected size when it was created.
+     */
+    private final boolean preallocated;
+
     /**
      * Create a new preconsensus event file that can be written to.
      *
      * @param descriptor a description of the file
      */
     PcesMutableFile(@NonNull final PcesFile descriptor) throws IOException {
+        this(descriptor, 0);
+    }
+
+    /**
+     * Create a new preconsensus event file that can be written to.
+     *
+     * @param descriptor        a description of the file
+     * @param preallocatedBytes the size to extend the file to when it is created, or 0 to not extend it. A file that
+     *                          is extended does not have to have its length updated each time it is forced to disk. It
+     *                          is truncated to the bytes actually written when it is closed.
+     */
+    PcesMutableFile(@NonNull final PcesFile descriptor, final long preallocatedBytes) throws IOException {
         if (Files.exists(descriptor.getPath())) {
             throw new IOException("File " + descriptor.getPath() + " already exists");
         }
@@ -69,10 +96,23 @@ public class PcesMutableFile {
 
         this.descriptor = descriptor;
         counter = new CountingStreamExtension(false);
-        out = new SerializableDataOutputStream(new ExtendableOutputStream(
-                new BufferedOutputStream(
-                        new FileOutputStream(descriptor.getPath().toFile())),
-                counter));
+
+        final OutputStream fileStream;
+        if (preallocatedBytes > 0) {
+            channel = FileChannel.open(descriptor.getPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            channel.write(ByteBuffer.allocate(1), preallocatedBytes - 1);
+            channel.position(0);
+            fileStream = Channels.newOutputStream(channel);
+            preallocated = true;
+        } else {
+            final FileOutputStream fileOutputStream = new FileOutputStream(descriptor.getPath().toFile());
+            channel = fileOutputStream.getChannel();
+            fileStream = fileOutputStream;
+            preallocated = false;
+        }
+
+        out = new SerializableDataOutputStream(
+                new ExtendableOutputStream(new BufferedOutputStream(fileStream), counter));
         out.writeInt(FILE_VERSION);
         highestAncientIdentifierInFile = descriptor.getLowerBound();
     }
@@ -136,10 +176,24 @@ public class PcesMutableFile {
         out.flush();
     }
 
+    /**
+     * Force everything flushed to the file to disk. Unlike the other methods of this class, may be called on a thread
+     * other than the one writing to the file, as long as the file is not closed concurrently.
+     */
+    public void sync() throws IOException {
+        channel.force(false);
+    }
+
     /**
      * Close the file.
      */
     public void close() throws IOException {
+        if (preallocated) {
+            out.flush();
+            // Drop the unused preallocated bytes, readers treat trailing zeros as the end of the file
+            // but there is no reason to keep them around
+            channel.truncate(counter.getCount());
+        }
         out.close();
     }
 
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.event.preconsensus;
+
+import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticThreadManager;
+
+import com.swirlds.common.io.IOIterator;
+import com.swirlds.common.threading.framework.config.ThreadConfiguration;
+import com.swirlds.platform.event.AncientMode;
+import com.swirlds.platform.event.GossipEvent;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Iterates over events from a sequence of preconsensus event files, like {@link PcesMultiFileIterator}, but decodes
+ * files ahead of the consumer on a pool of threads. Each file is mapped into memory and decoded by one thread, several
+ * files are decoded at the same time, and events are returned in the same order as they are in the files. Decoding
+ * ahead overlaps reading the disk with whatever the consumer does with the events, i.e. hashing and linking them.
+ */
+public class PcesParallelMultiFileIterator implements IOIterator<GossipEvent> {
+
+    /**
+     * The events of a file, and whether the file ended with a partial event.
+     */
+    private record DecodedFile(@NonNull List<GossipEvent> events, boolean hasPartialEvent) {}
+
+    private final Iterator<PcesFile> fileIterator;
+    private final AncientMode fileType;
+    private final long lowerBound;
+    private final int maximumFilesAhead;
+    private final ExecutorService executor;
+
+    /**
+     * Files being decoded, in file order.
+     */
+    private final Deque<Future<DecodedFile>> decodingFiles = new ArrayDeque<>();
+
+    private Iterator<GossipEvent> currentEvents = Collections.emptyIterator();
+    private GossipEvent next;
+    private int truncatedFileCount = 0;
+    private boolean closed = false;
+
+    /**
+     * Create an iterator that walks over events in a series of event files.
+     *
+     * @param lowerBound        the minimum ancient indicator of events to return, events with lower ancient indicators
+     *                          are not returned
+     * @param fileIterator      an iterator that walks over event files
+     * @param fileType          the type of file to read
+     * @param threadCount       the number of threads decoding files
+     * @param maximumFilesAhead the maximum number of files that are decoded, or waiting to be consumed, ahead of the
+     *                          file that is being consumed. Bounds the memory used by decoded events.
+     */
+    public PcesParallelMultiFileIterator(
+            final long lowerBound,
+            @NonNull final Iterator<PcesFile> fileIterator,
+            @NonNull final AncientMode fileType,
+            final int threadCount,
+            final int maximumFilesAhead) {
+
+        if (threadCount < 1 || maximumFilesAhead < 1) {
+            throw new IllegalArgumentException("thread count and maximum files ahead must be positive");
+        }
+
+        this.fileIterator = Objects.requireNonNull(fileIterator);
+        this.lowerBound = lowerBound;
+        this.fileType = Objects.requireNonNull(fileType);
+        this.maximumFilesAhead = maximumFilesAhead;
+        this.executor = Executors.newFixedThreadPool(
+                threadCount,
+                new ThreadConfiguration(getStaticThreadManager())
+                        .setComponent("platform")
+                        .setThreadName("pces-replay-decoder")
+                        .buildFactory());
+
+        startDecoding();
+    }
+
+    /**
+     * Start decoding files until the maximum number of files ahead is reached.
+     */
+    private void startDecoding() {
+        while (decodingFiles.size() < maximumFilesAhead && fileIterator.hasNext()) {
+            final PcesFile file = fileIterator.next();
+            decodingFiles.add(executor.submit(() -> decode(file)));
+        }
+    }
+
+    /**
+     * Decode all events in a file that are not below the lower bound.
+     *
+     * @param file the file to decode
+     * @return the decoded events
+     */
+    @NonNull
+    private DecodedFile decode(@NonNull final PcesFile file) throws IOException {
+        final PcesFileIterator iterator = new PcesFileIterator(file, lowerBound, fileType, true);
+        final List<GossipEvent> events = new ArrayList<>();
+        while (iterator.hasNext()) {
+            events.add(iterator.next());
+        }
+        return new DecodedFile(events, iterator.hasPartialEvent());
+    }
+
+    /**
+     * Find the next event that should be returned.
+     */
+    private void findNext() throws IOException {
+        while (next == null && !closed) {
+            if (currentEvents.hasNext()) {
+                next = currentEvents.next();
+            } else if (decodingFiles.isEmpty()) {
+                close();
+            } else {
+                final DecodedFile decodedFile = awaitFile(decodingFiles.removeFirst());
+                if (decodedFile.hasPartialEvent()) {
+                    truncatedFileCount++;
+                }
+                currentEvents = decodedFile.events().iterator();
+                startDecoding();
+            }
+        }
+    }
+
+    /**
+     * Wait for a file to be decoded.
+     *
+     * @param future the future of the decoded file
+     * @return the decoded file
+     */
+    @NonNull
+    private DecodedFile awaitFile(@NonNull final Future<DecodedFile> future) throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new InterruptedIOException("interrupted while waiting for a preconsensus event file to be decoded");
+        } catch (final ExecutionException e) {
+            close();
+            if (e.getCause() instanceof final IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("unable to decode preconsensus event file", e.getCause());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasNext() throws IOException {
+        findNext();
+        return next != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @NonNull
+    public GossipEvent next() throws IOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException("iterator is empty, can not get next element");
+        }
+        try {
+            return next;
+        } finally {
+            next = null;
+        }
+    }
+
+    /**
+     * Stop decoding files and release the decoding threads. Called automatically once all events have been returned.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        decodingFiles.forEach(future -> future.cancel(true));
+        decodingFiles.clear();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Get the number of files that had partial event data at the end. This can happen if JVM is shut down abruptly
+     * while and event is being written to disk.
+     *
+     * @return the number of files that had partial event data at the end that have been encountered so far
+     */
+    public int getTruncatedFileCount() {
+        return truncatedFileCount;
+    }
+}
@@ -169,6 +169,8 @@ public class PcesReplayer {
             }
         } catch (final IOException e) {
             throw new UncheckedIOException("error encountered while reading from the PCES", e);
+        } finally {
+            eventIterator.close();
         }
 
         flushIntake.run();
@@ -21,6 +21,7 @@ import com.swirlds.platform.consensus.EventWindow;
 import com.swirlds.platform.event.GossipEvent;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import java.time.Instant;
 
 /**
  * This object is responsible for writing preconsensus events to disk.
@@ -69,6 +70,19 @@ public interface PcesWriter {
     @Nullable
     Long submitFlushRequest(@NonNull Long sequenceNumber);
 
+    /**
+     * Check if events have been made durable in the background since the last call that returned a sequence number.
+     * Only has an effect if group commit is enabled, where events are forced to disk on a dedicated thread. Called
+     * periodically, so that durability is reported even when there is no other work for the writer.
+     *
+     * @param now the current time
+     * @return the sequence number of the last event durably written to the stream, or null if no additional events
+     * have been durably written to the stream
+     */
+    @InputWireLabel("durability check")
+    @Nullable
+    Long checkDurability(@NonNull Instant now);
+
     /**
      * Let the event writer know the current non-ancient event boundary. Ancient events will be ignored if added to the
      * event writer.
@@ -33,6 +33,7 @@ import com.swirlds.common.stream.RunningEventHashOverride;
 import com.swirlds.common.wiring.schedulers.builders.TaskSchedulerType;
 import com.swirlds.platform.consensus.ConsensusConfig;
 import com.swirlds.platform.crypto.CryptoStatic;
+import com.swirlds.platform.event.GossipEvent;
 import com.swirlds.platform.internal.ConsensusRound;
 import com.swirlds.platform.internal.EventImpl;
 import com.swirlds.platform.metrics.RoundHandlingMetrics;
@@ -210,8 +211,15 @@ public class ConsensusRoundHandler {
 
             if (waitForPrehandle) {
                 handlerMetrics.setPhase(WAITING_FOR_PREHANDLE);
-                consensusRound.forEach(
-                        event -> ((EventImpl) event).getBaseEvent().awaitPrehandleCompletion());
+                int eventsAwaitingPrehandle = 0;
+                for (final EventImpl event : consensusRound.getConsensusEvents()) {
+                    final GossipEvent baseEvent = event.getBaseEvent();
+                    if (!baseEvent.isPrehandleCompleted()) {
+                        eventsAwaitingPrehandle++;
+                        baseEvent.awaitPrehandleCompletion();
+                    }
+                }
+                handlerMetrics.recordEventsAwaitingPrehandle(eventsAwaitingPrehandle);
             }
 
             handlerMetrics.setPhase(HANDLING_CONSENSUS_ROUND);
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.gossip.shadowgraph;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The shadow events of the {@link Shadowgraph}, indexed by ancient indicator (generation or birth round). The
+ * non-expired ancient indicators are a sliding window that only moves up, so the events are kept in a ring of slots,
+ * one per indicator, from the oldest non-expired indicator up. The ring grows if the window gets larger than the ring,
+ * and the lists in the slots are reused once their indicator has expired, so in the steady state nothing is allocated.
+ *
+ * <p>This class is not thread safe, it is only used by the thread that inserts and expires events.
+ */
+final class ShadowEventRingBuffer {
+    /** The initial number of slots, enough for the usual window of non-expired generations or rounds */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /** The slots, the events with indicator {@code i} are in slot {@code i & mask} */
+    private List<ShadowEvent>[] slots;
+    /** The number of slots minus one, the number of slots is always a power of two */
+    private int mask;
+    /** The oldest indicator in the ring, all older indicators have expired */
+    private long oldestIndicator;
+    /** One more than the newest indicator that has events in the ring, not less than {@link #oldestIndicator} */
+    private long endIndicator;
+
+    /**
+     * Creates an empty ring starting at the given indicator.
+     *
+     * @param oldestIndicator the oldest indicator that events may be added with
+     */
+    ShadowEventRingBuffer(final long oldestIndicator) {
+        slots = newSlots(INITIAL_CAPACITY);
+        mask = INITIAL_CAPACITY - 1;
+        reset(oldestIndicator);
+    }
+
+    /**
+     * Removes all events, and starts the ring at the given indicator.
+     *
+     * @param oldestIndicator the oldest indicator that events may be added with
+     */
+    void reset(final long oldestIndicator) {
+        for (final List<ShadowEvent> slot : slots) {
+            slot.clear();
+        }
+        this.oldestIndicator = oldestIndicator;
+        this.endIndicator = oldestIndicator;
+    }
+
+    /**
+     * Adds an event with the given indicator, growing the ring if needed.
+     *
+     * @param indicator the ancient indicator of the event, not less than the oldest indicator of the ring
+     * @param shadow the event
+     */
+    void add(final long indicator, @NonNull final ShadowEvent shadow) {
+        if (indicator < oldestIndicator) {
+            throw new IllegalArgumentException(
+                    "Indicator " + indicator + " is older than the oldest indicator " + oldestIndicator);
+        }
+        if (indicator - oldestIndicator >= slots.length) {
+            grow(indicator - oldestIndicator + 1);
+        }
+        slots[(int) (indicator & mask)].add(shadow);
+        endIndicator = Math.max(endIndicator, indicator + 1);
+    }
+
+    /**
+     * Gets the events with the given indicator. The returned list is only valid until the ring is modified.
+     *
+     * @param indicator the ancient indicator
+     * @return the events with that indicator, empty if there are none or the indicator is outside the ring
+     */
+    @NonNull
+    List<ShadowEvent> get(final long indicator) {
+        if (indicator < oldestIndicator || indicator >= endIndicator) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(slots[(int) (indicator & mask)]);
+    }
+
+    /**
+     * Removes the events with the oldest indicator, passes them to the given consumer, and moves the ring up by one
+     * indicator.
+     *
+     * @param consumer receives every removed event
+     * @return the number of removed events
+     */
+    int expireOldest(@NonNull final Consumer<ShadowEvent> consumer) {
+        final List<ShadowEvent> slot = slots[(int) (oldestIndicator & mask)];
+        final int count = slot.size();
+        // Use for-i loop to avoid the iterator, the list is an ArrayList
+        //noinspection ForLoopReplaceableByForEach
+        for (int i = 0; i < count; i++) {
+            consumer.accept(slot.get(i));
+        }
+        slot.clear();
+        oldestIndicator++;
+        endIndicator = Math.max(endIndicator, oldestIndicator);
+        return count;
+    }
+
+    /**
+     * @return the oldest indicator in the ring
+     */
+    long getOldestIndicator() {
+        return oldestIndicator;
+    }
+
+    /**
+     * @return the number of slots of the ring
+     */
+    int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Replaces the slots with a larger power of two number of slots, moving the lists of the indicators in the ring to
+     * their new slots.
+     */
+    @SuppressWarnings("unchecked")
+    private void grow(final long minimumCapacity) {
+        if (minimumCapacity > (1 << 30)) {
+            throw new IllegalStateException("Too many non-expired ancient indicators: " + minimumCapacity);
+        }
+        int capacity = slots.length;
+        while (capacity < minimumCapacity) {
+            capacity <<= 1;
+        }
+        final List<ShadowEvent>[] newSlots = new List[capacity];
+        final int newMask = capacity - 1;
+        for (long indicator = oldestIndicator; indicator < endIndicator; indicator++) {
+            newSlots[(int) (indicator & newMask)] = slots[(int) (indicator & mask)];
+        }
+        for (int i = 0; i < capacity; i++) {
+            if (newSlots[i] == null) {
+                newSlots[i] = new ArrayList<>();
+            }
+        }
+        slots = newSlots;
+        mask = newMask;
+    }
+
+    @SuppressWarnings("unchecked")
+    @NonNull
+    private static List<ShadowEvent>[] newSlots(final int capacity) {
+        final List<ShadowEvent>[] slots = new List[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new ArrayList<>();
+        }
+        return slots;
+    }
+}
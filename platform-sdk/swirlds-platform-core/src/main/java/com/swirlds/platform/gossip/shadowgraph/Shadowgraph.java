@@ -34,16 +34,14 @@ import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
@@ -52,6 +50,12 @@ import org.apache.logging.log4j.Logger;
 /**
  * The primary purpose of the shadowgraph is to unlink events when it is safe to do so. In order to decide when it is
  * safe to unlink an event, it allows for batches of events (by ancient indicator) to be reserved.
+ *
+ * <p>Events are inserted and expired by a single thread, which is serialized by the lock of this object. The sync
+ * threads only read the shadowgraph, which they do without taking that lock: events are looked up in a concurrent map,
+ * the tips are published as an immutable list, and the event window and the oldest non-expired indicator are volatile. Only
+ * {@link #reserve()} takes a lock, that of the reservation list, which is held just as long as it takes to add a
+ * reservation, so a sync never waits for the insertion of an event.
  */
 public class Shadowgraph implements Clearable {
 
@@ -63,27 +67,33 @@ public class Shadowgraph implements Clearable {
     public static final int NO_RESERVATION = -1;
 
     /**
-     * The shadowgraph represented in a map from has to shadow event.
+     * The shadowgraph represented in a map from hash to shadow event. Read concurrently by the sync threads.
+     */
+    private final ConcurrentHashMap<Hash, ShadowEvent> hashToShadowEvent;
+
+    /**
+     * All shadow events, by ancient indicator. Only used by the thread inserting and expiring events.
      */
-    private final HashMap<Hash, ShadowEvent> hashToShadowEvent;
+    private final ShadowEventRingBuffer indicatorToShadowEvent;
 
     /**
-     * Map from ancient indicator to all shadow events with that ancient indicator.
+     * The set of all tips for the shadowgraph. A tip is an event with no self child (could have other children). Only
+     * used by the thread inserting and expiring events.
      */
-    private final Map<Long /* ancient indicator */, Set<ShadowEvent>> indicatorToShadowEvent;
+    private final Set<ShadowEvent> tips;
 
     /**
-     * The set of all tips for the shadowgraph. A tip is an event with no self child (could have other children)
+     * An immutable copy of {@link #tips}, published after every change to them. Read concurrently by the sync threads.
      */
-    private final HashSet<ShadowEvent> tips;
+    private volatile List<ShadowEvent> publishedTips = List.of();
 
     /**
      * The oldest ancient indicator that has not yet been expired
      */
-    private long oldestUnexpiredIndicator;
+    private volatile long oldestUnexpiredIndicator;
 
     /**
-     * The list of all currently reserved indicators and their number of reservations.
+     * The list of all currently reserved indicators and their number of reservations. Guarded by its own lock.
      */
     private final LinkedList<ShadowgraphReservation> reservationList;
 
@@ -105,7 +115,7 @@ public class Shadowgraph implements Clearable {
     /**
      * The most recent event window we know about.
      */
-    private EventWindow eventWindow;
+    private volatile EventWindow eventWindow;
 
     /**
      * For each peer, track the number of events in the intake pipeline prior to the shadowgraph.
@@ -133,8 +143,8 @@ public class Shadowgraph implements Clearable {
         this.numberOfNodes = addressBook.getSize();
         this.intakeEventCounter = Objects.requireNonNull(intakeEventCounter);
         tips = new HashSet<>();
-        hashToShadowEvent = new HashMap<>();
-        indicatorToShadowEvent = new HashMap<>();
+        hashToShadowEvent = new ConcurrentHashMap<>();
+        indicatorToShadowEvent = new ShadowEventRingBuffer(ancientMode.getGenesisIndicator());
         reservationList = new LinkedList<>();
     }
 
@@ -144,8 +154,9 @@ public class Shadowgraph implements Clearable {
      * @param eventWindow the starting event window
      */
     private void startWithEventWindow(@NonNull final EventWindow eventWindow) {
-        this.eventWindow = eventWindow;
         oldestUnexpiredIndicator = eventWindow.getExpiredThreshold();
+        indicatorToShadowEvent.reset(oldestUnexpiredIndicator);
+        this.eventWindow = eventWindow;
         logger.info(
                 STARTUP.getMarker(),
                 "Shadowgraph starting from expiration threshold {}",
@@ -160,9 +171,12 @@ public class Shadowgraph implements Clearable {
         oldestUnexpiredIndicator = ancientMode.getGenesisIndicator();
         disconnectShadowEvents();
         tips.clear();
+        publishedTips = List.of();
         hashToShadowEvent.clear();
-        indicatorToShadowEvent.clear();
-        reservationList.clear();
+        indicatorToShadowEvent.reset(oldestUnexpiredIndicator);
+        synchronized (reservationList) {
+            reservationList.clear();
+        }
     }
 
     /**
@@ -182,33 +196,39 @@ public class Shadowgraph implements Clearable {
      * @return the reservation instance, must be closed when the reservation is no longer needed
      */
     @NonNull
-    public synchronized ReservedEventWindow reserve() {
-        if (reservationList.isEmpty()) {
-            // If we are not currently holding any reservations, we need to create a new one.
-            return new ReservedEventWindow(eventWindow, newReservation());
-        }
+    public ReservedEventWindow reserve() {
+        // The event window is read while holding the lock of the reservation list. The window is always updated
+        // before the reservation list is pruned, so either the pruning sees this reservation, or this reservation is
+        // made for the updated window.
+        synchronized (reservationList) {
+            final EventWindow window = eventWindow;
+            if (reservationList.isEmpty()) {
+                // If we are not currently holding any reservations, we need to create a new one.
+                return new ReservedEventWindow(window, newReservation(window));
+            }
 
-        // Check to see if an existing reservation is good enough.
+            // Check to see if an existing reservation is good enough.
 
-        final ShadowgraphReservation lastReservation = reservationList.getLast();
+            final ShadowgraphReservation lastReservation = reservationList.getLast();
 
-        final long previouslyReservedThreshold = lastReservation.getReservedThreshold();
-        final long thresholdWeWantToReserve = eventWindow.getExpiredThreshold();
+            final long previouslyReservedThreshold = lastReservation.getReservedThreshold();
+            final long thresholdWeWantToReserve = window.getExpiredThreshold();
 
-        if (previouslyReservedThreshold == thresholdWeWantToReserve) {
+            if (previouslyReservedThreshold == thresholdWeWantToReserve) {
 
-            // The latest reservation is against the same expired threshold that we currently want to reserve.
-            // We can reuse that reservation instead of creating a new one. We still need to package that
-            // reservation with the most recent eventWindow we know about.
+                // The latest reservation is against the same expired threshold that we currently want to reserve.
+                // We can reuse that reservation instead of creating a new one. We still need to package that
+                // reservation with the most recent eventWindow we know about.
 
-            lastReservation.incrementReservations();
-            return new ReservedEventWindow(eventWindow, lastReservation);
-        } else {
+                lastReservation.incrementReservations();
+                return new ReservedEventWindow(window, lastReservation);
+            } else {
 
-            // We want a reservation on an expired threshold that isn't currently reserved.
-            // Create a new reservation.
+                // We want a reservation on an expired threshold that isn't currently reserved.
+                // Create a new reservation.
 
-            return new ReservedEventWindow(eventWindow, newReservation());
+                return new ReservedEventWindow(window, newReservation(window));
+            }
         }
     }
 
@@ -216,7 +236,7 @@ public class Shadowgraph implements Clearable {
      * Get the latest event window known to the shadowgraph.
      */
     @NonNull
-    public synchronized EventWindow getEventWindow() {
+    public EventWindow getEventWindow() {
         return eventWindow;
     }
 
@@ -228,8 +248,8 @@ public class Shadowgraph implements Clearable {
      * @deprecated still used by tests, planned for removal. Do not add new uses.
      */
     @Deprecated(forRemoval = true)
-    public synchronized boolean isHashInGraph(final Hash hash) {
-        return hashToShadowEvent.containsKey(hash);
+    public boolean isHashInGraph(final Hash hash) {
+        return shadow(hash) != null;
     }
 
     /**
@@ -243,9 +263,8 @@ public class Shadowgraph implements Clearable {
      *     <li>adding events to the the graph does not affect ancestors</li>
      *     <li>checks for expired parent events are atomic</li>
      * </ol>
-     * <p>Note: This method is always accessed after a call to a synchronized {@link Shadowgraph} method, like
-     * {@link #getTips()}, which acts as a memory gate and causes the calling thread to read the latest values for all
-     * variables from memory, including {@link ShadowEvent} links.</p>
+     * <p>Note: The {@link ShadowEvent}s passed to this method were obtained from the concurrent map or set of this
+     * shadowgraph, like by {@link #getTips()}, which publishes the shadow events safely, including their links.</p>
      *
      * @param events    the event to find ancestors of
      * @param predicate determines whether or not to add the ancestor to the return list
@@ -328,10 +347,11 @@ public class Shadowgraph implements Clearable {
             return result;
         }
         for (long indicator = lowerBound; indicator < upperBound; indicator++) {
-            indicatorToShadowEvent.getOrDefault(indicator, Collections.emptySet()).stream()
-                    .map(ShadowEvent::getEvent)
-                    .filter(predicate)
-                    .forEach(result::add);
+            for (final ShadowEvent shadow : indicatorToShadowEvent.get(indicator)) {
+                if (predicate.test(shadow.getEvent())) {
+                    result.add(shadow.getEvent());
+                }
+            }
         }
         return result;
     }
@@ -386,18 +406,19 @@ public class Shadowgraph implements Clearable {
 
         final long minimumIndicatorToKeep = Math.min(eventWindow.getExpiredThreshold(), oldestReservedIndicator);
 
+        final int tipsBefore = tips.size();
         while (oldestUnexpiredIndicator < minimumIndicatorToKeep) {
-            final Set<ShadowEvent> shadowsToExpire = indicatorToShadowEvent.remove(oldestUnexpiredIndicator);
-            // shadowsToExpire should never be null, but check just in case.
-            if (shadowsToExpire == null) {
+            // Move the indicator up before expiring the events, so sync threads never follow links to them
+            final long indicator = oldestUnexpiredIndicator++;
+            // there should always be events to expire, but check just in case.
+            if (indicatorToShadowEvent.expireOldest(this::expire) == 0) {
                 logger.error(
-                        EXCEPTION.getMarker(),
-                        "There were no events with ancient indicator {} to expire.",
-                        oldestUnexpiredIndicator);
-            } else {
-                shadowsToExpire.forEach(this::expire);
+                        EXCEPTION.getMarker(), "There were no events with ancient indicator {} to expire.", indicator);
             }
-            oldestUnexpiredIndicator++;
+        }
+        // Expiry only ever removes tips
+        if (tips.size() != tipsBefore) {
+            publishedTips = List.copyOf(tips);
         }
     }
 
@@ -407,6 +428,12 @@ public class Shadowgraph implements Clearable {
      * @return the oldest ancient indicator with at least one reservation, or {@code -1} if there are no reservations
      */
     private long pruneReservationList() {
+        synchronized (reservationList) {
+            return pruneReservationListLocked();
+        }
+    }
+
+    private long pruneReservationListLocked() {
         long oldestReservedIndicator = NO_RESERVATION;
 
         // Iterate through the reservation list in ascending ancient indicator order, removing reservations
@@ -453,7 +480,7 @@ public class Shadowgraph implements Clearable {
      * @param e The event.
      * @return the shadow event that references an event, or null is {@code e} is null
      */
-    public synchronized ShadowEvent shadow(final EventImpl e) {
+    public ShadowEvent shadow(final EventImpl e) {
         if (e == null) {
             return null;
         }
@@ -467,7 +494,7 @@ public class Shadowgraph implements Clearable {
      * @param hashes The event hashes to get shadow events for
      * @return the shadow events that reference the events with the given hashes
      */
-    public synchronized List<ShadowEvent> shadows(final List<Hash> hashes) {
+    public List<ShadowEvent> shadows(final List<Hash> hashes) {
         Objects.requireNonNull(hashes);
         final List<ShadowEvent> shadows = new ArrayList<>(hashes.size());
         for (final Hash hash : hashes) {
@@ -483,7 +510,7 @@ public class Shadowgraph implements Clearable {
      * @return the hashgraph event, if there is one in {@code this} shadowgraph, else `null`
      */
     @Nullable
-    public synchronized EventImpl hashgraphEvent(final Hash h) {
+    public EventImpl hashgraphEvent(final Hash h) {
         final ShadowEvent shadow = shadow(h);
         if (shadow == null) {
             return null;
@@ -493,14 +520,15 @@ public class Shadowgraph implements Clearable {
     }
 
     /**
-     * Returns a copy of the tips at the time of invocation. The returned list is not affected by changes made to the
-     * tip set.
+     * Returns the tips as of the most recent insertion or expiry of events. The tips are copied by the thread
+     * inserting and expiring events after every change, so the returned list is always a complete tip set, and it is
+     * not affected by later changes.
      *
      * @return an unmodifiable copy of the tips
      */
     @NonNull
-    public synchronized List<ShadowEvent> getTips() {
-        return new ArrayList<>(tips);
+    public List<ShadowEvent> getTips() {
+        return publishedTips;
     }
 
     /**
@@ -523,7 +551,10 @@ public class Shadowgraph implements Clearable {
                 final int tipsBefore = tips.size();
                 final ShadowEvent s = insert(e);
                 tips.add(s);
-                tips.remove(s.getSelfParent());
+                if (s.getSelfParent() != null) {
+                    tips.remove(s.getSelfParent());
+                }
+                publishedTips = List.copyOf(tips);
 
                 if (numberOfNodes > 0 && tips.size() > numberOfNodes && tips.size() > tipsBefore) {
                     // It is possible that we have more tips than nodes even if there is no fork.
@@ -572,22 +603,23 @@ public class Shadowgraph implements Clearable {
         }
     }
 
-    private ShadowgraphReservation newReservation() {
-        final ShadowgraphReservation reservation = new ShadowgraphReservation(eventWindow.getExpiredThreshold());
+    private ShadowgraphReservation newReservation(@NonNull final EventWindow window) {
+        final ShadowgraphReservation reservation = new ShadowgraphReservation(window.getExpiredThreshold());
         reservationList.addLast(reservation);
         return reservation;
     }
 
     private ShadowEvent shadow(final Hash h) {
-        return hashToShadowEvent.get(h);
+        // Unlike a HashMap, a ConcurrentHashMap does not accept null keys
+        return h == null ? null : hashToShadowEvent.get(h);
     }
 
     /**
      * @param h the hash of the event
      * @return the event that has the hash provided, or null if none exists
      */
-    public synchronized EventImpl getEvent(final Hash h) {
-        final ShadowEvent shadowEvent = hashToShadowEvent.get(h);
+    public EventImpl getEvent(final Hash h) {
+        final ShadowEvent shadowEvent = shadow(h);
         return shadowEvent == null ? null : shadowEvent.getEvent();
     }
 
@@ -606,11 +638,7 @@ public class Shadowgraph implements Clearable {
 
         hashToShadowEvent.put(se.getEventBaseHash(), se);
 
-        final long ancientIndicator = e.getBaseEvent().getAncientIndicator(ancientMode);
-        if (!indicatorToShadowEvent.containsKey(ancientIndicator)) {
-            indicatorToShadowEvent.put(ancientIndicator, new HashSet<>());
-        }
-        indicatorToShadowEvent.get(ancientIndicator).add(se);
+        indicatorToShadowEvent.add(e.getBaseEvent().getAncientIndicator(ancientMode), se);
 
         return se;
     }
@@ -23,6 +23,7 @@ import com.swirlds.base.time.Time;
 import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.metrics.extensions.PhaseTimer;
 import com.swirlds.common.metrics.extensions.PhaseTimerBuilder;
+import com.swirlds.metrics.api.Counter;
 import com.swirlds.metrics.api.LongGauge;
 import com.swirlds.metrics.api.Metrics;
 import com.swirlds.platform.eventhandling.ConsensusRoundHandler;
@@ -54,6 +55,18 @@ public class RoundHandlingMetrics {
             .withUnit("count");
     private final LongGauge eventsPerRound;
 
+    private static final Counter.Config roundsAwaitingPrehandleConfig = new Counter.Config(
+                    INTERNAL_CATEGORY, "roundsAwaitingPrehandle")
+            .withDescription("The number of rounds whose handling had to wait for the prehandle of at least one event")
+            .withUnit("count");
+    private final Counter roundsAwaitingPrehandle;
+
+    private static final Counter.Config eventsAwaitingPrehandleConfig = new Counter.Config(
+                    INTERNAL_CATEGORY, "eventsAwaitingPrehandle")
+            .withDescription("The number of events whose prehandle had not completed when their round was handled")
+            .withUnit("count");
+    private final Counter eventsAwaitingPrehandle;
+
     private final PhaseTimer<ConsensusRoundHandlerPhase> roundHandlerPhase;
 
     private final Time time;
@@ -71,6 +84,8 @@ public class RoundHandlingMetrics {
         consensusTime = metrics.getOrCreate(consensusTimeConfig);
         consensusTimeDeviation = metrics.getOrCreate(consensusTimeDeviationConfig);
         eventsPerRound = metrics.getOrCreate(eventsPerRoundConfig);
+        roundsAwaitingPrehandle = metrics.getOrCreate(roundsAwaitingPrehandleConfig);
+        eventsAwaitingPrehandle = metrics.getOrCreate(eventsAwaitingPrehandleConfig);
 
         this.roundHandlerPhase = new PhaseTimerBuilder<>(
                         platformContext, time, "platform", ConsensusRoundHandlerPhase.class)
@@ -89,6 +104,19 @@ public class RoundHandlingMetrics {
         eventsPerRound.set(eventCount);
     }
 
+    /**
+     * Records how many events of a round had not been prehandled when the round was about to be handled. The time
+     * spent waiting for them is tracked by the {@link ConsensusRoundHandlerPhase#WAITING_FOR_PREHANDLE} phase.
+     *
+     * @param eventCount the number of events the round handler had to wait for
+     */
+    public void recordEventsAwaitingPrehandle(final int eventCount) {
+        if (eventCount > 0) {
+            roundsAwaitingPrehandle.increment();
+            eventsAwaitingPrehandle.add(eventCount);
+        }
+    }
+
     /**
      * Records the consensus time.
      *
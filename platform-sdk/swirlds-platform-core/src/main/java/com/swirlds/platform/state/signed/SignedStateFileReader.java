@@ -17,6 +17,7 @@
 package com.swirlds.platform.state.signed;
 
 import static com.swirlds.common.io.streams.StreamDebugUtils.deserializeAndDebugOnFailure;
+import static com.swirlds.platform.state.signed.SignedStateFileUtils.CHUNKED_FILE_VERSION;
 import static com.swirlds.platform.state.signed.SignedStateFileUtils.MAX_MERKLE_NODES_IN_STATE;
 import static com.swirlds.platform.state.signed.SignedStateFileUtils.VERSIONED_FILE_BYTE;
 import static java.nio.file.Files.exists;
@@ -26,6 +27,7 @@ import com.swirlds.common.config.singleton.ConfigurationHolder;
 import com.swirlds.common.context.PlatformContext;
 import com.swirlds.common.crypto.Hash;
 import com.swirlds.common.io.streams.MerkleDataInputStream;
+import com.swirlds.common.merkle.MerkleNode;
 import com.swirlds.common.platform.NodeId;
 import com.swirlds.platform.crypto.CryptoStatic;
 import com.swirlds.platform.state.State;
@@ -36,7 +38,9 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility methods for reading a signed state from disk.
@@ -86,11 +90,22 @@ public final class SignedStateFileReader {
         final StateFileData data = deserializeAndDebugOnFailure(
                 () -> new BufferedInputStream(new FileInputStream(stateFile.toFile())),
                 (final MerkleDataInputStream in) -> {
-                    readAndCheckVersion(in);
+                    final int fileVersion = readAndCheckVersion(in);
 
                     final Path directory = stateFile.getParent();
 
-                    final State state = in.readMerkleTree(directory, MAX_MERKLE_NODES_IN_STATE);
+                    final State state;
+                    if (fileVersion == CHUNKED_FILE_VERSION) {
+                        // The chunk files are read concurrently, and their subtrees are put in place of their
+                        // references while the rest of the state is read from this file
+                        final Map<Long, Integer> deserializedVersions = new ConcurrentHashMap<>();
+                        final List<MerkleNode> subtrees =
+                                StateFileChunks.readChunks(in, directory, deserializedVersions);
+                        state = in.readMerkleTree(
+                                directory, MAX_MERKLE_NODES_IN_STATE, subtrees, deserializedVersions);
+                    } else {
+                        state = in.readMerkleTree(directory, MAX_MERKLE_NODES_IN_STATE);
+                    }
                     final Hash hash = in.readSerializable();
                     final SigSet sigSet = in.readSerializable();
 
@@ -132,15 +147,17 @@ public final class SignedStateFileReader {
      * Read the version from a signed state file and check it
      *
      * @param in the stream to read from
+     * @return the file version
      * @throws IOException if the version is invalid
      */
-    private static void readAndCheckVersion(@NonNull final MerkleDataInputStream in) throws IOException {
+    private static int readAndCheckVersion(@NonNull final MerkleDataInputStream in) throws IOException {
         final byte versionByte = in.readByte();
         if (versionByte != VERSIONED_FILE_BYTE) {
             throw new IOException("File is not versioned -- data corrupted or is an unsupported legacy state");
         }
 
-        in.readInt(); // file version
+        final int fileVersion = in.readInt();
         in.readProtocolVersion();
+        return fileVersion;
     }
 }
@@ -43,6 +43,17 @@ public final class SignedStateFileUtils {
      */
     public static final int FILE_VERSION = 1;
 
+    /**
+     * The version of a signed state file whose in-memory subtrees are in separate chunk files, listed in a manifest
+     * after the version
+     */
+    public static final int CHUNKED_FILE_VERSION = 2;
+
+    /**
+     * The format of the name of the chunk files of a signed state, the argument is the index of the chunk
+     */
+    public static final String SIGNED_STATE_CHUNK_FILE_NAME_FORMAT = "SignedState-chunk-%d.swh";
+
     public static final int MAX_MERKLE_NODES_IN_STATE = Integer.MAX_VALUE;
 
     private SignedStateFileUtils() {}
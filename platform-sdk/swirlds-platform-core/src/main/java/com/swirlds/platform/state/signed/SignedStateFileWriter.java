@@ -22,6 +22,7 @@ import static com.swirlds.logging.legacy.LogMarker.EXCEPTION;
 import static com.swirlds.logging.legacy.LogMarker.STATE_TO_DISK;
 import static com.swirlds.platform.config.internal.PlatformConfigUtils.writeSettingsUsed;
 import static com.swirlds.platform.event.preconsensus.BestEffortPcesFileCopy.copyPcesFilesRetryOnFailure;
+import static com.swirlds.platform.state.signed.SignedStateFileUtils.CHUNKED_FILE_VERSION;
 import static com.swirlds.platform.state.signed.SignedStateFileUtils.CURRENT_ADDRESS_BOOK_FILE_NAME;
 import static com.swirlds.platform.state.signed.SignedStateFileUtils.FILE_VERSION;
 import static com.swirlds.platform.state.signed.SignedStateFileUtils.HASH_INFO_FILE_NAME;
@@ -44,7 +45,10 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -135,6 +139,64 @@ public final class SignedStateFileWriter {
                 directory.resolve(SIGNED_STATE_FILE_NAME), out -> writeStateFileToStream(out, directory, signedState));
     }
 
+    /**
+     * Write the signed state file. If enabled in the {@link StateConfig}, the in-memory subtrees of the state are
+     * serialized concurrently into chunk files next to the signed state file.
+     *
+     * @param platformContext the platform context
+     * @param directory       the directory to write to
+     * @param signedState     the signed state to write
+     */
+    public static void writeStateFile(
+            @NonNull final PlatformContext platformContext,
+            @NonNull final Path directory,
+            @NonNull final SignedState signedState)
+            throws IOException {
+        final StateConfig stateConfig = platformContext.getConfiguration().getConfigData(StateConfig.class);
+        if (stateConfig.parallelStateFileEnabled()) {
+            final StateFileChunks.Plan plan = StateFileChunks.plan(
+                    signedState.getState(), stateConfig.stateFileChunkDepth(), stateConfig.stateFileChunkCount());
+            if (!plan.chunks().isEmpty()) {
+                writeChunkedStateFile(directory, signedState, plan);
+                return;
+            }
+        }
+        writeStateFile(directory, signedState);
+    }
+
+    /**
+     * Write the signed state file and its chunk files. The chunk files are written by their own threads while this
+     * thread writes the rest of the state, including the externally serialized subtrees such as virtual maps.
+     *
+     * @param directory   the directory to write to
+     * @param signedState the signed state to write
+     * @param plan        the subtrees to write to chunk files
+     */
+    private static void writeChunkedStateFile(
+            @NonNull final Path directory,
+            @NonNull final SignedState signedState,
+            @NonNull final StateFileChunks.Plan plan)
+            throws IOException {
+        final ExecutorService executor = StateFileChunks.buildExecutor(plan.chunks().size());
+        try {
+            final List<Future<Void>> chunkWrites = StateFileChunks.writeChunks(executor, directory, plan);
+            writeAndFlush(directory.resolve(SIGNED_STATE_FILE_NAME), out -> {
+                out.write(VERSIONED_FILE_BYTE);
+                out.writeInt(CHUNKED_FILE_VERSION);
+                out.writeProtocolVersion();
+                StateFileChunks.writeManifest(out, plan);
+                out.writeMerkleTree(directory, signedState.getState(), plan.subtreeIndices());
+                out.writeSerializable(signedState.getState().getHash(), true);
+                out.writeSerializable(signedState.getSigSet(), true);
+            });
+            for (final Future<Void> chunkWrite : chunkWrites) {
+                StateFileChunks.await(chunkWrite);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * Write all files that belong in the signed state directory into a directory.
      *
@@ -153,7 +215,7 @@ public final class SignedStateFileWriter {
         Objects.requireNonNull(directory);
         Objects.requireNonNull(signedState);
 
-        writeStateFile(directory, signedState);
+        writeStateFile(platformContext, directory, signedState);
         writeHashInfoFile(platformContext, directory, signedState.getState());
         writeMetadataFile(selfId, directory, signedState);
         writeEmergencyRecoveryFile(directory, signedState);
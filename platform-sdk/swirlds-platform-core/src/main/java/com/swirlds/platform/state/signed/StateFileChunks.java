@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.state.signed;
+
+import static com.swirlds.common.io.utility.FileUtils.writeAndFlush;
+import static com.swirlds.common.threading.manager.AdHocThreadManager.getStaticThreadManager;
+import static com.swirlds.platform.state.signed.SignedStateFileUtils.MAX_MERKLE_NODES_IN_STATE;
+import static com.swirlds.platform.state.signed.SignedStateFileUtils.SIGNED_STATE_CHUNK_FILE_NAME_FORMAT;
+
+import com.swirlds.common.io.ExternalSelfSerializable;
+import com.swirlds.common.io.streams.MerkleDataInputStream;
+import com.swirlds.common.io.streams.MerkleDataOutputStream;
+import com.swirlds.common.merkle.MerkleInternal;
+import com.swirlds.common.merkle.MerkleNode;
+import com.swirlds.common.threading.framework.config.ThreadConfiguration;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Splits the in-memory part of a state into subtrees that are serialized concurrently into separate chunk files, and
+ * reads them back concurrently. The signed state file starts with a manifest of the chunk files, and the merkle tree in
+ * it has a reference in place of each subtree in a chunk file. Subtrees that are serialized externally, such as virtual
+ * maps, are never put in a chunk file, so they are still written by the thread writing the signed state file while the
+ * chunk files are being written.
+ */
+final class StateFileChunks {
+
+    /**
+     * The maximum number of chunk files in a manifest.
+     */
+    static final int MAX_CHUNK_COUNT = 1024;
+
+    /**
+     * The maximum length of the name of a chunk file.
+     */
+    private static final int MAX_CHUNK_FILE_NAME_LENGTH = 256;
+
+    private StateFileChunks() {}
+
+    /**
+     * The subtrees of a state that are written to chunk files.
+     *
+     * @param chunks         the roots of the subtrees in each chunk file
+     * @param subtreeIndices the index of each subtree, in the order of the chunks and of the subtrees in the chunks,
+     *                       keyed by the identity of the root of the subtree
+     */
+    record Plan(@NonNull List<List<MerkleNode>> chunks, @NonNull Map<MerkleNode, Integer> subtreeIndices) {}
+
+    /**
+     * A subtree that may be written to a chunk file.
+     *
+     * @param root      the root of the subtree
+     * @param nodeCount the number of nodes in the subtree
+     */
+    private record Subtree(@NonNull MerkleNode root, long nodeCount) {}
+
+    /**
+     * Choose the subtrees to write to chunk files and spread them over the chunk files so that each chunk file has
+     * about the same number of nodes. The candidates are the subtrees whose roots are at the given depth. Candidates
+     * that contain a node that is serialized externally, and the nodes above the given depth, stay in the signed state
+     * file.
+     *
+     * @param root          the root of the state
+     * @param depth         the depth of the roots of the subtrees, at least 1
+     * @param maxChunkCount the maximum number of chunk files, never more than {@link #MAX_CHUNK_COUNT} are planned
+     * @return the plan, without chunks if no subtree can be written to a chunk file
+     */
+    @NonNull
+    static Plan plan(@NonNull final MerkleNode root, final int depth, final int maxChunkCount) {
+        List<MerkleNode> level = List.of(root);
+        for (int i = 0; i < depth; i++) {
+            final List<MerkleNode> nextLevel = new ArrayList<>();
+            for (final MerkleNode node : level) {
+                if (node == null || node.isLeaf() || node instanceof ExternalSelfSerializable) {
+                    continue;
+                }
+                final MerkleInternal internal = node.asInternal();
+                for (int childIndex = 0; childIndex < internal.getNumberOfChildren(); childIndex++) {
+                    nextLevel.add(internal.getChild(childIndex));
+                }
+            }
+            level = nextLevel;
+        }
+
+        final List<Subtree> subtrees = new ArrayList<>();
+        for (final MerkleNode node : level) {
+            if (node != null) {
+                final long nodeCount = countNodes(node);
+                if (nodeCount > 0) {
+                    subtrees.add(new Subtree(node, nodeCount));
+                }
+            }
+        }
+
+        // Assign the largest subtrees first, each to the chunk with the fewest nodes so far
+        subtrees.sort(Comparator.comparingLong(Subtree::nodeCount).reversed());
+        final int chunkCount = Math.min(Math.min(maxChunkCount, MAX_CHUNK_COUNT), subtrees.size());
+        final List<List<MerkleNode>> chunks = new ArrayList<>(chunkCount);
+        final long[] chunkNodeCounts = new long[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            chunks.add(new ArrayList<>());
+        }
+        for (final Subtree subtree : subtrees) {
+            int smallestChunk = 0;
+            for (int i = 1; i < chunkCount; i++) {
+                if (chunkNodeCounts[i] < chunkNodeCounts[smallestChunk]) {
+                    smallestChunk = i;
+                }
+            }
+            chunks.get(smallestChunk).add(subtree.root());
+            chunkNodeCounts[smallestChunk] += subtree.nodeCount();
+        }
+
+        final Map<MerkleNode, Integer> subtreeIndices = new IdentityHashMap<>();
+        for (final List<MerkleNode> chunk : chunks) {
+            for (final MerkleNode subtreeRoot : chunk) {
+                subtreeIndices.put(subtreeRoot, subtreeIndices.size());
+            }
+        }
+
+        return new Plan(chunks, subtreeIndices);
+    }
+
+    /**
+     * Count the nodes of a subtree, without descending into nodes that are serialized externally.
+     *
+     * @param root the root of the subtree
+     * @return the number of nodes, or -1 if the subtree contains an internal node that is serialized externally
+     */
+    private static long countNodes(@NonNull final MerkleNode root) {
+        final Iterator<MerkleNode> iterator =
+                root.treeIterator().setDescendantFilter(node -> !(node instanceof ExternalSelfSerializable));
+        long nodeCount = 0;
+        while (iterator.hasNext()) {
+            final MerkleNode node = iterator.next();
+            if (!node.isLeaf() && node instanceof ExternalSelfSerializable) {
+                return -1;
+            }
+            nodeCount++;
+        }
+        return nodeCount;
+    }
+
+    /**
+     * Build an executor with one thread for each chunk file.
+     *
+     * @param chunkCount the number of chunk files
+     * @return the executor
+     */
+    @NonNull
+    static ExecutorService buildExecutor(final int chunkCount) {
+        return Executors.newFixedThreadPool(
+                chunkCount,
+                new ThreadConfiguration(getStaticThreadManager())
+                        .setComponent("platform")
+                        .setThreadName("state-file-chunks")
+                        .buildFactory());
+    }
+
+    /**
+     * Write the manifest of the chunk files.
+     *
+     * @param out  the stream of the signed state file
+     * @param plan the plan of the chunk files
+     */
+    static void writeManifest(@NonNull final MerkleDataOutputStream out, @NonNull final Plan plan) throws IOException {
+        out.writeInt(plan.chunks().size());
+        for (int i = 0; i < plan.chunks().size(); i++) {
+            out.writeNormalisedString(getChunkFileName(i));
+            out.writeInt(plan.chunks().get(i).size());
+        }
+    }
+
+    /**
+     * Start writing the chunk files.
+     *
+     * @param executor  the executor to write the chunk files on
+     * @param directory the directory of the signed state
+     * @param plan      the plan of the chunk files
+     * @return a future for each chunk file that completes once the file is written
+     */
+    @NonNull
+    static List<Future<Void>> writeChunks(
+            @NonNull final ExecutorService executor, @NonNull final Path directory, @NonNull final Plan plan) {
+        final List<Future<Void>> futures = new ArrayList<>(plan.chunks().size());
+        for (int i = 0; i < plan.chunks().size(); i++) {
+            final Path chunkFile = directory.resolve(getChunkFileName(i));
+            final List<MerkleNode> subtrees = plan.chunks().get(i);
+            futures.add(executor.submit(() -> {
+                writeAndFlush(chunkFile, out -> out.writeMerkleSubtrees(directory, subtrees));
+                return null;
+            }));
+        }
+        return futures;
+    }
+
+    /**
+     * Read the manifest of the chunk files and the subtrees in them, reading the chunk files concurrently.
+     *
+     * @param in                   the stream of the signed state file, positioned at the manifest
+     * @param directory            the directory of the signed state
+     * @param deserializedVersions the versions of the deserialized classes are added to this map, must be thread safe
+     * @return the subtrees, in the order of their indices
+     */
+    @NonNull
+    static List<MerkleNode> readChunks(
+            @NonNull final MerkleDataInputStream in,
+            @NonNull final Path directory,
+            @NonNull final Map<Long, Integer> deserializedVersions)
+            throws IOException {
+
+        final int chunkCount = in.readInt();
+        if (chunkCount < 0 || chunkCount > MAX_CHUNK_COUNT) {
+            throw new IOException("Invalid number of state file chunks: " + chunkCount);
+        }
+        final List<String> fileNames = new ArrayList<>(chunkCount);
+        final List<Integer> subtreeCounts = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            final String fileName = in.readNormalisedString(MAX_CHUNK_FILE_NAME_LENGTH);
+            if (!directory.normalize().equals(directory.resolve(fileName).normalize().getParent())) {
+                throw new IOException("State file chunk " + fileName + " is not in the directory of the state file");
+            }
+            fileNames.add(fileName);
+            subtreeCounts.add(in.readInt());
+        }
+        if (chunkCount == 0) {
+            return List.of();
+        }
+
+        final ExecutorService executor = buildExecutor(chunkCount);
+        try {
+            final List<Future<List<MerkleNode>>> futures = new ArrayList<>(chunkCount);
+            for (final String fileName : fileNames) {
+                final Path chunkFile = directory.resolve(fileName);
+                futures.add(executor.submit(() -> {
+                    try (final MerkleDataInputStream chunkIn = new MerkleDataInputStream(
+                            new BufferedInputStream(new FileInputStream(chunkFile.toFile())))) {
+                        return chunkIn.readMerkleSubtrees(directory, MAX_MERKLE_NODES_IN_STATE, deserializedVersions);
+                    }
+                }));
+            }
+
+            final List<MerkleNode> subtrees = new ArrayList<>();
+            for (int i = 0; i < chunkCount; i++) {
+                final List<MerkleNode> chunk = await(futures.get(i));
+                if (chunk.size() != subtreeCounts.get(i)) {
+                    throw new IOException("State file chunk " + fileNames.get(i) + " has " + chunk.size()
+                            + " subtrees, the manifest expects " + subtreeCounts.get(i));
+                }
+                subtrees.addAll(chunk);
+            }
+            return subtrees;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Wait for a chunk file to be written or read.
+     *
+     * @param future the future of the chunk file
+     * @return the result of the future
+     * @throws IOException if writing or reading the chunk file failed, or if interrupted
+     */
+    static <T> T await(@NonNull final Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for a state file chunk");
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof final IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("unable to write or read a state file chunk", e.getCause());
+        }
+    }
+
+    /**
+     * @param index the index of a chunk file
+     * @return the name of the chunk file
+     */
+    @NonNull
+    private static String getChunkFileName(final int index) {
+        return String.format(SIGNED_STATE_CHUNK_FILE_NAME_FORMAT, index);
+    }
+}
@@ -590,6 +590,13 @@ public class PlatformWiring implements Startable, Stoppable, Clearable {
                         .getConfigData(PcesConfig.class)
                         .roundDurabilityBufferHeartbeatPeriod())
                 .solderTo(roundDurabilityBufferWiring.getInputWire(RoundDurabilityBuffer::checkForStaleRounds));
+        final PcesConfig pcesConfig = platformContext.getConfiguration().getConfigData(PcesConfig.class);
+        if (pcesConfig.groupCommitEnabled()) {
+            // With group commit, events become durable on a thread of the writer's own, so the writer
+            // needs to be polled in order to report them when it has nothing else to do
+            model.buildHeartbeatWire(pcesConfig.groupCommitHeartbeatPeriod())
+                    .solderTo(pcesWriterWiring.getInputWire(PcesWriter::checkDurability), OFFER);
+        }
 
         signedStateFileManagerWiring
                 .oldestMinimumGenerationOnDiskOutputWire()
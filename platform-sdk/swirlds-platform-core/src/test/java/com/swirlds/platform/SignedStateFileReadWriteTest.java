@@ -20,6 +20,7 @@ import static com.swirlds.common.io.utility.FileUtils.throwIfFileExists;
 import static com.swirlds.platform.state.signed.SignedStateFileReader.readStateFile;
 import static com.swirlds.platform.state.signed.SignedStateFileUtils.CURRENT_ADDRESS_BOOK_FILE_NAME;
 import static com.swirlds.platform.state.signed.SignedStateFileUtils.HASH_INFO_FILE_NAME;
+import static com.swirlds.platform.state.signed.SignedStateFileUtils.SIGNED_STATE_CHUNK_FILE_NAME_FORMAT;
 import static com.swirlds.platform.state.signed.SignedStateFileUtils.SIGNED_STATE_FILE_NAME;
 import static com.swirlds.platform.state.signed.SignedStateFileWriter.writeHashInfoFile;
 import static com.swirlds.platform.state.signed.SignedStateFileWriter.writeSignedStateToDisk;
@@ -43,6 +44,7 @@ import com.swirlds.common.test.fixtures.platform.TestPlatformContextBuilder;
 import com.swirlds.config.api.Configuration;
 import com.swirlds.config.extensions.test.fixtures.TestConfigBuilder;
 import com.swirlds.platform.config.StateConfig;
+import com.swirlds.platform.config.StateConfig_;
 import com.swirlds.platform.state.RandomSignedStateGenerator;
 import com.swirlds.platform.state.State;
 import com.swirlds.platform.state.signed.DeserializedSignedState;
@@ -129,6 +131,35 @@ class SignedStateFileReadWriteTest {
         assertNotSame(signedState, deserializedSignedState.reservedSignedState(), "state should be a different object");
     }
 
+    @Test
+    @DisplayName("Write Then Read Chunked State File Test")
+    void writeThenReadChunkedStateFileTest() throws IOException {
+        final SignedState signedState = new RandomSignedStateGenerator().build();
+        final Path stateFile = testDirectory.resolve(SIGNED_STATE_FILE_NAME);
+        final Path firstChunkFile = testDirectory.resolve(String.format(SIGNED_STATE_CHUNK_FILE_NAME_FORMAT, 0));
+        final PlatformContext platformContext = TestPlatformContextBuilder.create()
+                .withConfiguration(new TestConfigBuilder()
+                        .withValue(StateConfig_.PARALLEL_STATE_FILE_ENABLED, true)
+                        .withValue(StateConfig_.STATE_FILE_CHUNK_DEPTH, 1)
+                        .getOrCreateConfig())
+                .build();
+
+        writeStateFile(platformContext, testDirectory, signedState);
+        assertTrue(exists(stateFile), "signed state file should be present");
+        assertTrue(exists(firstChunkFile), "the subtrees of the state should be written to chunk files");
+
+        final DeserializedSignedState deserializedSignedState = readStateFile(platformContext, stateFile);
+        MerkleCryptoFactory.getInstance()
+                .digestTreeSync(
+                        deserializedSignedState.reservedSignedState().get().getState());
+
+        assertEquals(signedState.getState().getHash(), deserializedSignedState.originalHash(), "hash should match");
+        assertEquals(
+                signedState.getState().getHash(),
+                deserializedSignedState.reservedSignedState().get().getState().getHash(),
+                "hash should match");
+    }
+
     @Test
     @DisplayName("writeSavedStateToDisk() Test")
     void writeSavedStateToDiskTest() throws IOException {
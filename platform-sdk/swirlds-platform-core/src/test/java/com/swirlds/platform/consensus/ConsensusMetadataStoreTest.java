@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.consensus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.platform.internal.EventImpl;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ConsensusMetadataStoreTest {
+    private static final int NUM_MEMBERS = 4;
+
+    @Test
+    void memoizeAndRead() {
+        final ConsensusMetadataStore store = new ConsensusMetadataStore(NUM_MEMBERS);
+        final EventImpl event = new EventImpl();
+        final EventImpl seen = new EventImpl();
+
+        assertFalse(store.hasLastSee(event));
+        assertFalse(store.hasStronglySeeP(event));
+
+        final int slot = store.initLastSee(event);
+        assertEquals(slot, event.getMetadataSlot());
+        for (int m = 0; m < NUM_MEMBERS; m++) {
+            store.setLastSee(slot, m, m == 2 ? seen : null);
+        }
+        assertTrue(store.hasLastSee(event));
+        assertFalse(store.hasStronglySeeP(event), "only lastSee has been memoized");
+        assertSame(seen, store.getLastSee(event, 2));
+        assertNull(store.getLastSee(event, 1));
+
+        assertEquals(slot, store.initStronglySeeP(event), "an event keeps its slot for all of its metadata");
+        store.setStronglySeeP(slot, 3, seen);
+        assertTrue(store.hasStronglySeeP(event));
+        assertSame(seen, store.getStronglySeeP(event, 3));
+        assertEquals(1, store.getNumSlotsInUse());
+    }
+
+    @Test
+    void releasedSlotsAreReused() {
+        final ConsensusMetadataStore store = new ConsensusMetadataStore(NUM_MEMBERS);
+        final EventImpl first = new EventImpl();
+        final int slot = store.initLastSee(first);
+        store.setLastSee(slot, 0, first);
+
+        store.release(first);
+        assertEquals(ConsensusConstants.NO_METADATA_SLOT, first.getMetadataSlot());
+        assertFalse(store.hasLastSee(first));
+        assertEquals(0, store.getNumSlotsInUse());
+
+        final EventImpl second = new EventImpl();
+        assertEquals(slot, store.initStronglySeeP(second), "the released slot should be reused");
+        assertFalse(store.hasLastSee(second), "nothing memoized for the previous owner should carry over");
+        assertNull(store.getLastSee(second, 0), "the references of the previous owner should be dropped");
+    }
+
+    @Test
+    void clearedMetadataIsReclaimed() {
+        final ConsensusMetadataStore store = new ConsensusMetadataStore(NUM_MEMBERS);
+        final int capacity = store.getCapacity();
+        for (int i = 0; i < capacity; i++) {
+            final EventImpl event = new EventImpl();
+            store.initLastSee(event);
+            // cleared without being released, as when an event is cleared by another component
+            event.clearMetadata();
+            assertFalse(store.hasLastSee(event));
+        }
+        assertEquals(capacity, store.getNumSlotsInUse());
+
+        final EventImpl event = new EventImpl();
+        store.initLastSee(event);
+        assertEquals(1, store.getNumSlotsInUse(), "slots of cleared events should be reclaimed once all are in use");
+        assertEquals(capacity, store.getCapacity(), "the columns should not grow if slots could be reclaimed");
+    }
+
+    @Test
+    void columnsGrowWhenFull() {
+        final ConsensusMetadataStore store = new ConsensusMetadataStore(NUM_MEMBERS);
+        final int capacity = store.getCapacity();
+        final List<EventImpl> events = new ArrayList<>();
+        for (int i = 0; i <= capacity; i++) {
+            final EventImpl event = new EventImpl();
+            final int slot = store.initLastSee(event);
+            for (int m = 0; m < NUM_MEMBERS; m++) {
+                store.setLastSee(slot, m, event);
+            }
+            events.add(event);
+        }
+        assertTrue(store.getCapacity() > capacity);
+        for (final EventImpl event : events) {
+            assertTrue(store.hasLastSee(event));
+            for (int m = 0; m < NUM_MEMBERS; m++) {
+                assertSame(event, store.getLastSee(event, m), "memoized values should survive growing the columns");
+            }
+        }
+
+        store.clear();
+        assertEquals(0, store.getNumSlotsInUse());
+        assertFalse(store.hasLastSee(events.get(0)));
+    }
+}
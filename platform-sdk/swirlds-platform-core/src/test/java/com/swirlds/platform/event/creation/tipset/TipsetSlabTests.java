@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.event.creation.tipset;
+
+import static com.swirlds.platform.event.creation.tipset.Tipset.UNDEFINED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TipsetSlabTests {
+    private static final int WIDTH = 5;
+
+    @Test
+    void allocatedSlotsAreUndefined() {
+        final TipsetSlab slab = new TipsetSlab(WIDTH);
+        final int slot = slab.allocate();
+        final int offset = slab.offsetOf(slot);
+        for (int index = 0; index < WIDTH; index++) {
+            slab.getTips()[offset + index] = index;
+        }
+        slab.release(slot);
+
+        // allocate every slot, so the released one is allocated again
+        for (int i = 0; i < slab.getCapacity(); i++) {
+            final int newSlot = slab.allocate();
+            final int newOffset = slab.offsetOf(newSlot);
+            for (int index = 0; index < WIDTH; index++) {
+                assertEquals(UNDEFINED, slab.getTips()[newOffset + index], "the tips of the previous tipset were kept");
+            }
+        }
+    }
+
+    @Test
+    void releasedSlotsAreReusedInOrder() {
+        final TipsetSlab slab = new TipsetSlab(WIDTH);
+        final int capacity = slab.getCapacity();
+        final List<Integer> slots = new ArrayList<>();
+        for (int i = 0; i < capacity; i++) {
+            slots.add(slab.allocate());
+        }
+        assertEquals(capacity, slab.getNumSlotsInUse());
+
+        slab.release(slots.get(3));
+        slab.release(slots.get(1));
+        slab.release(slots.get(2));
+        assertEquals(capacity - 3, slab.getNumSlotsInUse());
+
+        assertEquals(slots.get(3), slab.allocate());
+        assertEquals(slots.get(1), slab.allocate());
+        assertEquals(slots.get(2), slab.allocate());
+        assertEquals(capacity, slab.getCapacity(), "the slab should not grow while slots are free");
+    }
+
+    @Test
+    void tipsSurviveGrowing() {
+        final TipsetSlab slab = new TipsetSlab(WIDTH);
+        final int capacity = slab.getCapacity();
+        final List<Integer> slots = new ArrayList<>();
+        for (int i = 0; i <= capacity; i++) {
+            final int slot = slab.allocate();
+            final int offset = slab.offsetOf(slot);
+            for (int index = 0; index < WIDTH; index++) {
+                slab.getTips()[offset + index] = (long) i * WIDTH + index;
+            }
+            slots.add(slot);
+        }
+        assertTrue(slab.getCapacity() > capacity);
+        assertEquals(capacity + 1, slab.getNumSlotsInUse());
+
+        for (int i = 0; i < slots.size(); i++) {
+            final int offset = slab.offsetOf(slots.get(i));
+            for (int index = 0; index < WIDTH; index++) {
+                assertEquals((long) i * WIDTH + index, slab.getTips()[offset + index]);
+            }
+        }
+
+        slab.clear();
+        assertEquals(0, slab.getNumSlotsInUse());
+    }
+}
@@ -18,6 +18,8 @@ package com.swirlds.platform.event.orphan;
 
 import static com.swirlds.common.test.fixtures.RandomUtils.getRandomPrintSeed;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
@@ -46,6 +48,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
@@ -311,4 +314,39 @@ class OrphanBufferTests {
             assertEquals(otherParents.get(index++), iterator.next(), "The next parent should be the next other parent");
         }
     }
+
+    @Test
+    @DisplayName("Test Parent Iterator reuse")
+    void testParentIteratorReuse() {
+        final EventDescriptor selfParent =
+                new EventDescriptor(new Hash(), new NodeId(0), 0, EventConstants.BIRTH_ROUND_UNDEFINED);
+        final EventDescriptor otherParent =
+                new EventDescriptor(new Hash(), new NodeId(1), 1, EventConstants.BIRTH_ROUND_UNDEFINED);
+
+        final BaseEventHashedData eventBase = mock(BaseEventHashedData.class);
+        when(eventBase.getSelfParent()).thenReturn(selfParent);
+        when(eventBase.getOtherParents()).thenReturn(List.of(otherParent));
+        final GossipEvent event = mock(GossipEvent.class);
+        when(event.getHashedData()).thenReturn(eventBase);
+
+        // an event without a self parent, such as the first event of a node
+        final BaseEventHashedData orphanBase = mock(BaseEventHashedData.class);
+        when(orphanBase.getSelfParent()).thenReturn(null);
+        when(orphanBase.getOtherParents()).thenReturn(List.of(otherParent));
+        final GossipEvent eventWithoutSelfParent = mock(GossipEvent.class);
+        when(eventWithoutSelfParent.getHashedData()).thenReturn(orphanBase);
+
+        final ParentIterator iterator = new ParentIterator();
+        assertFalse(iterator.hasNext(), "An iterator that has not been reset should have no parents");
+
+        iterator.reset(event);
+        assertEquals(selfParent, iterator.next(), "The first parent should be the self parent");
+        assertEquals(otherParent, iterator.next(), "The second parent should be the other parent");
+        assertFalse(iterator.hasNext(), "There should be no more parents");
+
+        iterator.reset(eventWithoutSelfParent);
+        assertEquals(otherParent, iterator.next(), "The only parent should be the other parent");
+        assertFalse(iterator.hasNext(), "There should be no more parents");
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
 }
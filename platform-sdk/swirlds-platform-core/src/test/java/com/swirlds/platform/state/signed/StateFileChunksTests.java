@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.platform.state.signed;
+
+import static com.swirlds.common.test.fixtures.merkle.util.MerkleTestUtils.areTreesEqual;
+import static com.swirlds.platform.state.signed.StateFileChunks.MAX_CHUNK_COUNT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.swirlds.common.constructable.ClassConstructorPair;
+import com.swirlds.common.constructable.ConstructableRegistry;
+import com.swirlds.common.constructable.ConstructableRegistryException;
+import com.swirlds.common.io.streams.MerkleDataInputStream;
+import com.swirlds.common.io.streams.MerkleDataOutputStream;
+import com.swirlds.common.merkle.MerkleNode;
+import com.swirlds.common.test.fixtures.merkle.dummy.DummyMerkleInternal;
+import com.swirlds.common.test.fixtures.merkle.dummy.DummyMerkleLeaf;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("StateFileChunks Tests")
+class StateFileChunksTests {
+
+    /**
+     * The number of children of each internal node, enough for more subtrees at depth 2 than there may be chunk files.
+     */
+    private static final int FAN_OUT = 33;
+
+    /**
+     * The number of chunk files written and read back.
+     */
+    private static final int CHUNK_COUNT = 4;
+
+    @TempDir
+    Path testDirectory;
+
+    @BeforeAll
+    static void beforeAll() throws ConstructableRegistryException {
+        final ConstructableRegistry registry = ConstructableRegistry.getInstance();
+        registry.registerConstructable(new ClassConstructorPair(DummyMerkleInternal.class, DummyMerkleInternal::new));
+        registry.registerConstructable(new ClassConstructorPair(DummyMerkleLeaf.class, DummyMerkleLeaf::new));
+    }
+
+    @Test
+    @DisplayName("Plan Is Capped At The Maximum Chunk Count Test")
+    void planIsCappedAtMaxChunkCountTest() {
+        final StateFileChunks.Plan plan = StateFileChunks.plan(buildTree(), 2, Integer.MAX_VALUE);
+
+        assertEquals(MAX_CHUNK_COUNT, plan.chunks().size(), "no more chunk files should be planned than can be read");
+        assertEquals(
+                FAN_OUT * FAN_OUT,
+                plan.chunks().stream().mapToInt(List::size).sum(),
+                "every subtree should be in a chunk file");
+    }
+
+    @Test
+    @DisplayName("Write Then Read Chunks Test")
+    void writeThenReadChunksTest() throws IOException {
+        final StateFileChunks.Plan plan = StateFileChunks.plan(buildTree(), 2, CHUNK_COUNT);
+        assertEquals(CHUNK_COUNT, plan.chunks().size(), "the maximum number of chunk files should be used");
+
+        final ByteArrayOutputStream manifest = new ByteArrayOutputStream();
+        try (final MerkleDataOutputStream out = new MerkleDataOutputStream(manifest)) {
+            StateFileChunks.writeManifest(out, plan);
+        }
+        final ExecutorService executor = StateFileChunks.buildExecutor(plan.chunks().size());
+        try {
+            for (final Future<Void> future : StateFileChunks.writeChunks(executor, testDirectory, plan)) {
+                StateFileChunks.await(future);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final List<MerkleNode> subtrees;
+        try (final MerkleDataInputStream in =
+                new MerkleDataInputStream(new ByteArrayInputStream(manifest.toByteArray()))) {
+            subtrees = StateFileChunks.readChunks(in, testDirectory, new ConcurrentHashMap<>());
+        }
+
+        final List<MerkleNode> expectedSubtrees =
+                plan.chunks().stream().flatMap(List::stream).toList();
+        assertEquals(FAN_OUT * FAN_OUT, subtrees.size(), "every subtree should be read");
+        for (int i = 0; i < subtrees.size(); i++) {
+            assertTrue(areTreesEqual(expectedSubtrees.get(i), subtrees.get(i)), "subtree " + i + " should match");
+        }
+    }
+
+    /**
+     * Build a tree with {@link #FAN_OUT} internal nodes below the root, each with {@link #FAN_OUT} leaves.
+     */
+    private static MerkleNode buildTree() {
+        final DummyMerkleInternal root = new DummyMerkleInternal("root");
+        for (int i = 0; i < FAN_OUT; i++) {
+            final DummyMerkleInternal internal = new DummyMerkleInternal("internal" + i);
+            for (int j = 0; j < FAN_OUT; j++) {
+                internal.setChild(j, new DummyMerkleLeaf("leaf" + i + "-" + j));
+            }
+            root.setChild(i, internal);
+        }
+        return root;
+    }
+}
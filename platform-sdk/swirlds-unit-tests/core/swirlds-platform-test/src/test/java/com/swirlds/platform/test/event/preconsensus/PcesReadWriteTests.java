@@ -37,15 +37,20 @@ import com.swirlds.platform.event.AncientMode;
 import com.swirlds.platform.event.GossipEvent;
 import com.swirlds.platform.event.preconsensus.PcesFile;
 import com.swirlds.platform.event.preconsensus.PcesFileIterator;
+import com.swirlds.platform.event.preconsensus.PcesMultiFileIterator;
 import com.swirlds.platform.event.preconsensus.PcesMutableFile;
+import com.swirlds.platform.event.preconsensus.PcesParallelMultiFileIterator;
 import com.swirlds.platform.system.BasicSoftwareVersion;
 import com.swirlds.platform.system.StaticSoftwareVersion;
 import com.swirlds.platform.test.fixtures.event.generator.StandardGraphGenerator;
 import com.swirlds.platform.test.fixtures.event.source.StandardEventSource;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -310,6 +315,68 @@ class PcesReadWriteTests {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("buildArguments")
+    @DisplayName("Torn Event In Preallocated File Test")
+    void tornEventInPreallocatedFileTest(@NonNull final AncientMode ancientMode) throws IOException {
+        for (final boolean memoryMapped : List.of(false, true)) {
+            final Random random = RandomUtils.getRandomPrintSeed();
+
+            final int numEvents = 100;
+            final int preallocatedBytes = 1024 * 1024;
+
+            final StandardGraphGenerator generator = new StandardGraphGenerator(
+                    ancientMode == GENERATION_THRESHOLD ? DEFAULT_PLATFORM_CONTEXT : BIRTH_ROUND_PLATFORM_CONTEXT,
+                    random.nextLong(),
+                    new StandardEventSource(),
+                    new StandardEventSource(),
+                    new StandardEventSource(),
+                    new StandardEventSource());
+
+            final List<GossipEvent> events = new ArrayList<>();
+            for (int i = 0; i < numEvents; i++) {
+                events.add(generator.generateEvent().getBaseEvent());
+            }
+
+            final PcesFile file = PcesFile.of(
+                    ancientMode,
+                    RandomUtils.randomInstant(random),
+                    random.nextInt(0, 100),
+                    0,
+                    Long.MAX_VALUE - 1,
+                    0,
+                    testDirectory);
+
+            final Map<Integer /* event index */, Integer /* last byte position */> byteBoundaries = new HashMap<>();
+
+            final PcesMutableFile mutableFile = file.getMutableFile(preallocatedBytes);
+            for (int i = 0; i < events.size(); i++) {
+                final GossipEvent event = events.get(i);
+                mutableFile.writeEvent(event);
+                byteBoundaries.put(i, (int) mutableFile.fileSize());
+            }
+            mutableFile.close();
+
+            // Simulate a crash while writing the event after the last event index: the event is cut short after its
+            // version, and the rest of the file is still preallocated
+            final int lastEventIndex = random.nextInt(0, events.size() - 2);
+            final int truncationPosition =
+                    byteBoundaries.get(lastEventIndex) + Integer.BYTES + random.nextInt(Integer.BYTES);
+            truncateFile(file.getPath(), truncationPosition);
+            try (final FileChannel channel = FileChannel.open(file.getPath(), StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(preallocatedBytes - truncationPosition), truncationPosition);
+            }
+            assertEquals(preallocatedBytes, Files.size(file.getPath()));
+
+            final PcesFileIterator iterator = new PcesFileIterator(file, Long.MIN_VALUE, ancientMode, memoryMapped);
+            final List<GossipEvent> deserializedEvents = new ArrayList<>();
+            iterator.forEachRemaining(deserializedEvents::add);
+
+            assertTrue(iterator.hasPartialEvent());
+            assertEquals(events.subList(0, lastEventIndex + 1), deserializedEvents);
+        }
+    }
+
     @ParameterizedTest
     @MethodSource("buildArguments")
     @DisplayName("Corrupted Events Test")
@@ -588,4 +655,69 @@ class PcesReadWriteTests {
         assertFalse(iterator.hasNext());
         assertThrows(NoSuchElementException.class, iterator::next);
     }
+
+    @ParameterizedTest
+    @MethodSource("buildArguments")
+    @DisplayName("Parallel Memory Mapped Read Test")
+    void parallelMemoryMappedReadTest(@NonNull final AncientMode ancientMode) throws IOException {
+        final Random random = RandomUtils.getRandomPrintSeed();
+
+        final int fileCount = 10;
+        final int eventsPerFile = 20;
+
+        final StandardGraphGenerator generator = new StandardGraphGenerator(
+                ancientMode == GENERATION_THRESHOLD ? DEFAULT_PLATFORM_CONTEXT : BIRTH_ROUND_PLATFORM_CONTEXT,
+                random.nextLong(),
+                new StandardEventSource(),
+                new StandardEventSource(),
+                new StandardEventSource(),
+                new StandardEventSource());
+
+        final List<PcesFile> files = new ArrayList<>();
+        for (int fileIndex = 0; fileIndex < fileCount; fileIndex++) {
+            final PcesFile file = PcesFile.of(
+                    ancientMode, Instant.now(), fileIndex, 0, Long.MAX_VALUE - 1, 0, testDirectory);
+            files.add(file);
+
+            if (fileIndex == 5) {
+                // An empty file
+                Files.createDirectories(file.getPath().getParent());
+                assertTrue(file.getPath().toFile().createNewFile());
+                continue;
+            }
+
+            // The last file is left preallocated, as if the node crashed while writing it
+            final boolean preallocated = fileIndex == fileCount - 1;
+            final PcesMutableFile mutableFile = file.getMutableFile(preallocated ? 1024 * 1024 : 0);
+            for (int i = 0; i < eventsPerFile; i++) {
+                mutableFile.writeEvent(generator.generateEvent().getBaseEvent());
+            }
+            mutableFile.flush();
+            if (!preallocated) {
+                mutableFile.close();
+            }
+
+            if (fileIndex == 3) {
+                // A file that ends with a partial event
+                truncateFile(file.getPath(), (int) mutableFile.fileSize() - 1);
+            }
+        }
+
+        final PcesMultiFileIterator expectedIterator =
+                new PcesMultiFileIterator(Long.MIN_VALUE, files.iterator(), ancientMode);
+        final List<GossipEvent> expectedEvents = new ArrayList<>();
+        expectedIterator.forEachRemaining(expectedEvents::add);
+        assertEquals((fileCount - 1) * eventsPerFile - 1, expectedEvents.size());
+
+        final PcesParallelMultiFileIterator iterator =
+                new PcesParallelMultiFileIterator(Long.MIN_VALUE, files.iterator(), ancientMode, 3, 2);
+        final List<GossipEvent> deserializedEvents = new ArrayList<>();
+        iterator.forEachRemaining(deserializedEvents::add);
+
+        assertEquals(expectedEvents, deserializedEvents, "events should be returned in file order");
+        assertEquals(1, iterator.getTruncatedFileCount());
+        assertEquals(expectedIterator.getTruncatedFileCount(), iterator.getTruncatedFileCount());
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
 }
@@ -17,6 +17,7 @@
 package com.swirlds.platform.test.event.preconsensus;
 
 import static com.swirlds.common.units.DataUnit.UNIT_BYTES;
+import static com.swirlds.common.test.fixtures.AssertionUtils.assertEventuallyTrue;
 import static com.swirlds.common.units.DataUnit.UNIT_KILOBYTES;
 import static com.swirlds.common.utility.CompareTo.isGreaterThanOrEqualTo;
 import static com.swirlds.platform.event.AncientMode.BIRTH_ROUND_THRESHOLD;
@@ -260,6 +261,11 @@ class PcesWriterTests {
 
     @NonNull
     private PlatformContext buildContext(@NonNull final AncientMode ancientMode) {
+        return buildContext(ancientMode, false);
+    }
+
+    @NonNull
+    private PlatformContext buildContext(@NonNull final AncientMode ancientMode, final boolean groupCommitEnabled) {
         final Configuration configuration = new TestConfigBuilder()
                 .withValue(PcesConfig_.DATABASE_DIRECTORY, testDirectory)
                 .withValue(FileSystemManagerConfig_.ROOT_PATH, testDirectory)
@@ -268,6 +274,7 @@ class PcesWriterTests {
                 .withValue(TransactionConfig_.MAX_TRANSACTION_COUNT_PER_EVENT, Integer.MAX_VALUE)
                 .withValue(TransactionConfig_.TRANSACTION_MAX_BYTES, Integer.MAX_VALUE)
                 .withValue(EventConfig_.USE_BIRTH_ROUND_ANCIENT_THRESHOLD, ancientMode == BIRTH_ROUND_THRESHOLD)
+                .withValue(PcesConfig_.GROUP_COMMIT_ENABLED, groupCommitEnabled)
                 .getOrCreateConfig();
 
         return TestPlatformContextBuilder.create()
@@ -800,4 +807,59 @@ class PcesWriterTests {
         assertEquals(
                 8, writer.writeEvent(events.get(8)), "Flush requests for later sequences numbers should be maintained");
     }
+
+    @ParameterizedTest
+    @MethodSource("buildArguments")
+    @DisplayName("Group Commit Test")
+    void groupCommitTest(@NonNull final AncientMode ancientMode) throws IOException {
+        final Random random = RandomUtils.getRandomPrintSeed();
+
+        final PlatformContext platformContext = buildContext(ancientMode, true);
+
+        final StandardGraphGenerator generator = buildGraphGenerator(platformContext, random);
+        final PcesSequencer sequencer = new DefaultPcesSequencer();
+        final PcesFileTracker pcesFiles = new PcesFileTracker(ancientMode);
+
+        final PcesFileManager fileManager = new PcesFileManager(platformContext, pcesFiles, selfId, 0);
+        final DefaultPcesWriter writer = new DefaultPcesWriter(platformContext, fileManager);
+        final AtomicLong latestDurableSequenceNumber = new AtomicLong(-1);
+
+        final List<GossipEvent> events = new LinkedList<>();
+        for (int i = 0; i < numEvents; i++) {
+            events.add(generator.generateEventWithoutIndex().getBaseEvent());
+        }
+
+        writer.beginStreamingNewEvents();
+
+        for (final GossipEvent event : events) {
+            sequencer.assignStreamSequenceNumber(event);
+            passValueToDurabilityNexus(writer.writeEvent(event), latestDurableSequenceNumber);
+
+            // request a flush sometimes
+            if (random.nextInt(10) == 0) {
+                passValueToDurabilityNexus(
+                        writer.submitFlushRequest(event.getStreamSequenceNumber()), latestDurableSequenceNumber);
+            }
+        }
+
+        final long lastSequenceNumber = events.getLast().getStreamSequenceNumber();
+        passValueToDurabilityNexus(writer.submitFlushRequest(lastSequenceNumber), latestDurableSequenceNumber);
+
+        // The last events are forced to disk in the background, and reported when the writer is polled
+        assertEventuallyTrue(
+                () -> {
+                    passValueToDurabilityNexus(writer.checkDurability(Instant.now()), latestDurableSequenceNumber);
+                    return latestDurableSequenceNumber.get() == lastSequenceNumber;
+                },
+                Duration.ofSeconds(10),
+                "All events should eventually be durable");
+        assertNull(writer.checkDurability(Instant.now()), "No additional events have been made durable");
+
+        // The last file is still open, and is followed by its unused preallocated bytes
+        verifyStream(events, platformContext, 0, ancientMode);
+
+        writer.closeCurrentMutableFile();
+
+        verifyStream(events, platformContext, 0, ancientMode);
+    }
 }
@@ -55,6 +55,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -714,6 +716,75 @@ class ShadowgraphTest {
                 "Shadow graph tips should be included in expiry.");
     }
 
+    @Test
+    @DisplayName("Sync threads can read the shadow graph while events are inserted and expired")
+    void testConcurrentReadsDuringInsertionAndExpiry() throws InterruptedException {
+        final Random random = RandomUtils.getRandomPrintSeed();
+        initShadowgraph(random, 0, 10);
+
+        final int numReaders = 4;
+        final AtomicBoolean done = new AtomicBoolean(false);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < numReaders; i++) {
+            final Thread reader = new Thread(() -> {
+                try {
+                    while (!done.get()) {
+                        try (final ReservedEventWindow reservation = shadowgraph.reserve()) {
+                            final long expiredThreshold =
+                                    reservation.getEventWindow().getExpiredThreshold();
+                            final List<ShadowEvent> tips = shadowgraph.getTips();
+                            // The tips are copied from a consistent tip set, so none of them has a self child
+                            final Set<ShadowEvent> tipSet = new HashSet<>(tips);
+                            for (final ShadowEvent tip : tips) {
+                                assertFalse(
+                                        tipSet.contains(tip.getSelfParent()),
+                                        "A tip should never be returned together with its self child");
+                            }
+                            final List<Hash> tipHashes = tips.stream()
+                                    .map(ShadowEvent::getEventBaseHash)
+                                    .toList();
+                            assertEquals(tipHashes.size(), shadowgraph.shadows(tipHashes).size());
+                            shadowgraph.findAncestors(tips, s -> s.getEvent().getGeneration() >= expiredThreshold);
+                        }
+                    }
+                } catch (final Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        long expiredThreshold = FIRST_GENERATION;
+        try {
+            for (int i = 1; i <= 2_000; i++) {
+                final IndexedEvent event = emitter.emitEvent();
+                assertDoesNotThrow(() -> shadowgraph.addEvent(event), "Unable to insert event into shadow graph.");
+                maxGen = Math.max(maxGen, event.getGeneration());
+                if (i % 100 == 0) {
+                    expiredThreshold = Math.max(expiredThreshold, maxGen - 20);
+                    shadowgraph.updateEventWindow(new EventWindow(
+                            0 /* ignored by shadowgraph */,
+                            0 /* ignored by shadowgraph */,
+                            expiredThreshold,
+                            GENERATION_THRESHOLD));
+                }
+            }
+        } finally {
+            done.set(true);
+            for (final Thread reader : readers) {
+                reader.join();
+            }
+        }
+
+        assertNull(failure.get(), "Reading the shadow graph concurrently with the writer should not fail");
+        assertEquals(
+                expiredThreshold,
+                shadowgraph.getEventWindow().getExpiredThreshold(),
+                "The event window should be the last one set by the writer");
+    }
+
     @Test
     @Disabled("It does not make sense to run this test in CCI since the outcome can vary depending on the load."
             + "The purpose of this test is to tune the performance of this method by running the test locally.")
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.cache; // NOSONAR: Needed to benchmark internal classes
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares {@link VirtualNodeCache} path index implementations: boxed {@link ConcurrentHashMap}
+ * and {@link ConcurrentLongObjectMap}. Every benchmark op is a full round: all dirty paths are
+ * added to the index, then looked up, then purged, the same way the cache does it for every
+ * version. Run with {@code -prof gc} to see allocation rates per round.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 15)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PathIndexBench {
+
+    /** Number of dirty leaves per round */
+    @Param({"100000", "1000000"})
+    public int dirtyLeaves;
+
+    private Object[] mutations;
+
+    private ConcurrentHashMap<Long, Object> boxedIndex;
+
+    private ConcurrentLongObjectMap<Object> longIndex;
+
+    @Setup(Level.Trial)
+    public void setupMutations() {
+        mutations = new Object[dirtyLeaves];
+        for (int i = 0; i < dirtyLeaves; i++) {
+            mutations[i] = new Object();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setupIndexes() {
+        boxedIndex = new ConcurrentHashMap<>();
+        longIndex = new ConcurrentLongObjectMap<>();
+    }
+
+    @Benchmark
+    public void boxedPathIndex(final Blackhole blackhole) {
+        // Dirty leaf paths are the last leaf paths in the tree, i.e. a contiguous range
+        final long firstPath = dirtyLeaves - 1L;
+        for (int i = 0; i < dirtyLeaves; i++) {
+            final Object mutation = mutations[i];
+            boxedIndex.compute(firstPath + i, (path, old) -> mutation);
+        }
+        for (int i = 0; i < dirtyLeaves; i++) {
+            blackhole.consume(boxedIndex.get(firstPath + i));
+        }
+        for (int i = 0; i < dirtyLeaves; i++) {
+            boxedIndex.compute(firstPath + i, (path, old) -> null);
+        }
+    }
+
+    @Benchmark
+    public void longPathIndex(final Blackhole blackhole) {
+        final long firstPath = dirtyLeaves - 1L;
+        for (int i = 0; i < dirtyLeaves; i++) {
+            final Object mutation = mutations[i];
+            longIndex.compute(firstPath + i, (path, old) -> mutation);
+        }
+        for (int i = 0; i < dirtyLeaves; i++) {
+            blackhole.consume(longIndex.get(firstPath + i));
+        }
+        for (int i = 0; i < dirtyLeaves; i++) {
+            longIndex.compute(firstPath + i, (path, old) -> null);
+        }
+    }
+}
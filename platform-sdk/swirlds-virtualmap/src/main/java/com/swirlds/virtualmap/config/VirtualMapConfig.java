@@ -41,6 +41,10 @@ import java.time.Duration;
  * @param virtualHasherChunkHeight
  *      The number of ranks minus one to handle in a single virtual hasher task. That is, when height is
  *      1, every task takes 2 inputs. Height 2 corresponds to tasks with 4 inputs. And so on.
+ * @param speculativeLeafHashing
+ *      If true, dirty leaves of a mutable virtual map copy are hashed in background while the copy is
+ *      being modified, and these leaf hashes are reused when the copy is hashed. It reduces the time
+ *      to hash a copy after it's made immutable, at the cost of hashing some leaves more than once.
  * @param reconnectMode
  *      Reconnect mode. For the list of accepted values, see {@link VirtualMapReconnectMode}.
  * @param reconnectFlushInterval
@@ -94,6 +98,7 @@ public record VirtualMapConfig(
                 double percentHashThreads, // FUTURE WORK: We need to add min/max support for double values
         @Min(-1) @ConfigProperty(defaultValue = "-1") int numHashThreads,
         @Min(1) @Max(64) @ConfigProperty(defaultValue = "3") int virtualHasherChunkHeight,
+        @ConfigProperty(defaultValue = "false") boolean speculativeLeafHashing,
         @ConfigProperty(defaultValue = PUSH) String reconnectMode,
         @Min(0) @ConfigProperty(defaultValue = "500000") int reconnectFlushInterval,
         @Min(0) @Max(100) @ConfigProperty(defaultValue = "25.0")
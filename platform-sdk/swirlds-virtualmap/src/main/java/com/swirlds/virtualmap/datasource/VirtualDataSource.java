@@ -23,6 +23,7 @@ import com.swirlds.virtualmap.VirtualKey;
 import com.swirlds.virtualmap.VirtualValue;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.stream.Stream;
 
 /**
@@ -155,6 +156,25 @@ public interface VirtualDataSource<K extends VirtualKey, V extends VirtualValue>
      */
     long findKey(final K key) throws IOException;
 
+    /**
+     * Find the paths of multiple keys at once. Data sources may override this method to look up
+     * the keys more efficiently than one by one, for example, by reading every on-disk page at most
+     * once. The default implementation calls {@link #findKey(VirtualKey)} for every key.
+     *
+     * @param keys
+     * 		the keys to find paths for
+     * @return the paths in the same order as the keys, INVALID_PATH for keys that are not stored
+     * @throws IOException
+     * 		If there was a problem locating the keys
+     */
+    default long[] findKeys(final List<K> keys) throws IOException {
+        final long[] paths = new long[keys.size()];
+        for (int i = 0; i < paths.length; i++) {
+            paths[i] = findKey(keys.get(i));
+        }
+        return paths;
+    }
+
     /**
      * Load a virtual node hash by path.
      *
@@ -0,0 +1,351 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.cache;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A concurrent map from primitive {@code long} keys to object values, optimized for use by the
+ * {@link VirtualNodeCache} path indexes.
+ * <p>
+ * Unlike {@link java.util.concurrent.ConcurrentHashMap ConcurrentHashMap&lt;Long, V&gt;}, this map
+ * doesn't box keys and doesn't allocate an entry object per mapping. Keys and values are stored in
+ * parallel arrays using open addressing with linear probing. The map is split into a fixed number
+ * of segments. Each segment has its own table and its own lock, which is only taken by writers.
+ * Readers are lock-free.
+ * <p>
+ * A key, once placed into a table slot, is never moved or cleared in that table. Removing a mapping
+ * just sets the slot value to null, and the slot is reused if the same key is put again. Removed
+ * slots are dropped when the segment table is rehashed, which happens when a segment runs out of
+ * free slots. Rehashing creates a new table, so readers that still use the old table see a
+ * consistent, if slightly stale, view of the segment. This gives the same guarantees to concurrent
+ * readers as {@code ConcurrentHashMap}: a read reflects the results of the most recently completed
+ * update that happens-before it.
+ * <p>
+ * Null values are not supported, {@link #compute(long, RemappingFunction)} returning null removes
+ * the mapping. {@link #EMPTY_KEY} can't be used as a key.
+ *
+ * @param <V>
+ * 		the value type
+ */
+final class ConcurrentLongObjectMap<V> {
+
+    /**
+     * The key used to mark empty table slots. It can't be used as a map key. All keys used by
+     * {@link VirtualNodeCache} are paths, which are never negative.
+     */
+    static final long EMPTY_KEY = Long.MIN_VALUE;
+
+    /**
+     * The default number of segments. Must be a power of two.
+     */
+    private static final int DEFAULT_SEGMENTS = 64;
+
+    /**
+     * The min size of a segment table. Must be a power of two.
+     */
+    private static final int MIN_TABLE_CAPACITY = 16;
+
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    /**
+     * A function to compute a new value for a key, see {@link #compute(long, RemappingFunction)}.
+     *
+     * @param <V>
+     * 		the value type
+     */
+    @FunctionalInterface
+    interface RemappingFunction<V> {
+        /**
+         * Computes a new value for the key.
+         *
+         * @param key
+         * 		the key
+         * @param value
+         * 		the current value, or null if there is no mapping for the key
+         * @return the new value, or null to remove the mapping
+         */
+        V apply(long key, V value);
+    }
+
+    /**
+     * An action to perform for every mapping, see {@link #forEach(EntryConsumer)}.
+     *
+     * @param <V>
+     * 		the value type
+     * @param <E>
+     * 		the exception type the action may throw
+     */
+    @FunctionalInterface
+    interface EntryConsumer<V, E extends Exception> {
+        void accept(long key, V value) throws E;
+    }
+
+    /**
+     * Map segments. A key is mapped to a segment using the highest bits of its hash.
+     */
+    private final Segment<V>[] segments;
+
+    /**
+     * Shift to get a segment index from a key hash.
+     */
+    private final int segmentShift;
+
+    /**
+     * Create a new map with the default number of segments.
+     */
+    ConcurrentLongObjectMap() {
+        this(DEFAULT_SEGMENTS);
+    }
+
+    /**
+     * Create a new map.
+     *
+     * @param segmentsCount
+     * 		the number of segments, must be a power of two
+     */
+    @SuppressWarnings("unchecked")
+    ConcurrentLongObjectMap(final int segmentsCount) {
+        if ((segmentsCount <= 1) || (Integer.bitCount(segmentsCount) != 1)) {
+            throw new IllegalArgumentException("The number of segments must be a power of two greater than one");
+        }
+        segments = new Segment[segmentsCount];
+        for (int i = 0; i < segmentsCount; i++) {
+            segments[i] = new Segment<>();
+        }
+        segmentShift = Long.SIZE - Integer.numberOfTrailingZeros(segmentsCount);
+    }
+
+    /**
+     * Get the value mapped to the given key. This method is lock-free.
+     *
+     * @param key
+     * 		the key
+     * @return the value, or null if there is no mapping for the key
+     */
+    V get(final long key) {
+        final long hash = hash(key);
+        return segmentFor(hash).get(key, (int) hash);
+    }
+
+    /**
+     * Map the given key to the given value.
+     *
+     * @param key
+     * 		the key
+     * @param value
+     * 		the value, cannot be null
+     */
+    void put(final long key, final V value) {
+        Objects.requireNonNull(value);
+        compute(key, (k, v) -> value);
+    }
+
+    /**
+     * Atomically compute a new value for the given key. Similar to {@link
+     * java.util.concurrent.ConcurrentHashMap#compute(Object, java.util.function.BiFunction)}, the
+     * function is called while a segment lock is held, so it should be short and must not update
+     * this map.
+     *
+     * @param key
+     * 		the key
+     * @param function
+     * 		the function to compute the new value. If it returns null, the mapping is removed
+     * @return the new value, or null if there is no mapping for the key anymore
+     */
+    V compute(final long key, final RemappingFunction<V> function) {
+        if (key == EMPTY_KEY) {
+            throw new IllegalArgumentException("Unsupported key: " + key);
+        }
+        final long hash = hash(key);
+        return segmentFor(hash).compute(key, (int) hash, function);
+    }
+
+    /**
+     * Get the number of mappings in this map. Under concurrent updates, the returned value may
+     * not reflect the updates in progress.
+     *
+     * @return the number of mappings
+     */
+    int size() {
+        int size = 0;
+        for (final Segment<V> segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    /**
+     * Perform the given action for every mapping in this map. Mappings are visited in no particular
+     * order. Mappings updated concurrently may or may not be visited.
+     *
+     * @param action
+     * 		the action to perform
+     * @param <E>
+     * 		the exception type the action may throw
+     * @throws E
+     * 		if the action throws it
+     */
+    <E extends Exception> void forEach(final EntryConsumer<? super V, E> action) throws E {
+        for (final Segment<V> segment : segments) {
+            segment.forEach(action);
+        }
+    }
+
+    private Segment<V> segmentFor(final long hash) {
+        return segments[(int) (hash >>> segmentShift)];
+    }
+
+    /**
+     * Paths are sequential numbers, they need to be spread over segments and table slots.
+     */
+    private static long hash(final long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    /**
+     * A single map segment. Updates are synchronized on the segment, reads are lock-free.
+     */
+    private static final class Segment<V> {
+
+        /**
+         * Segment table. Updated by writers only, under the segment lock.
+         */
+        private volatile Table table = new Table(MIN_TABLE_CAPACITY);
+
+        /**
+         * Number of table slots with keys, including slots with removed mappings. Guarded by the
+         * segment lock.
+         */
+        private int usedSlots = 0;
+
+        /**
+         * Number of mappings in this segment.
+         */
+        private volatile int size = 0;
+
+        @SuppressWarnings("unchecked")
+        V get(final long key, final int hash) {
+            final Table t = table;
+            final long[] keys = t.keys;
+            final int mask = keys.length - 1;
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                final long k = (long) KEYS.getAcquire(keys, i);
+                if (k == key) {
+                    return (V) VALUES.getAcquire(t.values, i);
+                }
+                if (k == EMPTY_KEY) {
+                    return null;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized V compute(final long key, final int hash, final RemappingFunction<V> function) {
+            final Table t = table;
+            final long[] keys = t.keys;
+            final int mask = keys.length - 1;
+            int i = hash & mask;
+            while ((keys[i] != key) && (keys[i] != EMPTY_KEY)) {
+                i = (i + 1) & mask;
+            }
+            final boolean slotUsed = keys[i] == key;
+            final V oldValue = slotUsed ? (V) t.values[i] : null;
+            final V newValue = function.apply(key, oldValue);
+            if (slotUsed) {
+                VALUES.setRelease(t.values, i, newValue);
+                if ((oldValue == null) && (newValue != null)) {
+                    size++;
+                } else if ((oldValue != null) && (newValue == null)) {
+                    size--;
+                }
+            } else if (newValue != null) {
+                // Set the value first, so lock-free readers never see the key without the value
+                VALUES.setRelease(t.values, i, newValue);
+                KEYS.setRelease(keys, i, key);
+                size++;
+                // Keep at least half of the slots free, so probe sequences are short
+                if (++usedSlots * 2 > keys.length) {
+                    rehash();
+                }
+            }
+            return newValue;
+        }
+
+        @SuppressWarnings("unchecked")
+        <E extends Exception> void forEach(final EntryConsumer<? super V, E> action) throws E {
+            final Table t = table;
+            final long[] keys = t.keys;
+            for (int i = 0; i < keys.length; i++) {
+                final long k = (long) KEYS.getAcquire(keys, i);
+                if (k != EMPTY_KEY) {
+                    final V value = (V) VALUES.getAcquire(t.values, i);
+                    if (value != null) {
+                        action.accept(k, value);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Moves all mappings to a new table, dropping removed mappings. The new table is sized so
+         * it's at most a quarter full. Must be called under the segment lock.
+         */
+        private void rehash() {
+            final Table oldTable = table;
+            final int liveCount = size;
+            final int capacity =
+                    Math.max(MIN_TABLE_CAPACITY, Integer.highestOneBit(Math.max(1, liveCount * 4)) << 1);
+            final Table newTable = new Table(capacity);
+            final int mask = capacity - 1;
+            for (int i = 0; i < oldTable.keys.length; i++) {
+                final long key = oldTable.keys[i];
+                final Object value = oldTable.values[i];
+                if ((key != EMPTY_KEY) && (value != null)) {
+                    int j = (int) hash(key) & mask;
+                    while (newTable.keys[j] != EMPTY_KEY) {
+                        j = (j + 1) & mask;
+                    }
+                    newTable.keys[j] = key;
+                    newTable.values[j] = value;
+                }
+            }
+            usedSlots = liveCount;
+            // The volatile write publishes the new table contents to lock-free readers
+            table = newTable;
+        }
+    }
+
+    /**
+     * Segment table: keys and values in parallel arrays.
+     */
+    private static final class Table {
+        private final long[] keys;
+        private final Object[] values;
+
+        Table(final int capacity) {
+            keys = new long[capacity];
+            Arrays.fill(keys, EMPTY_KEY);
+            values = new Object[capacity];
+        }
+    }
+}
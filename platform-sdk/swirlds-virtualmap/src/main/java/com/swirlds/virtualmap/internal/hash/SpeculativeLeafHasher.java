@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.hash;
+
+import com.swirlds.common.crypto.CryptographyHolder;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.virtualmap.VirtualKey;
+import com.swirlds.virtualmap.VirtualValue;
+import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hashes dirty leaves of a mutable virtual map copy in background, while the copy is still being
+ * modified. When the copy is made immutable and hashed by {@link VirtualHasher}, leaf hashes
+ * computed here are reused, so only leaves changed since their last speculative hashing, and
+ * internal nodes, have to be hashed on the critical path.
+ *
+ * <p>A leaf hash depends on leaf path, key, and value. Every time a leaf is put to the node cache,
+ * it's passed to {@link #leafUpdated(VirtualLeafRecord)}, which captures these three fields and
+ * schedules hashing in the virtual hasher pool. A captured hash is only used, if the leaf being
+ * hashed has exactly the same path, key, and value (by identity) as captured. Values may also be
+ * modified in place after they are returned by {@code VirtualMap.getForModify()}. Such leaves must
+ * be reported using {@link #leafModifiable(VirtualLeafRecord)}, their values are never hashed
+ * speculatively in this copy.
+ *
+ * <p>Internal node hashes aren't computed here. Internal node paths change as leaves are added
+ * and removed, and their hashes depend on all leaves below them, so they are only known once the
+ * copy is immutable.
+ *
+ * <p>This class is thread safe.
+ *
+ * @param <K>
+ * 		The {@link VirtualKey} type
+ * @param <V>
+ * 		The {@link VirtualValue} type
+ */
+public final class SpeculativeLeafHasher<K extends VirtualKey, V extends VirtualValue> {
+
+    /**
+     * Leaf snapshot taken when the leaf was updated, and its hash, once computed.
+     */
+    private static final class LeafHash<K extends VirtualKey, V extends VirtualValue> {
+        private final VirtualLeafRecord<K, V> leaf;
+        private volatile Hash hash;
+
+        LeafHash(final VirtualLeafRecord<K, V> leaf) {
+            this.leaf = leaf;
+        }
+    }
+
+    /**
+     * Speculative leaf hashes, by leaf path.
+     */
+    private final ConcurrentHashMap<Long, LeafHash<K, V>> leafHashes = new ConcurrentHashMap<>();
+
+    /**
+     * Values returned for modification in this copy. They may be changed in place at any moment,
+     * so their hashes can't be computed in advance.
+     */
+    private final Set<V> modifiableValues =
+            Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Schedules a dirty leaf for hashing. Must be called every time a leaf is put to the node
+     * cache, including when an existing leaf is moved to a new path.
+     *
+     * @param leaf
+     * 		the updated leaf
+     */
+    public void leafUpdated(@NonNull final VirtualLeafRecord<K, V> leaf) {
+        final V value = leaf.getValue();
+        if ((value != null) && modifiableValues.contains(value)) {
+            return;
+        }
+        // Leaf path may be changed later, take a snapshot
+        final long path = leaf.getPath();
+        final LeafHash<K, V> leafHash = new LeafHash<>(new VirtualLeafRecord<>(path, leaf.getKey(), value));
+        leafHashes.put(path, leafHash);
+        VirtualHasher.getHashingPool().execute(() -> {
+            try {
+                leafHash.hash = CryptographyHolder.get().digestSync(leafHash.leaf);
+            } catch (final RuntimeException e) {
+                // The value may have been modified concurrently. Not a problem, the hash
+                // isn't used in this case, and the leaf is hashed by VirtualHasher later
+            }
+        });
+    }
+
+    /**
+     * Notifies this hasher that the leaf value may be modified in place, and its hash can't be
+     * computed in advance.
+     *
+     * @param leaf
+     * 		the leaf, which value is returned for modification
+     */
+    public void leafModifiable(@NonNull final VirtualLeafRecord<K, V> leaf) {
+        final V value = leaf.getValue();
+        if (value != null) {
+            modifiableValues.add(value);
+        }
+        leafHashes.remove(leaf.getPath());
+    }
+
+    /**
+     * Returns a speculatively computed hash for the given leaf, if available and still valid.
+     *
+     * @param leaf
+     * 		the leaf to hash
+     * @return the leaf hash, or null if the leaf has to be hashed
+     */
+    @Nullable
+    Hash getLeafHash(@NonNull final VirtualLeafRecord<K, V> leaf) {
+        final LeafHash<K, V> leafHash = leafHashes.get(leaf.getPath());
+        final Hash hash = (leafHash != null) ? leafHash.hash : null;
+        if ((hash != null)
+                && (leafHash.leaf.getKey() == leaf.getKey())
+                && (leafHash.leaf.getValue() == leaf.getValue())
+                && ((leaf.getValue() == null) || !modifiableValues.contains(leaf.getValue()))) {
+            hits.increment();
+            return hash;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Gets the number of leaves hashed using speculative hashes.
+     *
+     * @return the number of leaf hashes reused
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of leaves, which weren't hashed in advance and had to be hashed by
+     * {@link VirtualHasher}.
+     *
+     * @return the number of leaf hashes computed on the critical path
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Releases all speculative hashes. Called when the copy is hashed.
+     */
+    public void clear() {
+        leafHashes.clear();
+        modifiableValues.clear();
+    }
+}
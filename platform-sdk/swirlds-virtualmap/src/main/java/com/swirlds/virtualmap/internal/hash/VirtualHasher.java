@@ -80,6 +80,12 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
      */
     private VirtualHashListener<K, V> listener;
 
+    /**
+     * Leaf hashes computed while the virtual map copy was mutable, or null if not available.
+     * Stored in a class field to avoid passing it as an arg to every hashing task.
+     */
+    private SpeculativeLeafHasher<K, V> speculativeLeafHasher;
+
     /**
      * An instance of {@link Cryptography} used to hash leaves. This should be a static final
      * field, but it doesn't work very well as platform configs aren't loaded at the time when
@@ -99,7 +105,7 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
 
     private static volatile ForkJoinPool hashingPool = null;
 
-    private static ForkJoinPool getHashingPool() {
+    static ForkJoinPool getHashingPool() {
         ForkJoinPool pool = hashingPool;
         if (pool == null) {
             synchronized (VirtualHasher.class) {
@@ -216,7 +222,9 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
             try {
                 final Hash hash;
                 if (leaf != null) {
-                    hash = cryptography.digestSync(leaf);
+                    final Hash speculativeHash =
+                            (speculativeLeafHasher != null) ? speculativeLeafHasher.getLeafHash(leaf) : null;
+                    hash = (speculativeHash != null) ? speculativeHash : cryptography.digestSync(leaf);
                     listener.onLeafHashed(leaf);
                     listener.onNodeHashed(path, hash);
                 } else {
@@ -282,7 +290,35 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
             final Iterator<VirtualLeafRecord<K, V>> sortedDirtyLeaves,
             final long firstLeafPath,
             final long lastLeafPath,
-            VirtualHashListener<K, V> listener) {
+            final VirtualHashListener<K, V> listener) {
+        return hash(hashReader, sortedDirtyLeaves, firstLeafPath, lastLeafPath, listener, null);
+    }
+
+    /**
+     * Hash the given dirty leaves and the minimal subset of the tree necessary to produce a single root hash.
+     * Leaf hashes already computed by the given speculative leaf hasher are reused rather than recomputed.
+     *
+     * @param hashReader
+     * 		Return a {@link Hash} by path. Used when this method needs to look up clean nodes.
+     * @param sortedDirtyLeaves
+     * 		A stream of dirty leaves sorted in <strong>ASCENDING PATH ORDER</strong>
+     * @param firstLeafPath
+     * 		The firstLeafPath of the tree that is being hashed
+     * @param lastLeafPath
+     * 		The lastLeafPath of the tree that is being hashed
+     * @param listener
+     * 		Hashing listener, may be null
+     * @param speculativeLeafHasher
+     * 		Leaf hashes computed before the copy was made immutable, may be null
+     * @return The hash of the root of the tree
+     */
+    public Hash hash(
+            final LongFunction<Hash> hashReader,
+            final Iterator<VirtualLeafRecord<K, V>> sortedDirtyLeaves,
+            final long firstLeafPath,
+            final long lastLeafPath,
+            VirtualHashListener<K, V> listener,
+            final SpeculativeLeafHasher<K, V> speculativeLeafHasher) {
 
         // If the first or last leaf path are invalid, then there is nothing to hash.
         if (firstLeafPath < 1 || lastLeafPath < 1) {
@@ -303,6 +339,7 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
 
         this.hashReader = hashReader;
         this.listener = listener;
+        this.speculativeLeafHasher = speculativeLeafHasher;
         this.cryptography = CryptographyHolder.get();
         final Hash NULL_HASH = cryptography.getNullHash();
 
@@ -513,6 +550,7 @@ public final class VirtualHasher<K extends VirtualKey, V extends VirtualValue> {
 
         this.hashReader = null;
         this.listener = null;
+        this.speculativeLeafHasher = null;
 
         return resultTask.ins[0];
     }
@@ -70,6 +70,7 @@ import com.swirlds.virtualmap.datasource.VirtualLeafRecord;
 import com.swirlds.virtualmap.internal.RecordAccessor;
 import com.swirlds.virtualmap.internal.VirtualStateAccessor;
 import com.swirlds.virtualmap.internal.cache.VirtualNodeCache;
+import com.swirlds.virtualmap.internal.hash.SpeculativeLeafHasher;
 import com.swirlds.virtualmap.internal.hash.VirtualHashListener;
 import com.swirlds.virtualmap.internal.hash.VirtualHasher;
 import com.swirlds.virtualmap.internal.pipeline.VirtualPipeline;
@@ -246,6 +247,13 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
      */
     private final VirtualHasher<K, V> hasher;
 
+    /**
+     * Hashes dirty leaves in background while this copy is mutable, if enabled in the config. Set
+     * to null once this copy is hashed.
+     */
+    private volatile SpeculativeLeafHasher<K, V> speculativeLeafHasher =
+            config.speculativeLeafHashing() ? new SpeculativeLeafHasher<>() : null;
+
     /**
      * The {@link VirtualPipeline}, shared across all copies of a given {@link VirtualRootNode}, maintains the
      * lifecycle of the nodes, making sure they are merged or flushed or hashed in order and according to the
@@ -814,6 +822,9 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
         try {
             final VirtualLeafRecord<K, V> rec = records.findLeafRecord(key, true);
             statistics.countUpdatedEntities();
+            if ((rec != null) && (speculativeLeafHasher != null)) {
+                speculativeLeafHasher.leafModifiable(rec);
+            }
             return rec == null ? null : rec.getValue();
         } finally {
             assert currentModifyingThreadRef.compareAndSet(Thread.currentThread(), null);
@@ -864,7 +875,7 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
             }
 
             final VirtualLeafRecord<K, V> leaf = new VirtualLeafRecord<>(path, key, value);
-            cache.putLeaf(leaf);
+            putLeaf(leaf);
             statistics.countUpdatedEntities();
         } finally {
             assert currentModifyingThreadRef.compareAndSet(Thread.currentThread(), null);
@@ -938,7 +949,7 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
                 assert lastLeaf != null;
                 cache.clearLeafPath(lastLeafPath);
                 lastLeaf.setPath(leafToDeletePath);
-                cache.putLeaf(lastLeaf);
+                putLeaf(lastLeaf);
                 // NOTE: at this point, if leafToDelete was in the cache at some "path" index, it isn't anymore!
                 // The lastLeaf has taken its place in the path index.
             }
@@ -963,7 +974,7 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
                 cache.clearLeafPath(lastLeafSibling);
                 cache.deleteHash(lastLeafParent);
                 sibling.setPath(lastLeafParent);
-                cache.putLeaf(sibling);
+                putLeaf(sibling);
 
                 // Update the first & last leaf paths
                 state.setFirstLeafPath(lastLeafParent); // replaced by the sibling, it is now first
@@ -1303,13 +1314,19 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
                 cache.putHash(path, hash);
             }
         };
+        final SpeculativeLeafHasher<K, V> leafHasher = speculativeLeafHasher;
         Hash virtualHash = hasher.hash(
                 records::findHash,
                 cache.dirtyLeavesForHash(state.getFirstLeafPath(), state.getLastLeafPath())
                         .iterator(),
                 state.getFirstLeafPath(),
                 state.getLastLeafPath(),
-                hashListener);
+                hashListener,
+                leafHasher);
+        if (leafHasher != null) {
+            leafHasher.clear();
+            speculativeLeafHasher = null;
+        }
 
         if (virtualHash == null) {
             final Hash rootHash = (state.size() == 0) ? null : records.findHash(0);
@@ -1655,7 +1672,7 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
             Objects.requireNonNull(oldLeaf);
             cache.clearLeafPath(firstLeafPath);
             oldLeaf.setPath(getLeftChildPath(firstLeafPath));
-            cache.putLeaf(oldLeaf);
+            putLeaf(oldLeaf);
 
             // Create a new internal node that is in the position of the old leaf and attach it to the parent
             // on the left side. Put the new item on the right side of the new parent.
@@ -1668,7 +1685,7 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
         statistics.setSize(state.size());
 
         final VirtualLeafRecord<K, V> newLeaf = new VirtualLeafRecord<>(leafPath, key, value);
-        cache.putLeaf(newLeaf);
+        putLeaf(newLeaf);
     }
 
     /**
@@ -1688,12 +1705,28 @@ public final class VirtualRootNode<K extends VirtualKey, V extends VirtualValue>
         final VirtualLeafRecord<K, V> rec = records.findLeafRecord(key, true);
         if (rec != null) {
             rec.setValue(value);
+            if (speculativeLeafHasher != null) {
+                speculativeLeafHasher.leafUpdated(rec);
+            }
             return true;
         }
 
         return false;
     }
 
+    /**
+     * Puts the leaf to the node cache and, if enabled, schedules it for speculative hashing.
+     *
+     * @param leaf
+     * 		The leaf to put. Cannot be null.
+     */
+    private void putLeaf(final VirtualLeafRecord<K, V> leaf) {
+        cache.putLeaf(leaf);
+        if (speculativeLeafHasher != null) {
+            speculativeLeafHasher.leafUpdated(leaf);
+        }
+    }
+
     @Override
     public long getFastCopyVersion() {
         return fastCopyVersion;
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2024 Hedera Hashgraph, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.swirlds.virtualmap.internal.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Tags;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentLongObjectMapTest {
+
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("VirtualNodeCache")})
+    @DisplayName("The number of segments must be a power of two")
+    void invalidSegmentsCountThrows() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentLongObjectMap<String>(0), "Expected IAE");
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentLongObjectMap<String>(3), "Expected IAE");
+    }
+
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("VirtualNodeCache")})
+    @DisplayName("Empty key marker cannot be used as a key")
+    void emptyKeyThrows() {
+        final ConcurrentLongObjectMap<String> map = new ConcurrentLongObjectMap<>();
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> map.put(ConcurrentLongObjectMap.EMPTY_KEY, "A"),
+                "Expected IAE");
+    }
+
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("VirtualNodeCache")})
+    @DisplayName("Put, get, compute, and remove")
+    void putGetComputeRemove() {
+        final ConcurrentLongObjectMap<String> map = new ConcurrentLongObjectMap<>();
+        assertNull(map.get(1), "No mapping expected");
+        map.put(1, "A");
+        assertEquals("A", map.get(1), "Wrong value");
+        assertEquals(1, map.size(), "Wrong size");
+
+        assertEquals("AB", map.compute(1, (k, v) -> v + "B"), "Wrong computed value");
+        assertEquals("AB", map.get(1), "Wrong value");
+        assertEquals("C", map.compute(2, (k, v) -> v == null ? "C" : v), "Wrong computed value");
+        assertEquals(2, map.size(), "Wrong size");
+
+        assertNull(map.compute(1, (k, v) -> null), "Mapping must be removed");
+        assertNull(map.get(1), "No mapping expected");
+        assertEquals(1, map.size(), "Wrong size");
+
+        // Removed slot is reused
+        map.put(1, "D");
+        assertEquals("D", map.get(1), "Wrong value");
+        assertEquals(2, map.size(), "Wrong size");
+    }
+
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("VirtualNodeCache")})
+    @DisplayName("Mappings survive rehashing")
+    void manyMappings() {
+        final int count = 100_000;
+        final ConcurrentLongObjectMap<Long> map = new ConcurrentLongObjectMap<>();
+        for (long i = 0; i < count; i++) {
+            map.put(i, i * 2);
+        }
+        assertEquals(count, map.size(), "Wrong size");
+        // Remove every other mapping, then add more to trigger rehashing with removed slots
+        for (long i = 0; i < count; i += 2) {
+            map.compute(i, (k, v) -> null);
+        }
+        for (long i = count; i < count * 2; i++) {
+            map.put(i, i * 2);
+        }
+        assertEquals(count + count / 2, map.size(), "Wrong size");
+        for (long i = 0; i < count * 2; i++) {
+            if ((i < count) && (i % 2 == 0)) {
+                assertNull(map.get(i), "No mapping expected");
+            } else {
+                assertEquals(i * 2, map.get(i), "Wrong value");
+            }
+        }
+        final Map<Long, Long> visited = new HashMap<>();
+        map.forEach((k, v) -> visited.put(k, v));
+        assertEquals(count + count / 2, visited.size(), "Wrong number of visited mappings");
+        visited.forEach((k, v) -> assertEquals(k * 2, v, "Wrong visited value"));
+    }
+
+    @Test
+    @Tags({@Tag("VirtualMerkle"), @Tag("VirtualNodeCache")})
+    @DisplayName("Concurrent updates to the same keys")
+    void concurrentCompute() throws Exception {
+        final int threads = 8;
+        final int keys = 10_000;
+        final ConcurrentLongObjectMap<Integer> map = new ConcurrentLongObjectMap<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                futures[t] = executor.submit(() -> {
+                    for (long k = 0; k < keys; k++) {
+                        map.compute(k, (key, v) -> v == null ? 1 : v + 1);
+                        map.get(k);
+                    }
+                });
+            }
+            for (final Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(keys, map.size(), "Wrong size");
+        for (long k = 0; k < keys; k++) {
+            assertEquals(threads, map.get(k), "Wrong value");
+        }
+    }
+}
@@ -39,6 +39,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.LongFunction;
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
@@ -285,6 +286,31 @@ class VirtualHasherTest extends VirtualHasherTestBase {
         }
     }
 
+    /**
+     * Leaf hashes computed in advance by {@link SpeculativeLeafHasher} must produce the same root
+     * hash. Leaves with values returned for modification must not be reused.
+     */
+    @Test
+    @Tag(TestComponentTags.VMAP)
+    @DisplayName("Speculative leaf hashes are reused")
+    void speculativeLeafHashes() {
+        final TestDataSource ds = new TestDataSource(52L, 104L);
+        final VirtualHasher<TestKey, TestValue> hasher = new VirtualHasher<>();
+        final Hash expected = hashTree(ds);
+        final List<Long> dirtyLeafPaths = List.of(53L, 56L, 59L, 63L, 66L, 72L, 76L, 77L, 80L, 100L, 104L);
+
+        final List<VirtualLeafRecord<TestKey, TestValue>> leaves = invalidateNodes(ds, dirtyLeafPaths.stream());
+        final SpeculativeLeafHasher<TestKey, TestValue> leafHasher = new SpeculativeLeafHasher<>();
+        leaves.forEach(leafHasher::leafUpdated);
+        leafHasher.leafModifiable(leaves.get(0));
+        VirtualHasher.getHashingPool().awaitQuiescence(1, TimeUnit.MINUTES);
+
+        final Hash rootHash = hasher.hash(ds::loadHash, leaves.iterator(), 52L, 104L, null, leafHasher);
+        assertEquals(expected, rootHash, "Expected equals");
+        assertEquals(leaves.size() - 1, leafHasher.getHits(), "All leaves but one should be hashed in advance");
+        assertEquals(1, leafHasher.getMisses(), "Modifiable leaf should be hashed by the hasher");
+    }
+
     /**
      * Test that the various callbacks on the listener are called the expected number of times.
      * For this test, I'm using our "canonical" example. I wish I could post the image directly